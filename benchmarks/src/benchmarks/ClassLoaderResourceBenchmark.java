@@ -16,12 +16,57 @@
 
 package benchmarks;
 
+import com.google.caliper.Param;
+import dalvik.system.DexPathList;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 import junit.framework.Assert;
 
 public class ClassLoaderResourceBenchmark {
 
   private static final String EXISTENT_RESOURCE = "java/util/logging/logging.properties";
   private static final String MISSING_RESOURCE = "missing_entry";
+  private static final int ENTRIES_PER_ELEMENT = 200;
+
+  @Param({"1", "16", "64"}) private int elementCount;
+  @Param private boolean indexed;
+
+  private File tmpDir;
+  private DexPathList pathList;
+  private String lastElementResource;
+
+  protected void setUp() throws Exception {
+    tmpDir = File.createTempFile("ClassLoaderResourceBenchmark", null);
+    tmpDir.delete();
+    tmpDir.mkdir();
+
+    for (int i = 0; i < elementCount; i++) {
+      File jar = new File(tmpDir, "element" + i + ".jar");
+      try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+        for (int j = 0; j < ENTRIES_PER_ELEMENT; j++) {
+          out.putNextEntry(new ZipEntry("res/element" + i + "/entry" + j + ".txt"));
+          out.write(new byte[] { (byte) j });
+          out.closeEntry();
+        }
+      }
+    }
+    lastElementResource = "res/element" + (elementCount - 1) + "/entry0.txt";
+
+    pathList = new DexPathList(getClass().getClassLoader(), joinElementPaths(), null, null);
+    pathList.setLookupIndexEnabled(indexed);
+  }
+
+  protected void tearDown() throws Exception {
+    for (File file : tmpDir.listFiles()) {
+      file.delete();
+    }
+    tmpDir.delete();
+  }
 
   public void timeGetBootResource_hit(int reps) {
     ClassLoader currentClassLoader = getClass().getClassLoader();
@@ -41,4 +86,58 @@ public class ClassLoaderResourceBenchmark {
     }
   }
 
+  public void timeDexPathListFindResource_hitLastElement(int reps) {
+    Assert.assertNotNull(pathList.findResource(lastElementResource));
+
+    for (int rep = 0; rep < reps; ++rep) {
+      pathList.findResource(lastElementResource);
+    }
+  }
+
+  public void timeDexPathListFindResource_miss(int reps) {
+    Assert.assertNull(pathList.findResource(MISSING_RESOURCE));
+
+    for (int rep = 0; rep < reps; ++rep) {
+      pathList.findResource(MISSING_RESOURCE);
+    }
+  }
+
+  public void timeDexPathListFindClass_miss(int reps) {
+    List<Throwable> suppressed = new ArrayList<>();
+    Assert.assertNull(pathList.findClass("missing.Class", suppressed));
+
+    for (int rep = 0; rep < reps; ++rep) {
+      suppressed.clear();
+      pathList.findClass("missing.Class", suppressed);
+    }
+  }
+
+  public void timeDexPathListFindResources_hit(int reps) {
+    Assert.assertEquals(1, Collections.list(pathList.findResources(lastElementResource)).size());
+
+    for (int rep = 0; rep < reps; ++rep) {
+      pathList.findResources(lastElementResource);
+    }
+  }
+
+  /** Measures the first lookup after creating the path list, which builds the index if enabled. */
+  public void timeDexPathListFindResource_firstLookup(int reps) throws Exception {
+    for (int rep = 0; rep < reps; ++rep) {
+      DexPathList fresh = new DexPathList(getClass().getClassLoader(),
+          joinElementPaths(), null, null);
+      fresh.setLookupIndexEnabled(indexed);
+      fresh.findResource(lastElementResource);
+    }
+  }
+
+  private String joinElementPaths() {
+    StringBuilder dexPath = new StringBuilder();
+    for (int i = 0; i < elementCount; i++) {
+      if (i > 0) {
+        dexPath.append(File.pathSeparatorChar);
+      }
+      dexPath.append(new File(tmpDir, "element" + i + ".jar").getPath());
+    }
+    return dexPath.toString();
+  }
 }
@@ -16,9 +16,15 @@
 
 package benchmarks;
 
+import com.google.caliper.AfterExperiment;
 import com.google.caliper.BeforeExperiment;
 import com.google.caliper.Benchmark;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import libcore.icu.LocaleData;
 
 public final class LocaleDataBenchmark {
@@ -30,6 +36,20 @@ public final class LocaleDataBenchmark {
         Locale.forLanguageTag("zh-CN"),
     };
 
+    private static final int THREAD_COUNT = 4;
+
+    private ExecutorService executor;
+
+    @BeforeExperiment
+    protected void setUp() {
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        executor.shutdown();
+    }
+
     public void timeInitLocaleData(int reps) {
         for (int rep = 0; rep < reps; ++rep) {
             for (Locale locale : TEST_LOCALES) {
@@ -37,4 +57,24 @@ public final class LocaleDataBenchmark {
             }
         }
     }
+
+    public void timeGet(int reps) {
+        for (int rep = 0; rep < reps; ++rep) {
+            for (Locale locale : TEST_LOCALES) {
+                LocaleData.get(locale);
+            }
+        }
+    }
+
+    // Each of THREAD_COUNT threads does reps lookups of the cached locales at the same time, as
+    // formatters created on several threads do.
+    public void timeGet_contended(int reps) throws Exception {
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(() -> timeGet(reps)));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
 }
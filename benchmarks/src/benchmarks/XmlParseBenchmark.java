@@ -22,7 +22,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 import javax.xml.parsers.DocumentBuilder;
@@ -41,6 +43,9 @@ public class XmlParseBenchmark {
     @Param String xmlFile;
     ByteArrayInputStream inputStream;
 
+    /** The KXmlParser buffer size, in chars for Reader input and bytes for UTF-8 input. */
+    @Param({"8192"}) int kxmlBufferSize;
+
     static List<String> xmlFileValues = Arrays.asList(
             "/etc/apns-conf.xml",
             "/etc/media_profiles.xml",
@@ -51,6 +56,7 @@ public class XmlParseBenchmark {
     private DocumentBuilder documentBuilder;
     private Constructor<? extends XmlPullParser> kxmlConstructor;
     private Constructor<? extends XmlPullParser> expatConstructor;
+    private Method kxmlSetBufferSize;
 
     @SuppressWarnings("unchecked")
     @BeforeExperiment
@@ -69,6 +75,8 @@ public class XmlParseBenchmark {
                 .getConstructor();
         expatConstructor = (Constructor) Class.forName("org.apache.harmony.xml.ExpatPullParser")
                 .getConstructor();
+        kxmlSetBufferSize = kxmlConstructor.getDeclaringClass()
+                .getMethod("setBufferSize", int.class);
     }
 
     private byte[] getXmlBytes() throws IOException {
@@ -131,6 +139,36 @@ public class XmlParseBenchmark {
         return testXmlPull(kxmlConstructor, reps);
     }
 
+    /**
+     * Parses UTF-8 input with KXmlParser's built-in decoder. Divide the file
+     * size by the time per rep for throughput, and compare with
+     * {@link #timeKxmlInputStreamReader}.
+     */
+    public int timeKxmlUtf8Bytes(int reps) throws Exception {
+        int elementCount = 0;
+        for (int i = 0; i < reps; i++) {
+            inputStream.reset();
+            XmlPullParser xmlPullParser = kxmlConstructor.newInstance();
+            kxmlSetBufferSize.invoke(xmlPullParser, kxmlBufferSize);
+            xmlPullParser.setInput(inputStream, "UTF-8");
+            elementCount += countStartTags(xmlPullParser);
+        }
+        return elementCount;
+    }
+
+    /** Parses UTF-8 input decoded by an InputStreamReader. */
+    public int timeKxmlInputStreamReader(int reps) throws Exception {
+        int elementCount = 0;
+        for (int i = 0; i < reps; i++) {
+            inputStream.reset();
+            XmlPullParser xmlPullParser = kxmlConstructor.newInstance();
+            kxmlSetBufferSize.invoke(xmlPullParser, kxmlBufferSize);
+            xmlPullParser.setInput(new InputStreamReader(inputStream, "UTF-8"));
+            elementCount += countStartTags(xmlPullParser);
+        }
+        return elementCount;
+    }
+
     private int testXmlPull(Constructor<? extends XmlPullParser> constructor, int reps)
             throws Exception {
         int elementCount = 0;
@@ -138,11 +176,17 @@ public class XmlParseBenchmark {
             inputStream.reset();
             XmlPullParser xmlPullParser = constructor.newInstance();
             xmlPullParser.setInput(inputStream, "UTF-8");
-            int type;
-            while ((type = xmlPullParser.next()) != XmlPullParser.END_DOCUMENT) {
-                if (type == XmlPullParser.START_TAG) {
-                    elementCount++;
-                }
+            elementCount += countStartTags(xmlPullParser);
+        }
+        return elementCount;
+    }
+
+    private static int countStartTags(XmlPullParser xmlPullParser) throws Exception {
+        int elementCount = 0;
+        int type;
+        while ((type = xmlPullParser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (type == XmlPullParser.START_TAG) {
+                elementCount++;
             }
         }
         return elementCount;
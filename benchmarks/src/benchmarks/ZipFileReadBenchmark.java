@@ -16,21 +16,31 @@
 
 package benchmarks;
 
+import com.google.caliper.AfterExperiment;
 import com.google.caliper.BeforeExperiment;
 import com.google.caliper.Param;
 import java.io.File;
 import java.io.InputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
 
 public class ZipFileReadBenchmark {
+    private static final int THREAD_COUNT = 4;
+
     private File file;
+    private ExecutorService executor;
     @Param({"1024", "16384", "65536"}) int readBufferSize;
 
     @BeforeExperiment
@@ -43,6 +53,12 @@ public class ZipFileReadBenchmark {
             ZipEntry zipEntry = e.nextElement();
         }
         zipFile.close();
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        executor.shutdown();
     }
 
     /**
@@ -75,16 +91,63 @@ public class ZipFileReadBenchmark {
         byte readBuffer[] = new byte[readBufferSize];
         for (int i = 0; i < reps; ++i) {
             ZipFile zipFile = new ZipFile(file);
-            for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements(); ) {
-                ZipEntry zipEntry = e.nextElement();
-                InputStream is = zipFile.getInputStream(zipEntry);
-                while (true) {
-                    if (is.read(readBuffer, 0, readBuffer.length) < 0) {
-                        break;
+            readEntries(zipFile, readBuffer);
+            zipFile.close();
+        }
+    }
+
+    public void timeZipFileReadMapped(int reps) throws Exception {
+        byte readBuffer[] = new byte[readBufferSize];
+        for (int i = 0; i < reps; ++i) {
+            ZipFile zipFile = new ZipFile(file, ZipFile.OPEN_READ | ZipFile.OPEN_MAPPED);
+            readEntries(zipFile, readBuffer);
+            zipFile.close();
+        }
+    }
+
+    public void timeZipFileReadConcurrent(int reps) throws Exception {
+        ZipFile zipFile = new ZipFile(file);
+        readConcurrently(zipFile, reps);
+        zipFile.close();
+    }
+
+    public void timeZipFileReadMappedConcurrent(int reps) throws Exception {
+        ZipFile zipFile = new ZipFile(file, ZipFile.OPEN_READ | ZipFile.OPEN_MAPPED);
+        readConcurrently(zipFile, reps);
+        zipFile.close();
+    }
+
+    /**
+     * Reads all the entries of the given zip file on each of THREAD_COUNT threads, reps times.
+     */
+    private void readConcurrently(final ZipFile zipFile, final int reps) throws Exception {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < THREAD_COUNT; ++t) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override public Void call() throws Exception {
+                    byte readBuffer[] = new byte[readBufferSize];
+                    for (int i = 0; i < reps; ++i) {
+                        readEntries(zipFile, readBuffer);
                     }
+                    return null;
+                }
+            }));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    private static void readEntries(ZipFile zipFile, byte[] readBuffer) throws IOException {
+        for (Enumeration<? extends ZipEntry> e = zipFile.entries(); e.hasMoreElements(); ) {
+            ZipEntry zipEntry = e.nextElement();
+            InputStream is = zipFile.getInputStream(zipEntry);
+            while (true) {
+                if (is.read(readBuffer, 0, readBuffer.length) < 0) {
+                    break;
                 }
             }
-            zipFile.close();
+            is.close();
         }
     }
 }
@@ -16,10 +16,48 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.zip.Adler32;
 import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
 
 public class ChecksumBenchmark {
+    private static final int BUFFER_SIZE = 10000;
+    private static final int SMALL_BUFFER_SIZE = 64;
+
+    private ByteBuffer heapBuffer;
+    private ByteBuffer directBuffer;
+    private ByteBuffer mappedBuffer;
+    private ByteBuffer[] smallBuffers;
+    private File mappedFile;
+    private RandomAccessFile mappedRaf;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        heapBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+        directBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        mappedFile = File.createTempFile("ChecksumBenchmark", ".tmp");
+        mappedRaf = new RandomAccessFile(mappedFile, "rw");
+        mappedRaf.setLength(BUFFER_SIZE);
+        mappedBuffer = mappedRaf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, BUFFER_SIZE);
+        // The same number of bytes as the other buffers, in many small buffers.
+        smallBuffers = new ByteBuffer[BUFFER_SIZE / SMALL_BUFFER_SIZE];
+        for (int i = 0; i < smallBuffers.length; i++) {
+            smallBuffers[i] = ByteBuffer.allocate(SMALL_BUFFER_SIZE);
+        }
+    }
+
+    @AfterExperiment
+    protected void tearDown() throws Exception {
+        mappedRaf.close();
+        mappedFile.delete();
+    }
+
     public void timeAdler_block(int reps) throws Exception {
         byte[] bytes = new byte[10000];
         Adler32 adler = new Adler32();
@@ -46,4 +84,125 @@ public class ChecksumBenchmark {
             crc.update(1);
         }
     }
+    public void timeCrc32c_block(int reps) throws Exception {
+        byte[] bytes = new byte[10000];
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(bytes);
+        }
+    }
+    public void timeCrc32c_byte(int reps) throws Exception {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(1);
+        }
+    }
+
+    public void timeAdler_heapBuffer(int reps) throws Exception {
+        Adler32 adler = new Adler32();
+        for (int i = 0; i < reps; ++i) {
+            adler.update(heapBuffer.duplicate());
+        }
+    }
+    public void timeAdler_directBuffer(int reps) throws Exception {
+        Adler32 adler = new Adler32();
+        for (int i = 0; i < reps; ++i) {
+            adler.update(directBuffer.duplicate());
+        }
+    }
+    public void timeAdler_mappedBuffer(int reps) throws Exception {
+        Adler32 adler = new Adler32();
+        for (int i = 0; i < reps; ++i) {
+            adler.update(mappedBuffer.duplicate());
+        }
+    }
+    public void timeCrc_heapBuffer(int reps) throws Exception {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(heapBuffer.duplicate());
+        }
+    }
+    public void timeCrc_directBuffer(int reps) throws Exception {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(directBuffer.duplicate());
+        }
+    }
+    public void timeCrc_mappedBuffer(int reps) throws Exception {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(mappedBuffer.duplicate());
+        }
+    }
+    public void timeCrc32c_heapBuffer(int reps) throws Exception {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(heapBuffer.duplicate());
+        }
+    }
+    public void timeCrc32c_directBuffer(int reps) throws Exception {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(directBuffer.duplicate());
+        }
+    }
+    public void timeCrc32c_mappedBuffer(int reps) throws Exception {
+        CRC32C crc = new CRC32C();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(mappedBuffer.duplicate());
+        }
+    }
+
+    // Many small buffers, one update each, against a single bulk update.
+    public void timeAdler_smallBuffers(int reps) throws Exception {
+        Adler32 adler = new Adler32();
+        for (int i = 0; i < reps; ++i) {
+            for (ByteBuffer buffer : smallBuffers) {
+                adler.update(buffer);
+                buffer.rewind();
+            }
+        }
+    }
+    public void timeAdler_smallBuffersBulk(int reps) throws Exception {
+        Adler32 adler = new Adler32();
+        for (int i = 0; i < reps; ++i) {
+            adler.update(smallBuffers);
+            rewind(smallBuffers);
+        }
+    }
+    public void timeCrc_smallBuffers(int reps) throws Exception {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < reps; ++i) {
+            for (ByteBuffer buffer : smallBuffers) {
+                crc.update(buffer);
+                buffer.rewind();
+            }
+        }
+    }
+    public void timeCrc_smallBuffersBulk(int reps) throws Exception {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < reps; ++i) {
+            crc.update(smallBuffers);
+            rewind(smallBuffers);
+        }
+    }
+
+    public void timeCrc_combine(int reps) throws Exception {
+        long crc = 0;
+        for (int i = 0; i < reps; ++i) {
+            crc = CRC32.combine(crc, i, BUFFER_SIZE);
+        }
+    }
+    public void timeAdler_combine(int reps) throws Exception {
+        long adler = 1;
+        for (int i = 0; i < reps; ++i) {
+            adler = Adler32.combine(adler, i, BUFFER_SIZE);
+        }
+    }
+
+    private static void rewind(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            buffer.rewind();
+        }
+    }
 }
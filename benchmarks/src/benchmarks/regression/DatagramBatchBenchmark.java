@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.Param;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import sun.nio.ch.DatagramBatch;
+
+/**
+ * Compares sending and receiving datagrams over loopback one at a time with doing so in
+ * batches of one recvmmsg/sendmmsg call each.
+ */
+public class DatagramBatchBenchmark {
+
+    @Param({"1", "8", "32"}) private int batchSize;
+    @Param({"64", "1024"}) private int datagramSize;
+    @Param private boolean direct;
+
+    private DatagramChannel sender;
+    private DatagramChannel receiver;
+    private SocketAddress receiverAddress;
+    private ByteBuffer[] buffers;
+    private SocketAddress[] targets;
+    private SocketAddress[] senders;
+
+    protected void setUp() throws Exception {
+        InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        receiver = DatagramChannel.open().bind(loopback);
+        sender = DatagramChannel.open().bind(loopback);
+        receiverAddress = receiver.getLocalAddress();
+
+        buffers = new ByteBuffer[batchSize];
+        targets = new SocketAddress[batchSize];
+        senders = new SocketAddress[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            buffers[i] = direct
+                    ? ByteBuffer.allocateDirect(datagramSize)
+                    : ByteBuffer.allocate(datagramSize);
+            targets[i] = receiverAddress;
+        }
+    }
+
+    protected void tearDown() throws Exception {
+        sender.close();
+        receiver.close();
+    }
+
+    public void timeSendReceive_single(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            for (ByteBuffer buffer : buffers) {
+                buffer.clear();
+                sender.send(buffer, receiverAddress);
+            }
+            for (ByteBuffer buffer : buffers) {
+                buffer.clear();
+                receiver.receive(buffer);
+            }
+        }
+    }
+
+    public void timeSendReceive_batch(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            clearBuffers();
+            DatagramBatch.send(sender, buffers, targets, 0, batchSize);
+            // A blocking batch receive returns once the first datagram arrives, so loop until
+            // the whole batch is in.
+            clearBuffers();
+            int received = 0;
+            while (received < batchSize) {
+                received += DatagramBatch.receive(receiver, buffers, senders, received,
+                        batchSize - received);
+            }
+        }
+    }
+
+    private void clearBuffers() {
+        for (ByteBuffer buffer : buffers) {
+            buffer.clear();
+        }
+    }
+}
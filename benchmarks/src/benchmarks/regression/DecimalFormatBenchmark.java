@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Locale;
+import libcore.util.CompiledNumberFormat;
 
 public class DecimalFormatBenchmark {
 
@@ -18,6 +19,13 @@ public class DecimalFormatBenchmark {
     private static final DecimalFormat dfCurrencyFR = (DecimalFormat)
             NumberFormat.getInstance(Locale.FRANCE);
 
+    private static final CompiledNumberFormat compiled = CompiledNumberFormat.compile(
+            (DecimalFormat) DecimalFormat.getInstance());
+    private static final CompiledNumberFormat compiledCurrencyUS =
+            CompiledNumberFormat.compile(dfCurrencyUS);
+    private static final CompiledNumberFormat compiledCurrencyFR =
+            CompiledNumberFormat.compile(dfCurrencyFR);
+
     private static final BigDecimal BD10E3 = new BigDecimal("10E3");
     private static final BigDecimal BD10E9 = new BigDecimal("10E9");
     private static final BigDecimal BD10E100 = new BigDecimal("10E100");
@@ -66,6 +74,22 @@ public class DecimalFormatBenchmark {
         }
     }
 
+    public static void formatCompiled(CompiledNumberFormat format, double number, int reps) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < reps; i++) {
+            sb.setLength(0);
+            format.format(number, sb);
+        }
+    }
+
+    public static void formatCompiled(CompiledNumberFormat format, long number, int reps) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < reps; i++) {
+            sb.setLength(0);
+            format.format(number, sb);
+        }
+    }
+
     public void time_formatGrouping_BigDecimal10e3(int reps) {
         formatWithGrouping(BD10E3, reps);
     }
@@ -122,6 +146,30 @@ public class DecimalFormatBenchmark {
         formatCurrencyFR(TWO_DP_NUMBER, reps);
     }
 
+    public void time_formatLong(int reps) {
+        format(1234567890L, reps);
+    }
+
+    public void time_formatCompiledLong(int reps) {
+        formatCompiled(compiled, 1234567890L, reps);
+    }
+
+    public void time_formatCompiledPi(int reps) {
+        formatCompiled(compiled, Math.PI, reps);
+    }
+
+    public void time_formatCompiledE(int reps) {
+        formatCompiled(compiled, Math.E, reps);
+    }
+
+    public void time_formatCompiledUsdWithCents(int reps) {
+        formatCompiled(compiledCurrencyUS, TWO_DP_NUMBER, reps);
+    }
+
+    public void time_formatCompiledEurWithCents(int reps) {
+        formatCompiled(compiledCurrencyFR, TWO_DP_NUMBER, reps);
+    }
+
     public void time_formatAsExponent10e3(int reps) {
         format(EXP_PATTERN, BD10E3, reps);
     }
@@ -16,8 +16,14 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
 import com.google.caliper.Param;
 import java.io.File;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -28,6 +34,23 @@ public class JarFileBenchmark {
     })
     private String filename;
 
+    @Param({"1", "4"})
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final byte[] buffer = new byte[8192];
+
+    @BeforeExperiment
+    protected void setUp() {
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        pool.shutdown();
+        JarFile.clearVerificationCache();
+    }
+
     public void time(int reps) throws Exception {
         File f = new File(filename);
         for (int i = 0; i < reps; ++i) {
@@ -36,4 +59,44 @@ public class JarFileBenchmark {
             jf.close();
         }
     }
+
+    /** Verifies every entry serially, by reading each one to the end. */
+    public void timeVerifyLazily(int reps) throws Exception {
+        File f = new File(filename);
+        for (int i = 0; i < reps; ++i) {
+            try (JarFile jf = new JarFile(f)) {
+                Enumeration<JarEntry> entries = jf.entries();
+                while (entries.hasMoreElements()) {
+                    try (InputStream in = jf.getInputStream(entries.nextElement())) {
+                        while (in.read(buffer) != -1) {
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Verifies every entry on the pool, without the cache. */
+    public void timeVerifyAllEntries(int reps) throws Exception {
+        File f = new File(filename);
+        for (int i = 0; i < reps; ++i) {
+            JarFile.clearVerificationCache();
+            try (JarFile jf = new JarFile(f)) {
+                jf.verifyAllEntries(pool);
+            }
+        }
+    }
+
+    /** Opens a jar file that has already been verified. */
+    public void timeVerifyAllEntries_cached(int reps) throws Exception {
+        File f = new File(filename);
+        try (JarFile jf = new JarFile(f)) {
+            jf.verifyAllEntries(pool);
+        }
+        for (int i = 0; i < reps; ++i) {
+            try (JarFile jf = new JarFile(f)) {
+                jf.verifyAllEntries(pool);
+            }
+        }
+    }
 }
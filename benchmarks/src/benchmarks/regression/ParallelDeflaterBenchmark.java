@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import libcore.io.ParallelDeflaterOutputStream;
+
+/**
+ * Compresses a log-like input with GZIPOutputStream and with ParallelDeflaterOutputStream.
+ */
+public class ParallelDeflaterBenchmark {
+    @Param({"32768", "131072", "1048576"}) int blockSize;
+    @Param({"1", "2", "4"}) int parallelism;
+
+    private byte[] data;
+    private ForkJoinPool pool;
+    private ByteArrayOutputStream sink;
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        StringBuilder log = new StringBuilder();
+        Random random = new Random(0);
+        while (log.length() < 8 * 1024 * 1024) {
+            log.append("2026-01-01 00:00:").append(random.nextInt(60))
+                    .append(" I/Tag(").append(random.nextInt(32768)).append("): event ")
+                    .append(Integer.toHexString(random.nextInt())).append('\n');
+        }
+        data = log.toString().getBytes("UTF-8");
+        pool = new ForkJoinPool(parallelism);
+        sink = new ByteArrayOutputStream(data.length);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        pool.shutdown();
+    }
+
+    public void timeGZIPOutputStream(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            sink.reset();
+            write(new GZIPOutputStream(sink, blockSize));
+        }
+    }
+
+    public void timeParallelGzip(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            sink.reset();
+            write(new ParallelDeflaterOutputStream(
+                    sink, true, Deflater.DEFAULT_COMPRESSION, blockSize, pool));
+        }
+    }
+
+    public void timeParallelZlib(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            sink.reset();
+            write(new ParallelDeflaterOutputStream(
+                    sink, false, Deflater.DEFAULT_COMPRESSION, blockSize, pool));
+        }
+    }
+
+    private void write(OutputStream out) throws Exception {
+        for (int offset = 0; offset < data.length; offset += 8192) {
+            out.write(data, offset, Math.min(8192, data.length - offset));
+        }
+        out.close();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import libcore.util.CompiledDateFormat;
 
 /**
  * Benchmark for java.text.SimpleDateFormat. This tests common formatting, parsing and creation
@@ -85,6 +86,42 @@ public class SimpleDateFormatBenchmark {
         }
     }
 
+    // The timestamp pattern of an access log, formatting instants a few milliseconds apart.
+    private static final String ACCESS_LOG_PATTERN = "dd/MMM/yyyy:HH:mm:ss.SSS Z";
+    private static final long ACCESS_LOG_START = 1700000000000L;
+
+    public void time_formatAccessLog_simpleDateFormat(int reps) {
+        SimpleDateFormat sdf = new SimpleDateFormat(ACCESS_LOG_PATTERN, Locale.US);
+        Date date = new Date(ACCESS_LOG_START);
+        for (int i = 0; i < reps; i++) {
+            date.setTime(date.getTime() + 3);
+            sdf.format(date);
+        }
+    }
+
+    public void time_formatAccessLog_compiled(int reps) {
+        CompiledDateFormat format = CompiledDateFormat.compile(
+                new SimpleDateFormat(ACCESS_LOG_PATTERN, Locale.US));
+        StringBuilder sb = new StringBuilder();
+        long millis = ACCESS_LOG_START;
+        for (int i = 0; i < reps; i++) {
+            millis += 3;
+            sb.setLength(0);
+            format.format(millis, sb);
+        }
+    }
+
+    public void time_formatAccessLog_compiledCharArray(int reps) {
+        CompiledDateFormat format = CompiledDateFormat.compile(
+                new SimpleDateFormat(ACCESS_LOG_PATTERN, Locale.US));
+        char[] chars = new char[64];
+        long millis = ACCESS_LOG_START;
+        for (int i = 0; i < reps; i++) {
+            millis += 3;
+            format.format(millis, chars, 0);
+        }
+    }
+
     /**
      * Times first-time execution to measure effects of initial loading of data that's lost in
      * full caliper benchmarks.
@@ -17,6 +17,7 @@
 package benchmarks.regression;
 
 import com.google.caliper.Param;
+import java.util.regex.Pattern;
 
 public class StringReplaceAllBenchmark {
     // NOTE: These estimates of MOVEABLE / NON_MOVEABLE are based on a knowledge of
@@ -73,4 +74,19 @@ public class StringReplaceAllBenchmark {
             s.value.replaceAll("qrst", "0");
         }
     }
+
+    // replaceAll reuses cached patterns. These compare it with compiling the pattern on
+    // every call, which it used to do, and with a pattern compiled up front.
+    public void timeReplaceAllTrivialPatternCompileEachTime(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            Pattern.compile("qrst").matcher(s.value).replaceAll("0");
+        }
+    }
+
+    public void timeReplaceAllTrivialPatternPrecompiled(int reps) {
+        Pattern p = Pattern.compile("qrst");
+        for (int i = 0; i < reps; ++i) {
+            p.matcher(s.value).replaceAll("0");
+        }
+    }
 }
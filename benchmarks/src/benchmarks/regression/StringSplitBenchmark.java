@@ -56,4 +56,19 @@ public class StringSplitBenchmark {
             "this,is,a,harder,example".split("[,]");
         }
     }
+
+    // String.split reuses cached patterns for regexes that aren't on the fast path. This
+    // is what it cost before, when every call compiled its pattern.
+    public void timeStringSplitHardCompileEachTime(int reps) {
+        for (int i = 0; i < reps; ++i) {
+            Pattern.compile("[,]").split("this,is,a,harder,example");
+        }
+    }
+
+    public void timeStringSplitHardPrecompiled(int reps) {
+        Pattern p = Pattern.compile("[,]");
+        for (int i = 0; i < reps; ++i) {
+            p.split("this,is,a,harder,example");
+        }
+    }
 }
@@ -16,9 +16,37 @@
 
 package benchmarks.regression;
 
+import com.google.caliper.AfterExperiment;
+import com.google.caliper.BeforeExperiment;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TimeZoneBenchmark {
+    private static final int THREAD_COUNT = 4;
+
+    // Zones a server might convert dates to on behalf of its users.
+    private static final String[] USER_ZONE_IDS = {
+        "America/Los_Angeles", "America/New_York", "America/Sao_Paulo", "Europe/London",
+        "Europe/Berlin", "Asia/Kolkata", "Asia/Tokyo", "Australia/Sydney",
+    };
+
+    private ExecutorService executor;
+
+    @BeforeExperiment
+    protected void setUp() {
+        executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    }
+
+    @AfterExperiment
+    protected void tearDown() {
+        executor.shutdown();
+    }
+
     public void timeTimeZone_getDefault(int reps) throws Exception {
         for (int rep = 0; rep < reps; ++rep) {
             TimeZone.getDefault();
@@ -57,4 +85,37 @@ public class TimeZoneBenchmark {
             TimeZone.getTimeZone("GMT+10");
         }
     }
+
+    // Each of THREAD_COUNT threads does reps lookups of the users' zones at the same time.
+    public void timeTimeZone_getTimeZone_contended(int reps) throws Exception {
+        runConcurrently(new Callable<Void>() {
+            @Override public Void call() {
+                for (int rep = 0; rep < reps; ++rep) {
+                    TimeZone.getTimeZone(USER_ZONE_IDS[rep % USER_ZONE_IDS.length]);
+                }
+                return null;
+            }
+        });
+    }
+
+    public void timeTimeZone_getDefault_contended(int reps) throws Exception {
+        runConcurrently(new Callable<Void>() {
+            @Override public Void call() {
+                for (int rep = 0; rep < reps; ++rep) {
+                    TimeZone.getDefault();
+                }
+                return null;
+            }
+        });
+    }
+
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        List<Future<Void>> results = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            results.add(executor.submit(task));
+        }
+        for (Future<Void> result : results) {
+            result.get();
+        }
+    }
 }
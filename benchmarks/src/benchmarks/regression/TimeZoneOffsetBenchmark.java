@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Looks up the offsets of a zone at instants a minute apart, as when formatting a stream of
+ * timestamps.
+ */
+public class TimeZoneOffsetBenchmark {
+    enum Instant {
+        RECENT(1700000000000L),       // 2023-11-14
+        HISTORICAL(-1500000000000L),  // 1922-06-20
+        FAR_FUTURE(4200000000000L);   // 2103-02-03
+
+        final long millis;
+
+        Instant(long millis) {
+            this.millis = millis;
+        }
+    }
+
+    private static final long MINUTE = 60 * 1000;
+
+    // A zone with DST, one with a lot of transitions, and one without DST.
+    @Param({"America/Los_Angeles", "America/Santiago", "Asia/Tokyo"}) String zoneId;
+    @Param Instant instant;
+
+    private TimeZone zone;
+
+    @BeforeExperiment
+    protected void setUp() {
+        zone = TimeZone.getTimeZone(zoneId);
+    }
+
+    public int timeGetOffset(int reps) {
+        int result = 0;
+        long when = instant.millis;
+        for (int rep = 0; rep < reps; ++rep) {
+            result += zone.getOffset(when);
+            when += MINUTE;
+        }
+        return result;
+    }
+
+    public boolean timeInDaylightTime(int reps) {
+        boolean result = false;
+        Date date = new Date(instant.millis);
+        for (int rep = 0; rep < reps; ++rep) {
+            result ^= zone.inDaylightTime(date);
+            date.setTime(date.getTime() + MINUTE);
+        }
+        return result;
+    }
+
+    public int timeCalendar_setTimeInMillis(int reps) {
+        int result = 0;
+        Calendar calendar = new GregorianCalendar(zone);
+        long when = instant.millis;
+        for (int rep = 0; rep < reps; ++rep) {
+            calendar.setTimeInMillis(when);
+            result += calendar.get(Calendar.HOUR_OF_DAY);
+            when += MINUTE;
+        }
+        return result;
+    }
+}
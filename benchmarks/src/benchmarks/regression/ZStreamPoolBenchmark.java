@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package benchmarks.regression;
+
+import com.google.caliper.BeforeExperiment;
+import com.google.caliper.Param;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decompresses many small bodies, as an HTTP client does, with inflaters from the pool and
+ * with new ones.
+ */
+public class ZStreamPoolBenchmark {
+    @Param({"128", "1024", "16384"}) int bodySize;
+
+    private byte[] gzipped;
+    private byte[] deflated;
+    private final byte[] buffer = new byte[16384];
+
+    @BeforeExperiment
+    protected void setUp() throws Exception {
+        StringBuilder json = new StringBuilder();
+        Random random = new Random(0);
+        while (json.length() < bodySize) {
+            json.append("{\"id\":").append(random.nextInt(100000))
+                    .append(",\"name\":\"item\"},");
+        }
+        byte[] body = json.substring(0, bodySize).getBytes("UTF-8");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        gzipped = bytes.toByteArray();
+        bytes.reset();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(body);
+        }
+        deflated = bytes.toByteArray();
+    }
+
+    public void timeGZIPInputStream(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            read(new GZIPInputStream(new ByteArrayInputStream(gzipped)));
+        }
+    }
+
+    public void timeInflaterInputStream_pooled(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            read(new InflaterInputStream(new ByteArrayInputStream(deflated)));
+        }
+    }
+
+    public void timeInflaterInputStream_newInflater(int reps) throws Exception {
+        for (int i = 0; i < reps; ++i) {
+            read(new InflaterInputStream(new ByteArrayInputStream(deflated), new Inflater()));
+        }
+    }
+
+    public void timeGZIPOutputStream(int reps) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < reps; ++i) {
+            bytes.reset();
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(buffer, 0, bodySize);
+            }
+        }
+    }
+
+    private void read(InputStream in) throws Exception {
+        try {
+            while (in.read(buffer) != -1) {
+            }
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -231,6 +231,17 @@ public class BaseDexClassLoader extends ClassLoader {
         pathList.addDexPath(dexPath, null /*optimizedDirectory*/, isTrusted);
     }
 
+    /**
+     * Enables or disables the index of the classes and resources in this loader's dex path,
+     * which makes lookups on long paths, and failed lookups, cheaper after a one-off listing of
+     * every path element. See {@link DexPathList#setLookupIndexEnabled(boolean)}.
+     *
+     * @hide
+     */
+    public void setLookupIndexEnabled(boolean enabled) {
+        pathList.setLookupIndexEnabled(enabled);
+    }
+
     /**
      * Adds additional native paths for consideration in subsequent calls to
      * {@link #findLibrary(String)}
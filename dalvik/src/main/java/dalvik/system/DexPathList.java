@@ -31,8 +31,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import libcore.io.ClassPathURLStreamHandler;
 import libcore.io.IoUtils;
 import libcore.io.Libcore;
@@ -89,6 +93,24 @@ public final class DexPathList {
     @UnsupportedAppUsage
     private IOException[] dexElementsSuppressedExceptions;
 
+    /**
+     * System property that, when {@code true}, enables {@link #setLookupIndexEnabled the lookup
+     * index} for every path list created afterwards.
+     */
+    private static final String LOOKUP_INDEX_PROPERTY = "dalvik.system.DexPathList.lookupIndex";
+
+    /** Whether class and resource lookups go through {@link #lookupIndex}. */
+    private volatile boolean lookupIndexEnabled = Boolean.getBoolean(LOOKUP_INDEX_PROPERTY);
+
+    /**
+     * Index of the class and resource names in {@code dexElements}, or {@code null} if it has
+     * not been built yet. It is only used while its elements are still {@code dexElements}.
+     */
+    private volatile LookupIndex lookupIndex;
+
+    /** Set while a thread is building {@link #lookupIndex}. */
+    private final AtomicBoolean buildingLookupIndex = new AtomicBoolean();
+
     private List<File> getAllNativeLibraryDirectories() {
         List<File> allNativeLibraryDirectories = new ArrayList<>(nativeLibraryDirectories);
         allNativeLibraryDirectories.addAll(systemNativeLibraryDirectories);
@@ -222,6 +244,7 @@ public final class DexPathList {
 
         if (newElements != null && newElements.length > 0) {
             dexElements = concat(Element.class, dexElements, newElements);
+            lookupIndex = null;
         }
 
         if (suppressedExceptionList.size() > 0) {
@@ -529,10 +552,20 @@ public final class DexPathList {
      * found in any of the dex files
      */
     public Class<?> findClass(String name, List<Throwable> suppressed) {
-        for (Element element : dexElements) {
-            Class<?> clazz = element.findClass(name, definingContext, suppressed);
-            if (clazz != null) {
-                return clazz;
+        LookupIndex index = getLookupIndex();
+        if (index != null) {
+            for (int i : index.classCandidates(name)) {
+                Class<?> clazz = index.elements[i].findClass(name, definingContext, suppressed);
+                if (clazz != null) {
+                    return clazz;
+                }
+            }
+        } else {
+            for (Element element : dexElements) {
+                Class<?> clazz = element.findClass(name, definingContext, suppressed);
+                if (clazz != null) {
+                    return clazz;
+                }
             }
         }
 
@@ -551,6 +584,17 @@ public final class DexPathList {
      * resource is not found in any of the zip/jar files
      */
     public URL findResource(String name) {
+        LookupIndex index = getLookupIndex();
+        if (index != null) {
+            for (int i : index.resourceCandidates(name)) {
+                URL url = index.elements[i].findResource(name);
+                if (url != null) {
+                    return url;
+                }
+            }
+            return null;
+        }
+
         for (Element element : dexElements) {
             URL url = element.findResource(name);
             if (url != null) {
@@ -569,6 +613,17 @@ public final class DexPathList {
     public Enumeration<URL> findResources(String name) {
         ArrayList<URL> result = new ArrayList<URL>();
 
+        LookupIndex index = getLookupIndex();
+        if (index != null) {
+            for (int i : index.resourceCandidates(name)) {
+                URL url = index.elements[i].findResource(name);
+                if (url != null) {
+                    result.add(url);
+                }
+            }
+            return Collections.enumeration(result);
+        }
+
         for (Element element : dexElements) {
             URL url = element.findResource(name);
             if (url != null) {
@@ -579,6 +634,51 @@ public final class DexPathList {
         return Collections.enumeration(result);
     }
 
+    /**
+     * Enables or disables indexing of class and resource lookups. This is disabled by default
+     * unless the {@code dalvik.system.DexPathList.lookupIndex} system property is {@code true}.
+     *
+     * <p>While enabled, the first lookup lists the classes and resources of every element,
+     * using several threads if there are many elements, and records which elements contain each
+     * name. Later lookups only probe those elements, so finding a name in a late element or
+     * failing to find one at all no longer opens or searches every element. Elements that can't
+     * be listed, such as resource directories, are still probed on every lookup. The index is
+     * rebuilt on the next lookup after the path changes.
+     */
+    public void setLookupIndexEnabled(boolean enabled) {
+        lookupIndexEnabled = enabled;
+        if (!enabled) {
+            lookupIndex = null;
+        }
+    }
+
+    /**
+     * Returns the lookup index for the current {@code dexElements}, building it if needed, or
+     * {@code null} if indexing is disabled or another thread is building the index.
+     */
+    private LookupIndex getLookupIndex() {
+        if (!lookupIndexEnabled) {
+            return null;
+        }
+        // Apps may replace dexElements by reflection, so check that the index is still current.
+        Element[] elements = dexElements;
+        LookupIndex index = lookupIndex;
+        if (index != null && index.elements == elements) {
+            return index;
+        }
+        // Rather than wait, other threads probe the elements directly while the index is built.
+        if (elements == null || !buildingLookupIndex.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            index = LookupIndex.build(elements);
+            lookupIndex = index;
+            return index;
+        } finally {
+            buildingLookupIndex.set(false);
+        }
+    }
+
     /**
      * Finds the named native code library on any of the library
      * directories pointed at by this instance. This will find the
@@ -647,6 +747,186 @@ public final class DexPathList {
         nativeLibraryPathElements = newPaths.toArray(new NativeLibraryElement[newPaths.size()]);
     }
 
+    /**
+     * An immutable index from class and resource names to the positions of the {@link Element}s
+     * that contain them, built for one {@code dexElements} array.
+     */
+    private static final class LookupIndex {
+        private static final int[] EMPTY = new int[0];
+
+        /** Elements listed per thread when building the index in parallel. */
+        private static final int ELEMENTS_PER_THREAD = 4;
+
+        final Element[] elements;
+
+        /** The positions of the elements defining each class, in ascending order. */
+        private final HashMap<String, int[]> classes;
+
+        /** The positions of the elements containing each resource, in ascending order. */
+        private final HashMap<String, int[]> resources;
+
+        /** The positions of elements whose classes or resources couldn't be listed. */
+        private final int[] unindexedClassElements;
+        private final int[] unindexedResourceElements;
+
+        private LookupIndex(Element[] elements, HashMap<String, int[]> classes,
+                HashMap<String, int[]> resources, int[] unindexedClassElements,
+                int[] unindexedResourceElements) {
+            this.elements = elements;
+            this.classes = classes;
+            this.resources = resources;
+            this.unindexedClassElements = unindexedClassElements;
+            this.unindexedResourceElements = unindexedResourceElements;
+        }
+
+        static LookupIndex build(Element[] elements) {
+            final int count = elements.length;
+            String[][] classNames = new String[count][];
+            List<String>[] resourceNames = (List<String>[]) new List<?>[count];
+            forEachElement(count, i -> {
+                classNames[i] = elements[i].getClassNames();
+                resourceNames[i] = elements[i].getResourceNames();
+            });
+
+            // singletons[i] is {i}, shared to avoid an array per name.
+            int[][] singletons = new int[count][];
+            for (int i = 0; i < count; i++) {
+                singletons[i] = new int[] { i };
+            }
+
+            // Keep every element that lists a class, not just the first: if that one fails to
+            // load it, findClass goes on to the next, as the linear scan does.
+            HashMap<String, int[]> classes = new HashMap<>();
+            ArrayList<Integer> unindexedClassElements = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (classNames[i] == null) {
+                    unindexedClassElements.add(i);
+                    continue;
+                }
+                for (String name : classNames[i]) {
+                    addPosition(classes, singletons, name, i);
+                }
+            }
+
+            HashMap<String, int[]> resources = new HashMap<>();
+            ArrayList<Integer> unindexedResourceElements = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (resourceNames[i] == null) {
+                    unindexedResourceElements.add(i);
+                    continue;
+                }
+                for (String name : resourceNames[i]) {
+                    addPosition(resources, singletons, name, i);
+                    // Like ZipFile.getEntry, find directory entries without their trailing '/'.
+                    if (name.length() > 1 && name.endsWith("/")) {
+                        addPosition(resources, singletons, name.substring(0, name.length() - 1),
+                                i);
+                    }
+                }
+            }
+
+            return new LookupIndex(elements, classes, resources,
+                    toIntArray(unindexedClassElements), toIntArray(unindexedResourceElements));
+        }
+
+        /** Appends {@code position} to the positions of {@code name}, unless it's already last. */
+        private static void addPosition(HashMap<String, int[]> index, int[][] singletons,
+                String name, int position) {
+            int[] positions = index.get(name);
+            if (positions == null) {
+                index.put(name, singletons[position]);
+            } else if (positions[positions.length - 1] != position) {
+                int[] newPositions = Arrays.copyOf(positions, positions.length + 1);
+                newPositions[positions.length] = position;
+                index.put(name, newPositions);
+            }
+        }
+
+        /**
+         * Runs {@code action} for each element position, spreading the work over several
+         * threads if there are enough elements for that to pay off.
+         */
+        private static void forEachElement(int count, IntConsumer action) {
+            int threadCount = Math.min(count / ELEMENTS_PER_THREAD,
+                    Runtime.getRuntime().availableProcessors());
+            if (threadCount <= 1) {
+                for (int i = 0; i < count; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+
+            AtomicInteger next = new AtomicInteger();
+            Runnable worker = () -> {
+                for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                    action.accept(i);
+                }
+            };
+            Thread[] helpers = new Thread[threadCount - 1];
+            for (int t = 0; t < helpers.length; t++) {
+                helpers[t] = new Thread(worker, "DexPathList index " + t);
+                // Daemon threads, so that they never hold up VM exit.
+                helpers[t].setDaemon(true);
+                helpers[t].start();
+            }
+            worker.run();
+
+            boolean interrupted = false;
+            for (Thread helper : helpers) {
+                while (true) {
+                    try {
+                        helper.join();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Returns the positions of the elements that may define {@code name}, in order. */
+        int[] classCandidates(String name) {
+            int[] indexed = classes.get(name);
+            return merge(indexed != null ? indexed : EMPTY, unindexedClassElements);
+        }
+
+        /** Returns the positions of the elements that may contain {@code name}, in order. */
+        int[] resourceCandidates(String name) {
+            int[] indexed = resources.get(name);
+            return merge(indexed != null ? indexed : EMPTY, unindexedResourceElements);
+        }
+
+        private static int[] merge(int[] a, int[] b) {
+            if (b.length == 0) {
+                return a;
+            }
+            if (a.length == 0) {
+                return b;
+            }
+            int[] result = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < result.length; k++) {
+                result[k] = (j == b.length || (i < a.length && a[i] < b[j])) ? a[i++] : b[j++];
+            }
+            return result;
+        }
+
+        private static int[] toIntArray(List<Integer> list) {
+            if (list.isEmpty()) {
+                return EMPTY;
+            }
+            int[] result = new int[list.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = list.get(i);
+            }
+            return result;
+        }
+    }
+
     /**
      * Element of the dex/resource path. Note: should be called DexElement, but apps reflect on
      * this.
@@ -768,6 +1048,38 @@ public final class DexPathList {
             initialized = true;
         }
 
+        /**
+         * Returns the binary names of the classes defined by this element, or {@code null} if
+         * they can't be listed.
+         */
+        String[] getClassNames() {
+            if (dexFile == null) {
+                return new String[0];
+            }
+            try {
+                return Collections.list(dexFile.entries()).toArray(new String[0]);
+            } catch (RuntimeException e) {
+                System.logW("Unable to list classes in " + this, e);
+                return null;
+            }
+        }
+
+        /**
+         * Returns the names of the resources in this element, or {@code null} if they can't be
+         * listed because the element is a directory.
+         */
+        List<String> getResourceNames() {
+            maybeInit();
+
+            if (urlHandler != null) {
+                return urlHandler.getEntryNames();
+            }
+            if (path != null && path.isDirectory()) {
+                return null;
+            }
+            return Collections.emptyList();
+        }
+
         public Class<?> findClass(String name, ClassLoader definingContext,
                 List<Throwable> suppressed) {
             return dexFile != null ? dexFile.loadClassBinaryName(name, definingContext, suppressed)
@@ -17,6 +17,7 @@
 package dalvik.system;
 
 import libcore.icu.ICU;
+import libcore.icu.LocaleData;
 
 import java.io.File;
 import java.io.FileDescriptor;
@@ -24,6 +25,7 @@ import java.lang.reflect.Method;
 import java.lang.ClassNotFoundException;
 import java.lang.NoSuchMethodException;
 import java.lang.ReflectiveOperationException;
+import java.util.Locale;
 
 /**
  * Provides hooks for the zygote to call back into the runtime to perform
@@ -36,6 +38,12 @@ public final class ZygoteHooks {
     private static long token;
     private static Method enableMemoryMappedDataMethod;
 
+    // Locales whose LocaleData is initialized before fork, in addition to the root locale,
+    // en-US and the default locale that LocaleData always initializes.
+    private static final String[] PREWARMED_LOCALES = {
+        "en-GB", "es-ES", "es-US", "fr-FR", "de-DE", "pt-BR", "hi-IN", "ja-JP", "zh-CN",
+    };
+
     /** All methods are static, no need to instantiate. */
     private ZygoteHooks() {
     }
@@ -55,6 +63,7 @@ public final class ZygoteHooks {
         com.android.i18n.system.ZygoteHooks.onBeginPreload();
 
         ICU.initializeCacheInZygote();
+        prewarmLocaleData();
 
         // Look up JaCoCo on the boot classpath, if it exists. This will be used later for enabling
         // memory-mapped Java coverage.
@@ -70,6 +79,19 @@ public final class ZygoteHooks {
         }
     }
 
+    private static void prewarmLocaleData() {
+        Locale[] locales = new Locale[PREWARMED_LOCALES.length];
+        for (int i = 0; i < locales.length; i++) {
+            locales[i] = Locale.forLanguageTag(PREWARMED_LOCALES[i]);
+        }
+        try {
+            LocaleData.prewarm(locales);
+        } catch (RuntimeException e) {
+            // The locales are initialized on demand instead; that mustn't stop the zygote.
+            System.logE("Unable to prewarm locale data", e);
+        }
+    }
+
     /**
      * Called when the zygote has completed preloading classes and data.
      */
@@ -0,0 +1,1019 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a JSON (<a href="http://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>)
+ * encoded value as a stream of tokens, without first reading the whole input
+ * into memory or building a {@link JSONObject} or {@link JSONArray} for each
+ * object and array. Example usage: <pre>
+ * JSONReader reader = new JSONReader(in);
+ * reader.beginArray();
+ * while (reader.hasNext()) {
+ *     reader.beginObject();
+ *     while (reader.hasNext()) {
+ *         String name = reader.nextName();
+ *         if (name.equals("id")) {
+ *             long id = reader.nextLong();
+ *         } else if (name.equals("tags")) {
+ *             JSONArray tags = (JSONArray) reader.nextJSONValue();
+ *         } else {
+ *             reader.skipValue();
+ *         }
+ *     }
+ *     reader.endObject();
+ * }
+ * reader.endArray();</pre>
+ *
+ * <p>Input is read through a fixed size buffer. Names and strings are the only
+ * values that allocate, and {@link #nextLong}, {@link #nextInt} and
+ * {@link #nextDouble} parse numbers without boxing them. Use
+ * {@link #nextJSONValue} to read a whole subtree as {@link JSONObject} and
+ * {@link JSONArray} instances instead.
+ *
+ * <p>Unlike {@link JSONTokener}, this reader is strict: it rejects comments,
+ * unquoted or single quoted strings, and the other extensions that
+ * {@code JSONTokener} accepts. Each reader may be used to read a single top
+ * level value. Instances of this class are not thread safe.
+ *
+ * @hide
+ */
+public final class JSONReader implements Closeable {
+
+    /** A structure, name or value type in a JSON encoded value. */
+    public enum Token {
+        /** The opening of a JSON array. */
+        BEGIN_ARRAY,
+        /** The closing of a JSON array. */
+        END_ARRAY,
+        /** The opening of a JSON object. */
+        BEGIN_OBJECT,
+        /** The closing of a JSON object. */
+        END_OBJECT,
+        /** A property name within a JSON object. */
+        NAME,
+        /** A JSON string. */
+        STRING,
+        /** A JSON number. */
+        NUMBER,
+        /** A JSON {@code true} or {@code false}. */
+        BOOLEAN,
+        /** A JSON {@code null}. */
+        NULL,
+        /** The end of the input, after the top level value. */
+        END_DOCUMENT,
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Lexical scopes, on a stack that holds the enclosing arrays and objects.
+    private static final int EMPTY_ARRAY = 1;
+    private static final int NONEMPTY_ARRAY = 2;
+    private static final int EMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int NONEMPTY_OBJECT = 5;
+    private static final int EMPTY_DOCUMENT = 6;
+    private static final int NONEMPTY_DOCUMENT = 7;
+    private static final int CLOSED = 8;
+
+    /** Powers of ten that are exactly representable as doubles. */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    private final Reader in;
+
+    /** Characters read from {@link #in}, valid between {@link #pos} and {@link #limit}. */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    /** The position in the input of {@code buffer[0]}, for error messages. */
+    private long bufferStart;
+
+    private int[] stack = new int[32];
+    private int stackSize;
+
+    /** The next token, or null if it has not been peeked yet. */
+    private Token peeked;
+
+    /** The value of a peeked {@link Token#BOOLEAN}. */
+    private boolean peekedBoolean;
+
+    /**
+     * The length of a peeked {@link Token#NUMBER}, which is held in the buffer
+     * starting at {@link #pos}.
+     */
+    private int peekedNumberLength;
+
+    /**
+     * A {@link Token#STRING} value that was read but could not be converted
+     * to a number, and is returned again by the next {@link #readString}.
+     */
+    private String peekedString;
+
+    /** Reused to build strings that contain escapes or span buffer refills. */
+    private StringBuilder builder;
+
+    /**
+     * @param in the JSON encoded input. The reader is responsible for
+     *     buffering it.
+     */
+    public JSONReader(Reader in) {
+        if (in == null) {
+            throw new NullPointerException("in == null");
+        }
+        this.in = in;
+        stack[stackSize++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @param in the UTF-8 encoded JSON input. The reader is responsible for
+     *     buffering it.
+     */
+    public JSONReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param in the UTF-8 encoded JSON input, between its position and limit.
+     *     The buffer's position is not changed.
+     */
+    public JSONReader(ByteBuffer in) {
+        this(new ByteBufferInputStream(in.duplicate()));
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     */
+    public Token peek() throws JSONException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    /**
+     * Consumes the opening of a JSON array.
+     */
+    public void beginArray() throws JSONException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = null;
+    }
+
+    /**
+     * Consumes the closing of the current JSON array.
+     */
+    public void endArray() throws JSONException {
+        expect(Token.END_ARRAY);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * Consumes the opening of a JSON object.
+     */
+    public void beginObject() throws JSONException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = null;
+    }
+
+    /**
+     * Consumes the closing of the current JSON object.
+     */
+    public void endObject() throws JSONException {
+        expect(Token.END_OBJECT);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * Returns true if the current array or object has another element.
+     */
+    public boolean hasNext() throws JSONException {
+        Token token = peek();
+        return token != Token.END_ARRAY && token != Token.END_OBJECT
+                && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes and returns the next property name.
+     */
+    public String nextName() throws JSONException {
+        expect(Token.NAME);
+        peeked = null;
+        return readString();
+    }
+
+    /**
+     * Consumes and returns the next string value. A number is returned as
+     * written in the input.
+     */
+    public String nextString() throws JSONException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            peeked = null;
+            return readString();
+        } else if (token == Token.NUMBER) {
+            String result = new String(buffer, pos, peekedNumberLength);
+            consumeNumber();
+            return result;
+        }
+        throw unexpected("a string", token);
+    }
+
+    /**
+     * Consumes and returns the next boolean value.
+     */
+    public boolean nextBoolean() throws JSONException {
+        expect(Token.BOOLEAN);
+        peeked = null;
+        return peekedBoolean;
+    }
+
+    /**
+     * Consumes the next value, which must be {@code null}.
+     */
+    public void nextNull() throws JSONException {
+        expect(Token.NULL);
+        peeked = null;
+    }
+
+    /**
+     * Consumes and returns the next value as a long. A string is parsed as a
+     * number.
+     *
+     * @throws JSONException if the value is not a number, or cannot be
+     *     represented exactly as a long. The value is not consumed in this
+     *     case.
+     */
+    public long nextLong() throws JSONException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            long result = parseLong(buffer, pos, peekedNumberLength);
+            consumeNumber();
+            return result;
+        } else if (token == Token.STRING) {
+            String string = readString();
+            long result = parseStringAsLong(string, "a long");
+            peeked = null;
+            return result;
+        }
+        throw unexpected("a long", token);
+    }
+
+    /**
+     * Consumes and returns the next value as an int. A string is parsed as a
+     * number.
+     *
+     * @throws JSONException if the value is not a number, or cannot be
+     *     represented exactly as an int. The value is not consumed in this
+     *     case.
+     */
+    public int nextInt() throws JSONException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            long result = parseLong(buffer, pos, peekedNumberLength);
+            if ((int) result != result) {
+                throw new JSONException("Expected an int but was " + result + " at character "
+                        + (bufferStart + pos));
+            }
+            consumeNumber();
+            return (int) result;
+        } else if (token == Token.STRING) {
+            String string = readString();
+            long result = parseStringAsLong(string, "an int");
+            if ((int) result != result) {
+                peekedString = string;
+                throw new JSONException("Expected an int but was " + string);
+            }
+            peeked = null;
+            return (int) result;
+        }
+        throw unexpected("an int", token);
+    }
+
+    /**
+     * Parses a string value as a long. If it isn't one, the string is kept to
+     * be read again, so that the value is not consumed.
+     */
+    private long parseStringAsLong(String string, String expected) throws JSONException {
+        char[] chars = string.toCharArray();
+        try {
+            if (!isValidNumber(chars, 0, chars.length)) {
+                throw new JSONException("Expected " + expected + " but was " + string);
+            }
+            return parseLong(chars, 0, chars.length);
+        } catch (JSONException e) {
+            peekedString = string;
+            throw e;
+        }
+    }
+
+    /**
+     * Consumes and returns the next value as a double. A string is parsed as a
+     * number.
+     *
+     * @throws JSONException if the value is not a number. The value is not
+     *     consumed in this case.
+     */
+    public double nextDouble() throws JSONException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            double result = parseDouble(buffer, pos, peekedNumberLength);
+            consumeNumber();
+            return result;
+        } else if (token == Token.STRING) {
+            String string = readString();
+            double result;
+            try {
+                result = Double.parseDouble(string);
+            } catch (NumberFormatException e) {
+                peekedString = string;
+                throw new JSONException("Expected a double but was " + string);
+            }
+            peeked = null;
+            return result;
+        }
+        throw unexpected("a double", token);
+    }
+
+    /**
+     * Consumes the next value, including everything nested in it if it is an
+     * array or object. If the next token is a property name, consumes both it
+     * and its value.
+     */
+    public void skipValue() throws JSONException {
+        int depth = 0;
+        do {
+            Token token = peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                    beginArray();
+                    depth++;
+                    break;
+                case BEGIN_OBJECT:
+                    beginObject();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    if (depth == 0) {
+                        throw unexpected("a value", token);
+                    }
+                    peeked = null;
+                    stackSize--;
+                    depth--;
+                    break;
+                case NAME:
+                    peeked = null;
+                    skipString();
+                    if (depth == 0) {
+                        // Skip the name's value too.
+                        skipValue();
+                        return;
+                    }
+                    break;
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case NUMBER:
+                    consumeNumber();
+                    break;
+                case BOOLEAN:
+                case NULL:
+                    peeked = null;
+                    break;
+                default:
+                    throw unexpected("a value", token);
+            }
+        } while (depth > 0);
+    }
+
+    /**
+     * Consumes and returns the next value, reading arrays and objects in full.
+     *
+     * @return a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+     *     Integer, Long, Double or {@link JSONObject#NULL}, as
+     *     {@link JSONTokener#nextValue} would return for the same input.
+     */
+    public Object nextJSONValue() throws JSONException {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT: {
+                JSONObject result = new JSONObject();
+                beginObject();
+                while (hasNext()) {
+                    String name = nextName();
+                    result.put(name, nextJSONValue());
+                }
+                endObject();
+                return result;
+            }
+            case BEGIN_ARRAY: {
+                JSONArray result = new JSONArray();
+                beginArray();
+                while (hasNext()) {
+                    result.put(nextJSONValue());
+                }
+                endArray();
+                return result;
+            }
+            case STRING:
+                peeked = null;
+                return readString();
+            case NUMBER: {
+                Object result = numberValue(buffer, pos, peekedNumberLength);
+                consumeNumber();
+                return result;
+            }
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return JSONObject.NULL;
+            default:
+                throw unexpected("a value", token);
+        }
+    }
+
+    /**
+     * Closes the underlying input. The reader may not be used afterwards.
+     */
+    @Override public void close() throws IOException {
+        peeked = null;
+        peekedString = null;
+        stackSize = 1;
+        stack[0] = CLOSED;
+        pos = limit = 0;
+        in.close();
+    }
+
+    private Token doPeek() throws JSONException {
+        int top = stack[stackSize - 1];
+        switch (top) {
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                break;
+
+            case NONEMPTY_ARRAY: {
+                int c = nextNonWhitespace();
+                if (c == ']') {
+                    return Token.END_ARRAY;
+                } else if (c != ',') {
+                    throw syntaxError("Unterminated array");
+                }
+                break;
+            }
+
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT: {
+                stack[stackSize - 1] = DANGLING_NAME;
+                int c = nextNonWhitespace();
+                if (c == '}') {
+                    return Token.END_OBJECT;
+                }
+                if (top == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Unterminated object");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a name");
+                }
+                return Token.NAME;
+            }
+
+            case DANGLING_NAME: {
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':' after a name");
+                }
+                break;
+            }
+
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                // Consume an optional byte order mark (BOM) if it exists.
+                if ((pos < limit || fillBuffer(1)) && buffer[pos] == '\ufeff') {
+                    pos++;
+                }
+                break;
+
+            case NONEMPTY_DOCUMENT:
+                if (nextNonWhitespace() != -1) {
+                    throw syntaxError("Expected the end of the input");
+                }
+                return Token.END_DOCUMENT;
+
+            case CLOSED:
+                throw new IllegalStateException("JSONReader is closed");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case -1:
+                throw syntaxError("End of input");
+
+            case ']':
+                if (top == EMPTY_ARRAY) {
+                    return Token.END_ARRAY;
+                }
+                throw syntaxError("Expected a value");
+
+            case '[':
+                return Token.BEGIN_ARRAY;
+
+            case '{':
+                return Token.BEGIN_OBJECT;
+
+            case '"':
+                return Token.STRING;
+
+            default:
+                pos--;
+                return peekLiteral();
+        }
+    }
+
+    /**
+     * Peeks a keyword or number starting at {@code pos}.
+     */
+    private Token peekLiteral() throws JSONException {
+        if (limit - pos < 5) {
+            fillBuffer(5);
+        }
+        char c = buffer[pos];
+        if (c == 't' && consumeKeyword("true")) {
+            peekedBoolean = true;
+            return Token.BOOLEAN;
+        } else if (c == 'f' && consumeKeyword("false")) {
+            peekedBoolean = false;
+            return Token.BOOLEAN;
+        } else if (c == 'n' && consumeKeyword("null")) {
+            return Token.NULL;
+        }
+
+        // The whole number must be in the buffer so that it can be parsed in place.
+        int length = 0;
+        while (true) {
+            if (pos + length == limit) {
+                if (length == buffer.length) {
+                    throw syntaxError("Number too long");
+                }
+                if (!fillBuffer(length + 1)) {
+                    break;
+                }
+            }
+            char ch = buffer[pos + length];
+            if ((ch >= '0' && ch <= '9') || ch == '-' || ch == '+' || ch == '.'
+                    || ch == 'e' || ch == 'E') {
+                length++;
+            } else {
+                break;
+            }
+        }
+        if (!isValidNumber(buffer, pos, length)) {
+            throw syntaxError("Expected a value");
+        }
+        peekedNumberLength = length;
+        return Token.NUMBER;
+    }
+
+    /**
+     * Consumes {@code keyword} if the buffer holds it at {@code pos} followed
+     * by a character that can't continue a literal.
+     */
+    private boolean consumeKeyword(String keyword) throws JSONException {
+        int length = keyword.length();
+        if (limit - pos < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer[pos + i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        if (pos + length < limit || fillBuffer(length + 1)) {
+            char next = buffer[pos + length];
+            if ((next >= 'a' && next <= 'z') || (next >= 'A' && next <= 'Z')
+                    || (next >= '0' && next <= '9')) {
+                return false;
+            }
+        }
+        pos += length;
+        return true;
+    }
+
+    private void consumeNumber() {
+        pos += peekedNumberLength;
+        peeked = null;
+    }
+
+    /**
+     * Returns true if {@code chars[start, start + length)} is a number as
+     * defined by RFC 4627.
+     */
+    private static boolean isValidNumber(char[] chars, int start, int length) {
+        int p = start;
+        int end = start + length;
+        if (p < end && chars[p] == '-') {
+            p++;
+        }
+        if (p == end) {
+            return false;
+        }
+        if (chars[p] == '0') {
+            p++;
+        } else {
+            int digitsStart = p;
+            while (p < end && chars[p] >= '0' && chars[p] <= '9') {
+                p++;
+            }
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        if (p < end && chars[p] == '.') {
+            p++;
+            int digitsStart = p;
+            while (p < end && chars[p] >= '0' && chars[p] <= '9') {
+                p++;
+            }
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        if (p < end && (chars[p] == 'e' || chars[p] == 'E')) {
+            p++;
+            if (p < end && (chars[p] == '+' || chars[p] == '-')) {
+                p++;
+            }
+            int digitsStart = p;
+            while (p < end && chars[p] >= '0' && chars[p] <= '9') {
+                p++;
+            }
+            if (p == digitsStart) {
+                return false;
+            }
+        }
+        return p == end;
+    }
+
+    /**
+     * Parses the valid number in {@code chars[start, start + length)} as a
+     * long, without allocating if it is a plain integer of up to 18 digits.
+     */
+    private static long parseLong(char[] chars, int start, int length) throws JSONException {
+        int p = start;
+        int end = start + length;
+        boolean negative = chars[p] == '-';
+        if (negative) {
+            p++;
+        }
+        if (end - p <= 18) {
+            long result = 0;
+            for (; p < end; p++) {
+                char c = chars[p];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                result = result * 10 + (c - '0');
+            }
+            if (p == end) {
+                return negative ? -result : result;
+            }
+        }
+
+        String text = new String(chars, start, length);
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException ignored) {
+        }
+        double d = Double.parseDouble(text);
+        long result = (long) d;
+        if (result != d || result == Long.MAX_VALUE || result == Long.MIN_VALUE) {
+            throw new JSONException("Expected a long but was " + text);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the valid number in {@code chars[start, start + length)} as a
+     * double, without allocating if it has at most 15 significant digits and
+     * no exponent.
+     */
+    private static double parseDouble(char[] chars, int start, int length) {
+        int p = start;
+        int end = start + length;
+        boolean negative = chars[p] == '-';
+        if (negative) {
+            p++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; p < end; p++) {
+            char c = chars[p];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (c == '.') {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        // Both the mantissa and the power of ten are exact, so a single
+        // division gives the correctly rounded result.
+        if (p == end && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double result = fractionDigits > 0
+                    ? mantissa / POWERS_OF_TEN[fractionDigits]
+                    : mantissa;
+            return negative ? -result : result;
+        }
+        return Double.parseDouble(new String(chars, start, length));
+    }
+
+    /**
+     * Returns the valid number in {@code chars[start, start + length)} as an
+     * Integer, Long or Double, like {@link JSONTokener} does.
+     */
+    private static Number numberValue(char[] chars, int start, int length) {
+        boolean integral = true;
+        for (int i = start; i < start + length; i++) {
+            char c = chars[i];
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                break;
+            }
+        }
+        if (integral) {
+            try {
+                long longValue = Long.parseLong(new String(chars, start, length));
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return (int) longValue;
+                } else {
+                    return longValue;
+                }
+            } catch (NumberFormatException ignored) {
+                // Too large for a long; fall through to a double.
+            }
+        }
+        return parseDouble(chars, start, length);
+    }
+
+    /**
+     * Returns the string up to but not including the closing quote, unescaping
+     * any character escape sequences. The opening quote must already have been
+     * consumed. Returns {@link #peekedString} instead if there is one.
+     */
+    private String readString() throws JSONException {
+        if (peekedString != null) {
+            String result = peekedString;
+            peekedString = null;
+            return result;
+        }
+        StringBuilder result = null;
+        while (true) {
+            int p = pos;
+            int start = p;
+            while (p < limit) {
+                char c = buffer[p++];
+                if (c == '"') {
+                    pos = p;
+                    if (result == null) {
+                        return new String(buffer, start, p - start - 1);
+                    }
+                    result.append(buffer, start, p - start - 1);
+                    return result.toString();
+                } else if (c == '\\') {
+                    if (result == null) {
+                        result = builder();
+                    }
+                    result.append(buffer, start, p - start - 1);
+                    pos = p;
+                    result.append(readEscapeCharacter());
+                    p = pos;
+                    start = p;
+                }
+            }
+            if (result == null) {
+                result = builder();
+            }
+            result.append(buffer, start, p - start);
+            pos = p;
+            if (!fillBuffer(1)) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Like {@link #readString}, but discards the string.
+     */
+    private void skipString() throws JSONException {
+        if (peekedString != null) {
+            peekedString = null;
+            return;
+        }
+        while (true) {
+            while (pos < limit) {
+                char c = buffer[pos++];
+                if (c == '"') {
+                    return;
+                } else if (c == '\\') {
+                    readEscapeCharacter();
+                }
+            }
+            if (!fillBuffer(1)) {
+                throw syntaxError("Unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Unescapes the character identified by the character or characters that
+     * immediately follow a backslash. The backslash must already have been
+     * consumed.
+     */
+    private char readEscapeCharacter() throws JSONException {
+        if (pos == limit && !fillBuffer(1)) {
+            throw syntaxError("Unterminated escape sequence");
+        }
+        char escaped = buffer[pos++];
+        switch (escaped) {
+            case 'u': {
+                if (limit - pos < 4 && !fillBuffer(4)) {
+                    throw syntaxError("Unterminated escape sequence");
+                }
+                int result = 0;
+                for (int i = 0; i < 4; i++) {
+                    char c = buffer[pos + i];
+                    int digit = Character.digit(c, 16);
+                    if (digit == -1) {
+                        throw syntaxError("Invalid escape sequence");
+                    }
+                    result = (result << 4) | digit;
+                }
+                pos += 4;
+                return (char) result;
+            }
+            case 't':
+                return '\t';
+            case 'b':
+                return '\b';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case '"':
+            case '\\':
+            case '/':
+                return escaped;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private StringBuilder builder() {
+        if (builder == null) {
+            builder = new StringBuilder();
+        } else {
+            builder.setLength(0);
+        }
+        return builder;
+    }
+
+    /**
+     * Consumes and returns the next character that isn't whitespace, or
+     * returns -1 at the end of the input.
+     */
+    private int nextNonWhitespace() throws JSONException {
+        while (true) {
+            if (pos == limit && !fillBuffer(1)) {
+                return -1;
+            }
+            char c = buffer[pos++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Moves the unread characters to the start of the buffer and reads until
+     * at least {@code minimum} characters are available. Returns false if the
+     * input ends first.
+     */
+    private boolean fillBuffer(int minimum) throws JSONException {
+        bufferStart += pos;
+        if (pos != limit) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+        }
+        limit -= pos;
+        pos = 0;
+        try {
+            while (limit < minimum) {
+                int count = in.read(buffer, limit, buffer.length - limit);
+                if (count == -1) {
+                    return false;
+                }
+                limit += count;
+            }
+        } catch (IOException e) {
+            throw new JSONException("Unable to read JSON input", e);
+        }
+        return true;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void expect(Token expected) throws JSONException {
+        Token token = peek();
+        if (token != expected) {
+            throw unexpected(expected.toString(), token);
+        }
+    }
+
+    private JSONException unexpected(String expected, Token actual) {
+        return new JSONException("Expected " + expected + " but was " + actual
+                + " at character " + (bufferStart + pos));
+    }
+
+    /**
+     * Returns an exception containing the given message plus the current
+     * position in the input.
+     */
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (bufferStart + pos));
+    }
+
+    /** Reads the remaining bytes of a ByteBuffer. */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer in;
+
+        ByteBufferInputStream(ByteBuffer in) {
+            this.in = in;
+        }
+
+        @Override public int read() {
+            return in.hasRemaining() ? in.get() & 0xff : -1;
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!in.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, in.remaining());
+            in.get(b, off, len);
+            return len;
+        }
+
+        @Override public int available() {
+            return in.remaining();
+        }
+    }
+}
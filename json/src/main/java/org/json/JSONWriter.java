@@ -0,0 +1,460 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Writes a JSON (<a href="http://www.ietf.org/rfc/rfc4627.txt">RFC 4627</a>)
+ * encoded value to a stream, one token at a time. This is the streaming
+ * counterpart of {@link JSONStringer}: rather than building the whole document
+ * in memory, output is written through a fixed size buffer as it is produced.
+ * Example usage: <pre>
+ * JSONWriter writer = new JSONWriter(out);
+ * writer.beginObject();
+ * writer.name("id").value(42);
+ * writer.name("tags").beginArray().value("a").value("b").endArray();
+ * writer.endObject();
+ * writer.close();</pre>
+ *
+ * <p>Strings and numbers are encoded exactly as {@link JSONStringer} encodes
+ * them, so a {@link JSONObject} or {@link JSONArray} written with
+ * {@link #value(Object)} produces the same text as its {@code toString()}.
+ * Calls that would result in malformed JSON fail with a {@link JSONException}.
+ *
+ * <p>Each writer may be used to encode a single top level value. Instances of
+ * this class are not thread safe.
+ *
+ * @hide
+ */
+public final class JSONWriter implements Closeable, Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final char[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f',
+    };
+
+    private static final char[] MIN_LONG = Long.toString(Long.MIN_VALUE).toCharArray();
+
+    private final Writer out;
+
+    /** Characters not yet written to {@link #out}. */
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int count;
+
+    /** Scratch space for formatting longs. */
+    private final char[] digits = new char[20];
+
+    /**
+     * Lexical scopes of the enclosing arrays and objects. {@link
+     * JSONStringer.Scope#NULL} is never used.
+     */
+    private JSONStringer.Scope[] stack = new JSONStringer.Scope[32];
+    private int stackSize;
+
+    /** True once the top level value has been started. */
+    private boolean started;
+
+    /**
+     * @param out the destination of the JSON encoded output. The writer is
+     *     responsible for buffering it.
+     */
+    public JSONWriter(Writer out) {
+        if (out == null) {
+            throw new NullPointerException("out == null");
+        }
+        this.out = out;
+    }
+
+    /**
+     * @param out the destination of the UTF-8 encoded JSON output. The writer
+     *     is responsible for buffering it.
+     */
+    public JSONWriter(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Begins encoding a new array. Each call to this method must be paired with
+     * a call to {@link #endArray}.
+     *
+     * @return this writer.
+     */
+    public JSONWriter beginArray() throws JSONException {
+        return open(JSONStringer.Scope.EMPTY_ARRAY, '[');
+    }
+
+    /**
+     * Ends encoding the current array.
+     *
+     * @return this writer.
+     */
+    public JSONWriter endArray() throws JSONException {
+        return close(JSONStringer.Scope.EMPTY_ARRAY, JSONStringer.Scope.NONEMPTY_ARRAY, ']');
+    }
+
+    /**
+     * Begins encoding a new object. Each call to this method must be paired
+     * with a call to {@link #endObject}.
+     *
+     * @return this writer.
+     */
+    public JSONWriter beginObject() throws JSONException {
+        return open(JSONStringer.Scope.EMPTY_OBJECT, '{');
+    }
+
+    /**
+     * Ends encoding the current object.
+     *
+     * @return this writer.
+     */
+    public JSONWriter endObject() throws JSONException {
+        return close(JSONStringer.Scope.EMPTY_OBJECT, JSONStringer.Scope.NONEMPTY_OBJECT, '}');
+    }
+
+    /**
+     * Encodes the property name of the forthcoming value.
+     *
+     * @param name the name. May not be null.
+     * @return this writer.
+     */
+    public JSONWriter name(String name) throws JSONException {
+        if (name == null) {
+            throw new JSONException("Names must be non-null");
+        }
+        JSONStringer.Scope context = peek();
+        if (context == JSONStringer.Scope.NONEMPTY_OBJECT) {
+            write(',');
+        } else if (context != JSONStringer.Scope.EMPTY_OBJECT) {
+            throw new JSONException("Nesting problem");
+        }
+        stack[stackSize - 1] = JSONStringer.Scope.DANGLING_KEY;
+        string(name);
+        return this;
+    }
+
+    /**
+     * Encodes {@code value}, or {@code null} if it is null.
+     *
+     * @return this writer.
+     */
+    public JSONWriter value(String value) throws JSONException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        string(value);
+        return this;
+    }
+
+    /**
+     * Encodes {@code value}.
+     *
+     * @return this writer.
+     */
+    public JSONWriter value(boolean value) throws JSONException {
+        beforeValue();
+        write(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Encodes {@code value}.
+     *
+     * @return this writer.
+     */
+    public JSONWriter value(long value) throws JSONException {
+        beforeValue();
+        writeLong(value);
+        return this;
+    }
+
+    /**
+     * Encodes {@code value}.
+     *
+     * @param value a finite value. May not be {@link Double#isNaN() NaNs} or
+     *     {@link Double#isInfinite() infinities}.
+     * @return this writer.
+     */
+    public JSONWriter value(double value) throws JSONException {
+        JSON.checkDouble(value);
+        beforeValue();
+        // Matches JSONObject.numberToString(), without boxing.
+        long longValue = (long) value;
+        if (Double.doubleToRawLongBits(value) == Long.MIN_VALUE) {
+            write("-0");
+        } else if (value == (double) longValue) {
+            writeLong(longValue);
+        } else {
+            write(Double.toString(value));
+        }
+        return this;
+    }
+
+    /**
+     * Encodes {@code null}.
+     *
+     * @return this writer.
+     */
+    public JSONWriter nullValue() throws JSONException {
+        beforeValue();
+        write("null");
+        return this;
+    }
+
+    /**
+     * Encodes {@code value}.
+     *
+     * @param value a {@link JSONObject}, {@link JSONArray}, String, Boolean,
+     *     Integer, Long, Double, {@link JSONObject#NULL} or null. May not be
+     *     {@link Double#isNaN() NaNs} or {@link Double#isInfinite()
+     *     infinities}. Other objects are encoded as their {@code toString()}.
+     * @return this writer.
+     */
+    public JSONWriter value(Object value) throws JSONException {
+        if (value == null || value == JSONObject.NULL) {
+            return nullValue();
+        } else if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            beginObject();
+            for (Iterator<String> it = object.keys(); it.hasNext(); ) {
+                String name = it.next();
+                name(name).value(object.opt(name));
+            }
+            return endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            beginArray();
+            for (int i = 0, length = array.length(); i < length; i++) {
+                value(array.opt(i));
+            }
+            return endArray();
+        } else if (value instanceof Boolean) {
+            return value(((Boolean) value).booleanValue());
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            return value(((Double) value).doubleValue());
+        } else if (value instanceof Number) {
+            String number = JSONObject.numberToString((Number) value);
+            beforeValue();
+            write(number);
+            return this;
+        }
+        return value(value.toString());
+    }
+
+    /**
+     * Writes any buffered output and flushes the underlying stream.
+     */
+    @Override public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes any buffered output and closes the underlying stream. This does
+     * not check that the top level value is complete.
+     */
+    @Override public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    private JSONWriter open(JSONStringer.Scope empty, char openBracket) throws JSONException {
+        beforeValue();
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = empty;
+        write(openBracket);
+        return this;
+    }
+
+    private JSONWriter close(JSONStringer.Scope empty, JSONStringer.Scope nonempty,
+            char closeBracket) throws JSONException {
+        JSONStringer.Scope context = peek();
+        if (context != nonempty && context != empty) {
+            throw new JSONException("Nesting problem");
+        }
+        stackSize--;
+        write(closeBracket);
+        return this;
+    }
+
+    private JSONStringer.Scope peek() throws JSONException {
+        if (stackSize == 0) {
+            throw new JSONException("Nesting problem");
+        }
+        return stack[stackSize - 1];
+    }
+
+    /**
+     * Inserts any necessary separators before a literal value, inline array,
+     * or inline object. Also adjusts the stack to expect either a closing
+     * bracket or another element.
+     */
+    private void beforeValue() throws JSONException {
+        if (stackSize == 0) {
+            if (started) {
+                throw new JSONException("Nesting problem: multiple top-level roots");
+            }
+            started = true;
+            return;
+        }
+
+        JSONStringer.Scope context = stack[stackSize - 1];
+        if (context == JSONStringer.Scope.EMPTY_ARRAY) {
+            stack[stackSize - 1] = JSONStringer.Scope.NONEMPTY_ARRAY;
+        } else if (context == JSONStringer.Scope.NONEMPTY_ARRAY) {
+            write(',');
+        } else if (context == JSONStringer.Scope.DANGLING_KEY) {
+            write(':');
+            stack[stackSize - 1] = JSONStringer.Scope.NONEMPTY_OBJECT;
+        } else {
+            throw new JSONException("Nesting problem");
+        }
+    }
+
+    /**
+     * Writes {@code value} quoted and escaped like {@link JSONStringer} does.
+     */
+    private void string(String value) throws JSONException {
+        write('"');
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c > '\\' || (c >= ' ' && c != '"' && c != '/' && c != '\\')) {
+                continue;
+            }
+            // Copy the run of characters that don't need escaping in one go.
+            write(value, start, i - start);
+            start = i + 1;
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    write('\\');
+                    write(c);
+                    break;
+                case '\t':
+                    write("\\t");
+                    break;
+                case '\b':
+                    write("\\b");
+                    break;
+                case '\n':
+                    write("\\n");
+                    break;
+                case '\r':
+                    write("\\r");
+                    break;
+                case '\f':
+                    write("\\f");
+                    break;
+                default:
+                    write("\\u00");
+                    write(HEX_DIGITS[c >> 4]);
+                    write(HEX_DIGITS[c & 0xf]);
+                    break;
+            }
+        }
+        write(value, start, length - start);
+        write('"');
+    }
+
+    private void writeLong(long value) throws JSONException {
+        if (value == Long.MIN_VALUE) {
+            write(MIN_LONG, 0, MIN_LONG.length);
+            return;
+        }
+        boolean negative = value < 0;
+        if (negative) {
+            value = -value;
+        }
+        int p = digits.length;
+        do {
+            digits[--p] = (char) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (negative) {
+            digits[--p] = '-';
+        }
+        write(digits, p, digits.length - p);
+    }
+
+    private void write(char c) throws JSONException {
+        if (count == buffer.length) {
+            flushBufferUnchecked();
+        }
+        buffer[count++] = c;
+    }
+
+    private void write(String s) throws JSONException {
+        write(s, 0, s.length());
+    }
+
+    private void write(String s, int start, int length) throws JSONException {
+        while (length > 0) {
+            if (count == buffer.length) {
+                flushBufferUnchecked();
+            }
+            int n = Math.min(length, buffer.length - count);
+            s.getChars(start, start + n, buffer, count);
+            count += n;
+            start += n;
+            length -= n;
+        }
+    }
+
+    private void write(char[] chars, int start, int length) throws JSONException {
+        if (buffer.length - count < length) {
+            flushBufferUnchecked();
+        }
+        System.arraycopy(chars, start, buffer, count, length);
+        count += length;
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void flushBufferUnchecked() throws JSONException {
+        try {
+            flushBuffer();
+        } catch (IOException e) {
+            throw new JSONException("Unable to write JSON output", e);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.org.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONReader;
+import org.json.JSONTokener;
+
+public class JSONReaderTest extends TestCase {
+
+    public void testTokens() throws JSONException {
+        JSONReader reader = reader("{\"a\": [1, \"b\", true, false, null], \"c\": {}}");
+        assertEquals(JSONReader.Token.BEGIN_OBJECT, reader.peek());
+        reader.beginObject();
+        assertEquals(JSONReader.Token.NAME, reader.peek());
+        assertEquals("a", reader.nextName());
+        reader.beginArray();
+        assertEquals(JSONReader.Token.NUMBER, reader.peek());
+        assertEquals(1, reader.nextInt());
+        assertEquals(JSONReader.Token.STRING, reader.peek());
+        assertEquals("b", reader.nextString());
+        assertTrue(reader.nextBoolean());
+        assertFalse(reader.nextBoolean());
+        assertEquals(JSONReader.Token.NULL, reader.peek());
+        reader.nextNull();
+        assertFalse(reader.hasNext());
+        reader.endArray();
+        assertEquals("c", reader.nextName());
+        reader.beginObject();
+        assertFalse(reader.hasNext());
+        reader.endObject();
+        reader.endObject();
+        assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    public void testTopLevelValues() throws JSONException {
+        assertEquals("abc", reader("\"abc\"").nextString());
+        assertEquals(-5L, reader(" -5 ").nextLong());
+        assertTrue(reader("true").nextBoolean());
+        assertEquals(JSONObject.NULL, reader("null").nextJSONValue());
+    }
+
+    public void testMultipleTopLevelValues() throws JSONException {
+        JSONReader reader = reader("[] []");
+        reader.beginArray();
+        reader.endArray();
+        try {
+            reader.peek();
+            fail();
+        } catch (JSONException expected) {
+        }
+    }
+
+    public void testSkipValue() throws JSONException {
+        JSONReader reader = reader(
+                "{\"a\": {\"b\": [1, {\"c\": \"d\\\"\"}], \"e\": 2.5}, \"f\": \"g\", \"h\": 3}");
+        reader.beginObject();
+        assertEquals("a", reader.nextName());
+        reader.skipValue();
+        // Skipping a name skips its value too.
+        reader.skipValue();
+        assertEquals("h", reader.nextName());
+        assertEquals(3, reader.nextInt());
+        reader.endObject();
+        assertEquals(JSONReader.Token.END_DOCUMENT, reader.peek());
+    }
+
+    public void testNumbers() throws JSONException {
+        JSONReader reader = reader("[0, -0, 123456789012345678, 9223372036854775807, "
+                + "-9223372036854775808, 1.5, -0.25, 1e3, 2.5E-3, 0.1, 123.456, "
+                + "1.7976931348623157e308, 12345678901234567890]");
+        reader.beginArray();
+        assertEquals(0, reader.nextInt());
+        assertEquals(0L, reader.nextLong());
+        assertEquals(123456789012345678L, reader.nextLong());
+        assertEquals(Long.MAX_VALUE, reader.nextLong());
+        assertEquals(Long.MIN_VALUE, reader.nextLong());
+        assertEquals(1.5, reader.nextDouble());
+        assertEquals(-0.25, reader.nextDouble());
+        assertEquals(1000L, reader.nextLong());
+        assertEquals(2.5E-3, reader.nextDouble());
+        assertEquals(0.1, reader.nextDouble());
+        assertEquals(123.456, reader.nextDouble());
+        assertEquals(Double.MAX_VALUE, reader.nextDouble());
+        assertEquals("12345678901234567890", reader.nextString());
+        reader.endArray();
+    }
+
+    public void testDoublesMatchParseDouble() throws JSONException {
+        String[] numbers = { "0.3", "-1.1", "3.141592653589793", "999999999999999.9",
+                "0.000001", "123456.789012345", "5e-324", "4.9e-324" };
+        JSONReader reader = reader(Arrays.toString(numbers));
+        reader.beginArray();
+        for (String number : numbers) {
+            assertEquals(number, Double.parseDouble(number), reader.nextDouble());
+        }
+        reader.endArray();
+    }
+
+    public void testNumberOutOfRange() throws JSONException {
+        JSONReader reader = reader("[3000000000, 1.5, 12345678901234567890]");
+        reader.beginArray();
+        try {
+            reader.nextInt();
+            fail();
+        } catch (JSONException expected) {
+        }
+        // The value was not consumed.
+        assertEquals(3000000000L, reader.nextLong());
+        try {
+            reader.nextLong();
+            fail();
+        } catch (JSONException expected) {
+        }
+        assertEquals(1.5, reader.nextDouble());
+        try {
+            reader.nextLong();
+            fail();
+        } catch (JSONException expected) {
+        }
+    }
+
+    public void testNumbersInStrings() throws JSONException {
+        JSONReader reader = reader("[\"12\", \"-3.5\", \"x\", \"3000000000\", \"y\", \"z\"]");
+        reader.beginArray();
+        assertEquals(12, reader.nextInt());
+        assertEquals(-3.5, reader.nextDouble());
+        try {
+            reader.nextLong();
+            fail();
+        } catch (JSONException expected) {
+        }
+        // The value was not consumed.
+        try {
+            reader.nextDouble();
+            fail();
+        } catch (JSONException expected) {
+        }
+        assertEquals(JSONReader.Token.STRING, reader.peek());
+        assertEquals("x", reader.nextString());
+
+        try {
+            reader.nextInt();
+            fail();
+        } catch (JSONException expected) {
+        }
+        assertEquals(3000000000L, reader.nextLong());
+        try {
+            reader.nextLong();
+            fail();
+        } catch (JSONException expected) {
+        }
+        reader.skipValue();
+        assertEquals("z", reader.nextJSONValue());
+        reader.endArray();
+    }
+
+    public void testEscapes() throws JSONException {
+        JSONReader reader = reader("[\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\u20AC\"]");
+        reader.beginArray();
+        assertEquals("\"\\/\b\f\n\r\t\u00e9\u20ac", reader.nextString());
+        reader.endArray();
+    }
+
+    public void testLongStrings() throws JSONException {
+        char[] chars = new char[20000];
+        Arrays.fill(chars, 'a');
+        chars[9000] = '\n';
+        String value = new String(chars);
+        String escaped = value.replace("\n", "\\n");
+        JSONReader reader = reader("[\"" + escaped + "\", \"" + escaped + "\", 1]");
+        reader.beginArray();
+        assertEquals(value, reader.nextString());
+        reader.skipValue();
+        assertEquals(1, reader.nextInt());
+        reader.endArray();
+    }
+
+    public void testTokensAcrossBufferBoundaries() throws JSONException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            json.append(i).append(", true, null, -").append(i).append(".5, ");
+        }
+        json.append("false]");
+        JSONReader reader = reader(json.toString());
+        reader.beginArray();
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, reader.nextInt());
+            assertTrue(reader.nextBoolean());
+            reader.nextNull();
+            assertEquals(-i - 0.5, reader.nextDouble());
+        }
+        assertFalse(reader.nextBoolean());
+        reader.endArray();
+    }
+
+    public void testNextJSONValueMatchesTokener() throws JSONException {
+        String json = "{\"a\": [1, 2.5, 3000000000, \"x\", null, true, {\"b\": []}], "
+                + "\"c\": -0, \"d\": 1e30}";
+        JSONObject expected = (JSONObject) new JSONTokener(json).nextValue();
+        JSONObject actual = (JSONObject) reader(json).nextJSONValue();
+        assertEquals(expected.toString(), actual.toString());
+        JSONArray array = actual.getJSONArray("a");
+        assertEquals(Integer.class, array.get(0).getClass());
+        assertEquals(Double.class, array.get(1).getClass());
+        assertEquals(Long.class, array.get(2).getClass());
+    }
+
+    public void testNextJSONValueInsideStream() throws JSONException {
+        JSONReader reader = reader("[{\"a\": 1}, 2]");
+        reader.beginArray();
+        JSONObject object = (JSONObject) reader.nextJSONValue();
+        assertEquals(1, object.getInt("a"));
+        assertEquals(2, reader.nextInt());
+        reader.endArray();
+    }
+
+    public void testInputStream() throws JSONException {
+        byte[] utf8 = "[\"h\u00e9llo \u20ac \ud83d\ude00\"]".getBytes(StandardCharsets.UTF_8);
+        JSONReader reader = new JSONReader(new ByteArrayInputStream(utf8));
+        reader.beginArray();
+        assertEquals("h\u00e9llo \u20ac \ud83d\ude00", reader.nextString());
+        reader.endArray();
+    }
+
+    public void testByteBuffer() throws JSONException {
+        byte[] utf8 = "xx{\"\u00e9\": 1}".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(utf8);
+        buffer.position(2);
+        JSONReader reader = new JSONReader(buffer);
+        reader.beginObject();
+        assertEquals("\u00e9", reader.nextName());
+        assertEquals(1, reader.nextInt());
+        reader.endObject();
+        assertEquals(2, buffer.position());
+    }
+
+    public void testByteOrderMark() throws JSONException {
+        JSONReader reader = reader("\ufeff[]");
+        reader.beginArray();
+        reader.endArray();
+    }
+
+    public void testStrictSyntax() throws JSONException {
+        String[] malformed = { "", "[", "[1,]", "[1 2]", "{\"a\" 1}", "{a: 1}", "['a']",
+                "[01]", "[1.]", "[.5]", "[-]", "[1e]", "[tru]", "[truex]", "[\"a]",
+                "[\"\\x\"]", "[\"\\u12\"]", "/* comment */ []", "{\"a\": 1,}", "[1]]" };
+        for (String json : malformed) {
+            try {
+                JSONReader reader = reader(json);
+                reader.skipValue();
+                reader.peek();
+                fail(json);
+            } catch (JSONException expected) {
+            }
+        }
+    }
+
+    public void testWrongToken() throws JSONException {
+        JSONReader reader = reader("[\"a\"]");
+        try {
+            reader.beginObject();
+            fail();
+        } catch (JSONException expected) {
+        }
+        reader.beginArray();
+        try {
+            reader.nextBoolean();
+            fail();
+        } catch (JSONException expected) {
+        }
+        assertEquals("a", reader.nextString());
+    }
+
+    public void testErrorPosition() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 3000; i++) {
+            json.append("1234, ");
+        }
+        json.append("x]");
+        JSONReader reader = reader(json.toString());
+        try {
+            reader.skipValue();
+            fail();
+        } catch (JSONException expected) {
+            assertTrue(expected.getMessage(),
+                    expected.getMessage().endsWith("at character " + (json.length() - 2)));
+        }
+    }
+
+    private static JSONReader reader(String json) {
+        return new JSONReader(new StringReader(json));
+    }
+}
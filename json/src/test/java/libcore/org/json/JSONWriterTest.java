@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.org.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONReader;
+import org.json.JSONStringer;
+import org.json.JSONWriter;
+
+public class JSONWriterTest extends TestCase {
+
+    public void testObjectsAndArrays() throws Exception {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        writer.beginObject();
+        writer.name("a").beginArray().value(1).value("b").value(true).nullValue().endArray();
+        writer.name("c").beginObject().endObject();
+        writer.name("d").beginArray().endArray();
+        writer.endObject();
+        writer.close();
+        assertEquals("{\"a\":[1,\"b\",true,null],\"c\":{},\"d\":[]}", out.toString());
+    }
+
+    public void testNumbersMatchStringer() throws Exception {
+        double[] doubles = { 0.0, -0.0, 1.0, -1.5, 0.1, 1e20, 1e-7, 9.223372036854776E18,
+                Double.MAX_VALUE, Double.MIN_VALUE };
+        long[] longs = { 0, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE };
+        JSONStringer stringer = new JSONStringer().array();
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out).beginArray();
+        for (double d : doubles) {
+            stringer.value(d);
+            writer.value(d);
+        }
+        for (long l : longs) {
+            stringer.value(l);
+            writer.value(l);
+        }
+        stringer.value(Float.valueOf(1.25f));
+        writer.value((Object) Float.valueOf(1.25f));
+        stringer.endArray();
+        writer.endArray().close();
+        assertEquals(stringer.toString(), out.toString());
+    }
+
+    public void testStringsMatchStringer() throws Exception {
+        char[] chars = new char[128];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) i;
+        }
+        String[] strings = { new String(chars), "\u00e9\u20ac\ud83d\ude00", "", "a/b\"c\\d" };
+        JSONStringer stringer = new JSONStringer().array();
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out).beginArray();
+        for (String s : strings) {
+            stringer.value(s);
+            writer.value(s);
+        }
+        stringer.endArray();
+        writer.endArray().close();
+        assertEquals(stringer.toString(), out.toString());
+    }
+
+    public void testValueMatchesToString() throws Exception {
+        JSONObject object = new JSONObject(
+                "{\"a\": [1, 2.5, 3000000000, \"x\", null, true, {\"b\": []}], \"c\": -0}");
+        object.put("d", JSONObject.NULL);
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        writer.value(object);
+        writer.close();
+        assertEquals(object.toString(), out.toString());
+    }
+
+    public void testLongOutput() throws Exception {
+        char[] chars = new char[20000];
+        Arrays.fill(chars, 'x');
+        String value = new String(chars);
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out).beginArray();
+        for (int i = 0; i < 10; i++) {
+            writer.value(value).value(i);
+        }
+        writer.endArray().flush();
+        JSONArray array = new JSONArray(out.toString());
+        assertEquals(20, array.length());
+        assertEquals(value, array.getString(18));
+        assertEquals(9, array.getInt(19));
+    }
+
+    public void testRoundTripThroughReader() throws Exception {
+        StringWriter out = new StringWriter();
+        JSONWriter writer = new JSONWriter(out);
+        writer.beginObject().name("n").value(-12345678901L).name("d").value(0.1)
+                .name("s").value("\u0001\n").endObject().close();
+        JSONReader reader = new JSONReader(new StringReader(out.toString()));
+        reader.beginObject();
+        assertEquals("n", reader.nextName());
+        assertEquals(-12345678901L, reader.nextLong());
+        assertEquals("d", reader.nextName());
+        assertEquals(0.1, reader.nextDouble());
+        assertEquals("s", reader.nextName());
+        assertEquals("\u0001\n", reader.nextString());
+        reader.endObject();
+    }
+
+    public void testOutputStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JSONWriter writer = new JSONWriter(out);
+        writer.beginArray().value("\u00e9\u20ac").endArray().close();
+        assertEquals("[\"\u00e9\u20ac\"]", new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    public void testNestingProblems() throws IOException {
+        try {
+            new JSONWriter(new StringWriter()).endArray();
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginArray().endObject();
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginArray().name("a");
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginObject().value(1);
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginObject().name("a").name("b");
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginArray().endArray().beginArray();
+            fail();
+        } catch (JSONException expected) {
+        }
+        try {
+            new JSONWriter(new StringWriter()).beginArray().value(Double.NaN);
+            fail();
+        } catch (JSONException expected) {
+        }
+    }
+}
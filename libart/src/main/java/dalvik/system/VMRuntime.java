@@ -281,6 +281,80 @@ public final class VMRuntime {
      */
     public native long getFinalizerTimeoutMs();
 
+    /**
+     * Sets the number of threads that run finalizers, between 1 (the default) and 16. With more
+     * than one thread, finalizers may run concurrently with each other. Each finalizer is still
+     * subject to {@link #getFinalizerTimeoutMs}.
+     *
+     * @param count the new number of finalizer threads.
+     * @throws IllegalArgumentException if count is out of range.
+     */
+    public void setFinalizerThreadCount(int count) {
+        Daemons.setFinalizerWorkerCount(count);
+    }
+
+    /**
+     * Returns the number of threads that run finalizers.
+     */
+    public int getFinalizerThreadCount() {
+        return Daemons.getFinalizerWorkerCount();
+    }
+
+    /**
+     * Sets the number of threads that enqueue references cleared by the garbage collector and
+     * run {@code Cleaner}s, between 1 (the default) and 16.
+     *
+     * @param count the new number of reference queue threads.
+     * @throws IllegalArgumentException if count is out of range.
+     */
+    public void setReferenceQueueThreadCount(int count) {
+        Daemons.setReferenceQueueWorkerCount(count);
+    }
+
+    /**
+     * Returns the number of threads that enqueue references cleared by the garbage collector.
+     */
+    public int getReferenceQueueThreadCount() {
+        return Daemons.getReferenceQueueWorkerCount();
+    }
+
+    /**
+     * Returns the number of objects waiting for their finalizers to run.
+     */
+    public long getFinalizerQueueDepth() {
+        return Daemons.getFinalizerQueueDepth();
+    }
+
+    /**
+     * Returns the number of finalizers run since the runtime started.
+     */
+    public long getFinalizedObjectCount() {
+        return Daemons.getFinalizedObjectCount();
+    }
+
+    /**
+     * Returns the number of references cleared by the garbage collector that have been enqueued,
+     * or had their {@code Cleaner} run, since the runtime started.
+     */
+    public long getEnqueuedReferenceCount() {
+        return Daemons.getEnqueuedReferenceCount();
+    }
+
+    /**
+     * Returns the mean duration of a sample of finalizer calls in nanoseconds, or 0 if none has
+     * been sampled yet.
+     */
+    public long getMeanFinalizerLatencyNanos() {
+        return Daemons.getMeanFinalizerLatencyNanos();
+    }
+
+    /**
+     * Returns the longest duration of a sampled finalizer call in nanoseconds.
+     */
+    public long getMaxFinalizerLatencyNanos() {
+        return Daemons.getMaxFinalizerLatencyNanos();
+    }
+
     /**
      * Sets the current ideal heap utilization, represented as a number
      * between zero and one.  After a GC happens, the Dalvik heap may
@@ -593,6 +667,24 @@ public final class VMRuntime {
         }
     }
 
+    /**
+     * Report {@code count} native malloc()-only allocations to the GC, as if by calling
+     * {@link #notifyNativeAllocation} that many times.
+     */
+    public void notifyNativeAllocations(int count) {
+        int myNotifyNativeInterval = notifyNativeInterval;
+        if (myNotifyNativeInterval == 0) {
+            myNotifyNativeInterval = notifyNativeInterval = getNotifyNativeInterval();
+        }
+        int after = allocationCount.addAndGet(count);
+        int before = after - count;
+        // Notify if the count passed a multiple of the interval.
+        if (Math.floorDiv(after, myNotifyNativeInterval)
+                != Math.floorDiv(before, myNotifyNativeInterval)) {
+            notifyNativeAllocationsInternal();
+        }
+    }
+
     /**
      * Report to the GC that roughly notifyNativeInterval native malloc()-based
      * allocations have occurred since the last call to notifyNativeAllocationsInternal().
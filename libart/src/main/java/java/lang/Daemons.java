@@ -23,10 +23,14 @@ import android.system.OsConstants;
 import java.lang.ref.FinalizerReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
+import java.util.Arrays;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import libcore.util.EmptyArray;
+import libcore.util.NativeAllocationRegistry;
 
 import dalvik.system.VMRuntime;
 import dalvik.system.VMDebug;
@@ -36,6 +40,13 @@ import dalvik.system.VMDebug;
  * will abort if any finalize() call takes more than the maximum finalize time
  * to complete.
  *
+ * By default a single thread runs finalizers and a single thread enqueues the
+ * references the GC hands over, which includes running Cleaners. Either can be
+ * given extra worker threads with {@link #setFinalizerWorkerCount} and
+ * {@link #setReferenceQueueWorkerCount}, so that one slow finalizer or Cleaner
+ * doesn't hold up all the others. The watchdog applies the finalizer timeout to
+ * each finalizer thread separately.
+ *
  * @hide
  */
 public final class Daemons {
@@ -61,25 +72,252 @@ public final class Daemons {
 
     private static boolean postZygoteFork = false;
 
+    /** The largest number of finalizer or reference queue workers that may be configured. */
+    private static final int MAX_WORKERS = 16;
+
+    /** The number of references a reference queue worker takes at once if there are several. */
+    private static final int REFERENCE_BATCH_SIZE = 128;
+
+    /** One in this many finalize() calls is timed, to avoid reading the clock for every object. */
+    private static final int FINALIZER_LATENCY_SAMPLE_INTERVAL = 64;
+
+    // The threads running finalizers and enqueueing references: the daemon INSTANCEs followed by
+    // any helpers, which are started and stopped along with the daemons. Only replaced while
+    // holding the Daemons.class lock, never modified.
+    private static volatile FinalizerDaemon[] finalizerDaemons =
+            new FinalizerDaemon[] { FinalizerDaemon.INSTANCE };
+    private static volatile ReferenceQueueDaemon[] referenceQueueDaemons =
+            new ReferenceQueueDaemon[] { ReferenceQueueDaemon.INSTANCE };
+
+    // Whether the daemons are running. Guarded by the Daemons.class lock.
+    private static boolean running = false;
+
+    // The number of lists that reference queue workers have taken from ReferenceQueue.unenqueued
+    // while there were several of them, and not finished enqueueing yet. Guarded by the
+    // ReferenceQueue.class lock.
+    private static int referenceListsInFlight = 0;
+
+    private static final LongAdder FINALIZED_OBJECT_COUNT = new LongAdder();
+    private static final LongAdder ENQUEUED_REFERENCE_COUNT = new LongAdder();
+    private static final LongAdder FINALIZER_LATENCY_SAMPLE_COUNT = new LongAdder();
+    private static final LongAdder FINALIZER_LATENCY_SAMPLE_NANOS = new LongAdder();
+    private static final AtomicLong MAX_FINALIZER_LATENCY_NANOS = new AtomicLong();
+
     @UnsupportedAppUsage
     public static void start() {
-        for (Daemon daemon : DAEMONS) {
-            daemon.start();
+        synchronized (Daemons.class) {
+            for (Daemon daemon : DAEMONS) {
+                daemon.start();
+            }
+            startHelpers(finalizerDaemons, 1);
+            startHelpers(referenceQueueDaemons, 1);
+            running = true;
         }
     }
 
     public static void startPostZygoteFork() {
-        postZygoteFork = true;
-        for (Daemon daemon : DAEMONS) {
-            daemon.startPostZygoteFork();
+        synchronized (Daemons.class) {
+            postZygoteFork = true;
+            for (Daemon daemon : DAEMONS) {
+                daemon.startPostZygoteFork();
+            }
+            startHelpers(finalizerDaemons, 1);
+            startHelpers(referenceQueueDaemons, 1);
+            running = true;
         }
     }
 
     @UnsupportedAppUsage
     public static void stop() {
-        for (Daemon daemon : DAEMONS) {
-            daemon.stop();
+        synchronized (Daemons.class) {
+            running = false;
+            stopHelpers(referenceQueueDaemons, 1);
+            stopHelpers(finalizerDaemons, 1);
+            for (Daemon daemon : DAEMONS) {
+                daemon.stop();
+            }
+        }
+    }
+
+    /**
+     * Sets the number of threads that run finalizers, which is 1 by default. With more than one,
+     * finalizers may run concurrently with each other. Takes effect immediately if the daemons
+     * are running, though a thread being removed first finishes its current finalizer.
+     */
+    public static void setFinalizerWorkerCount(int count) {
+        checkWorkerCount(count);
+        synchronized (Daemons.class) {
+            FinalizerDaemon[] old = finalizerDaemons;
+            if (count < old.length) {
+                // Stop the removed threads while the watchdog still watches them.
+                stopHelpers(old, count);
+                finalizerDaemons = Arrays.copyOf(old, count);
+            } else if (count > old.length) {
+                FinalizerDaemon[] updated = Arrays.copyOf(old, count);
+                for (int i = old.length; i < count; i++) {
+                    updated[i] = new FinalizerDaemon("FinalizerDaemon-" + i);
+                }
+                finalizerDaemons = updated;
+                if (running) {
+                    startHelpers(updated, old.length);
+                }
+            }
+        }
+    }
+
+    public static int getFinalizerWorkerCount() {
+        return finalizerDaemons.length;
+    }
+
+    /**
+     * Sets the number of threads that enqueue references cleared by the GC and run Cleaners,
+     * which is 1 by default. Takes effect immediately if the daemons are running.
+     */
+    public static void setReferenceQueueWorkerCount(int count) {
+        checkWorkerCount(count);
+        synchronized (Daemons.class) {
+            ReferenceQueueDaemon[] old = referenceQueueDaemons;
+            if (count < old.length) {
+                stopHelpers(old, count);
+                referenceQueueDaemons = Arrays.copyOf(old, count);
+            } else if (count > old.length) {
+                ReferenceQueueDaemon[] updated = Arrays.copyOf(old, count);
+                for (int i = old.length; i < count; i++) {
+                    updated[i] = new ReferenceQueueDaemon("ReferenceQueueDaemon-" + i);
+                }
+                referenceQueueDaemons = updated;
+                if (running) {
+                    startHelpers(updated, old.length);
+                }
+            }
+        }
+    }
+
+    public static int getReferenceQueueWorkerCount() {
+        return referenceQueueDaemons.length;
+    }
+
+    private static void checkWorkerCount(int count) {
+        if (count < 1 || count > MAX_WORKERS) {
+            throw new IllegalArgumentException(
+                    "count must be between 1 and " + MAX_WORKERS + ": " + count);
+        }
+    }
+
+    /** Starts {@code daemons[from]} onwards. */
+    private static void startHelpers(Daemon[] daemons, int from) {
+        for (int i = from; i < daemons.length; i++) {
+            if (postZygoteFork) {
+                daemons[i].startPostZygoteFork();
+            } else {
+                daemons[i].start();
+            }
+        }
+    }
+
+    /** Stops {@code daemons[from]} onwards, skipping any that aren't running. */
+    private static void stopHelpers(Daemon[] daemons, int from) {
+        for (int i = from; i < daemons.length; i++) {
+            if (daemons[i].isRunning()) {
+                daemons[i].stop();
+            }
+        }
+    }
+
+    /** Returns the number of objects waiting for their finalizers to be run. */
+    public static long getFinalizerQueueDepth() {
+        return FinalizerReference.queue.getQueueLength();
+    }
+
+    /** Returns the number of finalizers run so far. */
+    public static long getFinalizedObjectCount() {
+        return FINALIZED_OBJECT_COUNT.sum();
+    }
+
+    /** Returns the number of references cleared by the GC that have been enqueued so far. */
+    public static long getEnqueuedReferenceCount() {
+        return ENQUEUED_REFERENCE_COUNT.sum();
+    }
+
+    /**
+     * Returns the mean time taken by a sample of finalize() calls, in nanoseconds, or 0 if none
+     * has been sampled yet.
+     */
+    public static long getMeanFinalizerLatencyNanos() {
+        long samples = FINALIZER_LATENCY_SAMPLE_COUNT.sum();
+        return samples == 0 ? 0 : FINALIZER_LATENCY_SAMPLE_NANOS.sum() / samples;
+    }
+
+    /** Returns the longest time taken by a sampled finalize() call, in nanoseconds. */
+    public static long getMaxFinalizerLatencyNanos() {
+        return MAX_FINALIZER_LATENCY_NANOS.get();
+    }
+
+    /**
+     * Waits until the references that the GC has handed over so far are on their queues, for at
+     * most {@code timeoutNanos} or, if it is 0, for as long as it takes. Several reference queue
+     * workers may finish enqueueing the lists they take in any order, so a reference taken later
+     * can get to its queue first. A single worker keeps the order, so there's no need to wait.
+     * Returns false if the wait timed out.
+     */
+    public static boolean awaitEnqueuedReferences(long timeoutNanos)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + timeoutNanos;
+        synchronized (ReferenceQueue.class) {
+            if (referenceQueueDaemons.length == 1 && referenceListsInFlight == 0) {
+                return true;
+            }
+            while (ReferenceQueue.unenqueued != null || referenceListsInFlight != 0) {
+                if (timeoutNanos == 0) {
+                    ReferenceQueue.class.wait();
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                ReferenceQueue.class.wait(remaining / NANOS_PER_MILLI,
+                        (int) (remaining % NANOS_PER_MILLI));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Waits until each finalizer thread other than the calling one has finished the finalizer
+     * it is running, if any, for at most {@code timeoutNanos} or, if it is 0, for as long as it
+     * takes. With several finalizer threads, a finalizer having run doesn't mean that those
+     * taken off the queue before it have finished too. Returns false if the wait timed out.
+     */
+    public static boolean awaitRunningFinalizers(long timeoutNanos) throws InterruptedException {
+        FinalizerDaemon[] finalizers = finalizerDaemons;
+        if (finalizers.length == 1) {
+            return true;
+        }
+        final long deadline = System.nanoTime() + timeoutNanos;
+        int[] startCounts = new int[finalizers.length];
+        for (int i = 0; i < finalizers.length; i++) {
+            startCounts[i] = finalizers[i].progressCounter.get();
+        }
+        // A busy thread advances its counter when it takes its next reference, which is after it
+        // has finished the current one. This is rare enough not to warrant a notification on
+        // every finalizer's fast path, so poll, backing off a little.
+        long sleepMillis = 1;
+        for (int i = 0; i < finalizers.length; i++) {
+            FinalizerDaemon finalizer = finalizers[i];
+            if (finalizer.isCurrentThread()) {
+                continue;
+            }
+            while (FinalizerWatchdogDaemon.INSTANCE.isBusy(finalizer)
+                    && finalizer.progressCounter.get() == startCounts[i]) {
+                if (timeoutNanos != 0 && deadline - System.nanoTime() <= 0) {
+                    return false;
+                }
+                Thread.sleep(sleepMillis);
+                sleepMillis = Math.min(sleepMillis * 2, 16);
+            }
         }
+        return true;
     }
 
     private static void waitForDaemonStart() throws Exception {
@@ -100,9 +338,16 @@ public final class Daemons {
         private Thread thread;
         private String name;
         private boolean postZygoteFork;
+        // Helpers are extra worker threads, which the start latches don't wait for.
+        private final boolean helper;
 
         protected Daemon(String name) {
+            this(name, false);
+        }
+
+        protected Daemon(String name, boolean helper) {
             this.name = name;
+            this.helper = helper;
         }
 
         @UnsupportedAppUsage
@@ -132,8 +377,10 @@ public final class Daemons {
                 // priority. We (may) use a native priority that doesn't have a corresponding
                 // java.lang.Thread-level priority (native priorities are more coarse-grained.)
                 VMRuntime.getRuntime().setSystemDaemonThreadPriority();
-                POST_ZYGOTE_START_LATCH.countDown();
-            } else {
+                if (!helper) {
+                    POST_ZYGOTE_START_LATCH.countDown();
+                }
+            } else if (!helper) {
                 PRE_ZYGOTE_START_LATCH.countDown();
             }
             runInternal();
@@ -187,6 +434,11 @@ public final class Daemons {
             }
         }
 
+        /** Returns true if this daemon is running on the calling thread. */
+        synchronized boolean isCurrentThread() {
+            return thread == Thread.currentThread();
+        }
+
         /**
          * Returns the current stack trace of the thread, or an empty stack trace
          * if the thread is not currently running.
@@ -208,23 +460,55 @@ public final class Daemons {
             super("ReferenceQueueDaemon");
         }
 
+        ReferenceQueueDaemon(String name) {
+            super(name, true);
+        }
+
         @Override public void runInternal() {
+            // Cleaners run by enqueuePending free their native allocations in batches, which
+            // are flushed after each list.
+            NativeAllocationRegistry.startBatchingFrees();
             while (isRunning()) {
                 Reference<?> list;
+                boolean inFlight;
                 try {
                     synchronized (ReferenceQueue.class) {
                         while (ReferenceQueue.unenqueued == null) {
                             ReferenceQueue.class.wait();
                         }
-                        list = ReferenceQueue.unenqueued;
-                        ReferenceQueue.unenqueued = null;
+                        inFlight = referenceQueueDaemons.length > 1;
+                        if (!inFlight) {
+                            list = ReferenceQueue.unenqueued;
+                            ReferenceQueue.unenqueued = null;
+                        } else {
+                            // Take a batch at a time, leaving the rest for the other workers
+                            // so that a slow Cleaner doesn't hold up the whole list.
+                            list = ReferenceQueue.takeUnenqueued(REFERENCE_BATCH_SIZE);
+                            // Counted for awaitEnqueuedReferences().
+                            referenceListsInFlight++;
+                            if (ReferenceQueue.unenqueued != null) {
+                                ReferenceQueue.class.notifyAll();
+                            }
+                        }
                     }
                 } catch (InterruptedException e) {
                     continue;
                 } catch (OutOfMemoryError e) {
                     continue;
                 }
-                ReferenceQueue.enqueuePending(list);
+                try {
+                    ENQUEUED_REFERENCE_COUNT.add(ReferenceQueue.enqueuePending(list));
+                    NativeAllocationRegistry.flushBatchedFrees();
+                } finally {
+                    if (inFlight) {
+                        synchronized (ReferenceQueue.class) {
+                            if (--referenceListsInFlight == 0
+                                    && ReferenceQueue.unenqueued == null) {
+                                ReferenceQueue.class.notifyAll();
+                            }
+                        }
+                    }
+                }
             }
         }
     }
@@ -237,11 +521,20 @@ public final class Daemons {
         // Object (not reference!) being finalized. Accesses may race!
         @UnsupportedAppUsage
         private Object finalizingObject = null;
+        // Whether this thread is blocked waiting for work. Guarded by the
+        // FinalizerWatchdogDaemon.INSTANCE lock.
+        private boolean idle = false;
+        // The number of finalizers this thread has run. Only accessed by this thread.
+        private long finalizedCount = 0;
 
         FinalizerDaemon() {
             super("FinalizerDaemon");
         }
 
+        FinalizerDaemon(String name) {
+            super(name, true);
+        }
+
         @Override public void runInternal() {
             // This loop may be performance critical, since we need to keep up with mutator
             // generation of finalizable objects.
@@ -257,6 +550,10 @@ public final class Daemons {
             // Local copy of progressCounter; saves a fence per increment on ARM and MIPS.
             int localProgressCounter = progressCounter.get();
 
+            // Count as busy until the first wait for work, even if this thread was idle when it
+            // was last stopped.
+            FinalizerWatchdogDaemon.INSTANCE.wakeUp(this);
+
             while (isRunning()) {
                 try {
                     // Use non-blocking poll to avoid FinalizerWatchdogDaemon communication
@@ -269,17 +566,19 @@ public final class Daemons {
                         finalizingObject = null;
                         progressCounter.lazySet(++localProgressCounter);
                         // Slow path; block.
-                        FinalizerWatchdogDaemon.INSTANCE.goToSleep();
+                        FinalizerWatchdogDaemon.INSTANCE.goToSleep(this);
                         finalizingReference = (FinalizerReference<?>)queue.remove();
                         finalizingObject = finalizingReference.get();
                         progressCounter.set(++localProgressCounter);
-                        FinalizerWatchdogDaemon.INSTANCE.wakeUp();
+                        FinalizerWatchdogDaemon.INSTANCE.wakeUp(this);
                     }
                     doFinalize(finalizingReference);
                 } catch (InterruptedException ignored) {
                 } catch (OutOfMemoryError ignored) {
                 }
             }
+            // A stopped thread can't be stuck in a finalizer.
+            FinalizerWatchdogDaemon.INSTANCE.goToSleep(this);
         }
 
         @FindBugsSuppressWarnings("FI_EXPLICIT_INVOCATION")
@@ -287,6 +586,8 @@ public final class Daemons {
             FinalizerReference.remove(reference);
             Object object = reference.get();
             reference.clear();
+            boolean timed = (++finalizedCount % FINALIZER_LATENCY_SAMPLE_INTERVAL) == 0;
+            long startNanos = timed ? System.nanoTime() : 0;
             try {
                 object.finalize();
             } catch (Throwable ex) {
@@ -295,23 +596,32 @@ public final class Daemons {
             } finally {
                 // Done finalizing, stop holding the object as live.
                 finalizingObject = null;
+                FINALIZED_OBJECT_COUNT.increment();
+                if (timed) {
+                    long latencyNanos = System.nanoTime() - startNanos;
+                    FINALIZER_LATENCY_SAMPLE_COUNT.increment();
+                    FINALIZER_LATENCY_SAMPLE_NANOS.add(latencyNanos);
+                    MAX_FINALIZER_LATENCY_NANOS.accumulateAndGet(latencyNanos, Math::max);
+                }
             }
         }
     }
 
     /**
-     * The watchdog exits the VM if the finalizer ever gets stuck. We consider
-     * the finalizer to be stuck if it spends more than MAX_FINALIZATION_MILLIS
+     * The watchdog exits the VM if a finalizer thread ever gets stuck. We consider
+     * a finalizer thread to be stuck if it spends more than MAX_FINALIZATION_MILLIS
      * on one instance.
      */
     private static class FinalizerWatchdogDaemon extends Daemon {
         @UnsupportedAppUsage
         private static final FinalizerWatchdogDaemon INSTANCE = new FinalizerWatchdogDaemon();
 
-        private boolean needToWork = true;  // Only accessed in synchronized methods.
-
         private long finalizerTimeoutNs = 0;  // Lazily initialized.
 
+        // The finalizer thread that timed out, set along with the object returned by
+        // waitForFinalization(). Only accessed by the watchdog thread.
+        private FinalizerDaemon timedOutDaemon;
+
         FinalizerWatchdogDaemon() {
             super("FinalizerWatchdogDaemon");
         }
@@ -324,7 +634,7 @@ public final class Daemons {
                 }
                 final Object finalizing = waitForFinalization();
                 if (finalizing != null && !VMDebug.isDebuggerConnected()) {
-                    finalizerTimedOut(finalizing);
+                    finalizerTimedOut(timedOutDaemon, finalizing);
                     break;
                 }
             }
@@ -336,7 +646,7 @@ public final class Daemons {
          * See also http://code.google.com/p/android/issues/detail?id=22778.
          */
         private synchronized boolean sleepUntilNeeded() {
-            while (!needToWork) {
+            while (!getNeedToWork()) {
                 try {
                     wait();
                 } catch (InterruptedException e) {
@@ -350,23 +660,32 @@ public final class Daemons {
         }
 
         /**
-         * Notify daemon that it's OK to sleep until notified that something is ready to be
-         * finalized.
+         * Notify daemon that {@code finalizer} is waiting for something to be finalized. The
+         * daemon may sleep while every finalizer thread is waiting.
          */
-        private synchronized void goToSleep() {
-            needToWork = false;
+        private synchronized void goToSleep(FinalizerDaemon finalizer) {
+            finalizer.idle = true;
         }
 
         /**
-         * Notify daemon that there is something ready to be finalized.
+         * Notify daemon that {@code finalizer} has something ready to be finalized.
          */
-        private synchronized void wakeUp() {
-            needToWork = true;
+        private synchronized void wakeUp(FinalizerDaemon finalizer) {
+            finalizer.idle = false;
             notify();
         }
 
         private synchronized boolean getNeedToWork() {
-            return needToWork;
+            for (FinalizerDaemon finalizer : finalizerDaemons) {
+                if (!finalizer.idle) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized boolean isBusy(FinalizerDaemon finalizer) {
+            return !finalizer.idle;
         }
 
         /**
@@ -403,9 +722,10 @@ public final class Daemons {
 
         /**
          * Return an object that took too long to finalize or return null.
-         * Wait VMRuntime.getFinalizerTimeoutMs.  If the FinalizerDaemon took essentially the
-         * whole time processing a single reference, return that reference.  Otherwise return
-         * null.  Only called from a single thread.
+         * Wait VMRuntime.getFinalizerTimeoutMs.  If a finalizer thread took essentially the
+         * whole time processing a single reference, return that reference and set
+         * timedOutDaemon to that thread.  Otherwise return null.  Only called from a single
+         * thread.
          */
         private Object waitForFinalization() {
             if (finalizerTimeoutNs == 0) {
@@ -414,21 +734,31 @@ public final class Daemons {
                 // Temporary app backward compatibility. Remove eventually.
                 MAX_FINALIZE_NANOS = finalizerTimeoutNs;
             }
-            long startCount = FinalizerDaemon.INSTANCE.progressCounter.get();
+            FinalizerDaemon[] finalizers = finalizerDaemons;
+            int[] startCounts = new int[finalizers.length];
+            for (int i = 0; i < finalizers.length; i++) {
+                startCounts[i] = finalizers[i].progressCounter.get();
+            }
             // Avoid remembering object being finalized, so as not to keep it alive.
             if (!sleepForNanos(finalizerTimeoutNs)) {
                 // Don't report possibly spurious timeout if we are interrupted.
                 return null;
             }
-            if (getNeedToWork() && FinalizerDaemon.INSTANCE.progressCounter.get() == startCount) {
+            // Each finalizer thread is checked on its own, with the same reasoning as if it
+            // were the only one.
+            for (int i = 0; i < finalizers.length; i++) {
+                FinalizerDaemon finalizer = finalizers[i];
+                if (!isBusy(finalizer) || finalizer.progressCounter.get() != startCounts[i]) {
+                    continue;
+                }
                 // We assume that only remove() and doFinalize() may take time comparable to
                 // the finalizer timeout.
                 // We observed neither the effect of the gotoSleep() nor the increment preceding a
-                // later wakeUp. Any remove() call by the FinalizerDaemon during our sleep
-                // interval must have been followed by a wakeUp call before we checked needToWork.
+                // later wakeUp. Any remove() call by the finalizer thread during our sleep
+                // interval must have been followed by a wakeUp call before we checked isBusy.
                 // But then we would have seen the counter increment.  Thus there cannot have
                 // been such a remove() call.
-                // The FinalizerDaemon must not have progressed (from either the beginning or the
+                // The finalizer thread must not have progressed (from either the beginning or the
                 // last progressCounter increment) to either the next increment or gotoSleep()
                 // call.  Thus we must have taken essentially the whole finalizerTimeoutMs in a
                 // single doFinalize() call.  Thus it's OK to time out.  finalizingObject was set
@@ -436,25 +766,25 @@ public final class Daemons {
                 // are guaranteed to get the correct finalizing value below, unless doFinalize()
                 // just finished as we were timing out, in which case we may get null or a later
                 // one.  In this last case, we are very likely to discard it below.
-                Object finalizing = FinalizerDaemon.INSTANCE.finalizingObject;
+                Object finalizing = finalizer.finalizingObject;
                 sleepForNanos(500 * NANOS_PER_MILLI);
                 // Recheck to make it even less likely we report the wrong finalizing object in
                 // the case which a very slow finalization just finished as we were timing out.
-                if (getNeedToWork()
-                        && FinalizerDaemon.INSTANCE.progressCounter.get() == startCount) {
+                if (isBusy(finalizer) && finalizer.progressCounter.get() == startCounts[i]) {
+                    timedOutDaemon = finalizer;
                     return finalizing;
                 }
             }
             return null;
         }
 
-        private static void finalizerTimedOut(Object object) {
+        private static void finalizerTimedOut(FinalizerDaemon finalizer, Object object) {
             // The current object has exceeded the finalization deadline; abort!
             String message = object.getClass().getName() + ".finalize() timed out after "
                     + VMRuntime.getRuntime().getFinalizerTimeoutMs() / 1000 + " seconds";
             Exception syntheticException = new TimeoutException(message);
             // We use the stack from where finalize() was running to show where it was stuck.
-            syntheticException.setStackTrace(FinalizerDaemon.INSTANCE.getStackTrace());
+            syntheticException.setStackTrace(finalizer.getStackTrace());
 
             // Send SIGQUIT to get native stack traces.
             try {
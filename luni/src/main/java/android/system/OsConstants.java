@@ -251,6 +251,30 @@ public final class OsConstants {
     public static final int EOVERFLOW = placeholder();
     public static final int EPERM = placeholder();
     public static final int EPIPE = placeholder();
+    /** @hide */
+    public static final int EPOLLERR = placeholder();
+    /** @hide */
+    public static final int EPOLLET = placeholder();
+    /** @hide */
+    public static final int EPOLLHUP = placeholder();
+    /** @hide */
+    public static final int EPOLLIN = placeholder();
+    /** @hide */
+    public static final int EPOLLONESHOT = placeholder();
+    /** @hide */
+    public static final int EPOLLOUT = placeholder();
+    /** @hide */
+    public static final int EPOLLPRI = placeholder();
+    /** @hide */
+    public static final int EPOLLRDHUP = placeholder();
+    /** @hide */
+    public static final int EPOLL_CLOEXEC = placeholder();
+    /** @hide */
+    public static final int EPOLL_CTL_ADD = placeholder();
+    /** @hide */
+    public static final int EPOLL_CTL_DEL = placeholder();
+    /** @hide */
+    public static final int EPOLL_CTL_MOD = placeholder();
     public static final int EPROTO = placeholder();
     public static final int EPROTONOSUPPORT = placeholder();
     public static final int EPROTOTYPE = placeholder();
@@ -358,6 +382,16 @@ public final class OsConstants {
     @UnsupportedAppUsage
     @libcore.api.CorePlatformApi
     public static final int _LINUX_CAPABILITY_VERSION_3 = placeholder();
+    /** @hide */
+    public static final int MADV_DONTNEED = placeholder();
+    /** @hide */
+    public static final int MADV_NORMAL = placeholder();
+    /** @hide */
+    public static final int MADV_RANDOM = placeholder();
+    /** @hide */
+    public static final int MADV_SEQUENTIAL = placeholder();
+    /** @hide */
+    public static final int MADV_WILLNEED = placeholder();
     public static final int MAP_FIXED = placeholder();
     public static final int MAP_ANONYMOUS = placeholder();
     /** @hide */
@@ -382,6 +416,8 @@ public final class OsConstants {
     public static final int MSG_PEEK = placeholder();
     public static final int MSG_TRUNC = placeholder();
     public static final int MSG_WAITALL = placeholder();
+    /** @hide */
+    public static final int MSG_WAITFORONE = placeholder();
     public static final int MS_ASYNC = placeholder();
     public static final int MS_INVALIDATE = placeholder();
     public static final int MS_SYNC = placeholder();
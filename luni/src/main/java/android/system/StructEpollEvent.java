@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.system;
+
+import libcore.util.Objects;
+
+/**
+ * Corresponds to C's {@code struct epoll_event} from {@code <sys/epoll.h>}, with
+ * the {@code epoll_data} union always treated as its {@code u64} member.
+ *
+ * <p>{@link libcore.io.Os#epoll_wait(java.io.FileDescriptor, java.nio.ByteBuffer, int)}
+ * writes events into a direct buffer instead, each occupying {@link #BUFFER_EVENT_SIZE}
+ * bytes in native byte order, with {@link #events} at {@link #BUFFER_EVENTS_OFFSET} and
+ * {@link #data} at {@link #BUFFER_DATA_OFFSET}. This layout is the same on all ABIs.
+ *
+ * @hide
+ */
+public final class StructEpollEvent {
+    /** The size in bytes of each event written into a buffer. */
+    public static final int BUFFER_EVENT_SIZE = 16;
+
+    /** The offset of the 32-bit events mask within each event written into a buffer. */
+    public static final int BUFFER_EVENTS_OFFSET = 0;
+
+    /** The offset of the 64-bit user data within each event written into a buffer. */
+    public static final int BUFFER_DATA_OFFSET = 8;
+
+    /** The EPOLL* event mask: requested events for epoll_ctl, ready events for epoll_wait. */
+    public int events;
+
+    /** Opaque user data, returned unchanged by epoll_wait. */
+    public long data;
+
+    public StructEpollEvent() {
+    }
+
+    public StructEpollEvent(int events, long data) {
+        this.events = events;
+        this.data = data;
+    }
+
+    @Override public String toString() {
+        return Objects.toString(this);
+    }
+}
@@ -91,6 +91,12 @@ public final class FinalizerReference<T> extends Reference<T> {
      * Waits for all currently-enqueued references to be finalized.
      */
     public static void finalizeAllEnqueued(long timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout;
+        // With several reference queue threads, references that the GC has handed over could
+        // get to the queue after the sentinel, so wait for them to be enqueued first.
+        if (!Daemons.awaitEnqueuedReferences(remainingTimeout(timeout, deadline))) {
+            return;
+        }
         // Alloate a new sentinel, this creates a FinalizerReference.
         Sentinel sentinel;
         // Keep looping until we safely enqueue our sentinel FinalizerReference.
@@ -99,7 +105,20 @@ public final class FinalizerReference<T> extends Reference<T> {
         do {
             sentinel = new Sentinel();
         } while (!enqueueSentinelReference(sentinel));
-        sentinel.awaitFinalization(timeout);
+        if (!sentinel.awaitFinalization(remainingTimeout(timeout, deadline))) {
+            return;
+        }
+        // With several finalizer threads, the others may still be running finalizers they took
+        // off the queue before the sentinel.
+        Daemons.awaitRunningFinalizers(remainingTimeout(timeout, deadline));
+    }
+
+    /** Returns what is left of {@code timeout} at {@code deadline}, where 0 means no timeout. */
+    private static long remainingTimeout(long timeout, long deadline) {
+        if (timeout == 0) {
+            return 0;
+        }
+        return Math.max(1, deadline - System.nanoTime());
     }
 
     private static boolean enqueueSentinelReference(Sentinel sentinel) {
@@ -158,7 +177,8 @@ public final class FinalizerReference<T> extends Reference<T> {
             notifyAll();
         }
 
-        synchronized void awaitFinalization(long timeout) throws InterruptedException {
+        /** Returns whether this object was finalized before the timeout. */
+        synchronized boolean awaitFinalization(long timeout) throws InterruptedException {
             final long startTime = System.nanoTime();
             final long endTime = startTime + timeout;
             while (!finalized) {
@@ -175,6 +195,7 @@ public final class FinalizerReference<T> extends Reference<T> {
                     wait();
                 }
             }
+            return finalized;
         }
     }
 }
@@ -17,30 +17,72 @@
 package java.net;
 
 import android.compat.annotation.UnsupportedAppUsage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import libcore.util.BasicLruCache;
 
 /**
  * Implements caching for {@code InetAddress}. We use a unified cache for both positive and negative
  * cache entries.
  *
+ * Reads never lock: entries live in one concurrent map per network, and the maps are found by
+ * scanning a small copy-on-write array so that a lookup doesn't have to allocate a key. Concurrent
+ * misses for the same hostname and network are coalesced so that only one thread calls into the
+ * resolver.
+ *
+ * Once more than the maximum number of entries are cached, the entry that was put longest ago is
+ * dropped from its network's map, whichever network that is. Lookups don't change this order.
+ *
  * TODO: benchmark and optimize InetAddress until we get to the point where we can just rely on
  * the C library level caching. The main thing caching at this level buys us is avoiding repeated
  * conversions from 'struct sockaddr's to InetAddress[].
  */
 class AddressCache {
     /**
-     * When the cache contains more entries than this, we start dropping the oldest ones.
-     * This should be a power of two to avoid wasted space in our custom map.
+     * When the cache contains more entries than this, we start dropping the ones put longest ago.
      */
-    private static final int MAX_ENTRIES = 16;
+    private static final int DEFAULT_MAX_ENTRIES = 256;
 
     // The TTL for the Java-level cache is short, just 2s.
     private static final long TTL_NANOS = 2 * 1000000000L;
 
-    // The actual cache.
+    // How long a lookup waits for another thread resolving the same hostname before resolving it
+    // itself.
+    private static final long MAX_COALESCED_WAIT_NANOS = 5 * 1000000000L;
+
+    /** Performs the actual lookup on a cache miss. */
+    interface Resolver {
+        InetAddress[] resolve(String hostname, int netId) throws UnknownHostException;
+    }
+
+    private final int maxEntries;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+
+    /**
+     * The per-network caches. Replaced wholesale (under the lock on 'this') when a network is
+     * first seen, so readers can scan it without locking.
+     */
+    private volatile NetworkCache[] networks = new NetworkCache[0];
+
+    /** Lookups currently in progress, for coalescing concurrent misses. */
+    private final Map<AddressCacheKey, PendingLookup> pending = new ConcurrentHashMap<>();
+
+    /**
+     * The entries put into the cache, most recently put last. Apps reach this field by
+     * reflection, for example to evictAll() it and flush the cache, so it keeps its name and
+     * type. Lookups don't read it, but an entry evicted from it is removed from the per-network
+     * caches too, which is what bounds them.
+     */
     @UnsupportedAppUsage
-    private final BasicLruCache<AddressCacheKey, AddressCacheEntry> cache
-            = new BasicLruCache<AddressCacheKey, AddressCacheEntry>(MAX_ENTRIES);
+    private final BasicLruCache<AddressCacheKey, AddressCacheEntry> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
 
     static class AddressCacheKey {
         @UnsupportedAppUsage
@@ -81,16 +123,67 @@ class AddressCache {
          * The absolute expiry time in nanoseconds. Nanoseconds from System.nanoTime is ideal
          * because -- unlike System.currentTimeMillis -- it can never go backwards.
          *
-         * We don't need to worry about overflow with a TTL_NANOS of 2s.
+         * Comparisons are written as differences so that they stay correct across overflow.
          */
         @UnsupportedAppUsage
         final long expiryNanos;
 
         @UnsupportedAppUsage
         AddressCacheEntry(Object value) {
+            this(value, System.nanoTime() + TTL_NANOS);
+        }
+
+        AddressCacheEntry(Object value, long expiryNanos) {
             this.value = value;
-            this.expiryNanos = System.nanoTime() + TTL_NANOS;
+            this.expiryNanos = expiryNanos;
         }
+
+        boolean isExpired(long nowNanos) {
+            return expiryNanos - nowNanos < 0;
+        }
+    }
+
+    private static final class NetworkCache {
+        final int netId;
+        final ConcurrentHashMap<String, AddressCacheEntry> entries = new ConcurrentHashMap<>();
+
+        NetworkCache(int netId) {
+            this.netId = netId;
+        }
+    }
+
+    /** A lookup in progress, which threads that miss on the same key wait for. */
+    private static final class PendingLookup {
+        final CountDownLatch done = new CountDownLatch(1);
+    }
+
+    AddressCache() {
+        this(DEFAULT_MAX_ENTRIES, TTL_NANOS, TTL_NANOS);
+    }
+
+    /**
+     * Creates a cache of at most 'maxEntries' entries, which keeps positive results for
+     * 'positiveTtlNanos' and negative results for 'negativeTtlNanos'. A TTL of zero disables
+     * caching of that kind of result.
+     */
+    AddressCache(int maxEntries, long positiveTtlNanos, long negativeTtlNanos) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries <= 0: " + maxEntries);
+        }
+        if (positiveTtlNanos < 0 || negativeTtlNanos < 0) {
+            throw new IllegalArgumentException("negative TTL");
+        }
+        this.maxEntries = maxEntries;
+        this.positiveTtlNanos = positiveTtlNanos;
+        this.negativeTtlNanos = negativeTtlNanos;
+        this.cache = new BasicLruCache<AddressCacheKey, AddressCacheEntry>(maxEntries) {
+            @Override protected void entryEvicted(AddressCacheKey key, AddressCacheEntry value) {
+                NetworkCache network = findNetwork(key.mNetId);
+                if (network != null) {
+                    network.entries.remove(key.mHostname, value);
+                }
+            }
+        };
     }
 
     /**
@@ -98,6 +191,9 @@ class AddressCache {
      */
     public void clear() {
         cache.evictAll();
+        for (NetworkCache network : networks) {
+            network.entries.clear();
+        }
     }
 
     /**
@@ -106,22 +202,97 @@ class AddressCache {
      * UnknownHostException detail message if 'hostname' is known not to exist.
      */
     public Object get(String hostname, int netId) {
-        AddressCacheEntry entry = cache.get(new AddressCacheKey(hostname, netId));
-        // Do we have a valid cache entry?
-        if (entry != null && entry.expiryNanos >= System.nanoTime()) {
-            return entry.value;
+        Object value = getValue(hostname, netId);
+        if (value != null) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+        }
+        return value;
+    }
+
+    /** Like get, but without counting a hit or miss. */
+    private Object getValue(String hostname, int netId) {
+        NetworkCache network = findNetwork(netId);
+        if (network != null) {
+            AddressCacheEntry entry = network.entries.get(hostname);
+            // Do we have a valid cache entry?
+            if (entry != null && !entry.isExpired(System.nanoTime())) {
+                return entry.value;
+            }
         }
         // Either we didn't find anything, or it had expired.
         // No need to remove expired entries: the caller will provide a replacement shortly.
         return null;
     }
 
+    /**
+     * Returns the addresses of 'hostname' on network 'netId', from the cache if possible and
+     * otherwise from 'resolver'. If other threads are already resolving the same hostname on the
+     * same network, waits for and shares their result rather than calling 'resolver' again.
+     * Failures reported by 'resolver' as an UnknownHostException are cached as negative entries.
+     */
+    public InetAddress[] lookup(String hostname, int netId, Resolver resolver)
+            throws UnknownHostException {
+        AddressCacheKey key = null;
+        PendingLookup ours = null;
+        while (true) {
+            // Only the first probe counts as a hit or a miss.
+            Object cachedResult = (key == null) ? get(hostname, netId) : getValue(hostname, netId);
+            if (cachedResult instanceof InetAddress[]) {
+                // A cached positive result.
+                return (InetAddress[]) cachedResult;
+            } else if (cachedResult != null) {
+                // A cached negative result.
+                throw new UnknownHostException((String) cachedResult);
+            }
+
+            if (key == null) {
+                key = new AddressCacheKey(hostname, netId);
+                ours = new PendingLookup();
+            }
+            PendingLookup theirs = pending.putIfAbsent(key, ours);
+            if (theirs == null) {
+                break;
+            }
+            // Another thread is resolving this key. When it finishes, its result will be in the
+            // cache unless it failed in a way we don't cache, in which case we try ourselves.
+            coalescedCount.increment();
+            if (!await(theirs.done)) {
+                // Interrupted, or the other lookup is taking too long. Resolve the hostname
+                // without it, as if lookups weren't coalesced.
+                return resolve(hostname, netId, resolver);
+            }
+        }
+
+        try {
+            return resolve(hostname, netId, resolver);
+        } finally {
+            pending.remove(key).done.countDown();
+        }
+    }
+
+    private InetAddress[] resolve(String hostname, int netId, Resolver resolver)
+            throws UnknownHostException {
+        InetAddress[] addresses;
+        try {
+            addresses = resolver.resolve(hostname, netId);
+        } catch (UnknownHostException e) {
+            putUnknownHost(hostname, netId, e.getMessage());
+            throw e;
+        }
+        put(hostname, netId, addresses);
+        return addresses;
+    }
+
     /**
      * Associates the given 'addresses' with 'hostname'. The association will expire after a
      * certain length of time.
      */
     public void put(String hostname, int netId, InetAddress[] addresses) {
-        cache.put(new AddressCacheKey(hostname, netId), new AddressCacheEntry(addresses));
+        if (positiveTtlNanos > 0) {
+            putEntry(hostname, netId, addresses, positiveTtlNanos);
+        }
     }
 
     /**
@@ -129,6 +300,114 @@ class AddressCache {
      * negative cache entry.)
      */
     public void putUnknownHost(String hostname, int netId, String detailMessage) {
-        cache.put(new AddressCacheKey(hostname, netId), new AddressCacheEntry(detailMessage));
+        if (negativeTtlNanos > 0) {
+            putEntry(hostname, netId, detailMessage, negativeTtlNanos);
+        }
+    }
+
+    /** Returns the number of calls to get or lookup that found a valid entry. */
+    long hitCount() {
+        return hitCount.sum();
+    }
+
+    /** Returns the number of calls to get or lookup that found no valid entry. */
+    long missCount() {
+        return missCount.sum();
+    }
+
+    /** Returns the number of lookups that waited for another thread's resolution. */
+    long coalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    private void putEntry(String hostname, int netId, Object value, long ttlNanos) {
+        long now = System.nanoTime();
+        AddressCacheEntry entry = new AddressCacheEntry(value, now + ttlNanos);
+        getOrCreateNetwork(netId).entries.put(hostname, entry);
+        cache.put(new AddressCacheKey(hostname, netId), entry);
+        if (size() > maxEntries) {
+            trimToSize(now);
+        }
+    }
+
+    private NetworkCache findNetwork(int netId) {
+        for (NetworkCache network : networks) {
+            if (network.netId == netId) {
+                return network;
+            }
+        }
+        return null;
+    }
+
+    private NetworkCache getOrCreateNetwork(int netId) {
+        NetworkCache network = findNetwork(netId);
+        if (network != null) {
+            return network;
+        }
+        synchronized (this) {
+            NetworkCache[] current = networks;
+            for (NetworkCache existing : current) {
+                if (existing.netId == netId) {
+                    return existing;
+                }
+            }
+            network = new NetworkCache(netId);
+            NetworkCache[] updated = new NetworkCache[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, current.length);
+            updated[current.length] = network;
+            networks = updated;
+            return network;
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (NetworkCache network : networks) {
+            size += network.entries.size();
+        }
+        return size;
+    }
+
+    /**
+     * Drops expired entries and then, while the cache is still too large, the entries closest to
+     * expiry. 'cache' normally keeps the per-network maps within 'maxEntries'; this only runs when
+     * concurrent puts of one key left an entry in a map that 'cache' no longer holds.
+     */
+    private synchronized void trimToSize(long now) {
+        for (NetworkCache network : networks) {
+            network.entries.values().removeIf(entry -> entry.isExpired(now));
+        }
+        while (size() > maxEntries) {
+            NetworkCache eldestNetwork = null;
+            String eldestHostname = null;
+            AddressCacheEntry eldestEntry = null;
+            for (NetworkCache network : networks) {
+                for (Map.Entry<String, AddressCacheEntry> e : network.entries.entrySet()) {
+                    AddressCacheEntry entry = e.getValue();
+                    if (eldestEntry == null || entry.expiryNanos - eldestEntry.expiryNanos < 0) {
+                        eldestNetwork = network;
+                        eldestHostname = e.getKey();
+                        eldestEntry = entry;
+                    }
+                }
+            }
+            if (eldestEntry == null) {
+                return;
+            }
+            eldestNetwork.entries.remove(eldestHostname, eldestEntry);
+        }
+    }
+
+    /**
+     * Waits at most MAX_COALESCED_WAIT_NANOS for 'latch'. Returns false if it timed out or the
+     * thread was interrupted, in which case the thread's interrupt status is set again.
+     */
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(MAX_COALESCED_WAIT_NANOS, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
     }
 }
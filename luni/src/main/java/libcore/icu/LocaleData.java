@@ -35,8 +35,10 @@ import com.android.icu.util.ExtendedCalendar;
 import dalvik.system.VMRuntime;
 
 import java.text.DateFormat;
-import java.util.HashMap;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import libcore.util.Objects;
 
 /**
@@ -87,8 +89,12 @@ public final class LocaleData {
     @EnabledAfter(targetSdkVersion=29 /* Android Q */)
     public static final long USE_REAL_ROOT_LOCALE = 159047832L;
 
-    // A cache for the locale-specific data.
-    private static final HashMap<String, LocaleData> localeDataCache = new HashMap<String, LocaleData>();
+    // A cache for the locale-specific data. Reads don't take a lock.
+    private static final ConcurrentHashMap<String, LocaleData> localeDataCache =
+            new ConcurrentHashMap<String, LocaleData>();
+    // The locales being initialized, so that concurrent misses for a locale build it once.
+    private static final ConcurrentHashMap<String, PendingLocaleData> pendingLocaleData =
+            new ConcurrentHashMap<String, PendingLocaleData>();
     static {
         // Ensure that we pull in the locale data for the root locale, en_US, and the
         // user's default locale. (All devices must support the root locale and en_US,
@@ -225,20 +231,107 @@ public final class LocaleData {
         locale = getCompatibleLocaleForBug159514442(locale);
 
         final String languageTag = locale.toLanguageTag();
-        synchronized (localeDataCache) {
-            LocaleData localeData = localeDataCache.get(languageTag);
+        LocaleData localeData = localeDataCache.get(languageTag);
+        if (localeData != null) {
+            return localeData;
+        }
+        // Only allocate a task if no other thread has one pending for this locale.
+        PendingLocaleData pending = pendingLocaleData.get(languageTag);
+        PendingLocaleData task = null;
+        if (pending == null) {
+            task = new PendingLocaleData(locale);
+            pending = pendingLocaleData.putIfAbsent(languageTag, task);
+        }
+        if (pending == null) {
+            // Check again, in case another thread finished just before the task was added.
+            localeData = localeDataCache.get(languageTag);
             if (localeData != null) {
+                pendingLocaleData.remove(languageTag, task);
                 return localeData;
             }
-        }
-        LocaleData newLocaleData = initLocaleData(locale);
-        synchronized (localeDataCache) {
-            LocaleData localeData = localeDataCache.get(languageTag);
-            if (localeData != null) {
+            try {
+                task.run();
+                localeData = getUninterruptibly(task);
+                localeDataCache.put(languageTag, localeData);
                 return localeData;
+            } finally {
+                pendingLocaleData.remove(languageTag, task);
+            }
+        }
+        if (pending.mOwner == Thread.currentThread()) {
+            // Initializing the locale needed its own data; don't wait for ourselves.
+            return initLocaleData(locale);
+        }
+        return getUninterruptibly(pending);
+    }
+
+    /**
+     * The initialization of a locale's data, which the threads that miss the cache for it
+     * while it runs wait for.
+     */
+    private static final class PendingLocaleData extends FutureTask<LocaleData> {
+        final Thread mOwner = Thread.currentThread();
+
+        PendingLocaleData(Locale locale) {
+            super(() -> initLocaleData(locale));
+        }
+    }
+
+    private static LocaleData getUninterruptibly(FutureTask<LocaleData> task) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
             }
-            localeDataCache.put(languageTag, newLocaleData);
-            return newLocaleData;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Initializes the shared LocaleData of the given locales, so that {@link #get(Locale)}
+     * returns them without calling into ICU. This is meant to be called by the zygote before
+     * it forks, so that the data is shared by all apps.
+     *
+     * <p>The locales are initialized one after the other on the calling thread, since the
+     * zygote can't start threads while it preloads. A locale that fails doesn't keep the
+     * others from being initialized; the first failure is thrown once they all have been tried.
+     */
+    public static void prewarm(Locale[] locales) {
+        for (Locale locale : locales) {
+            if (locale == null) {
+                throw new NullPointerException("locale == null");
+            }
+        }
+        RuntimeException failure = null;
+        for (Locale locale : locales) {
+            try {
+                get(locale);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
         }
     }
 
@@ -16,20 +16,109 @@
 
 package libcore.internal;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * A pool of string instances. Unlike the {@link String#intern() VM's
  * interned strings}, this pool provides no guarantee of reference equality.
- * It is intended only to save allocations. This class is not thread safe.
+ * It is intended only to save allocations.
+ *
+ * <p>Pools created with {@link #StringPool()} are not thread safe. Pools
+ * created with {@link #newSharedPool(int, int)} may be shared by any number
+ * of threads; concurrent callers never block, though a racing update may
+ * occasionally replace a string that another thread just pooled.
+ *
+ * <p>Slots are grouped into buckets of {@code ways} strings each. A string
+ * may live in any slot of the bucket its content hashes to, so strings whose
+ * hashes collide do not evict each other until the bucket is full.
  *
  * @hide
  */
 @libcore.api.CorePlatformApi
 public final class StringPool {
 
-    private final String[] pool = new String[512];
+    private static final int DEFAULT_CAPACITY = 512;
+
+    /** Slots of an unshared pool, or null if this pool is shared. */
+    private final String[] pool;
+
+    /** Slots of a shared pool, or null if this pool is unshared. */
+    private final AtomicReferenceArray<String> sharedPool;
+
+    /** The number of slots in each bucket. Always a power of two. */
+    private final int ways;
+
+    /** Masks a hash code down to a bucket index. */
+    private final int bucketMask;
+
+    // Unshared pools count with plain fields; shared pools use adders so
+    // that counting doesn't reintroduce contention between threads.
+    private long hitCount;
+    private long missCount;
+    private final LongAdder sharedHitCount;
+    private final LongAdder sharedMissCount;
 
     @libcore.api.CorePlatformApi
     public StringPool() {
+        this(DEFAULT_CAPACITY, 1, false);
+    }
+
+    private StringPool(int capacity, int ways, boolean shared) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        if (ways <= 0 || Integer.bitCount(ways) != 1 || ways > capacity) {
+            throw new IllegalArgumentException("ways must be a power of two no larger than "
+                    + "capacity: " + ways);
+        }
+        this.ways = ways;
+        this.bucketMask = (capacity / ways) - 1;
+        if (shared) {
+            this.pool = null;
+            this.sharedPool = new AtomicReferenceArray<>(capacity);
+            this.sharedHitCount = new LongAdder();
+            this.sharedMissCount = new LongAdder();
+        } else {
+            this.pool = new String[capacity];
+            this.sharedPool = null;
+            this.sharedHitCount = null;
+            this.sharedMissCount = null;
+        }
+    }
+
+    /**
+     * Returns a new unshared pool of {@code capacity} strings, grouped into
+     * buckets of {@code ways} strings each. Both arguments must be powers of
+     * two, and {@code ways} must not exceed {@code capacity}.
+     */
+    public static StringPool newPool(int capacity, int ways) {
+        return new StringPool(capacity, ways, false);
+    }
+
+    /**
+     * Returns a new thread safe pool of {@code capacity} strings, grouped
+     * into buckets of {@code ways} strings each. Both arguments must be
+     * powers of two, and {@code ways} must not exceed {@code capacity}.
+     */
+    public static StringPool newSharedPool(int capacity, int ways) {
+        return new StringPool(capacity, ways, true);
+    }
+
+    /** Returns true if this pool may be used by multiple threads. */
+    public boolean isShared() {
+        return sharedPool != null;
+    }
+
+    /** Returns the number of lookups that returned a previously pooled string. */
+    public long hitCount() {
+        return sharedHitCount != null ? sharedHitCount.sum() : hitCount;
+    }
+
+    /** Returns the number of lookups that had to allocate a new string. */
+    public long missCount() {
+        return sharedMissCount != null ? sharedMissCount.sum() : missCount;
     }
 
     private static boolean contentEquals(String s, char[] chars, int start, int length) {
@@ -44,6 +133,29 @@ public final class StringPool {
         return true;
     }
 
+    /**
+     * Returns true if {@code s} equals the ASCII bytes in the given range.
+     * Callers must have checked that every byte in the range is ASCII.
+     */
+    private static boolean contentEquals(String s, byte[] ascii, int start, int length) {
+        if (s.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (ascii[start + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Pick a bucket using Doug Lea's supplemental secondaryHash function (from HashMap). */
+    private static int secondaryHash(int hashCode) {
+        hashCode ^= (hashCode >>> 20) ^ (hashCode >>> 12);
+        hashCode ^= (hashCode >>> 7) ^ (hashCode >>> 4);
+        return hashCode;
+    }
+
     /**
      * Returns a string equal to {@code new String(array, start, length)}.
      */
@@ -54,19 +166,116 @@ public final class StringPool {
         for (int i = start; i < start + length; i++) {
             hashCode = (hashCode * 31) + array[i];
         }
+        int first = (secondaryHash(hashCode) & bucketMask) * ways;
 
-        // Pick a bucket using Doug Lea's supplemental secondaryHash function (from HashMap)
-        hashCode ^= (hashCode >>> 20) ^ (hashCode >>> 12);
-        hashCode ^= (hashCode >>> 7) ^ (hashCode >>> 4);
-        int index = hashCode & (pool.length - 1);
-
-        String pooled = pool[index];
-        if (pooled != null && contentEquals(pooled, array, start, length)) {
-            return pooled;
+        for (int i = first; i < first + ways; i++) {
+            String pooled = slot(i);
+            if (pooled == null) {
+                break;
+            }
+            if (contentEquals(pooled, array, start, length)) {
+                recordHit();
+                return pooled;
+            }
         }
 
         String result = new String(array, start, length);
-        pool[index] = result;
+        insert(first, result);
         return result;
     }
+
+    /**
+     * Returns a string equal to
+     * {@code new String(utf8, start, length, StandardCharsets.UTF_8)}.
+     *
+     * <p>Pure ASCII input is hashed and compared directly on the bytes, so
+     * a hit allocates nothing. Other input is decoded before it is pooled.
+     */
+    public String get(byte[] utf8, int start, int length) {
+        // Hash the bytes exactly as get(char[], int, int) would hash the
+        // equivalent chars, so both entry points share pooled strings.
+        int hashCode = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = utf8[i];
+            if (b < 0) {
+                return get(new String(utf8, start, length, StandardCharsets.UTF_8));
+            }
+            hashCode = (hashCode * 31) + b;
+        }
+        int first = (secondaryHash(hashCode) & bucketMask) * ways;
+
+        for (int i = first; i < first + ways; i++) {
+            String pooled = slot(i);
+            if (pooled == null) {
+                break;
+            }
+            if (contentEquals(pooled, utf8, start, length)) {
+                recordHit();
+                return pooled;
+            }
+        }
+
+        String result = new String(utf8, start, length, StandardCharsets.ISO_8859_1);
+        insert(first, result);
+        return result;
+    }
+
+    /**
+     * Returns a pooled string equal to {@code s}, pooling {@code s} itself if
+     * no equal string is present.
+     */
+    private String get(String s) {
+        // String.hashCode() uses the same function as get(char[], int, int).
+        int first = (secondaryHash(s.hashCode()) & bucketMask) * ways;
+
+        for (int i = first; i < first + ways; i++) {
+            String pooled = slot(i);
+            if (pooled == null) {
+                break;
+            }
+            if (pooled.equals(s)) {
+                recordHit();
+                return pooled;
+            }
+        }
+
+        insert(first, s);
+        return s;
+    }
+
+    private String slot(int index) {
+        return pool != null ? pool[index] : sharedPool.get(index);
+    }
+
+    private void recordHit() {
+        if (sharedHitCount != null) {
+            sharedHitCount.increment();
+        } else {
+            hitCount++;
+        }
+    }
+
+    /**
+     * Inserts {@code s} at the head of the bucket starting at {@code first},
+     * shifting the bucket's other strings down and dropping its oldest.
+     */
+    private void insert(int first, String s) {
+        if (pool != null) {
+            missCount++;
+            System.arraycopy(pool, first, pool, first + 1, ways - 1);
+            pool[first] = s;
+            return;
+        }
+
+        // Strings are immutable, so a racing reader that sees a slot
+        // mid-shift at worst misses and allocates an equal string.
+        sharedMissCount.increment();
+        for (int i = first + ways - 1; i > first; i--) {
+            String previous = sharedPool.get(i - 1);
+            if (previous != null) {
+                sharedPool.lazySet(i, previous);
+            }
+        }
+        sharedPool.lazySet(first, s);
+    }
 }
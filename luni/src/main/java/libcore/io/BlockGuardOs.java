@@ -22,6 +22,7 @@ import android.system.GaiException;
 import android.system.Int64Ref;
 import android.system.OsConstants;
 import android.system.StructAddrinfo;
+import android.system.StructEpollEvent;
 import android.system.StructLinger;
 import android.system.StructPollfd;
 import android.system.StructStat;
@@ -167,6 +168,21 @@ public class BlockGuardOs extends ForwardingOs {
         super.connect(fd, address);
     }
 
+    @Override public int epoll_wait(FileDescriptor epfd, StructEpollEvent[] events, int timeoutMs) throws ErrnoException {
+        // As for poll, a timeout of 0 returns immediately and shouldn't be subject to BlockGuard.
+        if (timeoutMs != 0) {
+            BlockGuard.getThreadPolicy().onNetwork();
+        }
+        return super.epoll_wait(epfd, events, timeoutMs);
+    }
+
+    @Override public int epoll_wait(FileDescriptor epfd, ByteBuffer events, int timeoutMs) throws ErrnoException {
+        if (timeoutMs != 0) {
+            BlockGuard.getThreadPolicy().onNetwork();
+        }
+        return super.epoll_wait(epfd, events, timeoutMs);
+    }
+
     @UnsupportedAppUsage
     @Override public void fchmod(FileDescriptor fd, int mode) throws ErrnoException {
         BlockGuard.getThreadPolicy().onWriteToDisk();
@@ -353,6 +369,11 @@ public class BlockGuardOs extends ForwardingOs {
         return super.recvfrom(fd, bytes, byteOffset, byteCount, flags, srcAddress);
     }
 
+    @Override public int recvmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] srcAddresses) throws ErrnoException, SocketException {
+        BlockGuard.getThreadPolicy().onNetwork();
+        return super.recvmmsg(fd, buffers, flags, srcAddresses);
+    }
+
     @UnsupportedAppUsage
     @Override public void remove(String path) throws ErrnoException {
         BlockGuard.getThreadPolicy().onWriteToDisk();
@@ -373,6 +394,11 @@ public class BlockGuardOs extends ForwardingOs {
         return super.sendfile(outFd, inFd, offset, byteCount);
     }
 
+    @Override public int sendmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] destAddresses) throws ErrnoException, SocketException {
+        BlockGuard.getThreadPolicy().onNetwork();
+        return super.sendmmsg(fd, buffers, flags, destAddresses);
+    }
+
     @Override public int sendto(FileDescriptor fd, ByteBuffer buffer, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException {
         BlockGuard.getThreadPolicy().onNetwork();
         return super.sendto(fd, buffer, flags, inetAddress, port);
@@ -500,4 +526,10 @@ public class BlockGuardOs extends ForwardingOs {
         BlockGuard.getThreadPolicy().onReadFromDisk();
         return super.splice(fdIn, offIn, fdOut, offOut, len, flags);
     }
+
+    @Override public long copy_file_range(FileDescriptor fdIn, Int64Ref offIn, FileDescriptor fdOut, Int64Ref offOut, long len, int flags) throws ErrnoException {
+        BlockGuard.getThreadPolicy().onWriteToDisk();
+        BlockGuard.getThreadPolicy().onReadFromDisk();
+        return super.copy_file_range(fdIn, offIn, fdOut, offOut, len, flags);
+    }
 }
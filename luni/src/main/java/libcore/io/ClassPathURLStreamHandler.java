@@ -26,6 +26,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
 import sun.net.www.ParseUtil;
@@ -78,6 +82,18 @@ public class ClassPathURLStreamHandler extends Handler {
     return entry != null && entry.getMethod() == ZipEntry.STORED;
   }
 
+  /**
+   * Returns the names of all the entries in the jar file, in the order of its central directory.
+   */
+  public List<String> getEntryNames() {
+    List<String> names = new ArrayList<>(jarFile.size());
+    Enumeration<JarEntry> entries = jarFile.entries();
+    while (entries.hasMoreElements()) {
+      names.add(entries.nextElement().getName());
+    }
+    return names;
+  }
+
   @Override
   protected URLConnection openConnection(URL url) throws IOException {
     return new ClassPathURLConnection(url);
@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.io;
+
+import android.system.ErrnoException;
+import android.system.StructEpollEvent;
+
+import java.io.Closeable;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import static android.system.OsConstants.EPOLL_CLOEXEC;
+import static android.system.OsConstants.EPOLL_CTL_ADD;
+import static android.system.OsConstants.EPOLL_CTL_DEL;
+import static android.system.OsConstants.EPOLL_CTL_MOD;
+
+/**
+ * A readiness event loop over an epoll(7) instance. Use {@link #register} to watch a file
+ * descriptor for EPOLL* events, and {@link #runOnce} to wait for and dispatch ready events.
+ *
+ * Unlike a loop over {@link Os#poll}, which passes every registered descriptor to the kernel
+ * on each call, each wait here costs time proportional to the number of ready descriptors, and
+ * waiting allocates nothing. This class is not thread safe: all methods other than
+ * {@link #close} must be called on the thread running the loop.
+ *
+ * @hide
+ */
+public final class EpollEventLoop implements Closeable {
+
+    /** Receives the events of a registered file descriptor. */
+    public interface Handler {
+        /**
+         * Called from {@link #runOnce} when {@code registration}'s file descriptor has some of
+         * the EPOLL* {@code events} ready. May register, modify or cancel registrations. An
+         * exception thrown here propagates out of {@code runOnce}, dropping the remaining events.
+         */
+        void onReady(Registration registration, int events) throws IOException;
+    }
+
+    /** A file descriptor registered with an {@link EpollEventLoop}. */
+    public final class Registration {
+        private final FileDescriptor fd;
+        private final Handler handler;
+        private final int slot;
+        private final int generation;
+        private int events;
+        private boolean cancelled;
+
+        private Registration(FileDescriptor fd, Handler handler, int slot, int generation,
+                int events) {
+            this.fd = fd;
+            this.handler = handler;
+            this.slot = slot;
+            this.generation = generation;
+            this.events = events;
+        }
+
+        public FileDescriptor getFileDescriptor() {
+            return fd;
+        }
+
+        /** Returns the EPOLL* events this registration is watching for. */
+        public int getEvents() {
+            return events;
+        }
+
+        /** Changes the EPOLL* events this registration is watching for. */
+        public void setEvents(int events) throws IOException {
+            checkNotCancelled();
+            ctl(EPOLL_CTL_MOD, fd, events, token());
+            this.events = events;
+        }
+
+        /**
+         * Stops watching this registration's file descriptor. Events for it already returned by
+         * the kernel but not yet dispatched are dropped. Does nothing if already cancelled.
+         */
+        public void cancel() throws IOException {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            // Remove the fd from the epoll set before the slot can be reused, so that its events
+            // can't reach the slot's next registration.
+            try {
+                // The fd may already have been closed, which removes it from the epoll set anyway.
+                if (fd.valid()) {
+                    ctl(EPOLL_CTL_DEL, fd, 0, 0);
+                }
+            } finally {
+                releaseSlot(slot);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private long token() {
+            return ((long) generation << 32) | (slot & 0xffffffffL);
+        }
+
+        private void checkNotCancelled() {
+            if (cancelled) {
+                throw new IllegalStateException("registration cancelled");
+            }
+        }
+    }
+
+    private final FileDescriptor epfd;
+    private final ByteBuffer readyEvents;
+    private final StructEpollEvent ctlEvent = new StructEpollEvent();
+
+    // Registrations are found from their epoll data by slot index. Each reuse of a slot bumps its
+    // generation so that stale events for a cancelled registration can't reach its successor.
+    private Registration[] registrations = new Registration[16];
+    private int[] generations = new int[16];
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount;
+    private int slotCount;
+
+    /**
+     * Creates an event loop that dispatches at most {@code maxEventsPerWait} events per call to
+     * {@link #runOnce}.
+     */
+    public EpollEventLoop(int maxEventsPerWait) throws IOException {
+        if (maxEventsPerWait <= 0) {
+            throw new IllegalArgumentException("maxEventsPerWait <= 0: " + maxEventsPerWait);
+        }
+        this.readyEvents = ByteBuffer.allocateDirect(
+                maxEventsPerWait * StructEpollEvent.BUFFER_EVENT_SIZE)
+                .order(ByteOrder.nativeOrder());
+        try {
+            this.epfd = Libcore.os.epoll_create1(EPOLL_CLOEXEC);
+        } catch (ErrnoException e) {
+            throw e.rethrowAsIOException();
+        }
+    }
+
+    /**
+     * Starts watching {@code fd} for the EPOLL* {@code events}, calling {@code handler} when
+     * any are ready.
+     */
+    public Registration register(FileDescriptor fd, int events, Handler handler)
+            throws IOException {
+        if (handler == null) {
+            throw new NullPointerException("handler == null");
+        }
+        int slot = allocateSlot();
+        Registration registration =
+                new Registration(fd, handler, slot, generations[slot], events);
+        try {
+            ctl(EPOLL_CTL_ADD, fd, events, registration.token());
+        } catch (IOException e) {
+            releaseSlot(slot);
+            throw e;
+        }
+        registrations[slot] = registration;
+        return registration;
+    }
+
+    /**
+     * Waits up to {@code timeoutMs} milliseconds (or forever if -1) for registered file
+     * descriptors to become ready, and dispatches their events to their handlers. Returns the
+     * number of events received, which is 0 on timeout or if the wait was interrupted by a
+     * signal.
+     */
+    public int runOnce(int timeoutMs) throws IOException {
+        int count;
+        try {
+            count = Libcore.os.epoll_wait(epfd, readyEvents, timeoutMs);
+        } catch (ErrnoException e) {
+            throw e.rethrowAsIOException();
+        }
+        for (int i = 0; i < count; i++) {
+            int offset = i * StructEpollEvent.BUFFER_EVENT_SIZE;
+            int events = readyEvents.getInt(offset + StructEpollEvent.BUFFER_EVENTS_OFFSET);
+            long token = readyEvents.getLong(offset + StructEpollEvent.BUFFER_DATA_OFFSET);
+            int slot = (int) token;
+            Registration registration = registrations[slot];
+            if (registration != null && registration.generation == (int) (token >>> 32)) {
+                registration.handler.onReady(registration, events);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Closes the epoll instance. Registered file descriptors are not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        IoUtils.close(epfd);
+    }
+
+    private void ctl(int op, FileDescriptor fd, int events, long token) throws IOException {
+        ctlEvent.events = events;
+        ctlEvent.data = token;
+        try {
+            Libcore.os.epoll_ctl(epfd, op, fd, ctlEvent);
+        } catch (ErrnoException e) {
+            throw e.rethrowAsIOException();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == registrations.length) {
+            int newLength = slotCount * 2;
+            registrations = Arrays.copyOf(registrations, newLength);
+            generations = Arrays.copyOf(generations, newLength);
+            freeSlots = Arrays.copyOf(freeSlots, newLength);
+        }
+        return slotCount++;
+    }
+
+    private void releaseSlot(int slot) {
+        registrations[slot] = null;
+        generations[slot]++;
+        freeSlots[freeSlotCount++] = slot;
+    }
+}
@@ -23,6 +23,7 @@ import android.system.Int64Ref;
 import android.system.StructAddrinfo;
 import android.system.StructCapUserData;
 import android.system.StructCapUserHeader;
+import android.system.StructEpollEvent;
 import android.system.StructGroupReq;
 import android.system.StructIfaddrs;
 import android.system.StructLinger;
@@ -93,9 +94,14 @@ public class ForwardingOs implements Os {
 
     public void connect(FileDescriptor fd, InetAddress address, int port) throws ErrnoException, SocketException { os.connect(fd, address, port); }
     public void connect(FileDescriptor fd, SocketAddress address) throws ErrnoException, SocketException { os.connect(fd, address); }
+    public long copy_file_range(FileDescriptor fdIn, Int64Ref offIn, FileDescriptor fdOut, Int64Ref offOut, long len, int flags) throws ErrnoException { return os.copy_file_range(fdIn, offIn, fdOut, offOut, len, flags); }
     public FileDescriptor dup(FileDescriptor oldFd) throws ErrnoException { return os.dup(oldFd); }
     public FileDescriptor dup2(FileDescriptor oldFd, int newFd) throws ErrnoException { return os.dup2(oldFd, newFd); }
     public String[] environ() { return os.environ(); }
+    public FileDescriptor epoll_create1(int flags) throws ErrnoException { return os.epoll_create1(flags); }
+    public void epoll_ctl(FileDescriptor epfd, int op, FileDescriptor fd, StructEpollEvent event) throws ErrnoException { os.epoll_ctl(epfd, op, fd, event); }
+    public int epoll_wait(FileDescriptor epfd, StructEpollEvent[] events, int timeoutMs) throws ErrnoException { return os.epoll_wait(epfd, events, timeoutMs); }
+    public int epoll_wait(FileDescriptor epfd, ByteBuffer events, int timeoutMs) throws ErrnoException { return os.epoll_wait(epfd, events, timeoutMs); }
     public void execv(String filename, String[] argv) throws ErrnoException { os.execv(filename, argv); }
     public void execve(String filename, String[] argv, String[] envp) throws ErrnoException { os.execve(filename, argv, envp); }
     public void fchmod(FileDescriptor fd, int mode) throws ErrnoException { os.fchmod(fd, mode); }
@@ -150,6 +156,7 @@ public class ForwardingOs implements Os {
     public long lseek(FileDescriptor fd, long offset, int whence) throws ErrnoException { return os.lseek(fd, offset, whence); }
     @UnsupportedAppUsage
     public StructStat lstat(String path) throws ErrnoException { return os.lstat(path); }
+    public void madvise(long address, long byteCount, int advice) throws ErrnoException { os.madvise(address, byteCount, advice); }
     public FileDescriptor memfd_create(String name, int flags) throws ErrnoException { return os.memfd_create(name, flags); }
     public void mincore(long address, long byteCount, byte[] vector) throws ErrnoException { os.mincore(address, byteCount, vector); }
     @UnsupportedAppUsage
@@ -180,6 +187,7 @@ public class ForwardingOs implements Os {
     public int readv(FileDescriptor fd, Object[] buffers, int[] offsets, int[] byteCounts) throws ErrnoException, InterruptedIOException { return os.readv(fd, buffers, offsets, byteCounts); }
     public int recvfrom(FileDescriptor fd, ByteBuffer buffer, int flags, InetSocketAddress srcAddress) throws ErrnoException, SocketException { return os.recvfrom(fd, buffer, flags, srcAddress); }
     public int recvfrom(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, InetSocketAddress srcAddress) throws ErrnoException, SocketException { return os.recvfrom(fd, bytes, byteOffset, byteCount, flags, srcAddress); }
+    public int recvmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] srcAddresses) throws ErrnoException, SocketException { return os.recvmmsg(fd, buffers, flags, srcAddresses); }
     @UnsupportedAppUsage
     @libcore.api.CorePlatformApi
     public void remove(String path) throws ErrnoException { os.remove(path); }
@@ -189,6 +197,7 @@ public class ForwardingOs implements Os {
     @libcore.api.CorePlatformApi
     public void rename(String oldPath, String newPath) throws ErrnoException { os.rename(oldPath, newPath); }
     public long sendfile(FileDescriptor outFd, FileDescriptor inFd, Int64Ref offset, long byteCount) throws ErrnoException { return os.sendfile(outFd, inFd, offset, byteCount); }
+    public int sendmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] destAddresses) throws ErrnoException, SocketException { return os.sendmmsg(fd, buffers, flags, destAddresses); }
     public int sendto(FileDescriptor fd, ByteBuffer buffer, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException { return os.sendto(fd, buffer, flags, inetAddress, port); }
     public int sendto(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException { return os.sendto(fd, bytes, byteOffset, byteCount, flags, inetAddress, port); }
     public int sendto(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, SocketAddress address) throws ErrnoException, SocketException { return os.sendto(fd, bytes, byteOffset, byteCount, flags, address); }
@@ -229,6 +238,7 @@ public class ForwardingOs implements Os {
     public long sysconf(int name) { return os.sysconf(name); }
     public void tcdrain(FileDescriptor fd) throws ErrnoException { os.tcdrain(fd); }
     public void tcsendbreak(FileDescriptor fd, int duration) throws ErrnoException { os.tcsendbreak(fd, duration); }
+    public long tee(FileDescriptor fdIn, FileDescriptor fdOut, long len, int flags) throws ErrnoException { return os.tee(fdIn, fdOut, len, flags); }
     public int umask(int mask) { return os.umask(mask); }
     public StructUtsname uname() { return os.uname(); }
     @UnsupportedAppUsage
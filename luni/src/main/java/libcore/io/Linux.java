@@ -23,6 +23,7 @@ import android.system.Int64Ref;
 import android.system.StructAddrinfo;
 import android.system.StructCapUserData;
 import android.system.StructCapUserHeader;
+import android.system.StructEpollEvent;
 import android.system.StructGroupReq;
 import android.system.StructIfaddrs;
 import android.system.StructLinger;
@@ -68,9 +69,20 @@ public final class Linux implements Os {
 
     public native void connect(FileDescriptor fd, InetAddress address, int port) throws ErrnoException, SocketException;
     public native void connect(FileDescriptor fd, SocketAddress address) throws ErrnoException, SocketException;
+    public native long copy_file_range(FileDescriptor fdIn, Int64Ref offIn, FileDescriptor fdOut, Int64Ref offOut, long len, int flags) throws ErrnoException;
     public native FileDescriptor dup(FileDescriptor oldFd) throws ErrnoException;
     public native FileDescriptor dup2(FileDescriptor oldFd, int newFd) throws ErrnoException;
     public native String[] environ();
+    public native FileDescriptor epoll_create1(int flags) throws ErrnoException;
+    public native void epoll_ctl(FileDescriptor epfd, int op, FileDescriptor fd, StructEpollEvent event) throws ErrnoException;
+    public native int epoll_wait(FileDescriptor epfd, StructEpollEvent[] events, int timeoutMs) throws ErrnoException;
+    public int epoll_wait(FileDescriptor epfd, ByteBuffer events, int timeoutMs) throws ErrnoException {
+        if (!events.isDirect()) {
+            throw new IllegalArgumentException("events must be a direct buffer");
+        }
+        return epoll_waitBytes(epfd, events, events.position(), events.remaining(), timeoutMs);
+    }
+    private native int epoll_waitBytes(FileDescriptor epfd, ByteBuffer events, int byteOffset, int byteCount, int timeoutMs) throws ErrnoException;
     public native void execv(String filename, String[] argv) throws ErrnoException;
     public native void execve(String filename, String[] argv, String[] envp) throws ErrnoException;
     public native void fchmod(FileDescriptor fd, int mode) throws ErrnoException;
@@ -121,6 +133,7 @@ public final class Linux implements Os {
     public native String[] listxattr(String path) throws ErrnoException;
     public native long lseek(FileDescriptor fd, long offset, int whence) throws ErrnoException;
     public native StructStat lstat(String path) throws ErrnoException;
+    public native void madvise(long address, long byteCount, int advice) throws ErrnoException;
     public native FileDescriptor memfd_create(String name, int flags) throws ErrnoException;
     public native void mincore(long address, long byteCount, byte[] vector) throws ErrnoException;
     public native void mkdir(String path, int mode) throws ErrnoException;
@@ -210,10 +223,46 @@ public final class Linux implements Os {
         return recvfromBytes(fd, bytes, byteOffset, byteCount, flags, srcAddress);
     }
     private native int recvfromBytes(FileDescriptor fd, Object buffer, int byteOffset, int byteCount, int flags, InetSocketAddress srcAddress) throws ErrnoException, SocketException;
+
+    public int recvmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] srcAddresses) throws ErrnoException, SocketException {
+        final int count = buffers.length;
+        if (srcAddresses != null && srcAddresses.length < count) {
+            throw new IllegalArgumentException("srcAddresses.length < buffers.length");
+        }
+        Object[] arrays = new Object[count];
+        int[] offsets = new int[count];
+        int[] byteCounts = new int[count];
+        int[] messageLengths = new int[count];
+        unpackBuffers(buffers, arrays, offsets, byteCounts);
+        int messagesReceived = recvmmsgBytes(fd, arrays, offsets, byteCounts, flags, srcAddresses, messageLengths);
+        for (int i = 0; i < messagesReceived; ++i) {
+            maybeUpdateBufferPosition(buffers[i], buffers[i].position(), messageLengths[i]);
+        }
+        return messagesReceived;
+    }
+    private native int recvmmsgBytes(FileDescriptor fd, Object[] buffers, int[] offsets, int[] byteCounts, int flags, InetSocketAddress[] srcAddresses, int[] messageLengths) throws ErrnoException, SocketException;
     public native void remove(String path) throws ErrnoException;
     public native void removexattr(String path, String name) throws ErrnoException;
     public native void rename(String oldPath, String newPath) throws ErrnoException;
     public native long sendfile(FileDescriptor outFd, FileDescriptor inFd, Int64Ref offset, long byteCount) throws ErrnoException;
+    public int sendmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] destAddresses) throws ErrnoException, SocketException {
+        final int count = buffers.length;
+        if (destAddresses != null && destAddresses.length < count) {
+            throw new IllegalArgumentException("destAddresses.length < buffers.length");
+        }
+        Object[] arrays = new Object[count];
+        int[] offsets = new int[count];
+        int[] byteCounts = new int[count];
+        int[] messageLengths = new int[count];
+        unpackBuffers(buffers, arrays, offsets, byteCounts);
+        int messagesSent = sendmmsgBytes(fd, arrays, offsets, byteCounts, flags, destAddresses, messageLengths);
+        for (int i = 0; i < messagesSent; ++i) {
+            maybeUpdateBufferPosition(buffers[i], buffers[i].position(), messageLengths[i]);
+        }
+        return messagesSent;
+    }
+    private native int sendmmsgBytes(FileDescriptor fd, Object[] buffers, int[] offsets, int[] byteCounts, int flags, InetSocketAddress[] destAddresses, int[] messageLengths) throws ErrnoException, SocketException;
+
     public int sendto(FileDescriptor fd, ByteBuffer buffer, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException {
         final int bytesSent;
         final int position = buffer.position();
@@ -265,6 +314,7 @@ public final class Linux implements Os {
     public native long sysconf(int name);
     public native void tcdrain(FileDescriptor fd) throws ErrnoException;
     public native void tcsendbreak(FileDescriptor fd, int duration) throws ErrnoException;
+    public native long tee(FileDescriptor fdIn, FileDescriptor fdOut, long len, int flags) throws ErrnoException;
     public int umask(int mask) {
         if ((mask & 0777) != mask) {
             throw new IllegalArgumentException("Invalid umask: " + mask);
@@ -295,6 +345,24 @@ public final class Linux implements Os {
     private native int writeBytes(FileDescriptor fd, Object buffer, int offset, int byteCount) throws ErrnoException, InterruptedIOException;
     public native int writev(FileDescriptor fd, Object[] buffers, int[] offsets, int[] byteCounts) throws ErrnoException, InterruptedIOException;
 
+    /**
+     * Splits each of {@code buffers} into the array or direct buffer holding its remaining
+     * bytes, the offset of those bytes, and their count, as the vectored natives expect.
+     */
+    private static void unpackBuffers(ByteBuffer[] buffers, Object[] arrays, int[] offsets, int[] byteCounts) {
+        for (int i = 0; i < buffers.length; ++i) {
+            ByteBuffer buffer = buffers[i];
+            if (buffer.isDirect()) {
+                arrays[i] = buffer;
+                offsets[i] = buffer.position();
+            } else {
+                arrays[i] = NioUtils.unsafeArray(buffer);
+                offsets[i] = NioUtils.unsafeArrayOffset(buffer) + buffer.position();
+            }
+            byteCounts[i] = buffer.remaining();
+        }
+    }
+
     private static void maybeUpdateBufferPosition(ByteBuffer buffer, int originalPosition, int bytesReadOrWritten) {
         if (bytesReadOrWritten > 0) {
             buffer.position(bytesReadOrWritten + originalPosition);
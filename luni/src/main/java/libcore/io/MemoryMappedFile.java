@@ -21,29 +21,65 @@ import android.system.ErrnoException;
 
 import java.io.FileDescriptor;
 import java.nio.ByteOrder;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static android.system.OsConstants.MAP_SHARED;
+import static android.system.OsConstants.MS_ASYNC;
+import static android.system.OsConstants.MS_SYNC;
 import static android.system.OsConstants.O_RDONLY;
+import static android.system.OsConstants.O_RDWR;
 import static android.system.OsConstants.PROT_READ;
+import static android.system.OsConstants.PROT_WRITE;
+import static android.system.OsConstants._SC_PAGESIZE;
 
 /**
- * A memory-mapped file. Use {@link #mmapRO} to map a file, {@link #close} to unmap a file,
- * and either {@link #bigEndianIterator} or {@link #littleEndianIterator} to get a seekable
- * {@link BufferIterator} over the mapped data. This class is not thread safe.
+ * A memory-mapped file. Use {@link #mmapRO} or {@link #mmapRW} to map a whole file, or
+ * {@link #mmap} to map part of one, and {@link #close} to unmap it.
+ *
+ * <p>The mapped data can be read with either {@link #bigEndianIterator} or
+ * {@link #littleEndianIterator}, which return a seekable {@link BufferIterator} and are limited
+ * to mappings of up to {@code Integer.MAX_VALUE} bytes, or with the absolute accessors such as
+ * {@link #getInt(long)}, which take {@code long} offsets. Writable mappings can also be
+ * modified with the absolute {@code put} methods and flushed with {@link #msync}.
+ *
+ * <p>The absolute accessors and the other methods of this class may be called from any number of
+ * threads. Each of them either completes against the mapping or throws
+ * {@link IllegalStateException} because the file was closed: a concurrent {@link #close} defers
+ * unmapping until the calls in progress have finished. Iterators are not thread safe.
  */
 public final class MemoryMappedFile implements AutoCloseable {
-    private boolean closed;
+    /** Set in {@link #state} once the file is closed. The other bits count active users. */
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    private static final boolean NATIVE_BIG_ENDIAN =
+            ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    private static final long PAGE_SIZE = Libcore.os.sysconf(_SC_PAGESIZE);
+
+    private final AtomicInteger state = new AtomicInteger();
+    /** The address and length passed to mmap(2), which may start before {@link #address}. */
+    private final long mapAddress;
+    private final long mapLength;
     private final long address;
-    private final int size;
+    private final long size;
+    private final boolean writable;
 
     /** Public for layoutlib only. */
     public MemoryMappedFile(long address, long size) {
-        this.address = address;
-        // For simplicity when bounds checking, only sizes up to Integer.MAX_VALUE are supported.
-        if (size < 0 || size > Integer.MAX_VALUE) {
+        this(address, size, address, size, false);
+    }
+
+    private MemoryMappedFile(long mapAddress, long mapLength, long address, long size,
+            boolean writable) {
+        if (size < 0) {
             throw new IllegalArgumentException("Unsupported file size=" + size);
         }
-        this.size = (int) size;
+        this.mapAddress = mapAddress;
+        this.mapLength = mapLength;
+        this.address = address;
+        this.size = size;
+        this.writable = writable;
     }
 
     /**
@@ -51,33 +87,79 @@ public final class MemoryMappedFile implements AutoCloseable {
      */
     @UnsupportedAppUsage
     public static MemoryMappedFile mmapRO(String path) throws ErrnoException {
-        FileDescriptor fd = Libcore.os.open(path, O_RDONLY, 0);
+        return mmapWholeFile(path, false);
+    }
+
+    /**
+     * Use this to mmap the whole file read-write. Changes are written back to the file.
+     */
+    public static MemoryMappedFile mmapRW(String path) throws ErrnoException {
+        return mmapWholeFile(path, true);
+    }
+
+    private static MemoryMappedFile mmapWholeFile(String path, boolean writable)
+            throws ErrnoException {
+        FileDescriptor fd = Libcore.os.open(path, writable ? O_RDWR : O_RDONLY, 0);
         try {
             long size = Libcore.os.fstat(fd).st_size;
-            long address = Libcore.os.mmap(0L, size, PROT_READ, MAP_SHARED, fd, 0);
-            return new MemoryMappedFile(address, size);
+            return mmap(fd, 0, size, writable);
         } finally {
             Libcore.os.close(fd);
         }
     }
 
+    /**
+     * Maps {@code byteCount} bytes of {@code fd} starting at {@code offset}, which need not be
+     * page aligned. If {@code writable} is true, {@code fd} must be open for reading and writing,
+     * and changes are written back to the file. The file descriptor may be closed once this
+     * returns.
+     */
+    public static MemoryMappedFile mmap(FileDescriptor fd, long offset, long byteCount,
+            boolean writable) throws ErrnoException {
+        if (offset < 0 || byteCount < 0) {
+            throw new IllegalArgumentException(
+                    "offset=" + offset + ", byteCount=" + byteCount);
+        }
+        long alignedOffset = offset - (offset % PAGE_SIZE);
+        long delta = offset - alignedOffset;
+        int prot = writable ? (PROT_READ | PROT_WRITE) : PROT_READ;
+        long mapLength = byteCount + delta;
+        long mapAddress = Libcore.os.mmap(0L, mapLength, prot, MAP_SHARED, fd, alignedOffset);
+        return new MemoryMappedFile(mapAddress, mapLength, mapAddress + delta, byteCount,
+                writable);
+    }
+
     /**
      * Unmaps this memory-mapped file using munmap(2). This is a no-op if close has already been
      * called. Note that this class does <i>not</i> use finalization; you must call {@code close}
      * yourself.
      *
+     * If other threads are still accessing the mapping, it is unmapped once they have finished,
+     * and any error from munmap(2) is then ignored.
+     *
      * Calling this method invalidates any iterators over this {@code MemoryMappedFile}. It is an
      * error to use such an iterator after calling {@code close}.
      */
     public void close() throws ErrnoException {
-        if (!closed) {
-            closed = true;
-            Libcore.os.munmap(address, size);
+        int s;
+        do {
+            s = state.get();
+            if ((s & CLOSED) != 0) {
+                return;
+            }
+        } while (!state.compareAndSet(s, s | CLOSED));
+        if (s == 0) {
+            Libcore.os.munmap(mapAddress, mapLength);
         }
     }
 
     public boolean isClosed() {
-        return closed;
+        return (state.get() & CLOSED) != 0;
+    }
+
+    /** Returns true if this mapping may be modified with the {@code put} methods. */
+    public boolean isWritable() {
+        return writable;
     }
 
     /**
@@ -85,30 +167,254 @@ public final class MemoryMappedFile implements AutoCloseable {
      */
     @UnsupportedAppUsage
     public BufferIterator bigEndianIterator() {
-        return new NioBufferIterator(
-                this, address, size, ByteOrder.nativeOrder() != ByteOrder.BIG_ENDIAN);
+        return new NioBufferIterator(this, address, iteratorLength(), !NATIVE_BIG_ENDIAN);
     }
 
     /**
      * Returns a new iterator that treats the mapped data as little-endian.
      */
     public BufferIterator littleEndianIterator() {
-        return new NioBufferIterator(
-                this, this.address, this.size, ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN);
+        return new NioBufferIterator(this, address, iteratorLength(), NATIVE_BIG_ENDIAN);
+    }
+
+    private int iteratorLength() {
+        checkNotClosed();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Iterators don't support mappings of " + size + " bytes");
+        }
+        return (int) size;
     }
 
     /** Throws {@link IllegalStateException} if the file is closed. */
     void checkNotClosed() {
-        if (closed) {
+        if (isClosed()) {
             throw new IllegalStateException("MemoryMappedFile is closed");
         }
     }
 
     /**
-     * Returns the size in bytes of the memory-mapped region.
+     * Returns the size in bytes of the memory-mapped region. Throws
+     * {@link IllegalStateException} if it is larger than {@code Integer.MAX_VALUE}; use
+     * {@link #length} for such mappings.
      */
     public int size() {
+        return iteratorLength();
+    }
+
+    /**
+     * Returns the size in bytes of the memory-mapped region.
+     */
+    public long length() {
         checkNotClosed();
         return size;
     }
+
+    public byte getByte(long offset) {
+        long p = acquire(offset, 1);
+        try {
+            return Memory.peekByte(p);
+        } finally {
+            release();
+        }
+    }
+
+    /** Returns the big-endian short at {@code offset}. */
+    public short getShort(long offset) {
+        return getShort(offset, ByteOrder.BIG_ENDIAN);
+    }
+
+    public short getShort(long offset, ByteOrder order) {
+        long p = acquire(offset, 2);
+        try {
+            return Memory.peekShort(p, order != ByteOrder.nativeOrder());
+        } finally {
+            release();
+        }
+    }
+
+    /** Returns the big-endian int at {@code offset}. */
+    public int getInt(long offset) {
+        return getInt(offset, ByteOrder.BIG_ENDIAN);
+    }
+
+    public int getInt(long offset, ByteOrder order) {
+        long p = acquire(offset, 4);
+        try {
+            return Memory.peekInt(p, order != ByteOrder.nativeOrder());
+        } finally {
+            release();
+        }
+    }
+
+    /** Returns the big-endian long at {@code offset}. */
+    public long getLong(long offset) {
+        return getLong(offset, ByteOrder.BIG_ENDIAN);
+    }
+
+    public long getLong(long offset, ByteOrder order) {
+        long p = acquire(offset, 8);
+        try {
+            return Memory.peekLong(p, order != ByteOrder.nativeOrder());
+        } finally {
+            release();
+        }
+    }
+
+    /** Copies {@code byteCount} bytes starting at {@code offset} into {@code dst}. */
+    public void get(long offset, byte[] dst, int dstOffset, int byteCount) {
+        Objects.checkFromIndexSize(dstOffset, byteCount, dst.length);
+        long p = acquire(offset, byteCount);
+        try {
+            Memory.peekByteArray(p, dst, dstOffset, byteCount);
+        } finally {
+            release();
+        }
+    }
+
+    public void putByte(long offset, byte value) {
+        long p = acquireWritable(offset, 1);
+        try {
+            Memory.pokeByte(p, value);
+        } finally {
+            release();
+        }
+    }
+
+    /** Stores {@code value} big-endian at {@code offset}. */
+    public void putInt(long offset, int value) {
+        putInt(offset, value, ByteOrder.BIG_ENDIAN);
+    }
+
+    public void putInt(long offset, int value, ByteOrder order) {
+        long p = acquireWritable(offset, 4);
+        try {
+            Memory.pokeInt(p, value, order != ByteOrder.nativeOrder());
+        } finally {
+            release();
+        }
+    }
+
+    /** Stores {@code value} big-endian at {@code offset}. */
+    public void putLong(long offset, long value) {
+        putLong(offset, value, ByteOrder.BIG_ENDIAN);
+    }
+
+    public void putLong(long offset, long value, ByteOrder order) {
+        long p = acquireWritable(offset, 8);
+        try {
+            Memory.pokeLong(p, value, order != ByteOrder.nativeOrder());
+        } finally {
+            release();
+        }
+    }
+
+    /** Copies {@code byteCount} bytes from {@code src} to the mapping starting at {@code offset}. */
+    public void put(long offset, byte[] src, int srcOffset, int byteCount) {
+        Objects.checkFromIndexSize(srcOffset, byteCount, src.length);
+        long p = acquireWritable(offset, byteCount);
+        try {
+            Memory.pokeByteArray(p, src, srcOffset, byteCount);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Writes changes to the given range back to the file using msync(2). If {@code sync} is
+     * true this waits for the writes to complete, and otherwise only schedules them.
+     */
+    public void msync(long offset, long byteCount, boolean sync) throws ErrnoException {
+        long p = acquire(offset, byteCount);
+        try {
+            long start = pageStart(p);
+            Libcore.os.msync(start, p + byteCount - start, sync ? MS_SYNC : MS_ASYNC);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Tells the kernel how the given range will be used with madvise(2). {@code advice} is one
+     * of the {@code MADV_*} constants in {@link android.system.OsConstants}, such as
+     * {@code MADV_SEQUENTIAL}, {@code MADV_WILLNEED} or {@code MADV_DONTNEED}.
+     */
+    public void madvise(long offset, long byteCount, int advice) throws ErrnoException {
+        long p = acquire(offset, byteCount);
+        try {
+            long start = pageStart(p);
+            Libcore.os.madvise(start, p + byteCount - start, advice);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Returns how many bytes of the given range are resident in memory, according to
+     * mincore(2). Residency is tracked per page, so pages partly inside the range count in full.
+     */
+    public long residentBytes(long offset, long byteCount) throws ErrnoException {
+        long p = acquire(offset, byteCount);
+        try {
+            long pageSize = PAGE_SIZE;
+            long start = pageStart(p);
+            long length = p + byteCount - start;
+            // Query in chunks to bound the size of the vector.
+            final long pagesPerChunk = 4096;
+            byte[] vector = new byte[(int) Math.min(pagesPerChunk,
+                    (length + pageSize - 1) / pageSize)];
+            long residentPages = 0;
+            for (long chunk = 0; chunk < length; chunk += pagesPerChunk * pageSize) {
+                long chunkLength = Math.min(length - chunk, pagesPerChunk * pageSize);
+                int pages = (int) ((chunkLength + pageSize - 1) / pageSize);
+                Libcore.os.mincore(start + chunk, chunkLength, vector);
+                for (int i = 0; i < pages; i++) {
+                    residentPages += vector[i] & 1;
+                }
+            }
+            return Math.min(residentPages * pageSize, length);
+        } finally {
+            release();
+        }
+    }
+
+    private static long pageStart(long address) {
+        return address & -PAGE_SIZE;
+    }
+
+    /**
+     * Checks the given range and registers a user of the mapping, which must be paired with a
+     * call to {@link #release}. Returns the address of {@code offset}.
+     */
+    private long acquire(long offset, long byteCount) {
+        if (offset < 0 || byteCount < 0 || offset > size - byteCount) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", byteCount=" + byteCount
+                    + ", length=" + size);
+        }
+        int s;
+        do {
+            s = state.get();
+            if ((s & CLOSED) != 0) {
+                throw new IllegalStateException("MemoryMappedFile is closed");
+            }
+        } while (!state.compareAndSet(s, s + 1));
+        return address + offset;
+    }
+
+    private long acquireWritable(long offset, long byteCount) {
+        if (!writable) {
+            throw new IllegalStateException("MemoryMappedFile is read-only");
+        }
+        return acquire(offset, byteCount);
+    }
+
+    private void release() {
+        // The last user out after close() unmaps the file.
+        if (state.decrementAndGet() == CLOSED) {
+            try {
+                Libcore.os.munmap(mapAddress, mapLength);
+            } catch (ErrnoException ignored) {
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@ import android.system.Int64Ref;
 import android.system.StructAddrinfo;
 import android.system.StructCapUserData;
 import android.system.StructCapUserHeader;
+import android.system.StructEpollEvent;
 import android.system.StructGroupReq;
 import android.system.StructIfaddrs;
 import android.system.StructLinger;
@@ -68,9 +69,21 @@ public interface Os {
     @UnsupportedAppUsage
     public void connect(FileDescriptor fd, InetAddress address, int port) throws ErrnoException, SocketException;
     public void connect(FileDescriptor fd, SocketAddress address) throws ErrnoException, SocketException;
+    public long copy_file_range(FileDescriptor fdIn, Int64Ref offIn, FileDescriptor fdOut, Int64Ref offOut, long len, int flags) throws ErrnoException;
     public FileDescriptor dup(FileDescriptor oldFd) throws ErrnoException;
     public FileDescriptor dup2(FileDescriptor oldFd, int newFd) throws ErrnoException;
     public String[] environ();
+    public FileDescriptor epoll_create1(int flags) throws ErrnoException;
+    public void epoll_ctl(FileDescriptor epfd, int op, FileDescriptor fd, StructEpollEvent event) throws ErrnoException;
+    /* An epoll_wait interrupted by a signal returns 0 rather than restarting with a stale timeout. */
+    public int epoll_wait(FileDescriptor epfd, StructEpollEvent[] events, int timeoutMs) throws ErrnoException;
+    /**
+     * Like {@link #epoll_wait(FileDescriptor, StructEpollEvent[], int)}, but writes the ready
+     * events into the remaining space of the direct buffer {@code events}, laid out as
+     * described by {@link StructEpollEvent}, so that waiting allocates nothing. The buffer's
+     * position is not changed.
+     */
+    public int epoll_wait(FileDescriptor epfd, ByteBuffer events, int timeoutMs) throws ErrnoException;
     public void execv(String filename, String[] argv) throws ErrnoException;
     public void execve(String filename, String[] argv, String[] envp) throws ErrnoException;
     public void fchmod(FileDescriptor fd, int mode) throws ErrnoException;
@@ -123,6 +136,7 @@ public interface Os {
     public String[] listxattr(String path) throws ErrnoException;
     public long lseek(FileDescriptor fd, long offset, int whence) throws ErrnoException;
     public StructStat lstat(String path) throws ErrnoException;
+    public void madvise(long address, long byteCount, int advice) throws ErrnoException;
     public FileDescriptor memfd_create(String name, int flags) throws ErrnoException;
     public void mincore(long address, long byteCount, byte[] vector) throws ErrnoException;
     public void mkdir(String path, int mode) throws ErrnoException;
@@ -153,10 +167,24 @@ public interface Os {
     public int readv(FileDescriptor fd, Object[] buffers, int[] offsets, int[] byteCounts) throws ErrnoException, InterruptedIOException;
     public int recvfrom(FileDescriptor fd, ByteBuffer buffer, int flags, InetSocketAddress srcAddress) throws ErrnoException, SocketException;
     public int recvfrom(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, InetSocketAddress srcAddress) throws ErrnoException, SocketException;
+    /**
+     * Receives up to {@code buffers.length} datagrams with a single recvmmsg(2). Datagram i is
+     * written into the remaining space of {@code buffers[i]}, whose position is advanced past it,
+     * and if {@code srcAddresses} is non-null its source is stored into {@code srcAddresses[i]}.
+     * Returns the number of datagrams received.
+     */
+    public int recvmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] srcAddresses) throws ErrnoException, SocketException;
     @UnsupportedAppUsage
     public void remove(String path) throws ErrnoException;
     public void removexattr(String path, String name) throws ErrnoException;
     public void rename(String oldPath, String newPath) throws ErrnoException;
+    /**
+     * Sends the remaining bytes of each of {@code buffers} as a separate datagram with a single
+     * sendmmsg(2), advancing the position of each buffer that was sent. Datagram i goes to
+     * {@code destAddresses[i]}, or to the connected peer if {@code destAddresses} is null.
+     * Returns the number of datagrams sent.
+     */
+    public int sendmmsg(FileDescriptor fd, ByteBuffer[] buffers, int flags, InetSocketAddress[] destAddresses) throws ErrnoException, SocketException;
     public int sendto(FileDescriptor fd, ByteBuffer buffer, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException;
     public int sendto(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, InetAddress inetAddress, int port) throws ErrnoException, SocketException;
     public int sendto(FileDescriptor fd, byte[] bytes, int byteOffset, int byteCount, int flags, SocketAddress address) throws ErrnoException, SocketException;
@@ -195,6 +223,7 @@ public interface Os {
     public long sysconf(int name);
     public void tcdrain(FileDescriptor fd) throws ErrnoException;
     public void tcsendbreak(FileDescriptor fd, int duration) throws ErrnoException;
+    public long tee(FileDescriptor fdIn, FileDescriptor fdOut, long len, int flags) throws ErrnoException;
     public int umask(int mask);
     public StructUtsname uname();
     public void unlink(String pathname) throws ErrnoException;
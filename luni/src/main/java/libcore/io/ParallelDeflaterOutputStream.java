@@ -0,0 +1,331 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.io;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+import java.util.zip.Deflater;
+import java.util.zip.ZStreamPool;
+import libcore.util.ArrayUtils;
+
+/**
+ * An output stream that compresses its data on several threads, and writes a
+ * single gzip or zlib stream like {@link java.util.zip.GZIPOutputStream} or
+ * {@link java.util.zip.DeflaterOutputStream}.
+ *
+ * <p>The data is split into blocks that are compressed independently on a
+ * {@link ForkJoinPool}, in the manner of pigz. Each block is compressed with
+ * the last 32 KiB of the previous block as its dictionary, so the compression
+ * ratio is close to that of a single {@link Deflater}, and ends with a sync
+ * flush so that the compressed blocks can be concatenated. The checksums of
+ * the blocks are computed on the pool too, and combined for the trailer.
+ *
+ * <p>At most twice the pool's parallelism blocks are in flight at a time,
+ * which bounds the memory used. {@link #flush()} compresses and writes all
+ * the data written so far, at the cost of ending the current block early.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @hide
+ */
+public final class ParallelDeflaterOutputStream extends FilterOutputStream {
+
+    /** The default size of a block, as in pigz. */
+    public static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /** The size of the deflate window, and so of the dictionary of each block. */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private final boolean gzip;
+    private final int level;
+    private final ForkJoinPool pool;
+    private final int maxBlocksInFlight;
+    private final ArrayDeque<ForkJoinTask<Block>> blocksInFlight = new ArrayDeque<>();
+
+    private byte[] buffer;
+    private int count;
+    /** The previous block, whose end is the dictionary of the next one. */
+    private byte[] previous;
+    private int previousCount;
+
+    private long checksum;
+    private long totalIn;
+    private boolean headerWritten;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a stream that writes gzip or zlib data with the default
+     * compression level and block size, compressing on the common pool.
+     *
+     * @param gzip true to write the gzip format, false for the zlib format.
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, boolean gzip) {
+        this(out, gzip, Deflater.DEFAULT_COMPRESSION, DEFAULT_BLOCK_SIZE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param gzip true to write the gzip format, false for the zlib format.
+     * @param level the compression level, from 0 to 9, or
+     *     {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param blockSize the number of bytes compressed by each task.
+     * @param pool the pool that compresses the blocks. Its parallelism limits
+     *     the number of blocks compressed at once.
+     */
+    public ParallelDeflaterOutputStream(OutputStream out, boolean gzip, int level,
+            int blockSize, ForkJoinPool pool) {
+        super(out);
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid level: " + level);
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize <= 0: " + blockSize);
+        }
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        }
+        this.gzip = gzip;
+        this.level = level;
+        this.pool = pool;
+        this.maxBlocksInFlight = Math.max(2, pool.getParallelism() * 2);
+        this.buffer = new byte[blockSize];
+        this.checksum = gzip ? 0 : 1;
+    }
+
+    @Override public void write(int b) throws IOException {
+        Streams.writeSingleByte(this, b);
+    }
+
+    @Override public void write(byte[] b, int off, int len) throws IOException {
+        checkNotFinished();
+        ArrayUtils.throwsIfOutOfBounds(b.length, off, len);
+        while (len > 0) {
+            int n = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == buffer.length) {
+                submit(false);
+            }
+        }
+    }
+
+    /**
+     * Compresses and writes all the data written so far, and flushes the
+     * underlying stream.
+     */
+    @Override public void flush() throws IOException {
+        if (!finished) {
+            if (count > 0) {
+                submit(false);
+            }
+            drain(0);
+        }
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the underlying stream without
+     * closing it.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        submit(true);
+        drain(0);
+        finished = true;
+        previous = null;
+        if (gzip) {
+            writeIntLittleEndian((int) checksum);
+            writeIntLittleEndian((int) totalIn);
+        } else {
+            writeIntBigEndian((int) checksum);
+        }
+    }
+
+    @Override public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void checkNotFinished() throws IOException {
+        if (finished) {
+            throw new IOException("Stream finished");
+        }
+    }
+
+    /**
+     * Hands the buffered data to the pool as a block, and writes the oldest
+     * blocks if there are too many in flight.
+     */
+    private void submit(boolean last) throws IOException {
+        checkNotFinished();
+        if (!headerWritten) {
+            writeHeader();
+            headerWritten = true;
+        }
+        int dictionaryLength = Math.min(previousCount, DICTIONARY_SIZE);
+        Block block = new Block(buffer, count, last,
+                previous, previousCount - dictionaryLength, dictionaryLength);
+        blocksInFlight.add(pool.submit(block));
+        totalIn += count;
+        // The block owns the buffer now, and the next block uses its end as its dictionary.
+        previous = buffer;
+        previousCount = count;
+        buffer = last ? null : new byte[buffer.length];
+        count = 0;
+        drain(maxBlocksInFlight - 1);
+    }
+
+    /**
+     * Writes the oldest blocks in flight, waiting for them to be compressed,
+     * until at most {@code maxRemaining} are left.
+     */
+    private void drain(int maxRemaining) throws IOException {
+        while (blocksInFlight.size() > maxRemaining) {
+            Block block;
+            try {
+                block = blocksInFlight.peek().join();
+            } catch (RuntimeException e) {
+                // Don't leave the other blocks running.
+                for (ForkJoinTask<Block> task : blocksInFlight) {
+                    task.cancel(false);
+                }
+                blocksInFlight.clear();
+                finished = true;
+                throw new IOException("Compression failed", e);
+            }
+            blocksInFlight.remove();
+            out.write(block.output, 0, block.outputLength);
+            checksum = gzip
+                    ? CRC32.combine(checksum, block.checksum, block.inputLength)
+                    : Adler32.combine(checksum, block.checksum, block.inputLength);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        if (gzip) {
+            out.write(new byte[] {
+                (byte) GZIP_MAGIC, (byte) (GZIP_MAGIC >> 8), Deflater.DEFLATED, 0, 0, 0, 0, 0,
+                0, 0 });
+        } else {
+            // CM = 8 (deflate) and CINFO = 7 (32K window), then FLEVEL as zlib sets it.
+            int cmf = 0x78;
+            int flevel;
+            if (level == Deflater.DEFAULT_COMPRESSION || level == 6) {
+                flevel = 2;
+            } else if (level < 2) {
+                flevel = 0;
+            } else if (level < 6) {
+                flevel = 1;
+            } else {
+                flevel = 3;
+            }
+            int flg = flevel << 6;
+            flg += 31 - ((cmf << 8) + flg) % 31;
+            out.write(new byte[] { (byte) cmf, (byte) flg });
+        }
+    }
+
+    private void writeIntLittleEndian(int i) throws IOException {
+        out.write(new byte[] { (byte) i, (byte) (i >> 8), (byte) (i >> 16), (byte) (i >> 24) });
+    }
+
+    private void writeIntBigEndian(int i) throws IOException {
+        out.write(new byte[] { (byte) (i >> 24), (byte) (i >> 16), (byte) (i >> 8), (byte) i });
+    }
+
+    /** A block of input, and the raw deflate data and checksum it compresses to. */
+    private final class Block implements Callable<Block> {
+        private final byte[] input;
+        private final int inputLength;
+        private final boolean last;
+        private final byte[] dictionary;
+        private final int dictionaryOffset;
+        private final int dictionaryLength;
+
+        byte[] output;
+        int outputLength;
+        long checksum;
+
+        Block(byte[] input, int inputLength, boolean last,
+                byte[] dictionary, int dictionaryOffset, int dictionaryLength) {
+            this.input = input;
+            this.inputLength = inputLength;
+            this.last = last;
+            this.dictionary = dictionary;
+            this.dictionaryOffset = dictionaryOffset;
+            this.dictionaryLength = dictionaryLength;
+        }
+
+        @Override public Block call() {
+            Checksum sum = gzip ? new CRC32() : new Adler32();
+            sum.update(input, 0, inputLength);
+            checksum = sum.getValue();
+
+            Deflater deflater = ZStreamPool.acquireDeflater(level, true /* nowrap */);
+            try {
+                if (dictionaryLength > 0) {
+                    deflater.setDictionary(dictionary, dictionaryOffset, dictionaryLength);
+                }
+                deflater.setInput(input, 0, inputLength);
+                if (last) {
+                    deflater.finish();
+                }
+                // Compressed data is rarely much larger than its input.
+                output = new byte[inputLength + (inputLength >> 3) + 64];
+                while (true) {
+                    if (outputLength == output.length) {
+                        output = Arrays.copyOf(output, output.length * 2);
+                    }
+                    int space = output.length - outputLength;
+                    int n = deflater.deflate(output, outputLength, space,
+                            last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                    outputLength += n;
+                    // A sync flush is complete when it doesn't fill the output.
+                    if (last ? deflater.finished() : n < space) {
+                        return this;
+                    }
+                }
+            } finally {
+                ZStreamPool.releaseDeflater(deflater);
+            }
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.text.AttributedCharacterIterator;
+import java.text.CharacterIterator;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * An immutable, thread-safe form of a {@link SimpleDateFormat} that formats epoch milliseconds
+ * into a caller's {@link StringBuilder} or {@code char[]}, with the same output as the
+ * {@code SimpleDateFormat} it was created from.
+ *
+ * <p>Only the fractional second fields ({@code 'S'}) depend on the millisecond of an instant.
+ * The text around them is taken from the {@code SimpleDateFormat} once for each second and
+ * cached for the seconds most recently formatted, and the fractional seconds are copied from
+ * tables built when the format is created. Formatting an instant in a cached second therefore
+ * takes no lock and doesn't allocate. Other instants are formatted by a private copy of the
+ * {@code SimpleDateFormat}, under a lock. So are the instants of a time zone whose offset isn't
+ * a whole number of seconds, for which the fields may change within a second.
+ *
+ * <p>Changes to the {@code SimpleDateFormat} after this format was created don't affect it.
+ *
+ * @hide
+ */
+public final class CompiledDateFormat {
+
+    // The number of seconds whose text is cached, a power of two.
+    private static final int CACHED_SECONDS = 8;
+
+    private static final int MILLIS_PER_SECOND = 1000;
+
+    private final String pattern;
+
+    // The copy of the SimpleDateFormat the text of each second comes from, guarded by itself.
+    private final SimpleDateFormat format;
+    private final TimeZone timeZone;
+
+    // The number of 'S' letters of each fractional second field, in the order of the pattern.
+    private final int[] millisCounts;
+    // For each field of millisCounts, the text of the field for each millisecond of a second,
+    // millisCounts[i] chars each. Null if the text isn't always that long.
+    private final char[][] millisTexts;
+
+    // The text of recently formatted seconds, indexed by the second modulo CACHED_SECONDS.
+    private final SecondText[] cachedSeconds = new SecondText[CACHED_SECONDS];
+
+    private CompiledDateFormat(SimpleDateFormat format) {
+        this.format = (SimpleDateFormat) format.clone();
+        this.pattern = this.format.toPattern();
+        this.timeZone = this.format.getTimeZone();
+        this.millisCounts = findMillisCounts(pattern);
+        this.millisTexts = new char[millisCounts.length][];
+        for (int i = 0; i < millisCounts.length; i++) {
+            millisTexts[i] = buildMillisText(millisCounts[i]);
+        }
+    }
+
+    /**
+     * Returns a format with the same output as {@code format}, in its current state.
+     */
+    public static CompiledDateFormat compile(SimpleDateFormat format) {
+        return new CompiledDateFormat(format);
+    }
+
+    /**
+     * Returns a format with the same output as a {@link SimpleDateFormat} with the given pattern,
+     * locale and time zone.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid.
+     */
+    public static CompiledDateFormat compile(String pattern, Locale locale, TimeZone timeZone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern, locale);
+        format.setTimeZone(timeZone);
+        return new CompiledDateFormat(format);
+    }
+
+    /**
+     * Returns the pattern of this format.
+     */
+    public String toPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the time zone this format formats instants in.
+     */
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+
+    /**
+     * Formats the instant {@code millis} milliseconds after the epoch.
+     */
+    public String format(long millis) {
+        return format(millis, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the text of the instant {@code millis} milliseconds after the epoch to {@code sb},
+     * and returns it.
+     */
+    public StringBuilder format(long millis, StringBuilder sb) {
+        SecondText second = getSecondText(millis);
+        if (second == null) {
+            sb.append(formatSlowly(millis));
+            return sb;
+        }
+        int millisOfSecond = (int) Math.floorMod(millis, MILLIS_PER_SECOND);
+        String[] pieces = second.pieces;
+        sb.append(pieces[0]);
+        for (int i = 0; i < millisCounts.length; i++) {
+            int count = millisCounts[i];
+            sb.append(millisTexts[i], millisOfSecond * count, count);
+            sb.append(pieces[i + 1]);
+        }
+        return sb;
+    }
+
+    /**
+     * Writes the text of the instant {@code millis} milliseconds after the epoch to {@code dst},
+     * starting at {@code offset}, and returns the offset after it.
+     *
+     * @throws IndexOutOfBoundsException if the text doesn't fit in {@code dst}, which may then
+     *     have been partially written.
+     */
+    public int format(long millis, char[] dst, int offset) {
+        SecondText second = getSecondText(millis);
+        if (second == null) {
+            String text = formatSlowly(millis);
+            text.getChars(0, text.length(), dst, offset);
+            return offset + text.length();
+        }
+        int millisOfSecond = (int) Math.floorMod(millis, MILLIS_PER_SECOND);
+        String[] pieces = second.pieces;
+        offset = append(pieces[0], dst, offset);
+        for (int i = 0; i < millisCounts.length; i++) {
+            int count = millisCounts[i];
+            System.arraycopy(millisTexts[i], millisOfSecond * count, dst, offset, count);
+            offset = append(pieces[i + 1], dst, offset + count);
+        }
+        return offset;
+    }
+
+    private static int append(String s, char[] dst, int offset) {
+        int length = s.length();
+        if (offset < 0 || offset > dst.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length
+                    + ", dst.length=" + dst.length);
+        }
+        s.getChars(0, length, dst, offset);
+        return offset + length;
+    }
+
+    /**
+     * Returns the text of the second of {@code millis}, or null if the instant has to be
+     * formatted by {@link #formatSlowly}.
+     */
+    private SecondText getSecondText(long millis) {
+        long second = Math.floorDiv(millis, MILLIS_PER_SECOND);
+        int index = (int) second & (CACHED_SECONDS - 1);
+        SecondText text = cachedSeconds[index];
+        if (text != null && text.second == second) {
+            return text;
+        }
+        if (!hasMillisTexts()) {
+            return null;
+        }
+        // The fields other than the fractional seconds must be the same for the whole second.
+        long start = second * MILLIS_PER_SECOND;
+        if (start / MILLIS_PER_SECOND != second || start > Long.MAX_VALUE - MILLIS_PER_SECOND) {
+            // Near the ends of the range of long.
+            return null;
+        }
+        int offset = timeZone.getOffset(start);
+        if (offset % MILLIS_PER_SECOND != 0
+                || timeZone.getOffset(start + MILLIS_PER_SECOND - 1) != offset) {
+            return null;
+        }
+        String[] pieces = formatPieces(start);
+        if (pieces == null) {
+            return null;
+        }
+        // SecondText is immutable, so it can be shared without synchronization.
+        text = new SecondText(second, pieces);
+        cachedSeconds[index] = text;
+        return text;
+    }
+
+    private boolean hasMillisTexts() {
+        for (char[] text : millisTexts) {
+            if (text == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the text of the instant {@code start}, without its fractional second fields, or
+     * null if the fields don't match the pattern.
+     */
+    private String[] formatPieces(long start) {
+        AttributedCharacterIterator it;
+        synchronized (format) {
+            it = format.formatToCharacterIterator(new Date(start));
+        }
+        List<String> pieces = new ArrayList<>(millisCounts.length + 1);
+        StringBuilder piece = new StringBuilder();
+        boolean inMillis = false;
+        for (char c = it.first(); c != CharacterIterator.DONE; c = it.next()) {
+            if (it.getAttribute(DateFormat.Field.MILLISECOND) != null) {
+                if (!inMillis) {
+                    pieces.add(piece.toString());
+                    piece.setLength(0);
+                    inMillis = true;
+                }
+            } else {
+                inMillis = false;
+                piece.append(c);
+            }
+        }
+        pieces.add(piece.toString());
+        if (pieces.size() != millisCounts.length + 1) {
+            return null;
+        }
+        return pieces.toArray(new String[pieces.size()]);
+    }
+
+    private String formatSlowly(long millis) {
+        synchronized (format) {
+            return format.format(new Date(millis), new StringBuffer(), new FieldPosition(0))
+                    .toString();
+        }
+    }
+
+    /**
+     * Returns the text of a fractional second field with {@code count} letters for each
+     * millisecond, or null if the texts aren't all {@code count} chars long.
+     */
+    private char[] buildMillisText(int count) {
+        SimpleDateFormat millisFormat = (SimpleDateFormat) format.clone();
+        millisFormat.applyPattern(repeat('S', count));
+        millisFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        char[] text = new char[MILLIS_PER_SECOND * count];
+        for (int millis = 0; millis < MILLIS_PER_SECOND; millis++) {
+            String s = millisFormat.format(new Date(millis));
+            if (s.length() != count) {
+                return null;
+            }
+            s.getChars(0, count, text, millis * count);
+        }
+        return text;
+    }
+
+    /**
+     * Returns the number of letters of each {@code 'S'} field of {@code pattern}, skipping
+     * quoted text the way {@link SimpleDateFormat} does.
+     */
+    private static int[] findMillisCounts(String pattern) {
+        int[] counts = new int[0];
+        boolean inQuote = false;
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    // An escaped quote, in or out of quoted text.
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (!inQuote && c == 'S') {
+                int count = 1;
+                while (i + 1 < length && pattern.charAt(i + 1) == 'S') {
+                    count++;
+                    i++;
+                }
+                counts = Arrays.copyOf(counts, counts.length + 1);
+                counts[counts.length - 1] = count;
+            }
+        }
+        return counts;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[pattern=" + pattern + ",timeZone=" + timeZone.getID()
+                + "]";
+    }
+
+    /** The text of a second around its fractional second fields. */
+    private static final class SecondText {
+        final long second;
+        final String[] pieces;
+
+        SecondText(long second, String[] pieces) {
+            this.second = second;
+            this.pieces = pieces;
+        }
+    }
+}
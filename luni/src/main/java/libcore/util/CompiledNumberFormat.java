@@ -0,0 +1,366 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * An immutable, thread-safe form of a {@link DecimalFormat} that appends numbers to a caller's
+ * {@link StringBuilder}, with the same output as the {@code DecimalFormat} it was created from.
+ *
+ * <p>Patterns without exponents, significant digits, padding or rounding increments are
+ * formatted here, from the affixes, symbols and digit counts of the {@code DecimalFormat}, without
+ * a lock and without allocating. A {@code double} is only formatted here if it isn't close to a
+ * rounding tie, and isn't too large to be scaled exactly enough. Everything else is formatted by
+ * a private copy of the {@code DecimalFormat}, under a lock. When the format is created, both
+ * ways are compared on a set of numbers, and a pattern they don't agree on is always formatted by
+ * the copy.
+ *
+ * <p>Changes to the {@code DecimalFormat} after this format was created don't affect it.
+ *
+ * @hide
+ */
+public final class CompiledNumberFormat {
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // The most fraction digits a double is formatted with here.
+    private static final int MAX_FAST_FRACTION_DIGITS = 9;
+    // The largest a double scaled by its fraction digits may be. Below it the error of the
+    // scaling is well under TIE_MARGIN.
+    private static final double MAX_SCALED_DOUBLE = 1e12;
+    // How far from a rounding tie a scaled double has to be to be formatted here.
+    private static final double TIE_MARGIN = 1e-3;
+
+    // The numbers both ways of formatting are compared on when a format is created.
+    private static final long[] LONG_PROBES = {
+        0, 1, -1, 7, -12, 123, 1234, -12345, 123456, 1234567, -12345678, 123456789,
+        1234567890123L, -98765432109876L, Long.MAX_VALUE / 7, Long.MAX_VALUE, -Long.MAX_VALUE,
+    };
+    private static final double[] DOUBLE_PROBES = {
+        0, 1, -1, 0.5, -0.3, 3.14, Math.PI, -Math.E, 0.001, 0.0049, 0.996, 1.0e-7, 12.75,
+        -1234.5678, 12345.6789, 9876543.21, -123456789.015625, 3.0e11,
+    };
+
+    private final String pattern;
+
+    // The copy of the DecimalFormat numbers the fast paths can't format go to, guarded by itself.
+    private final DecimalFormat format;
+
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    private final char zeroDigit;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    // The digits of the first group left of the decimal separator and of the other groups, or 0
+    // if the integer digits aren't grouped.
+    private final int primaryGroupingSize;
+    private final int secondaryGroupingSize;
+    private final int minimumIntegerDigits;
+    private final int maximumIntegerDigits;
+    private final int minimumFractionDigits;
+    private final int maximumFractionDigits;
+    private final boolean decimalSeparatorAlwaysShown;
+    private final int multiplier;
+
+    private final boolean formatsLongs;
+    private final boolean formatsDoubles;
+
+    private CompiledNumberFormat(DecimalFormat format) {
+        this.format = (DecimalFormat) format.clone();
+        this.pattern = this.format.toPattern();
+        DecimalFormatSymbols symbols = this.format.getDecimalFormatSymbols();
+        boolean currency = containsUnquoted(pattern, "\u00a4");
+
+        positivePrefix = this.format.getPositivePrefix();
+        positiveSuffix = this.format.getPositiveSuffix();
+        negativePrefix = this.format.getNegativePrefix();
+        negativeSuffix = this.format.getNegativeSuffix();
+        zeroDigit = symbols.getZeroDigit();
+        groupingSeparator = symbols.getGroupingSeparator();
+        decimalSeparator = currency
+                ? symbols.getMonetaryDecimalSeparator() : symbols.getDecimalSeparator();
+        if (this.format.isGroupingUsed() && this.format.getGroupingSize() > 0) {
+            primaryGroupingSize = this.format.getGroupingSize();
+            secondaryGroupingSize = findSecondaryGroupingSize(pattern, primaryGroupingSize);
+        } else {
+            primaryGroupingSize = 0;
+            secondaryGroupingSize = 0;
+        }
+        minimumIntegerDigits = this.format.getMinimumIntegerDigits();
+        maximumIntegerDigits = this.format.getMaximumIntegerDigits();
+        minimumFractionDigits = this.format.getMinimumFractionDigits();
+        maximumFractionDigits = this.format.getMaximumFractionDigits();
+        decimalSeparatorAlwaysShown = this.format.isDecimalSeparatorAlwaysShown();
+        multiplier = this.format.getMultiplier();
+
+        boolean simple = !containsUnquoted(pattern, "E@*123456789")
+                && multiplier > 0
+                && minimumIntegerDigits >= 1
+                && (primaryGroupingSize == 0 || secondaryGroupingSize > 0);
+        formatsLongs = simple && formatsLongsLikeDecimalFormat();
+        RoundingMode roundingMode = this.format.getRoundingMode();
+        formatsDoubles = simple
+                && maximumFractionDigits <= MAX_FAST_FRACTION_DIGITS
+                && (roundingMode == RoundingMode.HALF_EVEN
+                        || roundingMode == RoundingMode.HALF_UP
+                        || roundingMode == RoundingMode.HALF_DOWN)
+                && formatsDoublesLikeDecimalFormat();
+    }
+
+    /**
+     * Returns a format with the same output as {@code format}, in its current state.
+     */
+    public static CompiledNumberFormat compile(DecimalFormat format) {
+        return new CompiledNumberFormat(format);
+    }
+
+    /**
+     * Returns a format with the same output as a {@link DecimalFormat} with the given pattern and
+     * the symbols of {@code locale}.
+     *
+     * @throws IllegalArgumentException if the pattern is invalid.
+     */
+    public static CompiledNumberFormat compile(String pattern, Locale locale) {
+        return new CompiledNumberFormat(
+                new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale)));
+    }
+
+    /**
+     * Returns the pattern of this format.
+     */
+    public String toPattern() {
+        return pattern;
+    }
+
+    /**
+     * Formats {@code number}.
+     */
+    public String format(long number) {
+        return format(number, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the text of {@code number} to {@code sb}, and returns it.
+     */
+    public StringBuilder format(long number, StringBuilder sb) {
+        if (!formatsLongs || !formatFast(number, sb)) {
+            synchronized (format) {
+                sb.append(format.format(number));
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Formats {@code number}.
+     */
+    public String format(double number) {
+        return format(number, new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the text of {@code number} to {@code sb}, and returns it.
+     */
+    public StringBuilder format(double number, StringBuilder sb) {
+        if (!formatsDoubles || !formatFast(number, sb)) {
+            synchronized (format) {
+                sb.append(format.format(number));
+            }
+        }
+        return sb;
+    }
+
+    /**
+     * Appends the text of {@code number} to {@code sb} and returns true, or returns false without
+     * appending anything if the number has to be formatted by the DecimalFormat.
+     */
+    private boolean formatFast(long number, StringBuilder sb) {
+        if (number == Long.MIN_VALUE) {
+            return false;
+        }
+        if (multiplier != 1) {
+            if (Math.abs(number) > Long.MAX_VALUE / multiplier) {
+                return false;
+            }
+            number *= multiplier;
+        }
+        boolean negative = number < 0;
+        long magnitude = Math.abs(number);
+        int integerDigits = countDigits(magnitude);
+        if (integerDigits > maximumIntegerDigits) {
+            return false;
+        }
+        sb.append(negative ? negativePrefix : positivePrefix);
+        appendIntegerDigits(magnitude, Math.max(integerDigits, minimumIntegerDigits), sb);
+        if (minimumFractionDigits > 0 || decimalSeparatorAlwaysShown) {
+            sb.append(decimalSeparator);
+            for (int i = 0; i < minimumFractionDigits; i++) {
+                sb.append(zeroDigit);
+            }
+        }
+        sb.append(negative ? negativeSuffix : positiveSuffix);
+        return true;
+    }
+
+    /**
+     * Appends the text of {@code number} to {@code sb} and returns true, or returns false without
+     * appending anything if the number has to be formatted by the DecimalFormat.
+     */
+    private boolean formatFast(double number, StringBuilder sb) {
+        // Also false for NaN.
+        double scaled = Math.abs(number * multiplier * POWERS_OF_TEN[maximumFractionDigits]);
+        if (!(scaled < MAX_SCALED_DOUBLE)) {
+            return false;
+        }
+        // The DecimalFormat rounds the shortest decimal that converts to number, which is
+        // within a fraction of an ulp of it. Unless scaled is close to a tie, they round alike.
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        if (Math.abs(fraction - 0.5) < TIE_MARGIN) {
+            return false;
+        }
+        long rounded = (long) floor + (fraction > 0.5 ? 1 : 0);
+        boolean negative = number < 0 || (number == 0 && 1 / number < 0);
+        if (negative && rounded == 0) {
+            // Negative zero.
+            return false;
+        }
+        long integerPart = rounded / POWERS_OF_TEN[maximumFractionDigits];
+        long fractionPart = rounded % POWERS_OF_TEN[maximumFractionDigits];
+        int fractionDigits = maximumFractionDigits;
+        while (fractionDigits > minimumFractionDigits && fractionPart % 10 == 0) {
+            fractionPart /= 10;
+            fractionDigits--;
+        }
+        int integerDigits = countDigits(integerPart);
+        if (integerDigits > maximumIntegerDigits) {
+            return false;
+        }
+        sb.append(negative ? negativePrefix : positivePrefix);
+        appendIntegerDigits(integerPart, Math.max(integerDigits, minimumIntegerDigits), sb);
+        if (fractionDigits > 0 || decimalSeparatorAlwaysShown) {
+            sb.append(decimalSeparator);
+            for (int i = fractionDigits - 1; i >= 0; i--) {
+                sb.append((char) (zeroDigit + (fractionPart / POWERS_OF_TEN[i]) % 10));
+            }
+        }
+        sb.append(negative ? negativeSuffix : positiveSuffix);
+        return true;
+    }
+
+    /**
+     * Appends the last {@code count} decimal digits of {@code value}, with grouping separators.
+     */
+    private void appendIntegerDigits(long value, int count, StringBuilder sb) {
+        for (int i = count - 1; i >= 0; i--) {
+            long digit = (i < POWERS_OF_TEN.length) ? (value / POWERS_OF_TEN[i]) % 10 : 0;
+            sb.append((char) (zeroDigit + digit));
+            if (i > 0 && primaryGroupingSize > 0 && (i == primaryGroupingSize
+                    || (i > primaryGroupingSize
+                            && (i - primaryGroupingSize) % secondaryGroupingSize == 0))) {
+                sb.append(groupingSeparator);
+            }
+        }
+    }
+
+    private static int countDigits(long magnitude) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && magnitude >= POWERS_OF_TEN[digits]) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private boolean formatsLongsLikeDecimalFormat() {
+        StringBuilder sb = new StringBuilder();
+        for (long number : LONG_PROBES) {
+            sb.setLength(0);
+            if (formatFast(number, sb) && !sb.toString().equals(format.format(number))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean formatsDoublesLikeDecimalFormat() {
+        StringBuilder sb = new StringBuilder();
+        for (double number : DOUBLE_PROBES) {
+            sb.setLength(0);
+            if (formatFast(number, sb) && !sb.toString().equals(format.format(number))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of digits between the last two grouping separators of the integer part
+     * of {@code pattern}, or {@code primaryGroupingSize} if it has fewer than two.
+     */
+    private static int findSecondaryGroupingSize(String pattern, int primaryGroupingSize) {
+        int last = -1;
+        int previous = -1;
+        boolean inQuote = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;
+            } else if (!inQuote) {
+                if (c == '.' || c == ';') {
+                    break;
+                } else if (c == ',') {
+                    previous = last;
+                    last = i;
+                }
+            }
+        }
+        return (previous == -1) ? primaryGroupingSize : last - previous - 1;
+    }
+
+    /**
+     * Returns whether {@code pattern} has any of {@code chars} outside quoted text.
+     */
+    private static boolean containsUnquoted(String pattern, String chars) {
+        boolean inQuote = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                inQuote = !inQuote;
+            } else if (!inQuote && chars.indexOf(c) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getName() + "[pattern=" + pattern + "]";
+    }
+}
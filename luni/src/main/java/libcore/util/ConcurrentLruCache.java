@@ -0,0 +1,554 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache for libcore that, unlike {@link BasicLruCache}, doesn't
+ * take a lock on reads. It has the same {@link #create} and
+ * {@link #entryEvicted} hooks, so a {@code BasicLruCache} subclass can switch
+ * to this class by changing its superclass.
+ *
+ * <p>Values are held in a {@link ConcurrentHashMap}. Reads record their access
+ * in small per-thread-striped buffers that are replayed against the eviction
+ * order in batches, and only by a thread that can take the eviction lock
+ * without waiting. Recording is lossy: when a buffer is full the access is
+ * dropped, which only makes the eviction order slightly less precise. Writes
+ * take the eviction lock.
+ *
+ * <p>Entries may be weighed by overriding {@link #sizeOf}, and may expire a
+ * fixed time after they were written. Two eviction policies are supported:
+ * <ul>
+ * <li>{@link Policy#LRU} evicts the least recently used entry.
+ * <li>{@link Policy#TINY_LFU} admits new entries through a small LRU window.
+ *     Entries leaving the window only displace the least recently used entry
+ *     of the main space if they have been requested more often, as estimated
+ *     by a count-min sketch. This resists scans of one-off keys.
+ * </ul>
+ *
+ * @hide
+ */
+public class ConcurrentLruCache<K, V> {
+
+    /** The eviction policy of a {@link ConcurrentLruCache}. */
+    public enum Policy { LRU, TINY_LFU }
+
+    /** The window's share of the maximum weight under {@link Policy#TINY_LFU}. */
+    private static final int WINDOW_PERCENT = 1;
+
+    /** The number of slots in each read buffer. Must be a power of two. */
+    private static final int READ_BUFFER_SIZE = 16;
+
+    private static final int MAX_READ_BUFFERS = 16;
+
+    // Which queue a node is in. Guarded by evictionLock.
+    private static final int QUEUE_NONE = 0;
+    private static final int QUEUE_WINDOW = 1;
+    private static final int QUEUE_MAIN = 2;
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+    private final long maxWeight;
+    private final Policy policy;
+    private final long expireAfterWriteNanos;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // The following fields are guarded by evictionLock.
+    private final Node<K, V> window = new Node<>();
+    private final Node<K, V> main = new Node<>();
+    private final long maxWindowWeight;
+    private long windowWeight;
+    private long mainWeight;
+    private final FrequencySketch sketch;
+    // The read buffer the next put() drains.
+    private int nextBufferToDrain;
+
+    private final ReadBuffer<K, V>[] readBuffers;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Creates an LRU cache of at most {@code maxSize} entries that never
+     * expire, like {@link BasicLruCache#BasicLruCache(int)}.
+     */
+    public ConcurrentLruCache(int maxSize) {
+        this(maxSize, Policy.LRU, 0);
+    }
+
+    /**
+     * @param maxWeight the maximum sum of {@link #sizeOf} over the entries in
+     *     the cache.
+     * @param policy the policy that selects entries to evict.
+     * @param expireAfterWriteNanos how long an entry stays valid after it was
+     *     written, or 0 if entries never expire.
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentLruCache(long maxWeight, Policy policy, long expireAfterWriteNanos) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight <= 0");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy == null");
+        }
+        if (expireAfterWriteNanos < 0) {
+            throw new IllegalArgumentException("expireAfterWriteNanos < 0");
+        }
+        this.maxWeight = maxWeight;
+        this.policy = policy;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        if (policy == Policy.TINY_LFU) {
+            this.maxWindowWeight = Math.max(1, maxWeight * WINDOW_PERCENT / 100);
+            this.sketch = new FrequencySketch(maxWeight);
+        } else {
+            this.maxWindowWeight = 0;
+            this.sketch = null;
+        }
+
+        int bufferCount = Integer.highestOneBit(
+                Math.min(MAX_READ_BUFFERS, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.readBuffers = new ReadBuffer[bufferCount];
+        for (int i = 0; i < bufferCount; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+    }
+
+    /**
+     * Returns the value for {@code key} if it exists in the cache or can be
+     * created by {@code #create}. This returns null if a value is not cached
+     * and cannot be created.
+     */
+    public final V get(K key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+
+        Node<K, V> node = map.get(key);
+        if (node != null) {
+            if (!isExpired(node)) {
+                hitCount.increment();
+                recordRead(node);
+                return node.value;
+            }
+            removeExpired(node);
+        }
+        missCount.increment();
+
+        // Don't hold any locks while calling create.
+        V result = create(key);
+
+        // NOTE: Another thread might have already inserted a value for |key|. This shouldn't be
+        // an observable change as long as create creates equal values for equal keys.
+        if (result != null) {
+            put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Caches {@code value} for {@code key}.
+     *
+     * @return the previous value mapped by {@code key}. Although that entry is
+     *     no longer cached, it has not been passed to {@link #entryEvicted}.
+     */
+    public final V put(K key, V value) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        } else if (value == null) {
+            throw new NullPointerException("value == null");
+        }
+
+        int weight = sizeOf(key, value);
+        if (weight < 0) {
+            throw new IllegalStateException("Negative size: " + key + "=" + value);
+        }
+        long writeNanos = expireAfterWriteNanos > 0 ? System.nanoTime() : 0;
+        Node<K, V> node = new Node<>(key, value, weight, writeNanos);
+
+        Node<K, V> previous;
+        List<Node<K, V>> evicted;
+        evictionLock.lock();
+        try {
+            // Drain one read buffer per put, so the lock isn't held for all of them.
+            drainReadBuffer(readBuffers[nextBufferToDrain]);
+            nextBufferToDrain = (nextBufferToDrain + 1) & (readBuffers.length - 1);
+            previous = map.put(key, node);
+            if (previous != null) {
+                unlink(previous);
+            }
+            if (sketch != null) {
+                sketch.increment(key);
+            }
+            link(policy == Policy.TINY_LFU ? window : main, node);
+            evicted = evict();
+        } finally {
+            evictionLock.unlock();
+        }
+
+        notifyEvicted(evicted);
+        return previous != null ? previous.value : null;
+    }
+
+    /**
+     * Called for entries that have been chosen for eviction, or that have
+     * expired, and are removed. The default implementation does nothing.
+     * Called without holding any locks.
+     */
+    protected void entryEvicted(K key, V value) {}
+
+    /**
+     * Called after a cache miss to compute a value for the corresponding key.
+     * Returns the computed value or null if no value can be computed. The
+     * default implementation returns null.
+     */
+    protected V create(K key) {
+        return null;
+    }
+
+    /**
+     * Returns the weight of the entry for {@code key} and {@code value}, which
+     * must not change while the entry is cached. The default implementation
+     * returns 1, so that the maximum weight is the maximum number of entries.
+     */
+    protected int sizeOf(K key, V value) {
+        return 1;
+    }
+
+    /**
+     * Returns a copy of the current contents of the cache, ordered from the
+     * next entry to be evicted to the last.
+     */
+    public final Map<K, V> snapshot() {
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            Map<K, V> result = new LinkedHashMap<>();
+            for (Node<K, V> n = main.next; n != main; n = n.next) {
+                result.put(n.key, n.value);
+            }
+            for (Node<K, V> n = window.next; n != window; n = n.next) {
+                result.put(n.key, n.value);
+            }
+            return result;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Clear the cache, calling {@link #entryEvicted} on each removed entry.
+     */
+    public final void evictAll() {
+        List<Node<K, V>> evicted = new ArrayList<>();
+        evictionLock.lock();
+        try {
+            drainReadBuffers();
+            while (main.next != main) {
+                evicted.add(evictNode(main.next));
+            }
+            while (window.next != window) {
+                evicted.add(evictNode(window.next));
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        notifyEvicted(evicted);
+    }
+
+    /** Returns the number of times {@link #get} found a cached value. */
+    public final long hitCount() {
+        return hitCount.sum();
+    }
+
+    /** Returns the number of times {@link #get} did not find a cached value. */
+    public final long missCount() {
+        return missCount.sum();
+    }
+
+    /** Returns the number of entries that were evicted or expired. */
+    public final long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Returns the fraction of calls to {@link #get} that found a cached value,
+     * or 0 if there have been none.
+     */
+    public final double hitRate() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private boolean isExpired(Node<K, V> node) {
+        return expireAfterWriteNanos > 0
+                && System.nanoTime() - node.writeNanos >= expireAfterWriteNanos;
+    }
+
+    private void removeExpired(Node<K, V> node) {
+        boolean removed = false;
+        evictionLock.lock();
+        try {
+            if (node.queue != QUEUE_NONE) {
+                evictNode(node);
+                removed = true;
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        if (removed) {
+            entryEvicted(node.key, node.value);
+        }
+    }
+
+    private void recordRead(Node<K, V> node) {
+        long id = Thread.currentThread().getId();
+        int index = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (readBuffers.length - 1);
+        ReadBuffer<K, V> buffer = readBuffers[index];
+        int slot = buffer.writes.getAndIncrement() & (READ_BUFFER_SIZE - 1);
+        buffer.nodes.lazySet(slot, node);
+        if (slot == READ_BUFFER_SIZE - 1 && evictionLock.tryLock()) {
+            try {
+                drainReadBuffer(buffer);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /** Replays all buffered reads against the eviction order. Requires evictionLock. */
+    private void drainReadBuffers() {
+        for (ReadBuffer<K, V> buffer : readBuffers) {
+            drainReadBuffer(buffer);
+        }
+    }
+
+    /** Replays the reads in {@code buffer} against the eviction order. Requires evictionLock. */
+    private void drainReadBuffer(ReadBuffer<K, V> buffer) {
+        for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+            Node<K, V> node = buffer.nodes.getAndSet(i, null);
+            if (node != null && node.queue != QUEUE_NONE) {
+                if (sketch != null) {
+                    sketch.increment(node.key);
+                }
+                Node<K, V> queue = node.queue == QUEUE_WINDOW ? window : main;
+                unlinkFromQueue(node);
+                linkToQueue(queue, node);
+            }
+        }
+    }
+
+    /**
+     * Evicts entries until the cache is within its maximum weight, returning
+     * the evicted nodes. Requires evictionLock.
+     */
+    private List<Node<K, V>> evict() {
+        List<Node<K, V>> evicted = null;
+        // Entries overflowing the window are candidates for the main space.
+        while (windowWeight > maxWindowWeight && window.next != window) {
+            Node<K, V> candidate = window.next;
+            Node<K, V> victim = main.next;
+            if (windowWeight + mainWeight > maxWeight && victim != main
+                    && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                // The main space is full, and its least recently used entry has been requested
+                // at least as often as the candidate, so the candidate isn't admitted.
+                if (evicted == null) {
+                    evicted = new ArrayList<>();
+                }
+                evicted.add(evictNode(candidate));
+            } else {
+                unlink(candidate);
+                link(main, candidate);
+            }
+        }
+        while (windowWeight + mainWeight > maxWeight) {
+            Node<K, V> victim = main.next;
+            if (victim == main) {
+                victim = window.next;
+            }
+            if (evicted == null) {
+                evicted = new ArrayList<>();
+            }
+            evicted.add(evictNode(victim));
+        }
+        return evicted;
+    }
+
+    /** Removes {@code node} from the map and its queue. Requires evictionLock. */
+    private Node<K, V> evictNode(Node<K, V> node) {
+        map.remove(node.key, node);
+        unlink(node);
+        evictionCount.increment();
+        return node;
+    }
+
+    private void notifyEvicted(List<Node<K, V>> evicted) {
+        if (evicted != null) {
+            for (Node<K, V> node : evicted) {
+                entryEvicted(node.key, node.value);
+            }
+        }
+    }
+
+    /** Appends {@code node} at the young end of {@code queue}. Requires evictionLock. */
+    private void link(Node<K, V> queue, Node<K, V> node) {
+        node.queue = (queue == window) ? QUEUE_WINDOW : QUEUE_MAIN;
+        if (queue == window) {
+            windowWeight += node.weight;
+        } else {
+            mainWeight += node.weight;
+        }
+        linkToQueue(queue, node);
+    }
+
+    /** Removes {@code node} from whichever queue holds it. Requires evictionLock. */
+    private void unlink(Node<K, V> node) {
+        if (node.queue == QUEUE_WINDOW) {
+            windowWeight -= node.weight;
+        } else if (node.queue == QUEUE_MAIN) {
+            mainWeight -= node.weight;
+        } else {
+            return;
+        }
+        node.queue = QUEUE_NONE;
+        unlinkFromQueue(node);
+    }
+
+    private static <K, V> void linkToQueue(Node<K, V> queue, Node<K, V> node) {
+        node.prev = queue.prev;
+        node.next = queue;
+        queue.prev.next = node;
+        queue.prev = node;
+    }
+
+    private static <K, V> void unlinkFromQueue(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * A cache entry. The key, value and weight never change; a put always
+     * installs a new node. The links and queue are guarded by evictionLock.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final int weight;
+        final long writeNanos;
+
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        /** Creates the sentinel of an empty queue. */
+        Node() {
+            this(null, null, 0, 0);
+            prev = this;
+            next = this;
+        }
+
+        Node(K key, V value, int weight, long writeNanos) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeNanos = writeNanos;
+        }
+    }
+
+    /** A lossy ring of recently read nodes, shared by the threads that hash to it. */
+    private static final class ReadBuffer<K, V> {
+        final AtomicInteger writes = new AtomicInteger();
+        final AtomicReferenceArray<Node<K, V>> nodes =
+                new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters estimating how often each key has
+     * been requested recently. All counters are halved periodically so that
+     * old popularity fades. Guarded by evictionLock.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+                0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long maxWeight) {
+            int length = (int) Math.min(maxWeight, 1 << 24);
+            length = Integer.highestOneBit(Math.max(8, length) * 2 - 1);
+            this.table = new long[length];
+            this.sampleSize = 10 * length;
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = indexHash(hash, i);
+                int index = (int) h & (table.length - 1);
+                int offset = ((int) (h >>> 40) & 15) << 2;
+                frequency = Math.min(frequency, (int) ((table[index] >>> offset) & 0xfL));
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                long h = indexHash(hash, i);
+                int index = (int) h & (table.length - 1);
+                int offset = ((int) (h >>> 40) & 15) << 2;
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private static long indexHash(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            return h + (h >>> 32);
+        }
+
+        private static int spread(int hash) {
+            hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+            return (hash >>> 16) ^ hash;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import dalvik.system.VMRuntime;
 import sun.misc.Cleaner;
 
 import java.lang.ref.Reference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A NativeAllocationRegistry is used to associate native allocations with
@@ -38,6 +40,10 @@ import java.lang.ref.Reference;
  * native function used to free the allocation and the estimated size of the
  * allocation. Once a NativeAllocationRegistry is instantiated, it can be
  * used to register any number of native allocations of that kind.
+ * <p>
+ * Each registry counts the allocations registered with it that have not yet
+ * been freed; see {@link #getOutstandingAllocationCount} and
+ * {@link #getOutstandingBytes}.
  * @hide
  */
 @libcore.api.CorePlatformApi
@@ -59,6 +65,23 @@ public class NativeAllocationRegistry {
     // Bit mask for "is_malloced" information.
     private static final long IS_MALLOCED = 0x1;
 
+    // Allocations registered with and freed by this registry, for getOutstandingAllocationCount.
+    private final LongAdder registeredCount = new LongAdder();
+    private final LongAdder freedCount = new LongAdder();
+
+    // Changes in non-malloced bytes smaller than this are accumulated in unreportedBytes, rather
+    // than reported to the runtime one allocation at a time.
+    private static final long REPORT_THRESHOLD_BYTES = 64 * 1024;
+
+    // Non-malloced bytes registered (positive) or freed (negative) but not yet reported.
+    private static final AtomicLong unreportedBytes = new AtomicLong();
+
+    // The most frees a thread batches before applying them.
+    private static final int MAX_BATCHED_FREES = 64;
+
+    // The frees batched by the current thread, or null if it frees allocations one at a time.
+    private static final ThreadLocal<FreeBatch> freeBatch = new ThreadLocal<>();
+
     /**
      * Return a NativeAllocationRegistry for native memory that is mostly
      * allocated by means other than the system memory allocator. For example,
@@ -251,11 +274,91 @@ public class NativeAllocationRegistry {
         } // Other exceptions are impossible.
         // Enable the cleaner only after we can no longer throw anything, including OOME.
         thunk.setNativePtr(nativePtr);
+        registeredCount.increment();
         // Ensure that cleaner doesn't get invoked before we enable it.
         Reference.reachabilityFence(referent);
         return result;
     }
 
+    /**
+     * Registers several native allocations and their associated Java objects
+     * with the runtime, as if by calling {@link #registerNativeAllocation(Object, long)}
+     * for each pair of <code>referents[i]</code> and <code>nativePtrs[i]</code>,
+     * but informing the runtime of all the allocations at once.
+     * <p>
+     * WARNING: Like the single allocation version, this unconditionally takes
+     * ownership of every element of nativePtrs, and deallocates all of them if
+     * the registration throws an OutOfMemoryError.
+     *
+     * @param referents     Non-null java objects to associate the native allocations with
+     * @param nativePtrs    Non-zero addresses of the native allocations
+     * @return runnables to explicitly free each native allocation
+     * @throws IllegalArgumentException if the arrays have different lengths, or
+     *                                  any referent or nativePtr is null.
+     * @throws OutOfMemoryError  if there is not enough space on the Java heap
+     *                           in which to register the allocations.
+     */
+    public Runnable[] registerNativeAllocations(Object[] referents, long[] nativePtrs) {
+        if (referents.length != nativePtrs.length) {
+            throw new IllegalArgumentException("referents.length != nativePtrs.length: "
+                    + referents.length + " != " + nativePtrs.length);
+        }
+        for (int i = 0; i < referents.length; i++) {
+            if (referents[i] == null) {
+                throw new IllegalArgumentException("referents[" + i + "] is null");
+            }
+            if (nativePtrs[i] == 0) {
+                throw new IllegalArgumentException("nativePtrs[" + i + "] is null");
+            }
+        }
+
+        int count = referents.length;
+        CleanerThunk[] thunks;
+        Runnable[] result;
+        try {
+            thunks = new CleanerThunk[count];
+            result = new Runnable[count];
+            for (int i = 0; i < count; i++) {
+                thunks[i] = new CleanerThunk();
+                result[i] = new CleanerRunner(Cleaner.create(referents[i], thunks[i]));
+            }
+            registerNativeAllocation(this.size, count);
+        } catch (VirtualMachineError vme /* probably OutOfMemoryError */) {
+            // None of the cleaners has been enabled yet, so free every allocation here.
+            for (long nativePtr : nativePtrs) {
+                applyFreeFunction(freeFunction, nativePtr);
+            }
+            throw vme;
+        }
+        for (int i = 0; i < count; i++) {
+            thunks[i].setNativePtr(nativePtrs[i]);
+        }
+        registeredCount.add(count);
+        Reference.reachabilityFence(referents);
+        return result;
+    }
+
+    /**
+     * Returns the number of native allocations registered with this registry
+     * that have not yet been freed.
+     */
+    public long getOutstandingAllocationCount() {
+        // Read the frees first, so that a concurrent registration and free can't make the
+        // result negative.
+        long freed = freedCount.sum();
+        return Math.max(0, registeredCount.sum() - freed);
+    }
+
+    /**
+     * Returns the estimated number of native bytes held by the allocations
+     * registered with this registry that have not yet been freed. This is
+     * based on the size the registry was created with, so is 0 for malloced
+     * registries created without a size.
+     */
+    public long getOutstandingBytes() {
+        return getOutstandingAllocationCount() * (size & ~IS_MALLOCED);
+    }
+
     private class CleanerThunk implements Runnable {
         private long nativePtr;
 
@@ -265,8 +368,14 @@ public class NativeAllocationRegistry {
 
         public void run() {
             if (nativePtr != 0) {
-                applyFreeFunction(freeFunction, nativePtr);
-                registerNativeFree(size);
+                FreeBatch batch = freeBatch.get();
+                if (batch != null) {
+                    batch.add(NativeAllocationRegistry.this, nativePtr);
+                } else {
+                    applyFreeFunction(freeFunction, nativePtr);
+                    freedCount.increment();
+                    registerNativeFree(size, 1);
+                }
             }
         }
 
@@ -283,30 +392,136 @@ public class NativeAllocationRegistry {
         }
 
         public void run() {
-            cleaner.clean();
+            // An explicit free must have happened by the time this returns, so don't let it be
+            // batched if this thread happens to be batching frees.
+            FreeBatch batch = freeBatch.get();
+            if (batch == null) {
+                cleaner.clean();
+                return;
+            }
+            freeBatch.set(null);
+            try {
+                cleaner.clean();
+            } finally {
+                freeBatch.set(batch);
+            }
         }
     }
 
-    // Inform the garbage collector of the allocation. We do this differently for
+    /**
+     * Makes the current thread batch the frees of allocations whose referents
+     * have become unreachable, applying them together when
+     * {@link #flushBatchedFrees} is called or enough have accumulated. Frees
+     * requested explicitly through the runnables returned by
+     * {@link #registerNativeAllocation(Object, long)} still happen at once.
+     * <p>
+     * Intended for the threads that run Cleaners, which call
+     * {@link #flushBatchedFrees} after each batch of references they process.
+     */
+    public static void startBatchingFrees() {
+        if (freeBatch.get() == null) {
+            freeBatch.set(new FreeBatch());
+        }
+    }
+
+    /**
+     * Applies any frees batched by the current thread.
+     */
+    public static void flushBatchedFrees() {
+        FreeBatch batch = freeBatch.get();
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Frees batched by one thread, applied with a single native call and a
+     * single report to the runtime.
+     */
+    private static final class FreeBatch {
+        private final NativeAllocationRegistry[] registries =
+                new NativeAllocationRegistry[MAX_BATCHED_FREES];
+        private final long[] freeFunctions = new long[MAX_BATCHED_FREES];
+        private final long[] nativePtrs = new long[MAX_BATCHED_FREES];
+        private int count;
+
+        void add(NativeAllocationRegistry registry, long nativePtr) {
+            registries[count] = registry;
+            freeFunctions[count] = registry.freeFunction;
+            nativePtrs[count] = nativePtr;
+            if (++count == MAX_BATCHED_FREES) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            applyFreeFunctions(freeFunctions, nativePtrs, count);
+            long nonmallocedBytes = 0;
+            for (int i = 0; i < count; i++) {
+                NativeAllocationRegistry registry = registries[i];
+                registry.freedCount.increment();
+                if ((registry.size & IS_MALLOCED) == 0) {
+                    nonmallocedBytes += registry.size;
+                }
+                // Don't keep the registries, and so their class loaders, alive.
+                registries[i] = null;
+            }
+            count = 0;
+            reportNonmallocedBytes(-nonmallocedBytes);
+        }
+    }
+
+    // Inform the garbage collector of count allocations. We do this differently for
     // malloc-based allocations.
-    private static void registerNativeAllocation(long size) {
+    private static void registerNativeAllocation(long size, int count) {
         VMRuntime runtime = VMRuntime.getRuntime();
         if ((size & IS_MALLOCED) != 0) {
             final long notifyImmediateThreshold = 300000;
-            if (size >= notifyImmediateThreshold) {
+            if (size * count >= notifyImmediateThreshold) {
                 runtime.notifyNativeAllocationsInternal();
-            } else {
+            } else if (count == 1) {
                 runtime.notifyNativeAllocation();
+            } else {
+                runtime.notifyNativeAllocations(count);
             }
         } else {
-            runtime.registerNativeAllocation(size);
+            reportNonmallocedBytes(size * count);
         }
     }
 
-    // Inform the garbage collector of deallocation, if appropriate.
-    private static void registerNativeFree(long size) {
+    private static void registerNativeAllocation(long size) {
+        registerNativeAllocation(size, 1);
+    }
+
+    // Inform the garbage collector of the deallocation of count allocations, if appropriate.
+    private static void registerNativeFree(long size, int count) {
         if ((size & IS_MALLOCED) == 0) {
-            VMRuntime.getRuntime().registerNativeFree(size);
+            reportNonmallocedBytes(-size * count);
+        }
+    }
+
+    // Reports a change in non-malloced native bytes to the runtime, accumulating small changes
+    // in unreportedBytes until they add up to REPORT_THRESHOLD_BYTES. This trades a little
+    // accuracy in the runtime's view of native memory for a runtime call per allocation.
+    private static void reportNonmallocedBytes(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (Math.abs(delta) < REPORT_THRESHOLD_BYTES) {
+            long pending = unreportedBytes.addAndGet(delta);
+            if (Math.abs(pending) < REPORT_THRESHOLD_BYTES) {
+                return;
+            }
+            delta = unreportedBytes.getAndSet(0);
+        }
+        VMRuntime runtime = VMRuntime.getRuntime();
+        if (delta > 0) {
+            runtime.registerNativeAllocation(delta);
+        } else if (delta < 0) {
+            runtime.registerNativeFree(-delta);
         }
     }
 
@@ -318,5 +533,9 @@ public class NativeAllocationRegistry {
      */
     @libcore.api.CorePlatformApi
     public static native void applyFreeFunction(long freeFunction, long nativePtr);
+
+    // Calls freeFunctions[i](nativePtrs[i]) for each i below count.
+    private static native void applyFreeFunctions(long[] freeFunctions, long[] nativePtrs,
+            int count);
 }
 
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.util;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the matches of a pattern in a stream of characters, like repeated
+ * calls to {@link Matcher#find()} on the whole input, while only holding a
+ * window of it in memory.
+ *
+ * <p>A {@link Matcher} takes its input as a {@code String}, so matching a
+ * large {@code StringBuilder} or {@code CharBuffer} copies all of it, and
+ * every {@link Matcher#reset()} or {@link Matcher#region} copies it again.
+ * This class copies each window once, and reuses a single matcher for all of
+ * them. Wrap a large {@code CharSequence} with {@link CharBuffer#wrap} to scan
+ * it this way.
+ *
+ * <p>The window grows when a match reaches its end before the end of the
+ * input, so a single match must still fit in memory. When no match is found
+ * but more input could make one, only the last window size of characters is
+ * kept to search again, so a match that is longer than the window size may be
+ * missed. Lookbehind and boundary constructs see up to {@value #CONTEXT}
+ * characters before the end of the previous match.
+ *
+ * <p>Instances are not thread safe.
+ *
+ * @hide
+ */
+public final class StreamingMatcher {
+
+    private static final int DEFAULT_WINDOW_SIZE = 8192;
+
+    /** The number of characters kept before the search position. */
+    private static final int CONTEXT = 64;
+
+    private final Readable input;
+    private final Matcher matcher;
+    private final int windowSize;
+
+    private char[] buffer;
+    private CharBuffer bufferView;
+    private int length;
+    private boolean eof;
+
+    /** The offset in the input of {@code buffer[0]}. */
+    private long bufferOffset;
+
+    /** The index in {@code buffer} where the next search starts. */
+    private int position;
+
+    /** True if {@code matcher} has the current window and can continue its search. */
+    private boolean searching;
+
+    private MatchResult match;
+    private long matchOffset;
+
+    public StreamingMatcher(Pattern pattern, Readable input) {
+        this(pattern, input, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize the number of characters to read at a time.
+     */
+    public StreamingMatcher(Pattern pattern, Readable input, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize <= 0: " + windowSize);
+        }
+        this.input = input;
+        this.windowSize = windowSize;
+        this.buffer = new char[windowSize];
+        this.bufferView = CharBuffer.wrap(buffer);
+        // The matcher reads the window through bufferView. It is empty for now.
+        bufferView.limit(0);
+        this.matcher = pattern.matcher(bufferView);
+        // Regions are windows of the input rather than its bounds.
+        matcher.useTransparentBounds(true);
+        matcher.useAnchoringBounds(false);
+    }
+
+    public Pattern pattern() {
+        return matcher.pattern();
+    }
+
+    /**
+     * Finds the next match, reading more input as necessary.
+     *
+     * @return true if a match was found.
+     */
+    public boolean find() throws IOException {
+        match = null;
+        while (true) {
+            if (position > length) {
+                // The previous match was empty and at the end of the input.
+                return false;
+            }
+            if (!searching) {
+                // region() takes its own copy of the window from bufferView,
+                // so there is no need to make one for reset().
+                bufferView.limit(length).position(0);
+                matcher.region(position, length);
+                searching = true;
+            }
+            boolean found = matcher.find();
+            if (!eof && (matcher.hitEnd() || (found && matcher.requireEnd()))) {
+                // More input could extend this match, or create one. A match
+                // that fits in a window and starts before the last window size
+                // of characters would already have been found, so only keep
+                // those for the next search. Otherwise a pattern that keeps
+                // hitting the end without matching would keep all the input.
+                if (!found) {
+                    position = Math.max(position, length - windowSize);
+                }
+                fill();
+                continue;
+            }
+            if (!found) {
+                if (eof) {
+                    return false;
+                }
+                // No match starts in this window, whatever follows it.
+                position = length;
+                fill();
+                continue;
+            }
+            match = matcher.toMatchResult();
+            matchOffset = bufferOffset;
+            int end = matcher.end();
+            // Like Matcher.find(), don't find an empty match twice.
+            position = end == matcher.start() ? end + 1 : end;
+            return true;
+        }
+    }
+
+    /**
+     * Discards the input before the search position, except for some context,
+     * and reads more input.
+     */
+    private void fill() throws IOException {
+        int discard = Math.max(0, Math.min(position, length) - CONTEXT);
+        if (discard > 0) {
+            System.arraycopy(buffer, discard, buffer, 0, length - discard);
+            length -= discard;
+            position -= discard;
+            bufferOffset += discard;
+        }
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            bufferView = CharBuffer.wrap(buffer);
+            // Switch the matcher to the new view, without copying anything yet.
+            bufferView.limit(0);
+            matcher.reset(bufferView);
+        }
+        bufferView.limit(buffer.length).position(length);
+        int count = input.read(bufferView);
+        if (count < 0) {
+            eof = true;
+        } else {
+            length += count;
+        }
+        searching = false;
+    }
+
+    private MatchResult match() {
+        if (match == null) {
+            throw new IllegalStateException("No successful match so far");
+        }
+        return match;
+    }
+
+    /** Returns the offset in the input of the start of the last match. */
+    public long start() {
+        return start(0);
+    }
+
+    /**
+     * Returns the offset in the input of the start of {@code group} in the
+     * last match, or -1 if it didn't match.
+     */
+    public long start(int group) {
+        int start = match().start(group);
+        return start == -1 ? -1 : matchOffset + start;
+    }
+
+    /** Returns the offset in the input of the end of the last match. */
+    public long end() {
+        return end(0);
+    }
+
+    /**
+     * Returns the offset in the input of the end of {@code group} in the last
+     * match, or -1 if it didn't match.
+     */
+    public long end(int group) {
+        int end = match().end(group);
+        return end == -1 ? -1 : matchOffset + end;
+    }
+
+    /** Returns the text of the last match. */
+    public String group() {
+        return match().group();
+    }
+
+    /** Returns the text of {@code group} in the last match, or null. */
+    public String group(int group) {
+        return match().group(group);
+    }
+
+    public int groupCount() {
+        return matcher.groupCount();
+    }
+}
@@ -122,6 +122,17 @@ public final class ZoneInfo extends TimeZone {
      */
     private transient ZoneInfoData mDelegate;
 
+    /*
+     * The last period between two transitions that an instant was looked up in by
+     * getOffset(long), inDaylightTime(Date) and getOffsetsByUtcTime(long, int[]), or null.
+     * Instants close to one another, such as those near the current time, are then resolved
+     * without searching the transitions of mDelegate. Periods are immutable, so instances
+     * shared between threads for reading, like the default time zone, stay consistent.
+     */
+    private transient OffsetPeriod mLastOffsetPeriod;
+    private transient OffsetPeriod mLastDaylightPeriod;
+    private transient OffsetPeriod mLastUtcOffsetsPeriod;
+
     /**
      * Creates an instance using the current system clock time to calculate the {@link #mDstSavings}
      * and {@link #mUseDst} fields. See also {@link #createZoneInfo(ZoneInfoData, long)}.
@@ -221,17 +232,30 @@ public final class ZoneInfo extends TimeZone {
         calc -= mDelegate.getRawOffset();
         calc -= UNIX_OFFSET;
 
-        return mDelegate.getOffset(calc);
+        return getOffset(calc);
     }
 
     @Override
     public int getOffset(long when) {
-        return mDelegate.getOffset(when);
+        OffsetPeriod period = mLastOffsetPeriod;
+        if (period == null || !period.contains(mDelegate, when)) {
+            period = new OffsetPeriod(mDelegate, mTransitions, when,
+                    mDelegate.getOffset(when), false, 0, 0);
+            mLastOffsetPeriod = period;
+        }
+        return period.mOffset;
     }
 
     @Override
     public boolean inDaylightTime(Date time) {
-        return mDelegate.isInDaylightTime(time.getTime());
+        long when = time.getTime();
+        OffsetPeriod period = mLastDaylightPeriod;
+        if (period == null || !period.contains(mDelegate, when)) {
+            period = new OffsetPeriod(mDelegate, mTransitions, when,
+                    0, mDelegate.isInDaylightTime(when), 0, 0);
+            mLastDaylightPeriod = period;
+        }
+        return period.mInDaylightTime;
     }
 
     @Override
@@ -304,6 +328,76 @@ public final class ZoneInfo extends TimeZone {
     }
 
     public int getOffsetsByUtcTime(long utcTimeInMillis, int[] offsets) {
-        return mDelegate.getOffsetsByUtcTime(utcTimeInMillis, offsets);
+        OffsetPeriod period = mLastUtcOffsetsPeriod;
+        if (period == null || !period.contains(mDelegate, utcTimeInMillis)) {
+            int[] periodOffsets = new int[2];
+            int offset = mDelegate.getOffsetsByUtcTime(utcTimeInMillis, periodOffsets);
+            period = new OffsetPeriod(mDelegate, mTransitions, utcTimeInMillis,
+                    offset, false, periodOffsets[0], periodOffsets[1]);
+            mLastUtcOffsetsPeriod = period;
+        }
+        offsets[0] = period.mRawOffset;
+        offsets[1] = period.mDstOffset;
+        return period.mOffset;
+    }
+
+    /**
+     * A period of a zone between two of its transitions, within which its offsets don't change,
+     * and the offsets looked up in it. Only the fields of the lookup it was created for are set.
+     */
+    private static final class OffsetPeriod {
+        private final ZoneInfoData mDelegate;
+        // The instants the period covers, in milliseconds, [mStart, mEnd).
+        private final long mStart;
+        private final long mEnd;
+
+        private final int mOffset;
+        private final boolean mInDaylightTime;
+        private final int mRawOffset;
+        private final int mDstOffset;
+
+        OffsetPeriod(ZoneInfoData delegate, long[] transitions, long when, int offset,
+                boolean inDaylightTime, int rawOffset, int dstOffset) {
+            mDelegate = delegate;
+            mOffset = offset;
+            mInDaylightTime = inDaylightTime;
+            mRawOffset = rawOffset;
+            mDstOffset = dstOffset;
+            // Transitions are in seconds. The period is narrowed by a second at both ends so
+            // that it doesn't depend on how the delegate rounds instants to seconds.
+            int index = findTransitionIndex(transitions, Math.floorDiv(when, 1000));
+            long start = index < 0 ? Long.MIN_VALUE : secondsToMillis(transitions[index] + 1);
+            long end = index + 1 >= transitions.length
+                    ? Long.MAX_VALUE : secondsToMillis(transitions[index + 1] - 1);
+            if (when < start || when >= end) {
+                // Too close to a transition; only cover this instant.
+                start = when;
+                end = when + 1;
+            }
+            mStart = start;
+            mEnd = end;
+        }
+
+        boolean contains(ZoneInfoData delegate, long when) {
+            return delegate == mDelegate && when >= mStart && when < mEnd;
+        }
+
+        /**
+         * Returns the index of the last transition at or before {@code seconds}, or -1.
+         */
+        private static int findTransitionIndex(long[] transitions, long seconds) {
+            int index = Arrays.binarySearch(transitions, seconds);
+            return index >= 0 ? index : -index - 2;
+        }
+
+        private static long secondsToMillis(long seconds) {
+            if (seconds >= Long.MAX_VALUE / 1000) {
+                return Long.MAX_VALUE;
+            }
+            if (seconds <= Long.MIN_VALUE / 1000) {
+                return Long.MIN_VALUE;
+            }
+            return seconds * 1000;
+        }
     }
 }
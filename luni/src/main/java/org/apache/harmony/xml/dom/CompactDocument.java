@@ -0,0 +1,750 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.harmony.xml.dom;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMConfiguration;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentFragment;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+
+/**
+ * A read-only document that stores its nodes in flat arrays instead of as a
+ * tree of objects. Each node is a row across parallel arrays holding its type,
+ * the indices of its parent, first child and next sibling, and indices into a
+ * table of distinct names. Character data and attribute values are stored
+ * back to back in a single char array.
+ *
+ * <p>Nodes are stored in document order, so the descendants of a node are the
+ * rows that immediately follow it. {@link Node} objects for rows are created
+ * the first time they are reached and cached, so every node keeps a single
+ * identity. The {@code org.w3c.dom} interfaces work as usual for traversal,
+ * but any attempt to modify the document fails with a {@link DOMException}
+ * with code {@link DOMException#NO_MODIFICATION_ALLOWED_ERR}.
+ *
+ * <p>Like the other DOM implementations here, this class is not thread safe.
+ */
+public final class CompactDocument extends CompactNode implements Document {
+
+    /** The row of the document node itself. */
+    static final int ROOT = 0;
+
+    /** A missing row, name or namespace. */
+    static final int NONE = -1;
+
+    final boolean namespaceAware;
+    private final String inputEncoding;
+    private final String documentUri;
+
+    // Node rows. For elements, data and dataLength hold the element's first
+    // attribute row and its attribute count rather than character data.
+    int nodeCount;
+    byte[] types;
+    int[] parents;
+    int[] firstChildren;
+    int[] nextSiblings;
+    int[] namespaces;
+    int[] prefixes;
+    int[] names;
+    int[] data;
+    int[] dataLengths;
+
+    // Attribute rows.
+    int attributeCount;
+    int[] attributeNamespaces;
+    int[] attributePrefixes;
+    int[] attributeNames;
+    int[] attributeData;
+    int[] attributeDataLengths;
+
+    /** Distinct names, prefixes and namespace URIs. */
+    String[] strings;
+
+    /** Character data and attribute values. */
+    char[] chars;
+    int charCount;
+
+    /** The document type's public and system IDs. */
+    String publicId;
+    String systemId;
+
+    private CompactNode[] nodes;
+    private CompactNode.AttrNode[] attributeNodes;
+    private DOMConfiguration domConfiguration;
+    private Map<Node, Map<String, Object>> userData;
+
+    private CompactDocument(boolean namespaceAware, String inputEncoding, String documentUri) {
+        super(null, ROOT);
+        this.document = this;
+        this.namespaceAware = namespaceAware;
+        this.inputEncoding = inputEncoding;
+        this.documentUri = documentUri;
+    }
+
+    /**
+     * Returns the node for {@code row}, creating it if necessary.
+     */
+    CompactNode node(int row) {
+        if (row == NONE) {
+            return null;
+        }
+        if (nodes == null) {
+            nodes = new CompactNode[nodeCount];
+            nodes[ROOT] = this;
+        }
+        CompactNode result = nodes[row];
+        if (result == null) {
+            switch (types[row]) {
+                case ELEMENT_NODE:
+                    result = new CompactNode.ElementNode(this, row);
+                    break;
+                case TEXT_NODE:
+                    result = new CompactNode.TextNode(this, row);
+                    break;
+                case CDATA_SECTION_NODE:
+                    result = new CompactNode.CDATASectionNode(this, row);
+                    break;
+                case COMMENT_NODE:
+                    result = new CompactNode.CommentNode(this, row);
+                    break;
+                case PROCESSING_INSTRUCTION_NODE:
+                    result = new CompactNode.ProcessingInstructionNode(this, row);
+                    break;
+                case DOCUMENT_TYPE_NODE:
+                    result = new CompactNode.DocumentTypeNode(this, row);
+                    break;
+                case ENTITY_REFERENCE_NODE:
+                    result = new CompactNode.EntityReferenceNode(this, row);
+                    break;
+                default:
+                    throw new AssertionError();
+            }
+            nodes[row] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the attribute node for {@code row}, creating it if necessary.
+     */
+    CompactNode.AttrNode attributeNode(int row, int ownerRow) {
+        if (attributeNodes == null) {
+            attributeNodes = new CompactNode.AttrNode[attributeCount];
+        }
+        CompactNode.AttrNode result = attributeNodes[row];
+        if (result == null) {
+            result = new CompactNode.AttrNode(this, row, ownerRow);
+            attributeNodes[row] = result;
+        }
+        return result;
+    }
+
+    String string(int index) {
+        return index == NONE ? null : strings[index];
+    }
+
+    String data(int row) {
+        return new String(chars, data[row], dataLengths[row]);
+    }
+
+    String attributeValue(int attributeRow) {
+        return new String(chars, attributeData[attributeRow], attributeDataLengths[attributeRow]);
+    }
+
+    int prefix(int row) {
+        return namespaceAware ? prefixes[row] : NONE;
+    }
+
+    int attributePrefix(int attributeRow) {
+        return namespaceAware ? attributePrefixes[attributeRow] : NONE;
+    }
+
+    /**
+     * Returns true if the name made of {@code prefix} and {@code localName}
+     * equals {@code qualifiedName}.
+     */
+    boolean qualifiedNameEquals(int prefix, int localName, String qualifiedName) {
+        String local = strings[localName];
+        if (prefix == NONE) {
+            return local.equals(qualifiedName);
+        }
+        String p = strings[prefix];
+        return qualifiedName.length() == p.length() + 1 + local.length()
+                && qualifiedName.startsWith(p)
+                && qualifiedName.charAt(p.length()) == ':'
+                && qualifiedName.endsWith(local);
+    }
+
+    /**
+     * Returns the row following the last descendant of {@code row}.
+     */
+    int subtreeEnd(int row) {
+        for (int r = row; r != NONE; r = parents[r]) {
+            if (nextSiblings[r] != NONE) {
+                return nextSiblings[r];
+            }
+        }
+        return nodeCount;
+    }
+
+    /**
+     * Returns the elements strictly inside {@code row}'s subtree whose
+     * qualified name is {@code name}, or all of them if it is "*".
+     */
+    NodeList getElementsByTagName(int row, String name) {
+        boolean any = "*".equals(name);
+        CompactNode.RowNodeList result = new CompactNode.RowNodeList(this);
+        for (int r = row + 1, end = subtreeEnd(row); r < end; r++) {
+            if (types[r] == ELEMENT_NODE
+                    && (any || qualifiedNameEquals(prefix(r), names[r], name))) {
+                result.add(r);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the elements strictly inside {@code row}'s subtree with the
+     * given namespace URI and local name, either of which may be "*".
+     */
+    NodeList getElementsByTagNameNS(int row, String namespaceURI, String localName) {
+        CompactNode.RowNodeList result = new CompactNode.RowNodeList(this);
+        boolean anyNamespace = "*".equals(namespaceURI);
+        boolean anyName = "*".equals(localName);
+        for (int r = row + 1, end = subtreeEnd(row); r < end; r++) {
+            if (types[r] != ELEMENT_NODE) {
+                continue;
+            }
+            // Without namespace processing elements have neither a namespace
+            // nor a local name, like ElementImpl.
+            int namespace = namespaceAware ? namespaces[r] : NONE;
+            int name = namespaceAware ? names[r] : NONE;
+            if ((anyNamespace || equal(namespaceURI, namespace))
+                    && (anyName || equal(localName, name))) {
+                result.add(r);
+            }
+        }
+        return result;
+    }
+
+    private boolean equal(String s, int index) {
+        return s == null ? index == NONE : index != NONE && s.equals(strings[index]);
+    }
+
+    Map<String, Object> getUserDataMap(Node node, boolean create) {
+        if (userData == null) {
+            if (!create) {
+                return null;
+            }
+            userData = new IdentityHashMap<Node, Map<String, Object>>();
+        }
+        Map<String, Object> result = userData.get(node);
+        if (result == null && create) {
+            result = new HashMap<String, Object>();
+            userData.put(node, result);
+        }
+        return result;
+    }
+
+    @Override public String getNodeName() {
+        return "#document";
+    }
+
+    @Override public String getTextContent() {
+        return null;
+    }
+
+    @Override public String getBaseURI() {
+        if (documentUri == null || documentUri.isEmpty()) {
+            return null;
+        }
+        try {
+            return new URI(documentUri).toString();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    public DocumentType getDoctype() {
+        for (int r = firstChildren[ROOT]; r != NONE; r = nextSiblings[r]) {
+            if (types[r] == DOCUMENT_TYPE_NODE) {
+                return (DocumentType) node(r);
+            }
+        }
+        return null;
+    }
+
+    public DOMImplementation getImplementation() {
+        return DOMImplementationImpl.getInstance();
+    }
+
+    public Element getDocumentElement() {
+        for (int r = firstChildren[ROOT]; r != NONE; r = nextSiblings[r]) {
+            if (types[r] == ELEMENT_NODE) {
+                return (Element) node(r);
+            }
+        }
+        return null;
+    }
+
+    public NodeList getElementsByTagName(String tagname) {
+        return getElementsByTagName(ROOT, tagname);
+    }
+
+    public NodeList getElementsByTagNameNS(String namespaceURI, String localName) {
+        return getElementsByTagNameNS(ROOT, namespaceURI, localName);
+    }
+
+    /**
+     * Like {@link DocumentImpl#getElementById}, this treats attributes named
+     * "id" as IDs.
+     */
+    public Element getElementById(String elementId) {
+        for (int r = ROOT + 1; r < nodeCount; r++) {
+            if (types[r] != ELEMENT_NODE) {
+                continue;
+            }
+            for (int a = data[r], end = a + dataLengths[r]; a < end; a++) {
+                if (qualifiedNameEquals(attributePrefix(a), attributeNames[a], "id")
+                        && elementId.equals(attributeValue(a))) {
+                    return (Element) node(r);
+                }
+            }
+        }
+        return null;
+    }
+
+    public Element createElement(String tagName) {
+        throw readOnly();
+    }
+
+    public DocumentFragment createDocumentFragment() {
+        throw readOnly();
+    }
+
+    public Text createTextNode(String data) {
+        throw readOnly();
+    }
+
+    public Comment createComment(String data) {
+        throw readOnly();
+    }
+
+    public CDATASection createCDATASection(String data) {
+        throw readOnly();
+    }
+
+    public ProcessingInstruction createProcessingInstruction(String target, String data) {
+        throw readOnly();
+    }
+
+    public Attr createAttribute(String name) {
+        throw readOnly();
+    }
+
+    public EntityReference createEntityReference(String name) {
+        throw readOnly();
+    }
+
+    public Node importNode(Node importedNode, boolean deep) {
+        throw readOnly();
+    }
+
+    public Element createElementNS(String namespaceURI, String qualifiedName) {
+        throw readOnly();
+    }
+
+    public Attr createAttributeNS(String namespaceURI, String qualifiedName) {
+        throw readOnly();
+    }
+
+    public String getInputEncoding() {
+        return inputEncoding;
+    }
+
+    public String getXmlEncoding() {
+        return null;
+    }
+
+    public boolean getXmlStandalone() {
+        return false;
+    }
+
+    public void setXmlStandalone(boolean xmlStandalone) {
+        throw readOnly();
+    }
+
+    public String getXmlVersion() {
+        return "1.0";
+    }
+
+    public void setXmlVersion(String xmlVersion) {
+        throw readOnly();
+    }
+
+    public boolean getStrictErrorChecking() {
+        return true;
+    }
+
+    public void setStrictErrorChecking(boolean strictErrorChecking) {
+        throw readOnly();
+    }
+
+    public String getDocumentURI() {
+        return documentUri;
+    }
+
+    public void setDocumentURI(String documentURI) {
+        throw readOnly();
+    }
+
+    public Node adoptNode(Node source) {
+        throw readOnly();
+    }
+
+    public DOMConfiguration getDomConfig() {
+        if (domConfiguration == null) {
+            domConfiguration = new DOMConfigurationImpl();
+        }
+        return domConfiguration;
+    }
+
+    public void normalizeDocument() {
+        throw readOnly();
+    }
+
+    public Node renameNode(Node n, String namespaceURI, String qualifiedName) {
+        throw readOnly();
+    }
+
+    /**
+     * Appends a parsed document's nodes in document order and builds a
+     * {@link CompactDocument} from them.
+     */
+    public static final class Builder {
+        private CompactDocument document;
+        private final Map<String, Integer> stringIndices = new HashMap<String, Integer>();
+
+        /** The rows of the open document and elements, and of their last children. */
+        private int[] openRows = new int[16];
+        private int[] lastChildren = new int[16];
+        private int depth;
+
+        /** The row of the most recent element, to which attributes are added. */
+        private int currentElement = NONE;
+
+        private boolean hasDocumentElement;
+        private boolean hasDoctype;
+
+        public Builder(boolean namespaceAware, String inputEncoding, String documentUri) {
+            document = new CompactDocument(namespaceAware, inputEncoding, documentUri);
+            document.types = new byte[64];
+            document.parents = new int[64];
+            document.firstChildren = new int[64];
+            document.nextSiblings = new int[64];
+            document.namespaces = new int[64];
+            document.prefixes = new int[64];
+            document.names = new int[64];
+            document.data = new int[64];
+            document.dataLengths = new int[64];
+            document.attributeNamespaces = new int[16];
+            document.attributePrefixes = new int[16];
+            document.attributeNames = new int[16];
+            document.attributeData = new int[16];
+            document.attributeDataLengths = new int[16];
+            document.strings = new String[16];
+            document.chars = new char[1024];
+
+            addRow(DOCUMENT_NODE);
+            openRows[0] = ROOT;
+            lastChildren[0] = NONE;
+        }
+
+        /**
+         * Opens an element. Its attributes follow with {@link #attribute}, and
+         * its content ends with {@link #endElement}.
+         *
+         * @param namespaceURI the namespace, or null. Only used by namespace
+         *     aware documents.
+         * @param prefix the namespace prefix, or null. Only used by namespace
+         *     aware documents.
+         * @param name the local name for namespace aware documents, or the
+         *     qualified name otherwise.
+         */
+        public void startElement(String namespaceURI, String prefix, String name) {
+            if (depth == 0) {
+                if (hasDocumentElement) {
+                    throw new DOMException(DOMException.HIERARCHY_REQUEST_ERR,
+                            "Only one root element allowed");
+                }
+                hasDocumentElement = true;
+            }
+            int row = appendChild(ELEMENT_NODE);
+            CompactDocument d = document;
+            if (d.namespaceAware) {
+                d.namespaces[row] = stringIndex(namespaceURI);
+                d.prefixes[row] = stringIndex(prefix);
+            }
+            d.names[row] = stringIndex(name);
+            d.data[row] = d.attributeCount;
+            currentElement = row;
+
+            if (depth + 1 == openRows.length) {
+                openRows = Arrays.copyOf(openRows, openRows.length * 2);
+                lastChildren = Arrays.copyOf(lastChildren, lastChildren.length * 2);
+            }
+            depth++;
+            openRows[depth] = row;
+            lastChildren[depth] = NONE;
+        }
+
+        /**
+         * Adds an attribute to the element opened by the last call to
+         * {@link #startElement}.
+         */
+        public void attribute(String namespaceURI, String prefix, String name, String value) {
+            CompactDocument d = document;
+            if (currentElement == NONE) {
+                throw new IllegalStateException("No element to add an attribute to");
+            }
+            int row = d.attributeCount;
+            if (row == d.attributeNames.length) {
+                int newLength = row * 2;
+                d.attributeNamespaces = Arrays.copyOf(d.attributeNamespaces, newLength);
+                d.attributePrefixes = Arrays.copyOf(d.attributePrefixes, newLength);
+                d.attributeNames = Arrays.copyOf(d.attributeNames, newLength);
+                d.attributeData = Arrays.copyOf(d.attributeData, newLength);
+                d.attributeDataLengths = Arrays.copyOf(d.attributeDataLengths, newLength);
+            }
+            d.attributeNamespaces[row] = d.namespaceAware ? stringIndex(namespaceURI) : NONE;
+            d.attributePrefixes[row] = d.namespaceAware ? stringIndex(prefix) : NONE;
+            d.attributeNames[row] = stringIndex(name);
+            d.attributeData[row] = d.charCount;
+            d.attributeDataLengths[row] = value.length();
+            appendChars(value);
+            d.attributeCount++;
+            d.dataLengths[currentElement]++;
+        }
+
+        /**
+         * Closes the innermost open element.
+         */
+        public void endElement() {
+            if (depth == 0) {
+                throw new IllegalStateException("No open element");
+            }
+            depth--;
+            currentElement = NONE;
+        }
+
+        /**
+         * Appends text to the innermost open node, merging it with a
+         * preceding text node like {@code DocumentBuilder} does.
+         *
+         * @param cdata true if the text is a CDATA section. These are only
+         *     merged with a preceding text node if {@code coalescing} is true.
+         */
+        public void text(String text, boolean cdata, boolean coalescing) {
+            if (text.isEmpty()) {
+                return;
+            }
+            CompactDocument d = document;
+            int last = lastChildren[depth];
+            if ((coalescing || !cdata) && last != NONE && d.types[last] == TEXT_NODE) {
+                if (d.data[last] + d.dataLengths[last] != d.charCount) {
+                    // Something was stored after this text; move it to the end.
+                    String previous = d.data(last);
+                    d.data[last] = d.charCount;
+                    appendChars(previous);
+                }
+                appendChars(text);
+                d.dataLengths[last] += text.length();
+                return;
+            }
+            appendData(cdata ? CDATA_SECTION_NODE : TEXT_NODE, NONE, text);
+        }
+
+        public void comment(String text) {
+            appendData(COMMENT_NODE, NONE, text);
+        }
+
+        public void processingInstruction(String target, String data) {
+            appendData(PROCESSING_INSTRUCTION_NODE, stringIndex(target), data);
+        }
+
+        public void entityReference(String name) {
+            document.names[appendChild(ENTITY_REFERENCE_NODE)] = stringIndex(name);
+        }
+
+        /**
+         * Appends a document type. This is always a child of the document.
+         */
+        public void documentType(String name, String publicId, String systemId) {
+            if (hasDoctype) {
+                throw new DOMException(DOMException.HIERARCHY_REQUEST_ERR,
+                        "Only one DOCTYPE element allowed");
+            }
+            hasDoctype = true;
+            int savedDepth = depth;
+            depth = 0;
+            document.names[appendChild(DOCUMENT_TYPE_NODE)] = stringIndex(name);
+            depth = savedDepth;
+            document.publicId = publicId;
+            document.systemId = systemId;
+        }
+
+        /**
+         * Returns the document. This builder may not be used afterwards.
+         */
+        public CompactDocument build() {
+            CompactDocument d = document;
+            document = null;
+            int n = d.nodeCount;
+            d.types = Arrays.copyOf(d.types, n);
+            d.parents = Arrays.copyOf(d.parents, n);
+            d.firstChildren = Arrays.copyOf(d.firstChildren, n);
+            d.nextSiblings = Arrays.copyOf(d.nextSiblings, n);
+            // Namespaces and prefixes are always missing without namespace
+            // processing, so those arrays are dropped.
+            if (d.namespaceAware) {
+                d.namespaces = Arrays.copyOf(d.namespaces, n);
+                d.prefixes = Arrays.copyOf(d.prefixes, n);
+            } else {
+                d.namespaces = null;
+                d.prefixes = null;
+            }
+            d.names = Arrays.copyOf(d.names, n);
+            d.data = Arrays.copyOf(d.data, n);
+            d.dataLengths = Arrays.copyOf(d.dataLengths, n);
+            int a = d.attributeCount;
+            if (d.namespaceAware) {
+                d.attributeNamespaces = Arrays.copyOf(d.attributeNamespaces, a);
+                d.attributePrefixes = Arrays.copyOf(d.attributePrefixes, a);
+            } else {
+                d.attributeNamespaces = null;
+                d.attributePrefixes = null;
+            }
+            d.attributeNames = Arrays.copyOf(d.attributeNames, a);
+            d.attributeData = Arrays.copyOf(d.attributeData, a);
+            d.attributeDataLengths = Arrays.copyOf(d.attributeDataLengths, a);
+            d.strings = Arrays.copyOf(d.strings, stringIndices.size());
+            d.chars = Arrays.copyOf(d.chars, d.charCount);
+            return d;
+        }
+
+        private void appendData(int type, int name, String value) {
+            int row = appendChild(type);
+            CompactDocument d = document;
+            d.names[row] = name;
+            d.data[row] = d.charCount;
+            d.dataLengths[row] = value.length();
+            appendChars(value);
+        }
+
+        /**
+         * Adds a row for a new last child of the innermost open node.
+         */
+        private int appendChild(int type) {
+            CompactDocument d = document;
+            int row = addRow(type);
+            int parent = openRows[depth];
+            int last = lastChildren[depth];
+            d.parents[row] = parent;
+            if (last == NONE) {
+                d.firstChildren[parent] = row;
+            } else {
+                d.nextSiblings[last] = row;
+            }
+            lastChildren[depth] = row;
+            currentElement = NONE;
+            return row;
+        }
+
+        private int addRow(int type) {
+            CompactDocument d = document;
+            int row = d.nodeCount;
+            if (row == d.types.length) {
+                int newLength = row * 2;
+                d.types = Arrays.copyOf(d.types, newLength);
+                d.parents = Arrays.copyOf(d.parents, newLength);
+                d.firstChildren = Arrays.copyOf(d.firstChildren, newLength);
+                d.nextSiblings = Arrays.copyOf(d.nextSiblings, newLength);
+                d.namespaces = Arrays.copyOf(d.namespaces, newLength);
+                d.prefixes = Arrays.copyOf(d.prefixes, newLength);
+                d.names = Arrays.copyOf(d.names, newLength);
+                d.data = Arrays.copyOf(d.data, newLength);
+                d.dataLengths = Arrays.copyOf(d.dataLengths, newLength);
+            }
+            d.types[row] = (byte) type;
+            d.parents[row] = NONE;
+            d.firstChildren[row] = NONE;
+            d.nextSiblings[row] = NONE;
+            d.namespaces[row] = NONE;
+            d.prefixes[row] = NONE;
+            d.names[row] = NONE;
+            d.data[row] = 0;
+            d.dataLengths[row] = 0;
+            d.nodeCount++;
+            return row;
+        }
+
+        private void appendChars(String s) {
+            CompactDocument d = document;
+            int length = s.length();
+            if (d.charCount + length > d.chars.length) {
+                int newLength = Math.max(d.chars.length * 2, d.charCount + length);
+                d.chars = Arrays.copyOf(d.chars, newLength);
+            }
+            s.getChars(0, length, d.chars, d.charCount);
+            d.charCount += length;
+        }
+
+        private int stringIndex(String s) {
+            if (s == null) {
+                return NONE;
+            }
+            Integer index = stringIndices.get(s);
+            if (index != null) {
+                return index;
+            }
+            CompactDocument d = document;
+            int result = stringIndices.size();
+            if (result == d.strings.length) {
+                d.strings = Arrays.copyOf(d.strings, result * 2);
+            }
+            d.strings[result] = s;
+            stringIndices.put(s, result);
+            return result;
+        }
+    }
+}
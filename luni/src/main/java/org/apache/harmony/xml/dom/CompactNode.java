@@ -0,0 +1,995 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.harmony.xml.dom;
+
+import static org.apache.harmony.xml.dom.CompactDocument.NONE;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.EntityReference;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+import org.w3c.dom.TypeInfo;
+import org.w3c.dom.UserDataHandler;
+
+/**
+ * A node of a {@link CompactDocument}. Instances are views of one row of the
+ * document's arrays and hold no other state.
+ *
+ * <p>This class implements the navigation and query methods shared by all
+ * node types. Every method that would modify the document throws a
+ * {@link DOMException} with code {@link DOMException#NO_MODIFICATION_ALLOWED_ERR}.
+ */
+abstract class CompactNode implements Node {
+
+    CompactDocument document;
+    final int row;
+
+    CompactNode(CompactDocument document, int row) {
+        this.document = document;
+        this.row = row;
+    }
+
+    static DOMException readOnly() {
+        return new DOMException(DOMException.NO_MODIFICATION_ALLOWED_ERR,
+                "Document is read-only");
+    }
+
+    public short getNodeType() {
+        return document.types[row];
+    }
+
+    public String getNodeValue() throws DOMException {
+        return null;
+    }
+
+    public void setNodeValue(String nodeValue) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node getParentNode() {
+        return document.node(document.parents[row]);
+    }
+
+    public NodeList getChildNodes() {
+        RowNodeList result = new RowNodeList(document);
+        for (int r = document.firstChildren[row]; r != NONE; r = document.nextSiblings[r]) {
+            result.add(r);
+        }
+        return result;
+    }
+
+    public Node getFirstChild() {
+        return document.node(document.firstChildren[row]);
+    }
+
+    public Node getLastChild() {
+        int last = document.firstChildren[row];
+        if (last == NONE) {
+            return null;
+        }
+        for (int r = document.nextSiblings[last]; r != NONE; r = document.nextSiblings[r]) {
+            last = r;
+        }
+        return document.node(last);
+    }
+
+    public Node getPreviousSibling() {
+        int parent = document.parents[row];
+        if (parent == NONE) {
+            return null;
+        }
+        int previous = NONE;
+        for (int r = document.firstChildren[parent]; r != row; r = document.nextSiblings[r]) {
+            previous = r;
+        }
+        return document.node(previous);
+    }
+
+    public Node getNextSibling() {
+        return document.node(document.nextSiblings[row]);
+    }
+
+    public NamedNodeMap getAttributes() {
+        return null;
+    }
+
+    public Document getOwnerDocument() {
+        return document == this ? null : document;
+    }
+
+    public Node insertBefore(Node newChild, Node refChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node replaceChild(Node newChild, Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node removeChild(Node oldChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public Node appendChild(Node newChild) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean hasChildNodes() {
+        return document.firstChildren[row] != NONE;
+    }
+
+    public Node cloneNode(boolean deep) {
+        throw new DOMException(DOMException.NOT_SUPPORTED_ERR,
+                "Cannot clone nodes of a read-only document");
+    }
+
+    public void normalize() {
+        // The builder never creates adjacent or empty text nodes.
+    }
+
+    public boolean isSupported(String feature, String version) {
+        return DOMImplementationImpl.getInstance().hasFeature(feature, version);
+    }
+
+    public String getNamespaceURI() {
+        return null;
+    }
+
+    public String getPrefix() {
+        return null;
+    }
+
+    public void setPrefix(String prefix) throws DOMException {
+        throw readOnly();
+    }
+
+    public String getLocalName() {
+        return null;
+    }
+
+    public boolean hasAttributes() {
+        return false;
+    }
+
+    public String getBaseURI() {
+        return null;
+    }
+
+    String getParentBaseUri() {
+        Node parent = getParentNode();
+        return parent != null ? parent.getBaseURI() : null;
+    }
+
+    /**
+     * Compares nodes by their rows, which are in document order. Only nodes
+     * of the same compact document can be compared.
+     */
+    public short compareDocumentPosition(Node other) throws DOMException {
+        if (other == this) {
+            return 0;
+        }
+        if (!(other instanceof CompactNode) || ((CompactNode) other).document != document) {
+            throw new DOMException(DOMException.NOT_SUPPORTED_ERR,
+                    "Cannot compare nodes of different documents");
+        }
+        CompactNode that = (CompactNode) other;
+        int a = treeRow();
+        int b = that.treeRow();
+        int result;
+        if (a == b) {
+            // At least one of the nodes is an attribute of the other's element.
+            if (this instanceof AttrNode && that instanceof AttrNode) {
+                result = DOCUMENT_POSITION_IMPLEMENTATION_SPECIFIC | (that.row < row
+                        ? DOCUMENT_POSITION_PRECEDING
+                        : DOCUMENT_POSITION_FOLLOWING);
+            } else if (this instanceof AttrNode) {
+                result = DOCUMENT_POSITION_CONTAINS | DOCUMENT_POSITION_PRECEDING;
+            } else {
+                result = DOCUMENT_POSITION_CONTAINED_BY | DOCUMENT_POSITION_FOLLOWING;
+            }
+        } else if (b < a) {
+            result = a < document.subtreeEnd(b)
+                    ? DOCUMENT_POSITION_CONTAINS | DOCUMENT_POSITION_PRECEDING
+                    : DOCUMENT_POSITION_PRECEDING;
+        } else {
+            result = b < document.subtreeEnd(a)
+                    ? DOCUMENT_POSITION_CONTAINED_BY | DOCUMENT_POSITION_FOLLOWING
+                    : DOCUMENT_POSITION_FOLLOWING;
+        }
+        return (short) result;
+    }
+
+    /**
+     * Returns the row of this node, or of the element that owns this
+     * attribute.
+     */
+    int treeRow() {
+        return row;
+    }
+
+    public String getTextContent() throws DOMException {
+        return getNodeValue();
+    }
+
+    /**
+     * Returns the concatenated text and CDATA sections inside this node,
+     * skipping comments and processing instructions like
+     * {@link InnerNodeImpl#getTextContent} does.
+     */
+    String getDescendantText() {
+        CompactDocument d = document;
+        int end = d.subtreeEnd(row);
+        int first = NONE;
+        int count = 0;
+        for (int r = row + 1; r < end; r++) {
+            if (d.types[r] == TEXT_NODE || d.types[r] == CDATA_SECTION_NODE) {
+                if (first == NONE) {
+                    first = r;
+                }
+                count++;
+            }
+        }
+        if (count == 0) {
+            return "";
+        } else if (count == 1) {
+            return d.data(first);
+        }
+        StringBuilder result = new StringBuilder();
+        for (int r = first; r < end; r++) {
+            if (d.types[r] == TEXT_NODE || d.types[r] == CDATA_SECTION_NODE) {
+                result.append(d.chars, d.data[r], d.dataLengths[r]);
+            }
+        }
+        return result.toString();
+    }
+
+    public void setTextContent(String textContent) throws DOMException {
+        throw readOnly();
+    }
+
+    public boolean isSameNode(Node other) {
+        return this == other;
+    }
+
+    public String lookupPrefix(String namespaceURI) {
+        if (namespaceURI == null) {
+            return null;
+        }
+        for (CompactNode node = namespaceContext(); node != null;
+                node = node.parentElement()) {
+            if (namespaceURI.equals(node.getNamespaceURI())
+                    && node.getPrefix() != null
+                    && namespaceURI.equals(node.lookupNamespaceURI(node.getPrefix()))) {
+                return node.getPrefix();
+            }
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0, length = attributes.getLength(); i < length; i++) {
+                Node attr = attributes.item(i);
+                if ("http://www.w3.org/2000/xmlns/".equals(attr.getNamespaceURI())
+                        && "xmlns".equals(attr.getPrefix())
+                        && namespaceURI.equals(attr.getNodeValue())
+                        && namespaceURI.equals(lookupNamespaceURI(attr.getLocalName()))) {
+                    return attr.getLocalName();
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean isDefaultNamespace(String namespaceURI) {
+        String actual = lookupNamespaceURI(null);
+        return namespaceURI == null ? actual == null : namespaceURI.equals(actual);
+    }
+
+    public String lookupNamespaceURI(String prefix) {
+        for (CompactNode node = namespaceContext(); node != null;
+                node = node.parentElement()) {
+            String nodePrefix = node.getPrefix();
+            if (node.getNamespaceURI() != null
+                    && (prefix == null ? nodePrefix == null : prefix.equals(nodePrefix))) {
+                return node.getNamespaceURI();
+            }
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0, length = attributes.getLength(); i < length; i++) {
+                Node attr = attributes.item(i);
+                if (!"http://www.w3.org/2000/xmlns/".equals(attr.getNamespaceURI())) {
+                    continue;
+                }
+                if (prefix == null
+                        ? "xmlns".equals(attr.getNodeName())
+                        : "xmlns".equals(attr.getPrefix()) && prefix.equals(attr.getLocalName())) {
+                    String value = attr.getNodeValue();
+                    return value.length() > 0 ? value : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private CompactNode parentElement() {
+        int parent = document.parents[row];
+        return parent != NONE && document.types[parent] == ELEMENT_NODE
+                ? document.node(parent)
+                : null;
+    }
+
+    /**
+     * Returns the element whose namespace declarations apply to this node, as
+     * described by the DOM Level 3 namespace lookup algorithms.
+     */
+    private CompactNode namespaceContext() {
+        CompactDocument d = document;
+        int r;
+        if (this instanceof AttrNode) {
+            r = treeRow();
+        } else if (d.types[row] == DOCUMENT_NODE) {
+            Element root = d.getDocumentElement();
+            return (CompactNode) root;
+        } else if (d.types[row] == DOCUMENT_TYPE_NODE) {
+            return null;
+        } else {
+            r = row;
+        }
+        while (r != NONE && d.types[r] != ELEMENT_NODE) {
+            r = d.parents[r];
+        }
+        return d.node(r);
+    }
+
+    public boolean isEqualNode(Node other) {
+        if (other == this) {
+            return true;
+        }
+        if (other == null
+                || getNodeType() != other.getNodeType()
+                || !Objects.equals(getNodeName(), other.getNodeName())
+                || !Objects.equals(getLocalName(), other.getLocalName())
+                || !Objects.equals(getNamespaceURI(), other.getNamespaceURI())
+                || !Objects.equals(getPrefix(), other.getPrefix())
+                || !Objects.equals(getNodeValue(), other.getNodeValue())) {
+            return false;
+        }
+        Node a = getFirstChild();
+        Node b = other.getFirstChild();
+        for (; a != null && b != null; a = a.getNextSibling(), b = b.getNextSibling()) {
+            if (!a.isEqualNode(b)) {
+                return false;
+            }
+        }
+        if (a != null || b != null) {
+            return false;
+        }
+        if (getNodeType() == DOCUMENT_TYPE_NODE) {
+            DocumentType x = (DocumentType) this;
+            DocumentType y = (DocumentType) other;
+            return Objects.equals(x.getPublicId(), y.getPublicId())
+                    && Objects.equals(x.getSystemId(), y.getSystemId())
+                    && Objects.equals(x.getInternalSubset(), y.getInternalSubset());
+        }
+        if (getNodeType() == ELEMENT_NODE) {
+            NamedNodeMap x = getAttributes();
+            NamedNodeMap y = other.getAttributes();
+            if (x.getLength() != y.getLength()) {
+                return false;
+            }
+            for (int i = 0; i < x.getLength(); i++) {
+                Node attr = x.item(i);
+                Node match = attr.getLocalName() == null
+                        ? y.getNamedItem(attr.getNodeName())
+                        : y.getNamedItemNS(attr.getNamespaceURI(), attr.getLocalName());
+                if (match == null || !attr.isEqualNode(match)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    public Object getFeature(String feature, String version) {
+        return isSupported(feature, version) ? this : null;
+    }
+
+    /**
+     * Stores {@code data} for this node. Documents are never cloned, imported
+     * or renamed, so {@code handler} is never called.
+     */
+    public Object setUserData(String key, Object data, UserDataHandler handler) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+        Map<String, Object> map = document.getUserDataMap(this, data != null);
+        if (map == null) {
+            return null;
+        }
+        return data == null ? map.remove(key) : map.put(key, data);
+    }
+
+    public Object getUserData(String key) {
+        if (key == null) {
+            throw new NullPointerException("key == null");
+        }
+        Map<String, Object> map = document.getUserDataMap(this, false);
+        return map != null ? map.get(key) : null;
+    }
+
+    /**
+     * A list of nodes identified by their rows.
+     */
+    static final class RowNodeList implements NodeList {
+        private final CompactDocument document;
+        private int[] rows = new int[4];
+        private int size;
+
+        RowNodeList(CompactDocument document) {
+            this.document = document;
+        }
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        public Node item(int index) {
+            return index >= 0 && index < size ? document.node(rows[index]) : null;
+        }
+
+        public int getLength() {
+            return size;
+        }
+    }
+
+    static final class ElementNode extends CompactNode implements Element {
+        private String qualifiedName;
+
+        ElementNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return getTagName();
+        }
+
+        public String getTagName() {
+            if (qualifiedName == null) {
+                CompactDocument d = document;
+                String localName = d.strings[d.names[row]];
+                qualifiedName = d.namespaceAware && d.prefixes[row] != NONE
+                        ? d.strings[d.prefixes[row]] + ":" + localName
+                        : localName;
+            }
+            return qualifiedName;
+        }
+
+        @Override public String getLocalName() {
+            return document.namespaceAware ? document.strings[document.names[row]] : null;
+        }
+
+        @Override public String getNamespaceURI() {
+            return document.namespaceAware ? document.string(document.namespaces[row]) : null;
+        }
+
+        @Override public String getPrefix() {
+            return document.namespaceAware ? document.string(document.prefixes[row]) : null;
+        }
+
+        @Override public String getTextContent() {
+            return getDescendantText();
+        }
+
+        @Override public String getBaseURI() {
+            String uri = getAttributeNS("http://www.w3.org/XML/1998/namespace", "base");
+            try {
+                if (uri.isEmpty()) {
+                    return getParentBaseUri();
+                }
+                if (new URI(uri).isAbsolute()) {
+                    return uri;
+                }
+                String parentUri = getParentBaseUri();
+                return parentUri != null ? new URI(parentUri).resolve(uri).toString() : null;
+            } catch (URISyntaxException e) {
+                return null;
+            }
+        }
+
+        @Override public NamedNodeMap getAttributes() {
+            return new AttributeMap(this);
+        }
+
+        @Override public boolean hasAttributes() {
+            return document.dataLengths[row] != 0;
+        }
+
+        int indexOfAttribute(String name) {
+            CompactDocument d = document;
+            if (name == null) {
+                return NONE;
+            }
+            for (int a = d.data[row], end = a + d.dataLengths[row]; a < end; a++) {
+                int prefix = d.namespaceAware ? d.attributePrefixes[a] : NONE;
+                if (d.qualifiedNameEquals(prefix, d.attributeNames[a], name)) {
+                    return a;
+                }
+            }
+            return NONE;
+        }
+
+        int indexOfAttributeNS(String namespaceURI, String localName) {
+            CompactDocument d = document;
+            if (!d.namespaceAware) {
+                // Attributes have no local name without namespace processing.
+                return localName == null && namespaceURI == null && hasAttributes()
+                        ? d.data[row] : NONE;
+            }
+            for (int a = d.data[row], end = a + d.dataLengths[row]; a < end; a++) {
+                if (Objects.equals(namespaceURI, d.string(d.attributeNamespaces[a]))
+                        && Objects.equals(localName, d.strings[d.attributeNames[a]])) {
+                    return a;
+                }
+            }
+            return NONE;
+        }
+
+        private Attr attributeNode(int attributeRow) {
+            return attributeRow != NONE ? document.attributeNode(attributeRow, row) : null;
+        }
+
+        public String getAttribute(String name) {
+            int a = indexOfAttribute(name);
+            return a != NONE ? document.attributeValue(a) : "";
+        }
+
+        public String getAttributeNS(String namespaceURI, String localName) {
+            int a = indexOfAttributeNS(namespaceURI, localName);
+            return a != NONE ? document.attributeValue(a) : "";
+        }
+
+        public Attr getAttributeNode(String name) {
+            return attributeNode(indexOfAttribute(name));
+        }
+
+        public Attr getAttributeNodeNS(String namespaceURI, String localName) {
+            return attributeNode(indexOfAttributeNS(namespaceURI, localName));
+        }
+
+        public boolean hasAttribute(String name) {
+            return indexOfAttribute(name) != NONE;
+        }
+
+        public boolean hasAttributeNS(String namespaceURI, String localName) {
+            return indexOfAttributeNS(namespaceURI, localName) != NONE;
+        }
+
+        public NodeList getElementsByTagName(String name) {
+            return document.getElementsByTagName(row, name);
+        }
+
+        public NodeList getElementsByTagNameNS(String namespaceURI, String localName) {
+            return document.getElementsByTagNameNS(row, namespaceURI, localName);
+        }
+
+        public TypeInfo getSchemaTypeInfo() {
+            return NodeImpl.NULL_TYPE_INFO;
+        }
+
+        public void setAttribute(String name, String value) throws DOMException {
+            throw readOnly();
+        }
+
+        public void removeAttribute(String name) throws DOMException {
+            throw readOnly();
+        }
+
+        public Attr setAttributeNode(Attr newAttr) throws DOMException {
+            throw readOnly();
+        }
+
+        public Attr removeAttributeNode(Attr oldAttr) throws DOMException {
+            throw readOnly();
+        }
+
+        public void setAttributeNS(String namespaceURI, String qualifiedName, String value)
+                throws DOMException {
+            throw readOnly();
+        }
+
+        public void removeAttributeNS(String namespaceURI, String localName)
+                throws DOMException {
+            throw readOnly();
+        }
+
+        public Attr setAttributeNodeNS(Attr newAttr) throws DOMException {
+            throw readOnly();
+        }
+
+        public void setIdAttribute(String name, boolean isId) throws DOMException {
+            throw readOnly();
+        }
+
+        public void setIdAttributeNS(String namespaceURI, String localName, boolean isId)
+                throws DOMException {
+            throw readOnly();
+        }
+
+        public void setIdAttributeNode(Attr idAttr, boolean isId) throws DOMException {
+            throw readOnly();
+        }
+    }
+
+    /**
+     * The attributes of an element. This is a view of the element's rows.
+     */
+    static final class AttributeMap implements NamedNodeMap {
+        private final ElementNode element;
+
+        AttributeMap(ElementNode element) {
+            this.element = element;
+        }
+
+        public int getLength() {
+            return element.document.dataLengths[element.row];
+        }
+
+        public Node item(int index) {
+            if (index < 0 || index >= getLength()) {
+                return null;
+            }
+            int a = element.document.data[element.row] + index;
+            return element.document.attributeNode(a, element.row);
+        }
+
+        public Node getNamedItem(String name) {
+            return element.getAttributeNode(name);
+        }
+
+        public Node getNamedItemNS(String namespaceURI, String localName) {
+            return element.getAttributeNodeNS(namespaceURI, localName);
+        }
+
+        public Node setNamedItem(Node arg) throws DOMException {
+            throw readOnly();
+        }
+
+        public Node removeNamedItem(String name) throws DOMException {
+            throw readOnly();
+        }
+
+        public Node setNamedItemNS(Node arg) throws DOMException {
+            throw readOnly();
+        }
+
+        public Node removeNamedItemNS(String namespaceURI, String localName)
+                throws DOMException {
+            throw readOnly();
+        }
+    }
+
+    /**
+     * An attribute. Unlike other nodes, {@code row} is a row of the
+     * document's attribute arrays.
+     */
+    static final class AttrNode extends CompactNode implements Attr {
+        private final int ownerRow;
+        private String qualifiedName;
+
+        AttrNode(CompactDocument document, int row, int ownerRow) {
+            super(document, row);
+            this.ownerRow = ownerRow;
+        }
+
+        @Override int treeRow() {
+            return ownerRow;
+        }
+
+        @Override public short getNodeType() {
+            return ATTRIBUTE_NODE;
+        }
+
+        @Override public String getNodeName() {
+            return getName();
+        }
+
+        public String getName() {
+            if (qualifiedName == null) {
+                CompactDocument d = document;
+                String localName = d.strings[d.attributeNames[row]];
+                qualifiedName = d.namespaceAware && d.attributePrefixes[row] != NONE
+                        ? d.strings[d.attributePrefixes[row]] + ":" + localName
+                        : localName;
+            }
+            return qualifiedName;
+        }
+
+        @Override public String getLocalName() {
+            return document.namespaceAware ? document.strings[document.attributeNames[row]] : null;
+        }
+
+        @Override public String getNamespaceURI() {
+            return document.namespaceAware
+                    ? document.string(document.attributeNamespaces[row])
+                    : null;
+        }
+
+        @Override public String getPrefix() {
+            return document.namespaceAware
+                    ? document.string(document.attributePrefixes[row])
+                    : null;
+        }
+
+        @Override public String getNodeValue() {
+            return getValue();
+        }
+
+        public String getValue() {
+            return document.attributeValue(row);
+        }
+
+        public void setValue(String value) throws DOMException {
+            throw readOnly();
+        }
+
+        public boolean getSpecified() {
+            return true;
+        }
+
+        public Element getOwnerElement() {
+            return (Element) document.node(ownerRow);
+        }
+
+        public TypeInfo getSchemaTypeInfo() {
+            return NodeImpl.NULL_TYPE_INFO;
+        }
+
+        public boolean isId() {
+            return false;
+        }
+
+        @Override public Node getParentNode() {
+            return null;
+        }
+
+        @Override public NodeList getChildNodes() {
+            return new RowNodeList(document);
+        }
+
+        @Override public Node getFirstChild() {
+            return null;
+        }
+
+        @Override public Node getLastChild() {
+            return null;
+        }
+
+        @Override public Node getPreviousSibling() {
+            return null;
+        }
+
+        @Override public Node getNextSibling() {
+            return null;
+        }
+
+        @Override public boolean hasChildNodes() {
+            return false;
+        }
+    }
+
+    abstract static class CharacterDataNode extends CompactNode implements CharacterData {
+        CharacterDataNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeValue() {
+            return getData();
+        }
+
+        public String getData() {
+            return document.data(row);
+        }
+
+        public int getLength() {
+            return document.dataLengths[row];
+        }
+
+        public String substringData(int offset, int count) throws DOMException {
+            int length = getLength();
+            if (offset < 0 || offset > length || count < 0) {
+                throw new DOMException(DOMException.INDEX_SIZE_ERR, null);
+            }
+            count = Math.min(count, length - offset);
+            return new String(document.chars, document.data[row] + offset, count);
+        }
+
+        public void setData(String data) throws DOMException {
+            throw readOnly();
+        }
+
+        public void appendData(String arg) throws DOMException {
+            throw readOnly();
+        }
+
+        public void insertData(int offset, String arg) throws DOMException {
+            throw readOnly();
+        }
+
+        public void deleteData(int offset, int count) throws DOMException {
+            throw readOnly();
+        }
+
+        public void replaceData(int offset, int count, String arg) throws DOMException {
+            throw readOnly();
+        }
+    }
+
+    static class TextNode extends CharacterDataNode implements Text {
+        TextNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return "#text";
+        }
+
+        public Text splitText(int offset) throws DOMException {
+            throw readOnly();
+        }
+
+        public boolean isElementContentWhitespace() {
+            // Like TextImpl, we don't validate so this is never known.
+            return false;
+        }
+
+        /**
+         * Returns the text of this node and the text and CDATA sections
+         * adjacent to it.
+         */
+        public String getWholeText() {
+            CompactDocument d = document;
+            int parent = d.parents[row];
+            StringBuilder result = new StringBuilder();
+            boolean inRun = false;
+            for (int r = d.firstChildren[parent]; r != NONE; r = d.nextSiblings[r]) {
+                boolean isText = d.types[r] == TEXT_NODE || d.types[r] == CDATA_SECTION_NODE;
+                if (!isText) {
+                    if (inRun) {
+                        break;
+                    }
+                    result.setLength(0);
+                    continue;
+                }
+                result.append(d.chars, d.data[r], d.dataLengths[r]);
+                inRun |= r == row;
+            }
+            return result.toString();
+        }
+
+        public Text replaceWholeText(String content) throws DOMException {
+            throw readOnly();
+        }
+    }
+
+    static final class CDATASectionNode extends TextNode implements CDATASection {
+        CDATASectionNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return "#cdata-section";
+        }
+    }
+
+    static final class CommentNode extends CharacterDataNode implements Comment {
+        CommentNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return "#comment";
+        }
+    }
+
+    static final class ProcessingInstructionNode extends CompactNode
+            implements ProcessingInstruction {
+        ProcessingInstructionNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return getTarget();
+        }
+
+        @Override public String getNodeValue() {
+            return getData();
+        }
+
+        @Override public String getBaseURI() {
+            return getParentBaseUri();
+        }
+
+        public String getTarget() {
+            return document.strings[document.names[row]];
+        }
+
+        public String getData() {
+            return document.data(row);
+        }
+
+        public void setData(String data) throws DOMException {
+            throw readOnly();
+        }
+    }
+
+    static final class DocumentTypeNode extends CompactNode implements DocumentType {
+        DocumentTypeNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return getName();
+        }
+
+        public String getName() {
+            return document.strings[document.names[row]];
+        }
+
+        public NamedNodeMap getEntities() {
+            // Like DocumentTypeImpl, entities aren't reported.
+            return null;
+        }
+
+        public NamedNodeMap getNotations() {
+            return null;
+        }
+
+        public String getPublicId() {
+            return document.publicId;
+        }
+
+        public String getSystemId() {
+            return document.systemId;
+        }
+
+        public String getInternalSubset() {
+            return null;
+        }
+    }
+
+    static final class EntityReferenceNode extends CompactNode implements EntityReference {
+        EntityReferenceNode(CompactDocument document, int row) {
+            super(document, row);
+        }
+
+        @Override public String getNodeName() {
+            return document.strings[document.names[row]];
+        }
+    }
+}
@@ -34,6 +34,15 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
     private static final String VALIDATION =
             "http://xml.org/sax/features/validation";
 
+    /**
+     * Builds read-only documents that store their nodes in flat arrays. See
+     * {@link org.apache.harmony.xml.dom.CompactDocument}.
+     */
+    private static final String COMPACT_READ_ONLY_DOM =
+            "http://android.com/xml/features/compact-read-only-dom";
+
+    private boolean compactReadOnly;
+
     @Override
     public Object getAttribute(String name) throws IllegalArgumentException {
         throw new IllegalArgumentException(name);
@@ -49,6 +58,8 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
             return isNamespaceAware();
         } else if (VALIDATION.equals(name)) {
             return isValidating();
+        } else if (COMPACT_READ_ONLY_DOM.equals(name)) {
+            return compactReadOnly;
         } else {
             throw new ParserConfigurationException(name);
         }
@@ -74,6 +85,7 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
         builder.setIgnoreComments(isIgnoringComments());
         builder.setIgnoreElementContentWhitespace(isIgnoringElementContentWhitespace());
         builder.setNamespaceAware(isNamespaceAware());
+        builder.setCompactReadOnly(compactReadOnly);
 
         // TODO What about expandEntityReferences?
 
@@ -97,6 +109,8 @@ public class DocumentBuilderFactoryImpl extends DocumentBuilderFactory {
             setNamespaceAware(value);
         } else if (VALIDATION.equals(name)) {
             setValidating(value);
+        } else if (COMPACT_READ_ONLY_DOM.equals(name)) {
+            compactReadOnly = value;
         } else {
             throw new ParserConfigurationException(name);
         }
@@ -23,6 +23,7 @@ import java.net.URLConnection;
 import javax.xml.parsers.DocumentBuilder;
 import libcore.io.IoUtils;
 import org.apache.harmony.xml.dom.CDATASectionImpl;
+import org.apache.harmony.xml.dom.CompactDocument;
 import org.apache.harmony.xml.dom.DOMImplementationImpl;
 import org.apache.harmony.xml.dom.DocumentImpl;
 import org.apache.harmony.xml.dom.DocumentTypeImpl;
@@ -56,6 +57,7 @@ class DocumentBuilderImpl extends DocumentBuilder {
     private boolean ignoreComments;
     private boolean ignoreElementContentWhitespace;
     private boolean namespaceAware;
+    private boolean compactReadOnly;
     // adding a new field? don't forget to update reset().
 
     @Override public void reset() {
@@ -65,6 +67,7 @@ class DocumentBuilderImpl extends DocumentBuilder {
         ignoreComments = false;
         ignoreElementContentWhitespace = false;
         namespaceAware = false;
+        compactReadOnly = false;
     }
 
     @Override
@@ -98,9 +101,14 @@ class DocumentBuilderImpl extends DocumentBuilder {
         DocumentType doctype = null;
         String inputEncoding = source.getEncoding();
         String systemId = source.getSystemId();
-        DocumentImpl document = new DocumentImpl(
-                dom, namespaceURI, qualifiedName, doctype, inputEncoding);
-        document.setDocumentURI(systemId);
+        DocumentImpl document = null;
+        CompactDocument.Builder compactBuilder = null;
+        if (compactReadOnly) {
+            compactBuilder = new CompactDocument.Builder(namespaceAware, inputEncoding, systemId);
+        } else {
+            document = new DocumentImpl(dom, namespaceURI, qualifiedName, doctype, inputEncoding);
+            document.setDocumentURI(systemId);
+        }
 
         KXmlParser parser = new KXmlParser();
         try {
@@ -125,7 +133,11 @@ class DocumentBuilderImpl extends DocumentBuilder {
                 throw new SAXParseException("Unexpected end of document", null);
             }
 
-            parse(parser, document, document, XmlPullParser.END_DOCUMENT);
+            if (compactBuilder != null) {
+                parse(parser, compactBuilder, XmlPullParser.END_DOCUMENT);
+            } else {
+                parse(parser, document, document, XmlPullParser.END_DOCUMENT);
+            }
 
             parser.require(XmlPullParser.END_DOCUMENT, null, null);
         } catch (XmlPullParserException ex) {
@@ -155,7 +167,7 @@ class DocumentBuilderImpl extends DocumentBuilder {
             IoUtils.closeQuietly(parser);
         }
 
-        return document;
+        return compactBuilder != null ? compactBuilder.build() : document;
     }
 
     /**
@@ -330,6 +342,82 @@ class DocumentBuilderImpl extends DocumentBuilder {
         }
     }
 
+    /**
+     * Like {@link #parse(KXmlParser, DocumentImpl, Node, int)}, but appends the
+     * nodes to a compact read-only document instead of creating node objects.
+     */
+    private void parse(KXmlParser parser, CompactDocument.Builder builder, int endToken)
+            throws XmlPullParserException, IOException {
+        // Whitespace before and after the document element is always ignored.
+        boolean inElement = endToken == XmlPullParser.END_TAG;
+        int token = parser.getEventType();
+
+        while (token != endToken && token != XmlPullParser.END_DOCUMENT) {
+            if (token == XmlPullParser.PROCESSING_INSTRUCTION) {
+                String text = parser.getText();
+                int dot = text.indexOf(' ');
+                String target = (dot != -1 ? text.substring(0, dot) : text);
+                String data = (dot != -1 ? text.substring(dot + 1) : "");
+                builder.processingInstruction(target, data);
+            } else if (token == XmlPullParser.DOCDECL) {
+                builder.documentType(parser.getRootElementName(), parser.getPublicId(),
+                        parser.getSystemId());
+            } else if (token == XmlPullParser.COMMENT) {
+                if (!ignoreComments) {
+                    builder.comment(parser.getText());
+                }
+            } else if (token == XmlPullParser.IGNORABLE_WHITESPACE) {
+                if (!ignoreElementContentWhitespace && inElement) {
+                    builder.text(parser.getText(), false, coalescing);
+                }
+            } else if (token == XmlPullParser.TEXT || token == XmlPullParser.CDSECT) {
+                builder.text(parser.getText(), token == XmlPullParser.CDSECT, coalescing);
+            } else if (token == XmlPullParser.ENTITY_REF) {
+                String entity = parser.getName();
+                String resolved = resolvePredefinedOrCharacterEntity(entity);
+                if (resolved != null) {
+                    builder.text(resolved, false, coalescing);
+                } else {
+                    builder.entityReference(entity);
+                }
+            } else if (token == XmlPullParser.START_TAG) {
+                String name = parser.getName();
+                String namespace = null;
+                if (namespaceAware) {
+                    namespace = parser.getNamespace();
+                    if ("".equals(namespace)) {
+                        namespace = null;
+                    }
+                    builder.startElement(namespace, parser.getPrefix(), name);
+                    for (int i = 0; i < parser.getAttributeCount(); i++) {
+                        String attrNamespace = parser.getAttributeNamespace(i);
+                        if ("".equals(attrNamespace)) {
+                            attrNamespace = null;
+                        }
+                        builder.attribute(attrNamespace, parser.getAttributePrefix(i),
+                                parser.getAttributeName(i), parser.getAttributeValue(i));
+                    }
+                } else {
+                    builder.startElement(null, null, name);
+                    for (int i = 0; i < parser.getAttributeCount(); i++) {
+                        builder.attribute(null, null, parser.getAttributeName(i),
+                                parser.getAttributeValue(i));
+                    }
+                }
+
+                // Recursive descent
+                token = parser.nextToken();
+                parse(parser, builder, XmlPullParser.END_TAG);
+
+                // Expect the element's end tag here
+                parser.require(XmlPullParser.END_TAG, namespaceAware ? namespace : "", name);
+                builder.endElement();
+            }
+
+            token = parser.nextToken();
+        }
+    }
+
     /**
      * @param token the XML pull parser token type, such as XmlPullParser.CDSECT
      *      or XmlPullParser.ENTITY_REF.
@@ -382,6 +470,13 @@ class DocumentBuilderImpl extends DocumentBuilder {
         ignoreElementContentWhitespace = value;
     }
 
+    /**
+     * Controls whether this DocumentBuilder builds compact read-only documents.
+     */
+    public void setCompactReadOnly(boolean value) {
+        compactReadOnly = value;
+    }
+
     /**
      * Controls whether this DocumentBuilder is namespace-aware.
      */
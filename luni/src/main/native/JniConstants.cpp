@@ -63,6 +63,7 @@ jclass packetSocketAddressClass;
 jclass primitiveByteArrayClass;
 jclass stringClass;
 jclass structAddrinfoClass;
+jclass structEpollEventClass;
 jclass structGroupReqClass;
 jclass structIfaddrsClass;
 jclass structLingerClass;
@@ -109,6 +110,7 @@ void EnsureJniConstantsInitialized(JNIEnv* env) {
     primitiveByteArrayClass = findClass(env, "[B");
     stringClass = findClass(env, "java/lang/String");
     structAddrinfoClass = findClass(env, "android/system/StructAddrinfo");
+    structEpollEventClass = findClass(env, "android/system/StructEpollEvent");
     structGroupReqClass = findClass(env, "android/system/StructGroupReq");
     structIfaddrsClass = findClass(env, "android/system/StructIfaddrs");
     structLingerClass = findClass(env, "android/system/StructLinger");
@@ -240,6 +242,11 @@ jclass JniConstants::GetStructAddrinfoClass(JNIEnv* env) {
     return structAddrinfoClass;
 }
 
+jclass JniConstants::GetStructEpollEventClass(JNIEnv* env) {
+    EnsureJniConstantsInitialized(env);
+    return structEpollEventClass;
+}
+
 jclass JniConstants::GetStructGroupReqClass(JNIEnv* env) {
     EnsureJniConstantsInitialized(env);
     return structGroupReqClass;
@@ -26,6 +26,7 @@
 #include <poll.h>
 #include <signal.h>
 #include <stdlib.h>
+#include <sys/epoll.h>
 #include <sys/ioctl.h>
 #include <sys/mman.h>
 #include <sys/prctl.h>
@@ -201,6 +202,18 @@ static void OsConstants_initConstants(JNIEnv* env, jclass c) {
     initConstant(env, c, "EOVERFLOW", EOVERFLOW);
     initConstant(env, c, "EPERM", EPERM);
     initConstant(env, c, "EPIPE", EPIPE);
+    initConstant(env, c, "EPOLLERR", EPOLLERR);
+    initConstant(env, c, "EPOLLET", EPOLLET);
+    initConstant(env, c, "EPOLLHUP", EPOLLHUP);
+    initConstant(env, c, "EPOLLIN", EPOLLIN);
+    initConstant(env, c, "EPOLLONESHOT", EPOLLONESHOT);
+    initConstant(env, c, "EPOLLOUT", EPOLLOUT);
+    initConstant(env, c, "EPOLLPRI", EPOLLPRI);
+    initConstant(env, c, "EPOLLRDHUP", EPOLLRDHUP);
+    initConstant(env, c, "EPOLL_CLOEXEC", EPOLL_CLOEXEC);
+    initConstant(env, c, "EPOLL_CTL_ADD", EPOLL_CTL_ADD);
+    initConstant(env, c, "EPOLL_CTL_DEL", EPOLL_CTL_DEL);
+    initConstant(env, c, "EPOLL_CTL_MOD", EPOLL_CTL_MOD);
     initConstant(env, c, "EPROTO", EPROTO);
     initConstant(env, c, "EPROTONOSUPPORT", EPROTONOSUPPORT);
     initConstant(env, c, "EPROTOTYPE", EPROTOTYPE);
@@ -350,6 +363,11 @@ static void OsConstants_initConstants(JNIEnv* env, jclass c) {
 #if defined(_LINUX_CAPABILITY_VERSION_3)
     initConstant(env, c, "_LINUX_CAPABILITY_VERSION_3", _LINUX_CAPABILITY_VERSION_3);
 #endif
+    initConstant(env, c, "MADV_DONTNEED", MADV_DONTNEED);
+    initConstant(env, c, "MADV_NORMAL", MADV_NORMAL);
+    initConstant(env, c, "MADV_RANDOM", MADV_RANDOM);
+    initConstant(env, c, "MADV_SEQUENTIAL", MADV_SEQUENTIAL);
+    initConstant(env, c, "MADV_WILLNEED", MADV_WILLNEED);
     initConstant(env, c, "MAP_FIXED", MAP_FIXED);
     initConstant(env, c, "MAP_ANONYMOUS", MAP_ANONYMOUS);
     initConstant(env, c, "MAP_POPULATE", MAP_POPULATE);
@@ -385,6 +403,7 @@ static void OsConstants_initConstants(JNIEnv* env, jclass c) {
     initConstant(env, c, "MSG_PEEK", MSG_PEEK);
     initConstant(env, c, "MSG_TRUNC", MSG_TRUNC);
     initConstant(env, c, "MSG_WAITALL", MSG_WAITALL);
+    initConstant(env, c, "MSG_WAITFORONE", MSG_WAITFORONE);
     initConstant(env, c, "MS_ASYNC", MS_ASYNC);
     initConstant(env, c, "MS_INVALIDATE", MS_INVALIDATE);
     initConstant(env, c, "MS_SYNC", MS_SYNC);
@@ -17,6 +17,7 @@
 #define LOG_TAG "Linux"
 
 #include <arpa/inet.h>
+#include <dlfcn.h>
 #include <errno.h>
 #include <fcntl.h>
 #include <ifaddrs.h>
@@ -31,6 +32,7 @@
 #include <stdlib.h>
 #include <string.h>
 #include <sys/capability.h>
+#include <sys/epoll.h>
 #include <sys/ioctl.h>
 #include <sys/mman.h>
 #include <sys/prctl.h>
@@ -350,6 +352,56 @@ private:
     std::vector<ScopedT*> mScopedBuffers;
 };
 
+/**
+ * Runs a syscall that moves data from fdIn to fdOut inside the kernel, such as splice(2), retrying
+ * on EINTR and throwing InterruptedIOException if either fd is closed or the thread interrupted.
+ * The optional Int64Ref offsets are passed to the syscall as pointers and updated on success.
+ */
+template <typename Syscall>
+static jlong fdToFdTransfer(JNIEnv* env, const char* name, jobject javaFdIn, jobject javaOffIn,
+        jobject javaFdOut, jobject javaOffOut, Syscall syscall) {
+    int fdIn = jniGetFDFromFileDescriptor(env, javaFdIn);
+    int fdOut = jniGetFDFromFileDescriptor(env, javaFdOut);
+    int syscallErrno;
+
+    loff_t offIn = (javaOffIn == NULL ? 0 : env->GetLongField(javaOffIn, int64RefValueFid));
+    loff_t offOut = (javaOffOut == NULL ? 0 : env->GetLongField(javaOffOut, int64RefValueFid));
+    jlong ret = -1;
+    do {
+        bool wasSignaled = false;
+        {
+            AsynchronousCloseMonitor monitorIn(fdIn);
+            AsynchronousCloseMonitor monitorOut(fdOut);
+            ret = syscall(fdIn, (javaOffIn == NULL ? NULL : &offIn),
+                    fdOut, (javaOffOut == NULL ? NULL : &offOut));
+            syscallErrno = errno;
+            wasSignaled = monitorIn.wasSignaled() || monitorOut.wasSignaled();
+        }
+        if (wasSignaled) {
+            std::string message = std::string(name) + " interrupted";
+            jniThrowException(env, "java/io/InterruptedIOException", message.c_str());
+            ret = -1;
+            break;
+        }
+        if (ret == -1 && syscallErrno != EINTR) {
+            throwErrnoException(env, name);
+            break;
+        }
+    } while (ret == -1);
+    if (ret == -1) {
+        /* If the syscall failed, re-set errno: throwing an exception might have modified it. */
+        errno = syscallErrno;
+    } else {
+        if (javaOffIn != NULL) {
+            env->SetLongField(javaOffIn, int64RefValueFid, offIn);
+        }
+        if (javaOffOut != NULL) {
+            env->SetLongField(javaOffOut, int64RefValueFid, offOut);
+        }
+    }
+    return ret;
+}
+
 static jobject createFileDescriptorIfOpen(JNIEnv* env, int fd) {
     if (fd == -1) {
         return NULL;
@@ -601,19 +653,19 @@ static bool fillInetSocketAddress(JNIEnv* env, jobject javaInetSocketAddress,
     }
     // Fill out the passed-in InetSocketAddress with the sender's IP address and port number.
     jint port;
-    jobject sender = sockaddrToInetAddress(env, ss, &port);
-    if (sender == NULL) {
+    ScopedLocalRef<jobject> sender(env, sockaddrToInetAddress(env, ss, &port));
+    if (sender.get() == NULL) {
         return false;
     }
     static jfieldID holderFid = env->GetFieldID(JniConstants::GetInetSocketAddressClass(env), "holder",
                                                 "Ljava/net/InetSocketAddress$InetSocketAddressHolder;");
-    jobject holder = env->GetObjectField(javaInetSocketAddress, holderFid);
+    ScopedLocalRef<jobject> holder(env, env->GetObjectField(javaInetSocketAddress, holderFid));
 
     static jfieldID addressFid = env->GetFieldID(JniConstants::GetInetSocketAddressHolderClass(env),
                                                  "addr", "Ljava/net/InetAddress;");
     static jfieldID portFid = env->GetFieldID(JniConstants::GetInetSocketAddressHolderClass(env), "port", "I");
-    env->SetObjectField(holder, addressFid, sender);
-    env->SetIntField(holder, portFid, port);
+    env->SetObjectField(holder.get(), addressFid, sender.get());
+    env->SetIntField(holder.get(), portFid, port);
     return true;
 }
 
@@ -638,14 +690,14 @@ static void javaInetSocketAddressToInetAddressAndPort(
         JNIEnv* env, jobject javaInetSocketAddress, jobject& javaInetAddress, jint& port) {
     static jfieldID holderFid = env->GetFieldID(JniConstants::GetInetSocketAddressClass(env), "holder",
                                                 "Ljava/net/InetSocketAddress$InetSocketAddressHolder;");
-    jobject holder = env->GetObjectField(javaInetSocketAddress, holderFid);
+    ScopedLocalRef<jobject> holder(env, env->GetObjectField(javaInetSocketAddress, holderFid));
 
     static jfieldID addressFid = env->GetFieldID(
             JniConstants::GetInetSocketAddressHolderClass(env), "addr", "Ljava/net/InetAddress;");
     static jfieldID portFid = env->GetFieldID(JniConstants::GetInetSocketAddressHolderClass(env), "port", "I");
 
-    javaInetAddress = env->GetObjectField(holder, addressFid);
-    port = env->GetIntField(holder, portFid);
+    javaInetAddress = env->GetObjectField(holder.get(), addressFid);
+    port = env->GetIntField(holder.get(), portFid);
 }
 
 static bool javaInetSocketAddressToSockaddr(
@@ -1205,6 +1257,26 @@ static void Linux_connectSocketAddress(
     (void) NET_FAILURE_RETRY(env, int, connect, javaFd, sa, sa_len);
 }
 
+typedef ssize_t copy_file_range_func(int, loff_t*, int, loff_t*, size_t, unsigned int);
+
+static jlong Linux_copy_file_range(JNIEnv* env, jobject, jobject javaFdIn, jobject javaOffIn, jobject javaFdOut, jobject javaOffOut, jlong len, jint flags) {
+    // Look the libc wrapper up at runtime: it isn't available on all the API levels we target,
+    // and a raw syscall that the seccomp filter doesn't know about would kill the process with
+    // SIGSYS. Without the wrapper, fail with ENOSYS so that callers fall back to a copy loop.
+    static copy_file_range_func* copy_file_range_fn =
+            reinterpret_cast<copy_file_range_func*>(dlsym(RTLD_DEFAULT, "copy_file_range"));
+    if (copy_file_range_fn == NULL) {
+        errno = ENOSYS;
+        throwErrnoException(env, "copy_file_range");
+        return -1;
+    }
+    return fdToFdTransfer(env, "copy_file_range", javaFdIn, javaOffIn, javaFdOut, javaOffOut,
+            [len, flags](int fdIn, loff_t* offIn, int fdOut, loff_t* offOut) -> jlong {
+                return copy_file_range_fn(fdIn, offIn, fdOut, offOut,
+                        static_cast<size_t>(len), static_cast<unsigned int>(flags));
+            });
+}
+
 static jobject Linux_dup(JNIEnv* env, jobject, jobject javaOldFd) {
     int oldFd = jniGetFDFromFileDescriptor(env, javaOldFd);
     int newFd = throwIfMinusOne(env, "dup", TEMP_FAILURE_RETRY(dup(oldFd)));
@@ -1222,6 +1294,109 @@ static jobjectArray Linux_environ(JNIEnv* env, jobject) {
     return toStringArray(env, environ);
 }
 
+static jobject Linux_epoll_create1(JNIEnv* env, jobject, jint flags) {
+    int fd = throwIfMinusOne(env, "epoll_create1", epoll_create1(flags));
+    return createFileDescriptorIfOpen(env, fd);
+}
+
+static void Linux_epoll_ctl(JNIEnv* env, jobject, jobject javaEpfd, jint op, jobject javaFd, jobject javaEvent) {
+    static jfieldID eventsFid = env->GetFieldID(JniConstants::GetStructEpollEventClass(env), "events", "I");
+    static jfieldID dataFid = env->GetFieldID(JniConstants::GetStructEpollEventClass(env), "data", "J");
+
+    int epfd = jniGetFDFromFileDescriptor(env, javaEpfd);
+    int fd = jniGetFDFromFileDescriptor(env, javaFd);
+    // Linux before 2.6.9 required a non-null event even for EPOLL_CTL_DEL, so always pass one.
+    struct epoll_event event;
+    memset(&event, 0, sizeof(event));
+    if (javaEvent != NULL) {
+        event.events = env->GetIntField(javaEvent, eventsFid);
+        event.data.u64 = env->GetLongField(javaEvent, dataFid);
+    }
+    throwIfMinusOne(env, "epoll_ctl", TEMP_FAILURE_RETRY(epoll_ctl(epfd, op, fd, &event)));
+}
+
+// Waits on 'javaEpfd', returning the number of ready events, 0 on timeout or EINTR, or -1 with a
+// pending exception. Unlike poll, EINTR isn't retried: callers are event loops that will wait
+// again anyway, and retrying would mean recomputing the timeout.
+static int epollWait(JNIEnv* env, jobject javaEpfd, struct epoll_event* events, int maxEvents, jint timeoutMs) {
+    int epfd = jniGetFDFromFileDescriptor(env, javaEpfd);
+    int rc;
+    int syscallErrno;
+    {
+        AsynchronousCloseMonitor monitor(epfd);
+        rc = epoll_wait(epfd, events, maxEvents, timeoutMs);
+        syscallErrno = errno;
+    }
+    if (rc == -1) {
+        if (syscallErrno == EINTR) {
+            return 0;
+        }
+        errno = syscallErrno;
+        throwErrnoException(env, "epoll_wait");
+    }
+    return rc;
+}
+
+static jint Linux_epoll_wait(JNIEnv* env, jobject, jobject javaEpfd, jobjectArray javaEvents, jint timeoutMs) {
+    static jmethodID ctor = env->GetMethodID(JniConstants::GetStructEpollEventClass(env), "<init>", "()V");
+    static jfieldID eventsFid = env->GetFieldID(JniConstants::GetStructEpollEventClass(env), "events", "I");
+    static jfieldID dataFid = env->GetFieldID(JniConstants::GetStructEpollEventClass(env), "data", "J");
+
+    size_t maxEvents = env->GetArrayLength(javaEvents);
+    std::unique_ptr<struct epoll_event[]> events(new struct epoll_event[maxEvents]);
+    int rc = epollWait(env, javaEpfd, events.get(), maxEvents, timeoutMs);
+    if (rc <= 0) {
+        return rc;
+    }
+
+    // Copy the ready events into the Java android.system.StructEpollEvent[], filling in any nulls.
+    for (int i = 0; i < rc; ++i) {
+        ScopedLocalRef<jobject> javaEvent(env, env->GetObjectArrayElement(javaEvents, i));
+        if (javaEvent.get() == NULL) {
+            javaEvent.reset(env->NewObject(JniConstants::GetStructEpollEventClass(env), ctor));
+            if (javaEvent.get() == NULL) {
+                return -1;
+            }
+            env->SetObjectArrayElement(javaEvents, i, javaEvent.get());
+        }
+        env->SetIntField(javaEvent.get(), eventsFid, events[i].events);
+        env->SetLongField(javaEvent.get(), dataFid, events[i].data.u64);
+    }
+    return rc;
+}
+
+// The size of each event in the buffer filled by Linux_epoll_waitBytes. This must match
+// android.system.StructEpollEvent.BUFFER_EVENT_SIZE. The kernel's struct epoll_event is packed
+// to 12 bytes on some ABIs (x86-64), so it's never larger than this.
+static constexpr size_t kBufferEpollEventSize = 16;
+static_assert(sizeof(struct epoll_event) <= kBufferEpollEventSize, "epoll_event too large");
+
+static jint Linux_epoll_waitBytes(JNIEnv* env, jobject, jobject javaEpfd, jobject javaBuffer, jint byteOffset, jint byteCount, jint timeoutMs) {
+    uint8_t* base = static_cast<uint8_t*>(env->GetDirectBufferAddress(javaBuffer));
+    if (base == NULL) {
+        jniThrowException(env, "java/lang/IllegalArgumentException", "events must be a direct buffer");
+        return -1;
+    }
+    base += byteOffset;
+
+    // Let the kernel write straight into the buffer, then widen the events in place to the
+    // fixed layout. Moving the last event first means no event is overwritten before it's moved.
+    int maxEvents = byteCount / kBufferEpollEventSize;
+    int rc = epollWait(env, javaEpfd, reinterpret_cast<struct epoll_event*>(base), maxEvents, timeoutMs);
+    for (int i = rc - 1; i >= 0; --i) {
+        struct epoll_event event;
+        memcpy(&event, base + i * sizeof(struct epoll_event), sizeof(event));
+        uint32_t events = event.events;
+        uint32_t padding = 0;
+        uint64_t data = event.data.u64;
+        uint8_t* dst = base + i * kBufferEpollEventSize;
+        memcpy(dst, &events, sizeof(events));
+        memcpy(dst + sizeof(events), &padding, sizeof(padding));
+        memcpy(dst + 8, &data, sizeof(data));
+    }
+    return rc;
+}
+
 static void Linux_execve(JNIEnv* env, jobject, jstring javaFilename, jobjectArray javaArgv, jobjectArray javaEnvp) {
     ScopedUtfChars path(env, javaFilename);
     if (path.c_str() == NULL) {
@@ -1863,6 +2038,11 @@ static jobject Linux_memfd_create(JNIEnv* env, jobject, jstring javaName, jint f
 #endif
 }
 
+static void Linux_madvise(JNIEnv* env, jobject, jlong address, jlong byteCount, jint advice) {
+    void* ptr = reinterpret_cast<void*>(static_cast<uintptr_t>(address));
+    throwIfMinusOne(env, "madvise", TEMP_FAILURE_RETRY(madvise(ptr, byteCount, advice)));
+}
+
 static void Linux_mincore(JNIEnv* env, jobject, jlong address, jlong byteCount, jbyteArray javaVector) {
     ScopedByteArrayRW vector(env, javaVector);
     if (vector.get() == NULL) {
@@ -2134,6 +2314,53 @@ static jint Linux_recvfromBytes(JNIEnv* env, jobject, jobject javaFd, jobject ja
     return recvCount;
 }
 
+static jint Linux_recvmmsgBytes(JNIEnv* env, jobject, jobject javaFd, jobjectArray buffers, jintArray offsets, jintArray byteCounts, jint flags, jobjectArray javaInetSocketAddresses, jintArray javaMessageLengths) {
+    IoVec<ScopedBytesRW> ioVec(env, env->GetArrayLength(buffers));
+    if (!ioVec.init(buffers, offsets, byteCounts)) {
+        return -1;
+    }
+    const size_t count = ioVec.size();
+    std::vector<sockaddr_storage> addresses(count);
+    std::vector<mmsghdr> messages(count);
+    memset(&addresses[0], 0, count * sizeof(sockaddr_storage));
+    memset(&messages[0], 0, count * sizeof(mmsghdr));
+    for (size_t i = 0; i < count; ++i) {
+        messages[i].msg_hdr.msg_iov = ioVec.get() + i;
+        messages[i].msg_hdr.msg_iovlen = 1;
+        if (javaInetSocketAddresses != NULL) {
+            messages[i].msg_hdr.msg_name = &addresses[i];
+            messages[i].msg_hdr.msg_namelen = sizeof(sockaddr_storage);
+        }
+    }
+    jint recvCount = NET_FAILURE_RETRY(env, int, recvmmsg, javaFd, &messages[0], count, flags, NULL);
+    if (recvCount <= 0) {
+        return recvCount;
+    }
+    ScopedIntArrayRW messageLengths(env, javaMessageLengths);
+    if (messageLengths.get() == NULL) {
+        return -1;
+    }
+    for (jint i = 0; i < recvCount; ++i) {
+        messageLengths[i] = messages[i].msg_len;
+        // As in recvfrom, leave the address alone if the peer performed an orderly shutdown.
+        if (javaInetSocketAddresses != NULL &&
+                (addresses[i].ss_family == AF_INET || addresses[i].ss_family == AF_INET6)) {
+            ScopedLocalRef<jobject> javaInetSocketAddress(env,
+                    env->GetObjectArrayElement(javaInetSocketAddresses, i));
+            if (env->ExceptionCheck()) {
+                return -1;
+            }
+            if (javaInetSocketAddress.get() != NULL) {
+                fillInetSocketAddress(env, javaInetSocketAddress.get(), addresses[i]);
+                if (env->ExceptionCheck()) {
+                    return -1;
+                }
+            }
+        }
+    }
+    return recvCount;
+}
+
 static void Linux_remove(JNIEnv* env, jobject, jstring javaPath) {
     ScopedUtfChars path(env, javaPath);
     if (path.c_str() == NULL) {
@@ -2190,6 +2417,75 @@ static jlong Linux_sendfile(JNIEnv* env, jobject, jobject javaOutFd, jobject jav
     return result;
 }
 
+static jint Linux_sendmmsgBytes(JNIEnv* env, jobject, jobject javaFd, jobjectArray buffers, jintArray offsets, jintArray byteCounts, jint flags, jobjectArray javaInetSocketAddresses, jintArray javaMessageLengths) {
+    IoVec<ScopedBytesRO> ioVec(env, env->GetArrayLength(buffers));
+    if (!ioVec.init(buffers, offsets, byteCounts)) {
+        return -1;
+    }
+    const size_t count = ioVec.size();
+    std::vector<sockaddr_storage> addresses(count);
+    std::vector<mmsghdr> messages(count);
+    memset(&messages[0], 0, count * sizeof(mmsghdr));
+
+    // Sockets created by Java APIs are AF_INET6 and take IPv4-mapped addresses, but sockets
+    // created by Linux.socket(AF_INET, ...) only take sockaddr_in (see NET_IPV4_FALLBACK).
+    bool ipv4Socket = false;
+    if (javaInetSocketAddresses != NULL) {
+        int domain = 0;
+        socklen_t domainLength = sizeof(domain);
+        int fd = jniGetFDFromFileDescriptor(env, javaFd);
+        if (getsockopt(fd, SOL_SOCKET, SO_DOMAIN, &domain, &domainLength) == -1) {
+            throwErrnoException(env, "getsockopt");
+            return -1;
+        }
+        ipv4Socket = (domain == AF_INET);
+    }
+
+    for (size_t i = 0; i < count; ++i) {
+        messages[i].msg_hdr.msg_iov = ioVec.get() + i;
+        messages[i].msg_hdr.msg_iovlen = 1;
+        if (javaInetSocketAddresses == NULL) {
+            continue;
+        }
+        ScopedLocalRef<jobject> javaInetSocketAddress(env,
+                env->GetObjectArrayElement(javaInetSocketAddresses, i));
+        if (env->ExceptionCheck()) {
+            return -1;
+        }
+        if (javaInetSocketAddress.get() == NULL) {
+            jniThrowNullPointerException(env, "destAddresses[i] == null");
+            return -1;
+        }
+        jobject javaInetAddress;
+        jint port;
+        javaInetSocketAddressToInetAddressAndPort(env, javaInetSocketAddress.get(),
+                javaInetAddress, port);
+        ScopedLocalRef<jobject> javaInetAddressRef(env, javaInetAddress);
+        socklen_t sa_len;
+        bool converted = ipv4Socket
+                ? inetAddressToSockaddrVerbatim(env, javaInetAddress, port, addresses[i], sa_len)
+                : inetAddressToSockaddr(env, javaInetAddress, port, addresses[i], sa_len);
+        if (!converted) {
+            return -1;
+        }
+        messages[i].msg_hdr.msg_name = &addresses[i];
+        messages[i].msg_hdr.msg_namelen = sa_len;
+    }
+
+    jint sendCount = NET_FAILURE_RETRY(env, int, sendmmsg, javaFd, &messages[0], count, flags);
+    if (sendCount <= 0) {
+        return sendCount;
+    }
+    ScopedIntArrayRW messageLengths(env, javaMessageLengths);
+    if (messageLengths.get() == NULL) {
+        return -1;
+    }
+    for (jint i = 0; i < sendCount; ++i) {
+        messageLengths[i] = messages[i].msg_len;
+    }
+    return sendCount;
+}
+
 static jint Linux_sendtoBytes(JNIEnv* env, jobject, jobject javaFd, jobject javaBytes, jint byteOffset, jint byteCount, jint flags, jobject javaInetAddress, jint port) {
     ScopedBytesRO bytes(env, javaBytes);
     if (bytes.get() == NULL) {
@@ -2417,46 +2713,10 @@ static void Linux_socketpair(JNIEnv* env, jobject, jint domain, jint type, jint
 }
 
 static jlong Linux_splice(JNIEnv* env, jobject, jobject javaFdIn, jobject javaOffIn, jobject javaFdOut, jobject javaOffOut, jlong len, jint flags) {
-    int fdIn = jniGetFDFromFileDescriptor(env, javaFdIn);
-    int fdOut = jniGetFDFromFileDescriptor(env, javaFdOut);
-    int spliceErrno;
-
-    jlong offIn = (javaOffIn == NULL ? 0 : env->GetLongField(javaOffIn, int64RefValueFid));
-    jlong offOut = (javaOffOut == NULL ? 0 : env->GetLongField(javaOffOut, int64RefValueFid));
-    jlong ret = -1;
-    do {
-        bool wasSignaled = false;
-        {
-            AsynchronousCloseMonitor monitorIn(fdIn);
-            AsynchronousCloseMonitor monitorOut(fdOut);
-            ret = splice(fdIn, (javaOffIn == NULL ? NULL : &offIn),
-                   fdOut, (javaOffOut == NULL ? NULL : &offOut),
-                   len, flags);
-            spliceErrno = errno;
-            wasSignaled = monitorIn.wasSignaled() || monitorOut.wasSignaled();
-        }
-        if (wasSignaled) {
-            jniThrowException(env, "java/io/InterruptedIOException", "splice interrupted");
-            ret = -1;
-            break;
-        }
-        if (ret == -1 && spliceErrno != EINTR) {
-            throwErrnoException(env, "splice");
-            break;
-        }
-    } while (ret == -1);
-    if (ret == -1) {
-        /* If the syscall failed, re-set errno: throwing an exception might have modified it. */
-        errno = spliceErrno;
-    } else {
-        if (javaOffIn != NULL) {
-            env->SetLongField(javaOffIn, int64RefValueFid, offIn);
-        }
-        if (javaOffOut != NULL) {
-            env->SetLongField(javaOffOut, int64RefValueFid, offOut);
-        }
-    }
-    return ret;
+    return fdToFdTransfer(env, "splice", javaFdIn, javaOffIn, javaFdOut, javaOffOut,
+            [len, flags](int fdIn, loff_t* offIn, int fdOut, loff_t* offOut) -> jlong {
+                return splice(fdIn, offIn, fdOut, offOut, len, flags);
+            });
 }
 
 
@@ -2520,6 +2780,13 @@ static void Linux_tcsendbreak(JNIEnv* env, jobject, jobject javaFd, jint duratio
   throwIfMinusOne(env, "tcsendbreak", TEMP_FAILURE_RETRY(tcsendbreak(fd, duration)));
 }
 
+static jlong Linux_tee(JNIEnv* env, jobject, jobject javaFdIn, jobject javaFdOut, jlong len, jint flags) {
+    return fdToFdTransfer(env, "tee", javaFdIn, NULL, javaFdOut, NULL,
+            [len, flags](int fdIn, loff_t*, int fdOut, loff_t*) -> jlong {
+                return tee(fdIn, fdOut, len, flags);
+            });
+}
+
 static jint Linux_umaskImpl(JNIEnv*, jobject, jint mask) {
     return umask(mask);
 }
@@ -2595,9 +2862,14 @@ static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(Linux, close, "(Ljava/io/FileDescriptor;)V"),
     NATIVE_METHOD(Linux, connect, "(Ljava/io/FileDescriptor;Ljava/net/InetAddress;I)V"),
     NATIVE_METHOD_OVERLOAD(Linux, connect, "(Ljava/io/FileDescriptor;Ljava/net/SocketAddress;)V", SocketAddress),
+    NATIVE_METHOD(Linux, copy_file_range, "(Ljava/io/FileDescriptor;Landroid/system/Int64Ref;Ljava/io/FileDescriptor;Landroid/system/Int64Ref;JI)J"),
     NATIVE_METHOD(Linux, dup, "(Ljava/io/FileDescriptor;)Ljava/io/FileDescriptor;"),
     NATIVE_METHOD(Linux, dup2, "(Ljava/io/FileDescriptor;I)Ljava/io/FileDescriptor;"),
     NATIVE_METHOD(Linux, environ, "()[Ljava/lang/String;"),
+    NATIVE_METHOD(Linux, epoll_create1, "(I)Ljava/io/FileDescriptor;"),
+    NATIVE_METHOD(Linux, epoll_ctl, "(Ljava/io/FileDescriptor;ILjava/io/FileDescriptor;Landroid/system/StructEpollEvent;)V"),
+    NATIVE_METHOD(Linux, epoll_wait, "(Ljava/io/FileDescriptor;[Landroid/system/StructEpollEvent;I)I"),
+    NATIVE_METHOD(Linux, epoll_waitBytes, "(Ljava/io/FileDescriptor;Ljava/nio/ByteBuffer;III)I"),
     NATIVE_METHOD(Linux, execv, "(Ljava/lang/String;[Ljava/lang/String;)V"),
     NATIVE_METHOD(Linux, execve, "(Ljava/lang/String;[Ljava/lang/String;[Ljava/lang/String;)V"),
     NATIVE_METHOD(Linux, fchmod, "(Ljava/io/FileDescriptor;I)V"),
@@ -2648,6 +2920,7 @@ static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(Linux, listxattr, "(Ljava/lang/String;)[Ljava/lang/String;"),
     NATIVE_METHOD(Linux, lseek, "(Ljava/io/FileDescriptor;JI)J"),
     NATIVE_METHOD(Linux, lstat, "(Ljava/lang/String;)Landroid/system/StructStat;"),
+    NATIVE_METHOD(Linux, madvise, "(JJI)V"),
     NATIVE_METHOD(Linux, memfd_create, "(Ljava/lang/String;I)Ljava/io/FileDescriptor;"),
     NATIVE_METHOD(Linux, mincore, "(JJ[B)V"),
     NATIVE_METHOD(Linux, mkdir, "(Ljava/lang/String;I)V"),
@@ -2669,10 +2942,12 @@ static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(Linux, realpath, "(Ljava/lang/String;)Ljava/lang/String;"),
     NATIVE_METHOD(Linux, readv, "(Ljava/io/FileDescriptor;[Ljava/lang/Object;[I[I)I"),
     NATIVE_METHOD(Linux, recvfromBytes, "(Ljava/io/FileDescriptor;Ljava/lang/Object;IIILjava/net/InetSocketAddress;)I"),
+    NATIVE_METHOD(Linux, recvmmsgBytes, "(Ljava/io/FileDescriptor;[Ljava/lang/Object;[I[II[Ljava/net/InetSocketAddress;[I)I"),
     NATIVE_METHOD(Linux, remove, "(Ljava/lang/String;)V"),
     NATIVE_METHOD(Linux, removexattr, "(Ljava/lang/String;Ljava/lang/String;)V"),
     NATIVE_METHOD(Linux, rename, "(Ljava/lang/String;Ljava/lang/String;)V"),
     NATIVE_METHOD(Linux, sendfile, "(Ljava/io/FileDescriptor;Ljava/io/FileDescriptor;Landroid/system/Int64Ref;J)J"),
+    NATIVE_METHOD(Linux, sendmmsgBytes, "(Ljava/io/FileDescriptor;[Ljava/lang/Object;[I[II[Ljava/net/InetSocketAddress;[I)I"),
     NATIVE_METHOD(Linux, sendtoBytes, "(Ljava/io/FileDescriptor;Ljava/lang/Object;IIILjava/net/InetAddress;I)I"),
     NATIVE_METHOD_OVERLOAD(Linux, sendtoBytes, "(Ljava/io/FileDescriptor;Ljava/lang/Object;IIILjava/net/SocketAddress;)I", SocketAddress),
     NATIVE_METHOD(Linux, setegid, "(I)V"),
@@ -2704,6 +2979,7 @@ static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(Linux, sysconf, "(I)J"),
     NATIVE_METHOD(Linux, tcdrain, "(Ljava/io/FileDescriptor;)V"),
     NATIVE_METHOD(Linux, tcsendbreak, "(Ljava/io/FileDescriptor;I)V"),
+    NATIVE_METHOD(Linux, tee, "(Ljava/io/FileDescriptor;Ljava/io/FileDescriptor;JI)J"),
     NATIVE_METHOD(Linux, umaskImpl, "(I)I"),
     NATIVE_METHOD(Linux, uname, "()Landroid/system/StructUtsname;"),
     NATIVE_METHOD(Linux, unlink, "(Ljava/lang/String;)V"),
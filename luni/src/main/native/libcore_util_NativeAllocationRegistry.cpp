@@ -15,6 +15,7 @@
  */
 
 #include <nativehelper/JNIHelp.h>
+#include <nativehelper/ScopedPrimitiveArray.h>
 #include <nativehelper/jni_macros.h>
 
 typedef void (*FreeFunction)(void*);
@@ -29,8 +30,27 @@ static void NativeAllocationRegistry_applyFreeFunction(JNIEnv*,
     nativeFreeFunction(nativePtr);
 }
 
+static void NativeAllocationRegistry_applyFreeFunctions(JNIEnv* env,
+                                                        jclass,
+                                                        jlongArray freeFunctions,
+                                                        jlongArray ptrs,
+                                                        jint count) {
+    ScopedLongArrayRO functions(env, freeFunctions);
+    ScopedLongArrayRO nativePtrs(env, ptrs);
+    if (functions.get() == nullptr || nativePtrs.get() == nullptr) {
+        return;
+    }
+    for (jint i = 0; i < count; ++i) {
+        void* nativePtr = reinterpret_cast<void*>(static_cast<uintptr_t>(nativePtrs[i]));
+        FreeFunction nativeFreeFunction
+            = reinterpret_cast<FreeFunction>(static_cast<uintptr_t>(functions[i]));
+        nativeFreeFunction(nativePtr);
+    }
+}
+
 static JNINativeMethod gMethods[] = {
     NATIVE_METHOD(NativeAllocationRegistry, applyFreeFunction, "(JJ)V"),
+    NATIVE_METHOD(NativeAllocationRegistry, applyFreeFunctions, "([J[JI)V"),
 };
 
 void register_libcore_util_NativeAllocationRegistry(JNIEnv* env) {
@@ -56,6 +56,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import junit.framework.TestCase;
 
 import libcore.io.IoUtils;
+import libcore.io.Libcore;
 import libcore.testing.io.TestIoUtils;
 
 import static android.system.OsConstants.*;
@@ -695,6 +696,73 @@ public class OsTest extends TestCase {
         assertEquals(loopback, from.getAddress());
     }
 
+    private void checkSendmmsgRecvmmsg(int family, InetAddress loopback) throws Exception {
+        FileDescriptor recvFd = Os.socket(family, SOCK_DGRAM, 0);
+        FileDescriptor sendFd = Os.socket(family, SOCK_DGRAM, 0);
+        try {
+            Os.bind(recvFd, loopback, 0);
+            Os.setsockoptTimeval(recvFd, SOL_SOCKET, SO_RCVTIMEO, StructTimeval.fromMillis(1000));
+            InetSocketAddress to = (InetSocketAddress) Os.getsockname(recvFd);
+
+            ByteBuffer[] sent = {
+                    ByteBuffer.wrap("one".getBytes(StandardCharsets.US_ASCII)),
+                    ByteBuffer.allocateDirect(5).put("three".getBytes(StandardCharsets.US_ASCII)),
+            };
+            sent[1].flip();
+            assertEquals(2, Libcore.os.sendmmsg(sendFd, sent, 0,
+                    new InetSocketAddress[] { to, to }));
+            assertEquals(0, sent[0].remaining());
+            assertEquals(0, sent[1].remaining());
+
+            ByteBuffer[] received = { ByteBuffer.allocate(16), ByteBuffer.allocateDirect(16) };
+            InetSocketAddress[] from = { new InetSocketAddress(), new InetSocketAddress() };
+            int count = 0;
+            while (count < 2) {
+                ByteBuffer[] remaining = Arrays.copyOfRange(received, count, 2);
+                InetSocketAddress[] remainingFrom = Arrays.copyOfRange(from, count, 2);
+                count += Libcore.os.recvmmsg(recvFd, remaining, MSG_WAITFORONE, remainingFrom);
+            }
+            assertEquals(3, received[0].position());
+            assertEquals(5, received[1].position());
+            assertEquals(loopback, from[0].getAddress());
+            int sendPort = ((InetSocketAddress) Os.getsockname(sendFd)).getPort();
+            assertEquals(sendPort, from[0].getPort());
+            assertEquals(sendPort, from[1].getPort());
+        } finally {
+            Os.close(sendFd);
+            Os.close(recvFd);
+        }
+    }
+
+    public void test_sendmmsg_recvmmsg_af_inet() throws Exception {
+        checkSendmmsgRecvmmsg(AF_INET, InetAddress.getByName("127.0.0.1"));
+    }
+
+    public void test_sendmmsg_recvmmsg_af_inet6() throws Exception {
+        checkSendmmsgRecvmmsg(AF_INET6, InetAddress.getByName("::1"));
+    }
+
+    public void test_sendmmsg_recvmmsg_shortAddressArrays() throws Exception {
+        FileDescriptor fd = Os.socket(AF_INET, SOCK_DGRAM, 0);
+        try {
+            Os.bind(fd, InetAddress.getByName("127.0.0.1"), 0);
+            ByteBuffer[] buffers = { ByteBuffer.allocate(1), ByteBuffer.allocate(1) };
+            InetSocketAddress to = (InetSocketAddress) Os.getsockname(fd);
+            try {
+                Libcore.os.sendmmsg(fd, buffers, 0, new InetSocketAddress[] { to });
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                Libcore.os.recvmmsg(fd, buffers, 0, new InetSocketAddress[1]);
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+        } finally {
+            Os.close(fd);
+        }
+    }
+
     public void test_sendtoSocketAddress_af_inet() throws Exception {
         checkSendToSocketAddress(AF_INET, InetAddress.getByName("127.0.0.1"));
     }
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.dalvik.system;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import dalvik.system.BaseDexClassLoader;
+import dalvik.system.PathClassLoader;
+
+/**
+ * Tests that the lookup index of {@code DexPathList} finds the same classes and resources, in
+ * the same order, as its linear scan of the path.
+ */
+public class DexPathListTest extends TestCase {
+    private static final String[] CLASS_NAMES = {
+        "libcore.test.delegatelast.A",
+        "libcore.test.delegatelast.Parent",
+        "libcore.test.delegatelast.Child",
+        "test.Test1",
+        "test2.Target2",
+        "libcore.test.delegatelast.NonExistent",
+    };
+
+    private static final String[] RESOURCE_NAMES = {
+        "resource.txt",
+        "resource2.txt",
+        "test/Resource1.txt",
+        "test2/Resource2.txt",
+        "directory.txt",
+        "missing.txt",
+    };
+
+    // Directory entries are found with and without their trailing '/'.
+    private static final String[] DIRECTORY_NAMES = { "test/", "test", "test2", "missing" };
+
+    private Map<String, File> resourcesMap;
+    private File resourceDirectory;
+
+    @Override
+    protected void setUp() throws Exception {
+        resourcesMap = ClassLoaderTestSupport.setupAndCopyResources(Arrays.asList(
+                "parent.jar", "child.jar", "loading-test.jar", "loading-test2.jar"));
+        // A directory element can't be indexed, so it is probed on every lookup.
+        resourceDirectory = File.createTempFile("DexPathListTest", "");
+        assertTrue(resourceDirectory.delete());
+        assertTrue(resourceDirectory.mkdir());
+        try (FileOutputStream out =
+                new FileOutputStream(new File(resourceDirectory, "directory.txt"))) {
+            out.write("directory".getBytes(StandardCharsets.UTF_8));
+        }
+        try (FileOutputStream out =
+                new FileOutputStream(new File(resourceDirectory, "resource.txt"))) {
+            out.write("directory".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClassLoaderTestSupport.cleanUpResources(resourcesMap);
+        for (File file : resourceDirectory.listFiles()) {
+            file.delete();
+        }
+        resourceDirectory.delete();
+    }
+
+    private BaseDexClassLoader createClassLoader(boolean indexed, String... elements) {
+        StringBuilder dexPath = new StringBuilder();
+        for (String element : elements) {
+            if (dexPath.length() > 0) {
+                dexPath.append(File.pathSeparatorChar);
+            }
+            File file = resourcesMap.get(element);
+            dexPath.append(file != null ? file.getAbsolutePath() : element);
+        }
+        BaseDexClassLoader loader = new PathClassLoader(dexPath.toString(),
+                Object.class.getClassLoader());
+        loader.setLookupIndexEnabled(indexed);
+        return loader;
+    }
+
+    private static String describeClass(ClassLoader loader, String name) throws Exception {
+        try {
+            Class<?> clazz = loader.loadClass(name);
+            assertSame(loader, clazz.getClassLoader());
+            if (name.endsWith(".A")) {
+                return (String) clazz.getMethod("toString").invoke(clazz.newInstance());
+            }
+            return clazz.getName();
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private void assertSameLookups(String... elements) throws Exception {
+        BaseDexClassLoader linear = createClassLoader(false, elements);
+        BaseDexClassLoader indexed = createClassLoader(true, elements);
+        for (String name : CLASS_NAMES) {
+            assertEquals(name, describeClass(linear, name), describeClass(indexed, name));
+        }
+        for (String name : DIRECTORY_NAMES) {
+            assertEquals(name, String.valueOf(linear.getResource(name)),
+                    String.valueOf(indexed.getResource(name)));
+        }
+        for (String name : RESOURCE_NAMES) {
+            assertEquals(name, BaseDexClassLoaderTest.readResource(linear, name),
+                    BaseDexClassLoaderTest.readResource(indexed, name));
+            assertEquals(name, BaseDexClassLoaderTest.readResources(linear, name),
+                    BaseDexClassLoaderTest.readResources(indexed, name));
+        }
+    }
+
+    public void testIndexedLookupsMatchLinearLookups() throws Exception {
+        assertSameLookups("parent.jar", "child.jar", "loading-test.jar", "loading-test2.jar");
+        assertSameLookups("loading-test2.jar", "child.jar", "loading-test.jar", "parent.jar");
+        assertSameLookups("child.jar", resourceDirectory.getPath(), "parent.jar",
+                "loading-test.jar");
+    }
+
+    public void testDuplicateClassNamesResolveToTheEarliestElement() throws Exception {
+        BaseDexClassLoader loader = createClassLoader(true, "loading-test.jar", "child.jar",
+                "parent.jar");
+        assertEquals("A_child", describeClass(loader, "libcore.test.delegatelast.A"));
+        assertEquals("libcore.test.delegatelast.Parent",
+                describeClass(loader, "libcore.test.delegatelast.Parent"));
+
+        loader = createClassLoader(true, "parent.jar", "loading-test.jar", "child.jar");
+        assertEquals("A_parent", describeClass(loader, "libcore.test.delegatelast.A"));
+        assertEquals("libcore.test.delegatelast.Child",
+                describeClass(loader, "libcore.test.delegatelast.Child"));
+    }
+
+    public void testDuplicateResourcesAreAllFoundInPathOrder() throws Exception {
+        BaseDexClassLoader loader = createClassLoader(true, "child.jar", "loading-test.jar",
+                resourceDirectory.getPath(), "parent.jar");
+        List<String> contents = BaseDexClassLoaderTest.readResources(loader, "resource.txt");
+        assertEquals(Arrays.asList("child", "directory", "parent"), contents);
+        assertEquals("child", BaseDexClassLoaderTest.readResource(loader, "resource.txt"));
+    }
+
+    public void testIndexIsRebuiltWhenThePathGrows() throws Exception {
+        BaseDexClassLoader loader = createClassLoader(true, "loading-test.jar");
+        assertNull(describeClass(loader, "libcore.test.delegatelast.Child"));
+        assertNull(loader.getResource("resource.txt"));
+
+        loader.addDexPath(resourcesMap.get("child.jar").getAbsolutePath());
+        assertEquals("libcore.test.delegatelast.Child",
+                describeClass(loader, "libcore.test.delegatelast.Child"));
+        assertEquals("child", BaseDexClassLoaderTest.readResource(loader, "resource.txt"));
+    }
+
+    public void testLookupsAfterDisablingTheIndex() throws Exception {
+        BaseDexClassLoader loader = createClassLoader(true, "child.jar", "parent.jar");
+        assertEquals("A_child", describeClass(loader, "libcore.test.delegatelast.A"));
+        loader.setLookupIndexEnabled(false);
+        assertEquals("libcore.test.delegatelast.Parent",
+                describeClass(loader, "libcore.test.delegatelast.Parent"));
+        assertEquals(Arrays.asList("child", "parent"),
+                BaseDexClassLoaderTest.readResources(loader, "resource.txt"));
+    }
+}
@@ -16,6 +16,7 @@
 
 package libcore.java.lang.ref;
 
+import dalvik.system.VMRuntime;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -48,6 +49,43 @@ public final class FinalizeTest extends TestCase {
         }
     }
 
+    public void testFinalizeWithSeveralFinalizerThreads() throws Exception {
+        VMRuntime runtime = VMRuntime.getRuntime();
+        int oldFinalizerThreads = runtime.getFinalizerThreadCount();
+        int oldReferenceQueueThreads = runtime.getReferenceQueueThreadCount();
+        runtime.setFinalizerThreadCount(4);
+        runtime.setReferenceQueueThreadCount(2);
+        try {
+            long finalizedBefore = runtime.getFinalizedObjectCount();
+            // The finalizers are slow, so runFinalization() finds them still running on the
+            // other finalizer threads when one of the threads gets to its sentinel. It must
+            // wait for them rather than return as soon as the sentinel has been finalized.
+            AtomicBoolean[] finalized = new AtomicBoolean[16];
+            createSlowFinalizableObjects(finalized);
+            FinalizationTester.induceFinalization();
+            for (int i = 0; i < finalized.length; i++) {
+                assertTrue("object " + i + " not yet finalized", finalized[i].get());
+            }
+            assertTrue(runtime.getFinalizedObjectCount() >= finalizedBefore + finalized.length);
+        } finally {
+            runtime.setFinalizerThreadCount(oldFinalizerThreads);
+            runtime.setReferenceQueueThreadCount(oldReferenceQueueThreads);
+        }
+    }
+
+    public void testSetFinalizerThreadCountRejectsOutOfRangeCounts() {
+        try {
+            VMRuntime.getRuntime().setFinalizerThreadCount(0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            VMRuntime.getRuntime().setReferenceQueueThreadCount(17);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
     /** Do not inline this method; that could break non-precise GCs. See FinalizationTester. */
     private X createFinalizableObject(final AtomicBoolean finalized) {
         X result = new X() {
@@ -67,6 +105,27 @@ public final class FinalizeTest extends TestCase {
         return wasFinalized ? result : null;
     }
 
+    /**
+     * Creates an object for each element of {@code finalized} whose finalizer takes a while, then
+     * sets the element. Do not inline this method, as with {@link #createFinalizableObject}.
+     */
+    private X[] createSlowFinalizableObjects(AtomicBoolean[] finalized) {
+        X[] result = new X[finalized.length];
+        for (int i = 0; i < finalized.length; i++) {
+            final AtomicBoolean f = new AtomicBoolean();
+            finalized[i] = f;
+            result[i] = new X() {
+                @Override protected void finalize() throws Throwable {
+                    super.finalize();
+                    Thread.sleep(200);
+                    f.set(true);
+                }
+            };
+        }
+        // As in createFinalizableObject, don't actually return the objects.
+        return finalized[0].get() ? result : null;
+    }
+
     static class X {}
 
     // Helper function since we do not want a vreg to keep the allocated object live.
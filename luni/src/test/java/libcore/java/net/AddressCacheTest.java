@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.net;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import junit.framework.TestCase;
+import libcore.util.BasicLruCache;
+
+/**
+ * Tests the package-private java.net.AddressCache, through reflection.
+ */
+public final class AddressCacheTest extends TestCase {
+
+    private static final InetAddress[] ADDRESSES = {
+        InetAddress.getLoopbackAddress(),
+    };
+
+    private Class<?> addressCacheClass;
+    private Class<?> resolverClass;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        addressCacheClass = Class.forName("java.net.AddressCache");
+        resolverClass = Class.forName("java.net.AddressCache$Resolver");
+    }
+
+    public void testCoalescesConcurrentLookups() throws Exception {
+        final Object cache = newCache(16, TimeUnit.SECONDS.toNanos(60), 0);
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger resolutions = new AtomicInteger();
+        final Object resolver = newResolver((hostname, netId) -> {
+            resolutions.incrementAndGet();
+            resolving.countDown();
+            release.await();
+            return ADDRESSES;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<InetAddress[]>> results = new ArrayList<>();
+            results.add(executor.submit(() -> lookup(cache, "example.com", 0, resolver)));
+            assertTrue(resolving.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> lookup(cache, "example.com", 0, resolver)));
+            }
+            // Let the waiting lookups get to the pending one.
+            while (coalescedCount(cache) < 3) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (Future<InetAddress[]> result : results) {
+                assertSame(ADDRESSES, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, resolutions.get());
+        // Each lookup missed once, even those that found the result after waiting.
+        assertEquals(4L, invoke(cache, "missCount", new Class<?>[0]));
+        assertEquals(0L, invoke(cache, "hitCount", new Class<?>[0]));
+    }
+
+    public void testInterruptedWaitResolvesItself() throws Exception {
+        final Object cache = newCache(16, TimeUnit.SECONDS.toNanos(60), 0);
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Object slowResolver = newResolver((hostname, netId) -> {
+            resolving.countDown();
+            release.await();
+            return ADDRESSES;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<InetAddress[]> slow =
+                    executor.submit(() -> lookup(cache, "example.com", 0, slowResolver));
+            assertTrue(resolving.await(10, TimeUnit.SECONDS));
+
+            InetAddress[] others = { InetAddress.getByAddress(new byte[] { 10, 0, 0, 1 }) };
+            Thread.currentThread().interrupt();
+            try {
+                assertSame(others,
+                        lookup(cache, "example.com", 0, newResolver((hostname, netId) -> others)));
+                assertTrue(Thread.interrupted());
+            } finally {
+                Thread.interrupted();
+            }
+            release.countDown();
+            assertSame(ADDRESSES, slow.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testNetworksAreSeparate() throws Exception {
+        Object cache = newCache(16, TimeUnit.SECONDS.toNanos(60), TimeUnit.SECONDS.toNanos(60));
+        put(cache, "example.com", 100, ADDRESSES);
+        putUnknownHost(cache, "example.com", 101, "no such host");
+        assertSame(ADDRESSES, get(cache, "example.com", 100));
+        assertEquals("no such host", get(cache, "example.com", 101));
+        assertNull(get(cache, "example.com", 102));
+        try {
+            lookup(cache, "example.com", 101, newResolver((hostname, netId) -> {
+                throw new AssertionError();
+            }));
+            fail();
+        } catch (UnknownHostException expected) {
+        }
+    }
+
+    public void testExpiry() throws Exception {
+        Object cache = newCache(16, TimeUnit.MILLISECONDS.toNanos(100), 0);
+        put(cache, "example.com", 0, ADDRESSES);
+        putUnknownHost(cache, "unknown.example.com", 0, "no such host");
+        assertSame(ADDRESSES, get(cache, "example.com", 0));
+        // Negative results aren't cached with a TTL of zero.
+        assertNull(get(cache, "unknown.example.com", 0));
+        Thread.sleep(200);
+        assertNull(get(cache, "example.com", 0));
+    }
+
+    public void testEvictAllByReflectionClearsTheCache() throws Exception {
+        Object cache = newCache(16, TimeUnit.SECONDS.toNanos(60), 0);
+        put(cache, "example.com", 0, ADDRESSES);
+        Field field = addressCacheClass.getDeclaredField("cache");
+        field.setAccessible(true);
+        ((BasicLruCache<?, ?>) field.get(cache)).evictAll();
+        assertNull(get(cache, "example.com", 0));
+    }
+
+    private interface ResolverFunction {
+        InetAddress[] resolve(String hostname, int netId) throws Exception;
+    }
+
+    private Object newCache(int maxEntries, long positiveTtlNanos, long negativeTtlNanos)
+            throws Exception {
+        Constructor<?> constructor =
+                addressCacheClass.getDeclaredConstructor(int.class, long.class, long.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(maxEntries, positiveTtlNanos, negativeTtlNanos);
+    }
+
+    private Object newResolver(ResolverFunction function) {
+        return Proxy.newProxyInstance(resolverClass.getClassLoader(),
+                new Class<?>[] { resolverClass },
+                (proxy, method, args) -> function.resolve((String) args[0], (Integer) args[1]));
+    }
+
+    private InetAddress[] lookup(Object cache, String hostname, int netId, Object resolver)
+            throws Exception {
+        return (InetAddress[]) invoke(cache, "lookup",
+                new Class<?>[] { String.class, int.class, resolverClass },
+                hostname, netId, resolver);
+    }
+
+    private Object get(Object cache, String hostname, int netId) throws Exception {
+        return invoke(cache, "get", new Class<?>[] { String.class, int.class }, hostname, netId);
+    }
+
+    private void put(Object cache, String hostname, int netId, InetAddress[] addresses)
+            throws Exception {
+        invoke(cache, "put", new Class<?>[] { String.class, int.class, InetAddress[].class },
+                hostname, netId, addresses);
+    }
+
+    private void putUnknownHost(Object cache, String hostname, int netId, String detailMessage)
+            throws Exception {
+        invoke(cache, "putUnknownHost", new Class<?>[] { String.class, int.class, String.class },
+                hostname, netId, detailMessage);
+    }
+
+    private long coalescedCount(Object cache) throws Exception {
+        return (Long) invoke(cache, "coalescedCount", new Class<?>[0]);
+    }
+
+    private Object invoke(Object cache, String name, Class<?>[] parameterTypes, Object... args)
+            throws Exception {
+        Method method = addressCacheClass.getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        try {
+            return method.invoke(cache, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+    }
+}
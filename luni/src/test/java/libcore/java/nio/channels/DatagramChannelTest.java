@@ -27,6 +27,7 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.NetworkInterface;
 import java.net.ProtocolFamily;
+import java.net.SocketAddress;
 import java.net.StandardProtocolFamily;
 import java.net.StandardSocketOptions;
 import java.nio.ByteBuffer;
@@ -38,6 +39,7 @@ import java.nio.channels.spi.SelectorProvider;
 import java.util.Enumeration;
 import libcore.junit.junit3.TestCaseWithRules;
 import libcore.junit.util.ResourceLeakageDetector;
+import sun.nio.ch.DatagramBatch;
 
 public class DatagramChannelTest extends TestCaseWithRules {
     @Rule
@@ -271,6 +273,79 @@ public class DatagramChannelTest extends TestCaseWithRules {
         }
     }
 
+    public void test_batchSendAndReceive() throws IOException {
+        InetSocketAddress loopback = new InetSocketAddress(Inet4Address.LOOPBACK, 0);
+        try (DatagramChannel sender = DatagramChannel.open();
+             DatagramChannel receiver = DatagramChannel.open()) {
+            sender.bind(loopback);
+            receiver.bind(loopback);
+            final int count = 8;
+            ByteBuffer[] srcs = new ByteBuffer[count + 2];
+            SocketAddress[] targets = new SocketAddress[count + 2];
+            for (int i = 0; i < count; i++) {
+                srcs[1 + i] = ByteBuffer.wrap(new byte[] { (byte) i, (byte) (i * 2) });
+                targets[1 + i] = receiver.getLocalAddress();
+            }
+            assertEquals(count, DatagramBatch.send(sender, srcs, targets, 1, count));
+            for (int i = 0; i < count; i++) {
+                assertFalse(srcs[1 + i].hasRemaining());
+            }
+
+            ByteBuffer[] dsts = new ByteBuffer[count];
+            SocketAddress[] senders = new SocketAddress[count];
+            for (int i = 0; i < count; i++) {
+                // The last buffer is too small, so its datagram is truncated.
+                dsts[i] = ByteBuffer.allocate(i == count - 1 ? 1 : 16);
+            }
+            // A blocking batch receive returns once the first datagram is in.
+            int received = 0;
+            while (received < count) {
+                received += DatagramBatch.receive(receiver, dsts, senders, received,
+                        count - received);
+            }
+            for (int i = 0; i < count; i++) {
+                assertEquals(sender.getLocalAddress(), senders[i]);
+                dsts[i].flip();
+                assertEquals(i == count - 1 ? 1 : 2, dsts[i].remaining());
+                assertEquals((byte) i, dsts[i].get(0));
+                if (i != count - 1) {
+                    assertEquals((byte) (i * 2), dsts[i].get(1));
+                }
+            }
+
+            receiver.configureBlocking(false);
+            assertEquals(0, DatagramBatch.receive(receiver, dsts, null, 0, count));
+        }
+    }
+
+    public void test_batchSendConnected() throws IOException {
+        InetSocketAddress loopback = new InetSocketAddress(Inet4Address.LOOPBACK, 0);
+        try (DatagramChannel sender = DatagramChannel.open();
+             DatagramChannel receiver = DatagramChannel.open()) {
+            receiver.bind(loopback);
+            sender.connect(receiver.getLocalAddress());
+            ByteBuffer[] srcs = {
+                ByteBuffer.wrap(new byte[] { 1 }), ByteBuffer.wrap(new byte[] { 2 }),
+            };
+            assertEquals(2, DatagramBatch.send(sender, srcs, null, 0, 2));
+            try {
+                DatagramBatch.send(sender, new ByteBuffer[] { ByteBuffer.allocate(1) },
+                        new SocketAddress[] { new InetSocketAddress(Inet4Address.LOOPBACK, 9) },
+                        0, 1);
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+
+            ByteBuffer[] dsts = { ByteBuffer.allocate(4), ByteBuffer.allocate(4) };
+            int received = 0;
+            while (received < 2) {
+                received += DatagramBatch.receive(receiver, dsts, null, received, 2 - received);
+            }
+            assertEquals(1, dsts[0].get(0));
+            assertEquals(2, dsts[1].get(0));
+        }
+    }
+
     private static InetAddress getNonLoopbackNetworkInterfaceAddress(boolean ipv4) throws IOException {
         Enumeration<NetworkInterface> networkInterfaces = NetworkInterface.getNetworkInterfaces();
         while (networkInterfaces.hasMoreElements()) {
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
 import java.nio.file.FileSystem;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
@@ -278,6 +279,72 @@ public class FileChannelTest extends TestCaseWithRules {
         }
     }
 
+    public void test_transferTo_file() throws Exception {
+        try (FileChannel src = createFileContainingBytes("0123456789".getBytes("US-ASCII"));
+             FileChannel dst = createFileContainingBytes("abc".getBytes("US-ASCII"))) {
+            src.position(1);
+            dst.position(3);
+            assertEquals(4, src.transferTo(2, 4, dst));
+            // transferTo() leaves the source position alone and advances the target's.
+            assertEquals(1, src.position());
+            assertEquals(7, dst.position());
+            assertEquals("abc2345", readAll(dst));
+        }
+    }
+
+    public void test_transferTo_appendingFile() throws Exception {
+        File tmp = File.createTempFile("FileChannelTest", "tmp");
+        try (FileChannel src = createFileContainingBytes("0123456789".getBytes("US-ASCII"));
+             FileOutputStream fos = new FileOutputStream(tmp, true)) {
+            fos.write("abc".getBytes("US-ASCII"));
+            assertEquals(3, src.transferTo(7, 100, fos.getChannel()));
+        }
+        assertEquals("abc789", IoUtils.readFileAsString(tmp.getPath()));
+    }
+
+    public void test_transferFrom_file() throws Exception {
+        try (FileChannel src = createFileContainingBytes("0123456789".getBytes("US-ASCII"));
+             FileChannel dst = createFileContainingBytes("abcdef".getBytes("US-ASCII"))) {
+            src.position(6);
+            dst.position(1);
+            assertEquals(4, dst.transferFrom(src, 2, 100));
+            // transferFrom() advances the source position and leaves the target's alone.
+            assertEquals(10, src.position());
+            assertEquals(1, dst.position());
+            assertEquals("ab6789", readAll(dst));
+        }
+    }
+
+    public void test_transferFrom_pipe() throws Exception {
+        Pipe pipe = Pipe.open();
+        try (FileChannel dst = createFileContainingBytes("abc".getBytes("US-ASCII"))) {
+            pipe.sink().write(ByteBuffer.wrap("01234".getBytes("US-ASCII")));
+            pipe.sink().close();
+            assertEquals(5, dst.transferFrom(pipe.source(), 1, 100));
+            assertEquals("a01234", readAll(dst));
+        } finally {
+            pipe.source().close();
+        }
+    }
+
+    public void test_transferFrom_nonBlockingEmptyPipe() throws Exception {
+        Pipe pipe = Pipe.open();
+        try (FileChannel dst = createFileContainingBytes("abc".getBytes("US-ASCII"))) {
+            pipe.source().configureBlocking(false);
+            assertEquals(0, dst.transferFrom(pipe.source(), 0, 100));
+            assertEquals("abc", readAll(dst));
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
+    private static String readAll(FileChannel fc) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) fc.size());
+        fc.read(buffer, 0);
+        return new String(buffer.array(), "US-ASCII");
+    }
+
     private static FileChannel createFileContainingBytes(byte[] bytes) throws IOException {
         File tmp = File.createTempFile("FileChannelTest", "tmp");
         FileOutputStream fos = new FileOutputStream(tmp, true);
@@ -20,11 +20,16 @@ import junit.framework.TestCase;
 
 import java.text.SimpleDateFormat;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.SimpleTimeZone;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TimeZoneTest extends TestCase {
     // http://code.google.com/p/android/issues/detail?id=877
@@ -397,4 +402,50 @@ public class TimeZoneTest extends TestCase {
         assertEquals(canonical.getDisplayName(true, TimeZone.LONG, Locale.ENGLISH),
                 nonCanonical.getDisplayName(true, TimeZone.LONG, Locale.ENGLISH));
     }
+
+    public void testGetTimeZoneReturnsNewInstances() {
+        TimeZone first = TimeZone.getTimeZone("America/Los_Angeles");
+        first.setRawOffset(0);
+        TimeZone second = TimeZone.getTimeZone("America/Los_Angeles");
+        assertNotSame(first, second);
+        assertEquals(-8 * 60 * 60 * 1000, second.getRawOffset());
+    }
+
+    public void testGetTimeZoneConcurrently() throws Exception {
+        // More zones than are cached, so that some are evicted while they are looked up.
+        final String[] ids = TimeZone.getAvailableIDs();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final int start = thread;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String id = ids[(start * 100 + i) % ids.length];
+                        assertEquals(id, TimeZone.getTimeZone(id).getID());
+                        assertNotNull(TimeZone.getDefault());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testSetDefaultCopiesZone() {
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone zone = TimeZone.getTimeZone("Asia/Tokyo");
+            TimeZone.setDefault(zone);
+            zone.setRawOffset(0);
+            assertEquals(9 * 60 * 60 * 1000, TimeZone.getDefault().getRawOffset());
+            TimeZone.getDefault().setRawOffset(0);
+            assertEquals(9 * 60 * 60 * 1000, TimeZone.getDefault().getRawOffset());
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.jar;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import junit.framework.TestCase;
+import tests.support.resource.Support_Resources;
+
+public class JarFileVerifyAllEntriesTest extends TestCase {
+
+    private File resources;
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        resources = Support_Resources.createTempFolder();
+        executor = Executors.newFixedThreadPool(4);
+        JarFile.clearVerificationCache();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdown();
+        JarFile.clearVerificationCache();
+        super.tearDown();
+    }
+
+    public void testVerifyAllEntries() throws Exception {
+        File file = Support_Resources.copyFile(resources, null, "TestCodeSigners.jar");
+        CodeSigner[] expected;
+        try (JarFile jarFile = new JarFile(file)) {
+            JarEntry entry = jarFile.getJarEntry("Test.class");
+            readFully(jarFile.getInputStream(entry));
+            expected = entry.getCodeSigners();
+        }
+        assertNotNull(expected);
+
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(executor);
+            JarEntry entry = jarFile.getJarEntry("Test.class");
+            assertTrue(Arrays.equals(expected, entry.getCodeSigners()));
+            assertEquals(414, readFully(jarFile.getInputStream(entry)));
+            assertTrue(Arrays.equals(expected, entry.getCodeSigners()));
+        }
+    }
+
+    public void testModifiedEntry() throws Exception {
+        File file = Support_Resources.copyFile(resources, null, "Modified_Class.jar");
+        for (int i = 0; i < 2; i++) {
+            // The failure isn't cached.
+            try (JarFile jarFile = new JarFile(file)) {
+                jarFile.verifyAllEntries(executor);
+                fail();
+            } catch (SecurityException expected) {
+            }
+        }
+    }
+
+    public void testCached() throws Exception {
+        File file = Support_Resources.copyFile(resources, null, "Integrate.jar");
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(executor);
+        }
+        CountingExecutor counting = new CountingExecutor();
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(counting);
+            JarEntry entry = jarFile.getJarEntry("Test.class");
+            assertNotNull(entry.getCodeSigners());
+            assertEquals(410, readFully(jarFile.getInputStream(entry)));
+        }
+        assertEquals(0, counting.count);
+
+        // A file with another modification time is verified again.
+        assertTrue(file.setLastModified(file.lastModified() - 10000));
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(counting);
+        }
+        assertEquals(1, counting.count);
+
+        // So is a file that was rewritten, even with its modification time restored.
+        long lastModified = file.lastModified();
+        file = Support_Resources.copyFile(resources, null, "Integrate.jar");
+        assertTrue(file.setLastModified(lastModified));
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(counting);
+        }
+        assertEquals(2, counting.count);
+    }
+
+    public void testVerifyAllEntriesFromCommonPoolWorkers() throws Exception {
+        // More callers than workers, each waiting for its entries to be verified in the pool.
+        int count = ForkJoinPool.commonPool().getParallelism() + 2;
+        File original = Support_Resources.copyFile(resources, null, "Integrate.jar");
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Separate files, so that none is verified from the cache.
+            File file = new File(resources, "Integrate" + i + ".jar");
+            Files.copy(original.toPath(), file.toPath());
+            results.add(ForkJoinPool.commonPool().submit(() -> {
+                try (JarFile jarFile = new JarFile(file)) {
+                    jarFile.verifyAllEntries();
+                    assertNotNull(jarFile.getJarEntry("Test.class").getCodeSigners());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+    }
+
+    public void testUnsignedOrNotVerified() throws Exception {
+        CountingExecutor counting = new CountingExecutor();
+        File file = Support_Resources.copyFile(resources, null, "hyts_patch.jar");
+        try (JarFile jarFile = new JarFile(file)) {
+            jarFile.verifyAllEntries(counting);
+        }
+        file = Support_Resources.copyFile(resources, null, "Modified_Class.jar");
+        try (JarFile jarFile = new JarFile(file, false)) {
+            jarFile.verifyAllEntries(counting);
+            JarEntry entry = jarFile.getJarEntry("Test.class");
+            readFully(jarFile.getInputStream(entry));
+            assertNull(entry.getCodeSigners());
+        }
+        assertEquals(0, counting.count);
+    }
+
+    /** Runs tasks on the calling thread, and counts them. */
+    private static final class CountingExecutor implements Executor {
+        int count;
+
+        @Override public void execute(Runnable command) {
+            count++;
+            command.run();
+        }
+    }
+
+    private static int readFully(InputStream in) throws Exception {
+        try {
+            byte[] buffer = new byte[1024];
+            int total = 0;
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                total += count;
+            }
+            return total;
+        } finally {
+            in.close();
+        }
+    }
+}
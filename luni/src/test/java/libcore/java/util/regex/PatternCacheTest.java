@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import junit.framework.TestCase;
+import libcore.util.ConcurrentLruCache;
+
+public final class PatternCacheTest extends TestCase {
+
+    public void testCompileCachedReusesPatterns() {
+        String regex = "cached-" + System.nanoTime() + "[0-9]+";
+        Pattern first = Pattern.compileCached(regex);
+        assertSame(first, Pattern.compileCached(regex));
+        assertEquals(regex, first.pattern());
+        assertEquals(0, first.flags());
+        assertNotSame(first, Pattern.compile(regex));
+    }
+
+    public void testCounters() {
+        ConcurrentLruCache<?, Pattern> cache = Pattern.getCompiledPatternCache();
+        String regex = "counted-" + System.nanoTime() + "\\s*";
+        long misses = cache.missCount();
+        long hits = cache.hitCount();
+        Pattern.compileCached(regex);
+        assertTrue(cache.missCount() >= misses + 1);
+        Pattern.compileCached(regex);
+        Pattern.compileCached(regex);
+        assertTrue(cache.hitCount() >= hits + 2);
+    }
+
+    public void testInvalidRegexIsNotCached() {
+        String regex = "invalid-" + System.nanoTime() + "(";
+        for (int i = 0; i < 2; i++) {
+            try {
+                Pattern.compileCached(regex);
+                fail();
+            } catch (PatternSyntaxException expected) {
+            }
+        }
+        try {
+            Pattern.compileCached(null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testConvenienceMethodsUseCache() {
+        ConcurrentLruCache<?, Pattern> cache = Pattern.getCompiledPatternCache();
+        String regex = "[,;]" + "{1," + (System.nanoTime() % 1000 + 2) + "}";
+        long misses = cache.missCount();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList("a,b;;c".split(regex)));
+            assertEquals("a_b_c", "a,b;;c".replaceAll(regex, "_"));
+            assertEquals("a_b;;c", "a,b;;c".replaceFirst(regex, "_"));
+            assertTrue(",;".matches(regex));
+            assertFalse(Pattern.matches(regex, "x"));
+        }
+        // The regex is compiled once; other tests may add misses concurrently.
+        assertTrue(cache.missCount() - misses >= 1);
+        assertSame(Pattern.compileCached(regex), Pattern.compileCached(regex));
+    }
+
+    public void testEviction() {
+        ConcurrentLruCache<?, Pattern> cache = Pattern.getCompiledPatternCache();
+        String first = "evicted-" + System.nanoTime();
+        Pattern pattern = Pattern.compileCached(first);
+        long evictions = cache.evictionCount();
+        for (int i = 0; i < 1000; i++) {
+            Pattern.compileCached(first + "-" + i);
+        }
+        assertTrue(cache.evictionCount() > evictions);
+        assertNotSame(pattern, Pattern.compileCached(first));
+    }
+
+    public void testObtainMatcherReusesRecycledMatcher() {
+        Pattern p = Pattern.compile("b+");
+        Matcher m = p.obtainMatcher("abbc");
+        assertTrue(m.find());
+        m.region(1, 2).useTransparentBounds(true).useAnchoringBounds(false);
+        p.recycleMatcher(m);
+
+        Matcher reused = p.obtainMatcher("xbx");
+        assertSame(m, reused);
+        assertEquals(0, reused.regionStart());
+        assertEquals(3, reused.regionEnd());
+        assertFalse(reused.hasTransparentBounds());
+        assertTrue(reused.hasAnchoringBounds());
+        assertTrue(reused.find());
+        assertEquals(1, reused.start());
+
+        // A matcher that's in use isn't handed out again.
+        Matcher other = p.obtainMatcher("b");
+        assertNotSame(reused, other);
+        p.recycleMatcher(reused);
+        p.recycleMatcher(other);
+    }
+
+    public void testRecycleMatcherOfOtherPattern() {
+        Pattern p = Pattern.compile("a");
+        Pattern q = Pattern.compile("a");
+        Matcher m = q.matcher("a");
+        p.recycleMatcher(m);
+        assertNotSame(m, p.obtainMatcher("a"));
+    }
+
+    public void testConcurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override public Boolean call() {
+                        for (int i = 0; i < 1000; i++) {
+                            String regex = "\\d{" + (i % 8 + 1) + "}";
+                            String[] parts = ("x12345678y" + i).split(regex);
+                            if (parts.length == 0 || !parts[0].startsWith("x")) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
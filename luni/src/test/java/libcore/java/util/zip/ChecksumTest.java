@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+import junit.framework.TestCase;
+
+public final class ChecksumTest extends TestCase {
+
+    public void testCrc32cKnownValues() {
+        // From RFC 3720, appendix B.4.
+        assertEquals(0x8a9136aaL, crc32c(new byte[32]));
+        byte[] ones = new byte[32];
+        Arrays.fill(ones, (byte) 0xff);
+        assertEquals(0x62a8ab43L, crc32c(ones));
+        byte[] increasing = new byte[32];
+        for (int i = 0; i < increasing.length; i++) {
+            increasing[i] = (byte) i;
+        }
+        assertEquals(0x46dd794eL, crc32c(increasing));
+        assertEquals(0xe3069283L, crc32c("123456789".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0L, new CRC32C().getValue());
+    }
+
+    public void testCrc32cUpdateMethodsAgree() {
+        byte[] data = randomBytes(1000);
+        long expected = crc32c(data);
+        CRC32C crc = new CRC32C();
+        for (byte b : data) {
+            crc.update(b);
+        }
+        assertEquals(expected, crc.getValue());
+
+        for (ByteBuffer buffer : buffers(data)) {
+            crc.reset();
+            crc.update(buffer);
+            assertEquals(expected, crc.getValue());
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    public void testCombine() {
+        byte[] data = randomBytes(10000);
+        for (int split : new int[] { 0, 1, 7, 8, 4999, 10000 }) {
+            byte[] first = Arrays.copyOfRange(data, 0, split);
+            byte[] second = Arrays.copyOfRange(data, split, data.length);
+            assertEquals(value(new CRC32(), data), CRC32.combine(
+                    value(new CRC32(), first), value(new CRC32(), second), second.length));
+            assertEquals(value(new Adler32(), data), Adler32.combine(
+                    value(new Adler32(), first), value(new Adler32(), second), second.length));
+            assertEquals(value(new CRC32C(), data), CRC32C.combine(
+                    value(new CRC32C(), first), value(new CRC32C(), second), second.length));
+        }
+    }
+
+    public void testCombineLongLength() {
+        // Combining with a long run of zeros, without computing its checksum byte by byte.
+        byte[] zeros = new byte[1 << 16];
+        long crc = value(new CRC32(), zeros);
+        long adler = value(new Adler32(), zeros);
+        long expectedCrc = crc;
+        long expectedAdler = adler;
+        for (int i = 0; i < 15; i++) {
+            expectedCrc = CRC32.combine(expectedCrc, crc, zeros.length);
+            expectedAdler = Adler32.combine(expectedAdler, adler, zeros.length);
+        }
+        CRC32 actualCrc = new CRC32();
+        Adler32 actualAdler = new Adler32();
+        for (int i = 0; i < 16; i++) {
+            actualCrc.update(zeros);
+            actualAdler.update(zeros);
+        }
+        assertEquals(actualCrc.getValue(), expectedCrc);
+        assertEquals(actualAdler.getValue(), expectedAdler);
+        try {
+            CRC32.combine(0, 0, -1);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testUpdateByteBufferArray() {
+        Random random = new Random(0);
+        byte[] data = randomBytes(100000);
+        // Mix buffers that are copied together with ones that aren't.
+        ByteBuffer[] buffers = new ByteBuffer[200];
+        int offset = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            int length = Math.min(random.nextBoolean() ? random.nextInt(300) : random.nextInt(16),
+                    data.length - offset);
+            buffers[i] = buffers(Arrays.copyOfRange(data, offset, offset + length))[i % 3];
+            offset += length;
+        }
+        byte[] expected = Arrays.copyOf(data, offset);
+
+        CRC32 crc = new CRC32();
+        crc.update(duplicate(buffers));
+        assertEquals(value(new CRC32(), expected), crc.getValue());
+        Adler32 adler = new Adler32();
+        adler.update(duplicate(buffers));
+        assertEquals(value(new Adler32(), expected), adler.getValue());
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(buffers);
+        assertEquals(crc32c(expected), crc32c.getValue());
+        for (ByteBuffer buffer : buffers) {
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    private static long crc32c(byte[] data) {
+        return value(new CRC32C(), data);
+    }
+
+    private static long value(Checksum checksum, byte[] data) {
+        checksum.update(data, 0, data.length);
+        return checksum.getValue();
+    }
+
+    /** Returns a heap, a direct and a read-only buffer with the given contents. */
+    private static ByteBuffer[] buffers(byte[] data) {
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 3);
+        direct.position(3);
+        direct.put(data);
+        direct.position(3);
+        return new ByteBuffer[] {
+            ByteBuffer.wrap(data.clone()),
+            direct,
+            ByteBuffer.wrap(data.clone()).asReadOnlyBuffer(),
+        };
+    }
+
+    private static ByteBuffer[] duplicate(ByteBuffer[] buffers) {
+        ByteBuffer[] duplicates = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            duplicates[i] = buffers[i].duplicate();
+        }
+        return duplicates;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.zip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import libcore.junit.junit3.TestCaseWithRules;
+import libcore.junit.util.ResourceLeakageDetector;
+import org.junit.Rule;
+import org.junit.rules.TestRule;
+
+public final class MappedZipFileTest extends TestCaseWithRules {
+    @Rule
+    public TestRule resourceLeakageDetectorRule = ResourceLeakageDetector.getRule();
+
+    private static final int MAPPED = ZipFile.OPEN_READ | ZipFile.OPEN_MAPPED;
+
+    private File file;
+    private byte[] stored;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Random random = new Random(42);
+        stored = new byte[100000];
+        random.nextBytes(stored);
+        byte[] big = new byte[1024 * 1024];
+        random.nextBytes(big);
+
+        file = AbstractZipFileTest.createTemporaryZipFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            ZipEntry text = new ZipEntry("a.txt");
+            text.setComment("entry comment");
+            text.setExtra(new byte[] { 0x34, 0x12, 2, 0, 1, 2 });
+            out.putNextEntry(text);
+            for (int i = 0; i < 1000; i++) {
+                out.write("hello world\n".getBytes("UTF-8"));
+            }
+            out.putNextEntry(new ZipEntry("dir/"));
+            ZipEntry storedEntry = new ZipEntry("stored.bin");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            storedEntry.setCrc(crc.getValue());
+            out.putNextEntry(storedEntry);
+            out.write(stored);
+            out.putNextEntry(new ZipEntry("big.bin"));
+            out.write(big);
+            out.putNextEntry(new ZipEntry("\u0666\u00e9.txt"));
+            out.write(1);
+            out.setComment("archive comment");
+        }
+    }
+
+    public void testMatchesDefaultMode() throws Exception {
+        try (ZipFile expected = new ZipFile(file);
+                ZipFile actual = new ZipFile(file, MAPPED)) {
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.getComment(), actual.getComment());
+            assertEquals(expected.startsWithLocHeader(), actual.startsWithLocHeader());
+            Enumeration<? extends ZipEntry> expectedEntries = expected.entries();
+            Enumeration<? extends ZipEntry> actualEntries = actual.entries();
+            while (expectedEntries.hasMoreElements()) {
+                ZipEntry e = expectedEntries.nextElement();
+                ZipEntry a = actualEntries.nextElement();
+                assertEntryEquals(e, a);
+                assertEntryEquals(e, actual.getEntry(e.getName()));
+                assertTrue(Arrays.equals(readFully(expected.getInputStream(e)),
+                        readFully(actual.getInputStream(a))));
+            }
+            assertFalse(actualEntries.hasMoreElements());
+        }
+    }
+
+    public void testGetEntry() throws Exception {
+        try (ZipFile zipFile = new ZipFile(file, MAPPED)) {
+            assertEquals("a.txt", zipFile.getEntry("a.txt").getName());
+            assertEquals("entry comment", zipFile.getEntry("a.txt").getComment());
+            assertNotNull(zipFile.getEntry("\u0666\u00e9.txt"));
+            // Like the default mode, find directories without the trailing slash.
+            assertNotNull(zipFile.getEntry("dir"));
+            assertNull(zipFile.getEntry("di"));
+            assertNull(zipFile.getEntry("missing"));
+            assertNull(zipFile.getInputStream(new ZipEntry("missing")));
+        }
+    }
+
+    public void testStoredEntryBuffer() throws Exception {
+        ByteBuffer buffer;
+        try (ZipFile zipFile = new ZipFile(file, MAPPED)) {
+            buffer = zipFile.getStoredEntryBuffer(zipFile.getEntry("stored.bin"));
+            assertTrue(buffer.isReadOnly());
+            assertTrue(buffer.isDirect());
+            assertEquals(stored.length, buffer.remaining());
+            assertNull(zipFile.getStoredEntryBuffer(new ZipEntry("missing")));
+            try {
+                zipFile.getStoredEntryBuffer(zipFile.getEntry("big.bin"));
+                fail();
+            } catch (ZipException expected) {
+            }
+        }
+        // The buffer is still valid after the zip file is closed.
+        byte[] contents = new byte[buffer.remaining()];
+        buffer.get(contents);
+        assertTrue(Arrays.equals(stored, contents));
+
+        try (ZipFile zipFile = new ZipFile(file)) {
+            buffer = zipFile.getStoredEntryBuffer(zipFile.getEntry("stored.bin"));
+            assertTrue(buffer.isReadOnly());
+            assertEquals(ByteBuffer.wrap(stored), buffer);
+        }
+    }
+
+    public void testConcurrentReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (final ZipFile zipFile = new ZipFile(file, MAPPED)) {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override public Void call() throws Exception {
+                        for (int i = 0; i < 10; i++) {
+                            Enumeration<? extends ZipEntry> e = zipFile.entries();
+                            while (e.hasMoreElements()) {
+                                ZipEntry entry = e.nextElement();
+                                CRC32 crc = new CRC32();
+                                crc.update(readFully(zipFile.getInputStream(entry)));
+                                assertEquals(entry.getCrc(), crc.getValue());
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testClose() throws Exception {
+        ZipFile zipFile = new ZipFile(file, MAPPED);
+        InputStream stored = zipFile.getInputStream(zipFile.getEntry("stored.bin"));
+        InputStream deflated = zipFile.getInputStream(zipFile.getEntry("big.bin"));
+        zipFile.close();
+        try {
+            zipFile.getEntry("a.txt");
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            stored.read();
+            fail();
+        } catch (ZipException expected) {
+        }
+        try {
+            deflated.read();
+            fail();
+        } catch (IOException expected) {
+        }
+        stored.close();
+        deflated.close();
+    }
+
+    public void testInvalidArchives() throws Exception {
+        File invalid = AbstractZipFileTest.createTemporaryZipFile();
+        try {
+            new ZipFile(invalid, MAPPED);
+            fail();
+        } catch (ZipException expected) {
+        }
+        try (FileOutputStream out = new FileOutputStream(invalid)) {
+            out.write(new byte[] { 0x50, 0x4b, 0x03, 0x04 });
+        }
+        try {
+            new ZipFile(invalid, MAPPED);
+            fail();
+        } catch (ZipException expected) {
+        }
+        try {
+            new ZipFile(file, ZipFile.OPEN_MAPPED);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void assertEntryEquals(ZipEntry expected, ZipEntry actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getTime(), actual.getTime());
+        assertEquals(expected.getCrc(), actual.getCrc());
+        assertEquals(expected.getSize(), actual.getSize());
+        assertEquals(expected.getCompressedSize(), actual.getCompressedSize());
+        assertEquals(expected.getMethod(), actual.getMethod());
+        assertEquals(expected.getComment(), actual.getComment());
+        assertTrue(Arrays.equals(expected.getExtra(), actual.getExtra()));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.java.util.zip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZStreamPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import junit.framework.TestCase;
+
+public final class ZStreamPoolTest extends TestCase {
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ZStreamPool.clear();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ZStreamPool.clear();
+        super.tearDown();
+    }
+
+    public void testInflaterReuse() throws Exception {
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+        Inflater inf = ZStreamPool.acquireInflater(true);
+        long hits = ZStreamPool.getHitCount();
+        ZStreamPool.releaseInflater(inf);
+        assertTrue(ZStreamPool.getRetainedNativeBytes() > 0);
+
+        assertNotSame(inf, ZStreamPool.acquireInflater(false));
+        assertSame(inf, ZStreamPool.acquireInflater(true));
+        assertEquals(hits + 1, ZStreamPool.getHitCount());
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+    }
+
+    public void testReleasedInflaterIsReset() throws Exception {
+        byte[] data = randomBytes(10000);
+        byte[] compressed = deflate(data);
+        Inflater inf = ZStreamPool.acquireInflater(false);
+        inf.setInput(compressed, 0, compressed.length / 2);
+        inf.inflate(new byte[100]);
+        ZStreamPool.releaseInflater(inf);
+
+        inf = ZStreamPool.acquireInflater(false);
+        assertEquals(0, inf.getBytesRead());
+        inf.setInput(compressed);
+        byte[] actual = new byte[data.length];
+        assertEquals(data.length, inf.inflate(actual));
+        assertTrue(inf.finished());
+        assertTrue(Arrays.equals(data, actual));
+        inf.end();
+    }
+
+    public void testDeflaterKeyedByLevel() throws Exception {
+        Deflater def = ZStreamPool.acquireDeflater(Deflater.BEST_SPEED, false);
+        ZStreamPool.releaseDeflater(def);
+        assertNotSame(def, ZStreamPool.acquireDeflater(Deflater.BEST_COMPRESSION, false));
+        assertNotSame(def, ZStreamPool.acquireDeflater(Deflater.BEST_SPEED, true));
+        assertSame(def, ZStreamPool.acquireDeflater(Deflater.BEST_SPEED, false));
+
+        // A deflater is pooled with the level it was changed to.
+        def.setLevel(Deflater.BEST_COMPRESSION);
+        ZStreamPool.releaseDeflater(def);
+        assertSame(def, ZStreamPool.acquireDeflater(Deflater.BEST_COMPRESSION, false));
+
+        // A strategy can't be undone, so the deflater is ended instead.
+        def.setStrategy(Deflater.HUFFMAN_ONLY);
+        ZStreamPool.releaseDeflater(def);
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+        try {
+            def.getTotalIn();
+            fail();
+        } catch (NullPointerException expected) {
+        }
+
+        try {
+            ZStreamPool.acquireDeflater(10, false);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testBounded() throws Exception {
+        Inflater[] inflaters = new Inflater[100];
+        for (int i = 0; i < inflaters.length; i++) {
+            inflaters[i] = ZStreamPool.acquireInflater(false);
+        }
+        for (Inflater inf : inflaters) {
+            ZStreamPool.releaseInflater(inf);
+        }
+        long retained = ZStreamPool.getRetainedNativeBytes();
+        assertTrue(retained > 0);
+
+        long hits = ZStreamPool.getHitCount();
+        Set<Inflater> acquired = new HashSet<>();
+        for (int i = 0; i < inflaters.length; i++) {
+            acquired.add(ZStreamPool.acquireInflater(false));
+        }
+        assertEquals(inflaters.length, acquired.size());
+        long pooled = ZStreamPool.getHitCount() - hits;
+        assertTrue(pooled > 0 && pooled < inflaters.length);
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+        for (Inflater inf : acquired) {
+            inf.end();
+        }
+    }
+
+    public void testReleaseTwice() throws Exception {
+        Inflater inf = ZStreamPool.acquireInflater(false);
+        ZStreamPool.releaseInflater(inf);
+        long retained = ZStreamPool.getRetainedNativeBytes();
+        ZStreamPool.releaseInflater(inf);
+        assertEquals(retained, ZStreamPool.getRetainedNativeBytes());
+        assertSame(inf, ZStreamPool.acquireInflater(false));
+        assertNotSame(inf, ZStreamPool.acquireInflater(false));
+
+        // An ended inflater isn't pooled.
+        inf.end();
+        ZStreamPool.releaseInflater(inf);
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+
+        Deflater def = ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, false);
+        ZStreamPool.releaseDeflater(def);
+        retained = ZStreamPool.getRetainedNativeBytes();
+        ZStreamPool.releaseDeflater(def);
+        assertEquals(retained, ZStreamPool.getRetainedNativeBytes());
+        assertSame(def, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, false));
+        assertNotSame(def, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, false));
+    }
+
+    public void testClosedStreamsDropPooledInstances() throws Exception {
+        GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip(new byte[10]))) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                assertNull(inf);
+            }
+        };
+        in.close();
+        in.close();
+
+        DeflaterOutputStream out = new DeflaterOutputStream(new ByteArrayOutputStream()) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                assertNull(def);
+            }
+        };
+        out.close();
+        out.close();
+
+        // The level of a closed stream's deflater can't be changed any more.
+        ZipOutputStream zipOut = new ZipOutputStream(new ByteArrayOutputStream());
+        zipOut.close();
+        zipOut.setLevel(Deflater.BEST_SPEED);
+    }
+
+    public void testStreamsUsePool() throws Exception {
+        byte[] data = randomBytes(5000);
+        byte[] compressed = gzip(data);
+        assertTrue(Arrays.equals(data, readFully(
+                new GZIPInputStream(new ByteArrayInputStream(compressed)))));
+
+        long hits = ZStreamPool.getHitCount();
+        long misses = ZStreamPool.getMissCount();
+        assertTrue(Arrays.equals(compressed, gzip(data)));
+        assertTrue(Arrays.equals(data, readFully(
+                new GZIPInputStream(new ByteArrayInputStream(compressed)))));
+        assertEquals(hits + 2, ZStreamPool.getHitCount());
+        assertEquals(misses, ZStreamPool.getMissCount());
+    }
+
+    public void testClosedStreamsDontUseDeflater() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DeflaterOutputStream out = new GZIPOutputStream(bytes, true);
+        out.write(1);
+        out.close();
+        int size = bytes.size();
+        // The deflater is back in the pool, and has been reset.
+        try {
+            out.write(1);
+            fail();
+        } catch (IOException expected) {
+        }
+        out.flush();
+        out.finish();
+        out.close();
+        assertEquals(size, bytes.size());
+
+        InputStream in = new InflaterInputStream(
+                new ByteArrayInputStream(deflate(randomBytes(100))));
+        in.close();
+        try {
+            in.read();
+            fail();
+        } catch (IOException expected) {
+        }
+    }
+
+    public void testZipFile() throws Exception {
+        File file = AbstractZipFileTest.createTemporaryZipFile();
+        byte[] data = randomBytes(5000);
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new ZipEntry("a"));
+            out.write(data);
+        }
+        try (ZipFile zipFile = new ZipFile(file)) {
+            ZipEntry entry = zipFile.getEntry("a");
+            assertTrue(Arrays.equals(data, readFully(zipFile.getInputStream(entry))));
+            long hits = ZStreamPool.getHitCount();
+            assertTrue(Arrays.equals(data, readFully(zipFile.getInputStream(entry))));
+            assertEquals(hits + 1, ZStreamPool.getHitCount());
+
+            // The inflaters of streams closed by ZipFile.close() aren't pooled.
+            zipFile.getInputStream(entry).read();
+            ZStreamPool.clear();
+        }
+        assertEquals(0, ZStreamPool.getRetainedNativeBytes());
+        file.delete();
+    }
+
+    private static byte[] deflate(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -19,7 +19,9 @@ package libcore.libcore.icu;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import android.icu.text.DateTimePatternGenerator;
 
@@ -31,6 +33,12 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 
 import libcore.icu.LocaleData;
 import libcore.junit.util.SwitchTargetSdkVersionRule;
@@ -169,6 +177,53 @@ public class LocaleDataTest {
     LocaleData.get(new Locale("invalidLocale"));
   }
 
+  @Test
+  public void testGet_concurrentMisses() throws Exception {
+    // A locale that no other test has initialized.
+    Locale locale = uniqueLocale("fr-CA");
+    int threadCount = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+    try {
+      Callable<LocaleData> task = () -> {
+        start.await();
+        return LocaleData.get(locale);
+      };
+      Future<?>[] results = new Future<?>[threadCount];
+      for (int i = 0; i < threadCount; i++) {
+        results[i] = executor.submit(task);
+      }
+      start.countDown();
+      LocaleData expected = (LocaleData) results[0].get();
+      for (Future<?> result : results) {
+        assertSame(expected, result.get());
+      }
+      assertSame(expected, LocaleData.get(locale));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testPrewarm() {
+    Locale first = uniqueLocale("de-DE");
+    Locale second = uniqueLocale("ja-JP");
+    LocaleData.prewarm(new Locale[] { first, second, first });
+    assertSame(LocaleData.get(first), LocaleData.get(first));
+    assertSame(LocaleData.get(second), LocaleData.get(second));
+
+    try {
+      LocaleData.prewarm(new Locale[] { Locale.US, null });
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  private static Locale uniqueLocale(String languageTag) {
+    return Locale.forLanguageTag(languageTag + "-x-"
+        + Integer.toHexString(ThreadLocalRandom.current().nextInt() >>> 4));
+  }
+
   // Test for b/159514442 when targetSdkVersion == current
   @Test
   public void test_rootLocale_icu4jConsistency() {
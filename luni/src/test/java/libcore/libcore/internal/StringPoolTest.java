@@ -16,6 +16,13 @@
 
 package libcore.libcore.internal;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import junit.framework.TestCase;
 import libcore.internal.StringPool;
 
@@ -41,4 +48,77 @@ public final class StringPoolTest extends TestCase {
       assertSame(bString, stringPool.get(b, 0, 2));
       assertNotSame(aString, stringPool.get(a, 0, 2));
     }
+
+    public void testSetAssociativePoolKeepsCollidingStrings() {
+      StringPool stringPool = StringPool.newPool(512, 4);
+      char[] a = { (char) 1, (char) 0 };
+      char[] b = { (char) 0, (char) 31 };
+
+      String aString = stringPool.get(a, 0, 2);
+      String bString = stringPool.get(b, 0, 2);
+      assertSame(aString, stringPool.get(a, 0, 2));
+      assertSame(bString, stringPool.get(b, 0, 2));
+      assertEquals(2, stringPool.hitCount());
+      assertEquals(2, stringPool.missCount());
+    }
+
+    public void testInvalidGeometry() {
+      try {
+        StringPool.newPool(100, 1);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+      try {
+        StringPool.newSharedPool(16, 32);
+        fail();
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+
+    public void testUtf8Ascii() {
+      StringPool stringPool = new StringPool();
+      byte[] bytes = "abcde".getBytes(StandardCharsets.US_ASCII);
+      String bcd = stringPool.get(bytes, 1, 3);
+      assertEquals("bcd", bcd);
+      assertSame(bcd, stringPool.get(bytes, 1, 3));
+      assertSame(bcd, stringPool.get(new char[] { 'b', 'c', 'd' }, 0, 3));
+    }
+
+    public void testUtf8NonAscii() {
+      StringPool stringPool = new StringPool();
+      byte[] bytes = "x\u00e9t\u00e9".getBytes(StandardCharsets.UTF_8);
+      String ete = stringPool.get(bytes, 1, bytes.length - 1);
+      assertEquals("\u00e9t\u00e9", ete);
+      assertSame(ete, stringPool.get(bytes, 1, bytes.length - 1));
+      assertSame(ete, stringPool.get("\u00e9t\u00e9".toCharArray(), 0, 3));
+    }
+
+    public void testSharedPool() throws Exception {
+      final StringPool stringPool = StringPool.newSharedPool(1024, 4);
+      assertTrue(stringPool.isShared());
+      final CountDownLatch start = new CountDownLatch(1);
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+          results.add(executor.submit(() -> {
+            start.await();
+            for (int i = 0; i < 1000; i++) {
+              char[] chars = ("name" + (i % 50)).toCharArray();
+              assertEquals(new String(chars), stringPool.get(chars, 0, chars.length));
+            }
+            return null;
+          }));
+        }
+        start.countDown();
+        // Rethrows the failures of the workers on this thread.
+        for (Future<?> result : results) {
+          result.get();
+        }
+      } finally {
+        executor.shutdown();
+      }
+      assertEquals(4000, stringPool.hitCount() + stringPool.missCount());
+      assertTrue(stringPool.hitCount() > 0);
+    }
 }
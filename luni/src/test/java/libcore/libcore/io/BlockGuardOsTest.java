@@ -238,6 +238,8 @@ public class BlockGuardOsTest {
                 "dup(java.io.FileDescriptor)",
                 "dup2(java.io.FileDescriptor,int)",
                 "environ()",
+                "epoll_create1(int)",
+                "epoll_ctl(java.io.FileDescriptor,int,java.io.FileDescriptor,android.system.StructEpollEvent)",
                 "fcntlInt(java.io.FileDescriptor,int,int)",
                 "fcntlVoid(java.io.FileDescriptor,int)",
                 "gai_strerror(int)",
@@ -275,6 +277,7 @@ public class BlockGuardOsTest {
                 "kill(int,int)",
                 "listen(java.io.FileDescriptor,int)",
                 "listxattr(java.lang.String)",
+                "madvise(long,long,int)",
                 "memfd_create(java.lang.String,int)",
                 "mincore(long,long,byte[])",
                 "mlock(long,long)",
@@ -306,6 +309,7 @@ public class BlockGuardOsTest {
                 "sysconf(int)",
                 "tcdrain(java.io.FileDescriptor)",
                 "tcsendbreak(java.io.FileDescriptor,int)",
+                "tee(java.io.FileDescriptor,java.io.FileDescriptor,long,int)",
                 "umask(int)",
                 "uname()",
                 "unsetenv(java.lang.String)",
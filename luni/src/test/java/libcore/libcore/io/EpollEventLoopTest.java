@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.io;
+
+import android.system.Os;
+import android.system.StructEpollEvent;
+
+import java.io.FileDescriptor;
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+import libcore.io.EpollEventLoop;
+import libcore.io.IoUtils;
+import libcore.io.Libcore;
+
+import static android.system.OsConstants.EPOLLIN;
+import static android.system.OsConstants.EPOLLOUT;
+import static android.system.OsConstants.EPOLL_CLOEXEC;
+import static android.system.OsConstants.EPOLL_CTL_ADD;
+
+public class EpollEventLoopTest extends TestCase {
+
+    public void test_epoll_wait_structs() throws Exception {
+        FileDescriptor epfd = Libcore.os.epoll_create1(EPOLL_CLOEXEC);
+        FileDescriptor[] pipe = Os.pipe2(0);
+        try {
+            Libcore.os.epoll_ctl(epfd, EPOLL_CTL_ADD, pipe[0],
+                    new StructEpollEvent(EPOLLIN, 0x123456789L));
+            StructEpollEvent[] events = new StructEpollEvent[4];
+            assertEquals(0, Libcore.os.epoll_wait(epfd, events, 0));
+
+            Os.write(pipe[1], new byte[] { 1 }, 0, 1);
+            assertEquals(1, Libcore.os.epoll_wait(epfd, events, 1000));
+            assertEquals(EPOLLIN, events[0].events);
+            assertEquals(0x123456789L, events[0].data);
+        } finally {
+            IoUtils.closeQuietly(pipe[0]);
+            IoUtils.closeQuietly(pipe[1]);
+            IoUtils.closeQuietly(epfd);
+        }
+    }
+
+    public void testReadyEventsAreDispatched() throws Exception {
+        FileDescriptor[] pipe = Os.pipe2(0);
+        try (EpollEventLoop loop = new EpollEventLoop(8)) {
+            final List<Integer> received = new ArrayList<>();
+            EpollEventLoop.Registration registration =
+                    loop.register(pipe[0], EPOLLIN, (r, events) -> received.add(events));
+            assertEquals(0, loop.runOnce(0));
+            assertTrue(received.isEmpty());
+
+            Os.write(pipe[1], new byte[] { 1 }, 0, 1);
+            assertEquals(1, loop.runOnce(1000));
+            assertEquals(1, received.size());
+            assertEquals(EPOLLIN, received.get(0) & EPOLLIN);
+
+            registration.cancel();
+            assertTrue(registration.isCancelled());
+            assertEquals(0, loop.runOnce(0));
+            assertEquals(1, received.size());
+        } finally {
+            IoUtils.closeQuietly(pipe[0]);
+            IoUtils.closeQuietly(pipe[1]);
+        }
+    }
+
+    public void testSetEvents() throws Exception {
+        FileDescriptor[] pipe = Os.pipe2(0);
+        try (EpollEventLoop loop = new EpollEventLoop(8)) {
+            final List<Integer> received = new ArrayList<>();
+            EpollEventLoop.Registration registration =
+                    loop.register(pipe[1], 0, (r, events) -> received.add(events));
+            assertEquals(0, loop.runOnce(0));
+
+            registration.setEvents(EPOLLOUT);
+            assertEquals(EPOLLOUT, registration.getEvents());
+            assertEquals(1, loop.runOnce(1000));
+            assertEquals(EPOLLOUT, received.get(0) & EPOLLOUT);
+        } finally {
+            IoUtils.closeQuietly(pipe[0]);
+            IoUtils.closeQuietly(pipe[1]);
+        }
+    }
+
+    public void testCancelDuringDispatchDropsPendingEvents() throws Exception {
+        FileDescriptor[] pipeA = Os.pipe2(0);
+        FileDescriptor[] pipeB = Os.pipe2(0);
+        try (EpollEventLoop loop = new EpollEventLoop(8)) {
+            final List<EpollEventLoop.Registration> registrations = new ArrayList<>();
+            final List<EpollEventLoop.Registration> dispatched = new ArrayList<>();
+            EpollEventLoop.Handler handler = (r, events) -> {
+                dispatched.add(r);
+                // Whichever registration runs first cancels both.
+                for (EpollEventLoop.Registration each : registrations) {
+                    each.cancel();
+                }
+            };
+            registrations.add(loop.register(pipeA[0], EPOLLIN, handler));
+            registrations.add(loop.register(pipeB[0], EPOLLIN, handler));
+            Os.write(pipeA[1], new byte[] { 1 }, 0, 1);
+            Os.write(pipeB[1], new byte[] { 1 }, 0, 1);
+
+            assertEquals(2, loop.runOnce(1000));
+            assertEquals(1, dispatched.size());
+        } finally {
+            IoUtils.closeQuietly(pipeA[0]);
+            IoUtils.closeQuietly(pipeA[1]);
+            IoUtils.closeQuietly(pipeB[0]);
+            IoUtils.closeQuietly(pipeB[1]);
+        }
+    }
+
+    public void testConstructorRejectsNonPositiveMaxEvents() throws Exception {
+        try {
+            new EpollEventLoop(0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -22,11 +22,14 @@ import android.system.ErrnoException;
 import android.system.OsConstants;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import libcore.io.BufferIterator;
 import libcore.io.MemoryMappedFile;
@@ -645,6 +648,139 @@ public class MemoryMappedFileTest extends TestCase {
         assertEquals(posBefore + 1, iterator.pos());
     }
 
+    public void testAbsoluteGets() throws Exception {
+        byte[] bytes = createBytes(16);
+        File file = createFile(bytes);
+        try (MemoryMappedFile mmf = MemoryMappedFile.mmapRO(file.getPath())) {
+            assertEquals(16L, mmf.length());
+            assertFalse(mmf.isWritable());
+            assertEquals(3, mmf.getByte(3));
+            assertEquals(0x0102, mmf.getShort(1));
+            assertEquals(0x0201, mmf.getShort(1, ByteOrder.LITTLE_ENDIAN));
+            assertEquals(0x04050607, mmf.getInt(4));
+            assertEquals(0x07060504, mmf.getInt(4, ByteOrder.LITTLE_ENDIAN));
+            assertEquals(0x08090a0b0c0d0e0fL, mmf.getLong(8));
+            assertEquals(0x0f0e0d0c0b0a0908L, mmf.getLong(8, ByteOrder.LITTLE_ENDIAN));
+
+            byte[] dst = new byte[6];
+            mmf.get(12, dst, 1, 4);
+            assertArrayEquals(new byte[] { 0, 12, 13, 14, 15, 0 }, dst);
+
+            try {
+                mmf.getLong(9);
+                fail();
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                mmf.getByte(-1);
+                fail();
+            } catch (IndexOutOfBoundsException expected) {
+            }
+            try {
+                mmf.putByte(0, (byte) 1);
+                fail();
+            } catch (IllegalStateException expected) {
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testAbsoluteGetAfterCloseFails() throws Exception {
+        File file = createFile(createBytes(10));
+        MemoryMappedFile mmf = MemoryMappedFile.mmapRO(file.getPath());
+        mmf.close();
+        try {
+            mmf.getInt(0);
+            fail();
+        } catch (IllegalStateException expected) {
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testMmapRW() throws Exception {
+        File file = createFile(createBytes(16));
+        try (MemoryMappedFile mmf = MemoryMappedFile.mmapRW(file.getPath())) {
+            assertTrue(mmf.isWritable());
+            mmf.putInt(0, 0x11223344);
+            mmf.putLong(4, 0x5566778899aabbccL, ByteOrder.LITTLE_ENDIAN);
+            mmf.put(12, new byte[] { 9, 8, 7, 6 }, 1, 3);
+            mmf.putByte(15, (byte) 0x7f);
+            mmf.msync(0, mmf.length(), true);
+        }
+
+        byte[] expected = {
+                0x11, 0x22, 0x33, 0x44,
+                (byte) 0xcc, (byte) 0xbb, (byte) 0xaa, (byte) 0x99, (byte) 0x88, 0x77, 0x66, 0x55,
+                8, 7, 6, 0x7f };
+        assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+        file.delete();
+    }
+
+    public void testMmap_unalignedOffset() throws Exception {
+        byte[] bytes = createBytes(100);
+        File file = createFile(bytes);
+        try (FileInputStream fis = new FileInputStream(file);
+             MemoryMappedFile mmf = MemoryMappedFile.mmap(fis.getFD(), 37, 20, false)) {
+            assertEquals(20L, mmf.length());
+            assertEquals(37, mmf.getByte(0));
+            assertEquals(56, mmf.getByte(19));
+            try {
+                mmf.getByte(20);
+                fail();
+            } catch (IndexOutOfBoundsException expected) {
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testMadviseAndResidentBytes() throws Exception {
+        File file = createFile(createBytes(100));
+        try (MemoryMappedFile mmf = MemoryMappedFile.mmapRO(file.getPath())) {
+            mmf.madvise(0, mmf.length(), OsConstants.MADV_WILLNEED);
+            mmf.madvise(10, 20, OsConstants.MADV_SEQUENTIAL);
+            // Touch the data so that it is resident.
+            assertEquals(99, mmf.getByte(99));
+            assertEquals(100L, mmf.residentBytes(0, mmf.length()));
+            assertEquals(0L, mmf.residentBytes(50, 0));
+        } finally {
+            file.delete();
+        }
+    }
+
+    public void testConcurrentReads() throws Exception {
+        final int size = 64 * 1024;
+        byte[] bytes = createBytes(size);
+        File file = createFile(bytes);
+        try (MemoryMappedFile mmf = MemoryMappedFile.mmapRO(file.getPath())) {
+            Thread[] threads = new Thread[4];
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            for (int t = 0; t < threads.length; t++) {
+                final int seed = t;
+                threads[t] = new Thread(() -> {
+                    try {
+                        for (int i = seed; i < size; i += threads.length) {
+                            if (mmf.getByte(i) != (byte) i) {
+                                throw new AssertionError("Mismatch at " + i);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertNull(failure.get());
+        } finally {
+            file.delete();
+        }
+    }
+
     private static void assertArrayEquals(int[] expected, int[] actual) {
         assertEquals(Arrays.toString(expected), Arrays.toString(actual));
     }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.io;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import libcore.io.ParallelDeflaterOutputStream;
+
+public class ParallelDeflaterOutputStreamTest extends TestCase {
+
+    private ForkJoinPool pool;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        pool = new ForkJoinPool(4);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        pool.shutdown();
+        super.tearDown();
+    }
+
+    public void testRoundTrip() throws Exception {
+        int blockSize = 1000;
+        for (int length : new int[] { 0, 1, blockSize - 1, blockSize, blockSize + 1, 50000 }) {
+            for (byte[] data : new byte[][] { randomBytes(length), textBytes(length) }) {
+                for (boolean gzip : new boolean[] { true, false }) {
+                    for (int level : new int[] { 0, 1, Deflater.DEFAULT_COMPRESSION, 9 }) {
+                        byte[] compressed = compress(data, gzip, level, blockSize, -1);
+                        assertTrue(length + " " + gzip + " " + level,
+                                Arrays.equals(data, decompress(compressed, gzip)));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testWriteInPieces() throws Exception {
+        byte[] data = textBytes(100000);
+        for (int piece : new int[] { 1, 7, 4096 }) {
+            byte[] compressed = compress(data, true, Deflater.DEFAULT_COMPRESSION, 3000, piece);
+            assertTrue(Arrays.equals(data, decompress(compressed, true)));
+        }
+    }
+
+    public void testDictionaryKeepsRatio() throws Exception {
+        // Each block repeats the previous one, so it compresses to almost nothing
+        // when the previous block is its dictionary.
+        byte[] data = new byte[64 * 1024];
+        byte[] block = randomBytes(16 * 1024);
+        for (int i = 0; i < data.length; i += block.length) {
+            System.arraycopy(block, 0, data, i, block.length);
+        }
+        byte[] compressed = compress(data, false, Deflater.DEFAULT_COMPRESSION, 16 * 1024, -1);
+        assertTrue(Arrays.equals(data, decompress(compressed, false)));
+        assertTrue(compressed.length < 2 * block.length);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(expected)) {
+            out.write(data);
+        }
+        assertTrue(compressed.length < expected.size() + 1024);
+    }
+
+    public void testFlush() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ParallelDeflaterOutputStream out = new ParallelDeflaterOutputStream(
+                bytes, true, Deflater.DEFAULT_COMPRESSION, 1 << 20, pool);
+        byte[] data = textBytes(5000);
+        out.write(data);
+        out.flush();
+        // Everything written so far can be decompressed.
+        GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        byte[] actual = new byte[data.length];
+        int count = 0;
+        while (count < actual.length) {
+            count += in.read(actual, count, actual.length - count);
+        }
+        assertTrue(Arrays.equals(data, actual));
+
+        out.write(data);
+        out.close();
+        byte[] twice = new byte[data.length * 2];
+        System.arraycopy(data, 0, twice, 0, data.length);
+        System.arraycopy(data, 0, twice, data.length, data.length);
+        assertTrue(Arrays.equals(twice, decompress(bytes.toByteArray(), true)));
+    }
+
+    public void testWriteAfterFinish() throws Exception {
+        ParallelDeflaterOutputStream out =
+                new ParallelDeflaterOutputStream(new ByteArrayOutputStream(), true);
+        out.finish();
+        try {
+            out.write(1);
+            fail();
+        } catch (IOException expected) {
+        }
+        out.close();
+        out.close();
+    }
+
+    public void testInvalidArguments() {
+        try {
+            new ParallelDeflaterOutputStream(new ByteArrayOutputStream(), true, 10, 1000, pool);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new ParallelDeflaterOutputStream(new ByteArrayOutputStream(), true, 1, 0, pool);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private byte[] compress(byte[] data, boolean gzip, int level, int blockSize, int piece)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ParallelDeflaterOutputStream out =
+                new ParallelDeflaterOutputStream(bytes, gzip, level, blockSize, pool)) {
+            if (piece < 0) {
+                out.write(data);
+            } else {
+                for (int i = 0; i < data.length; i += piece) {
+                    out.write(data, i, Math.min(piece, data.length - i));
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] decompress(byte[] compressed, boolean gzip) throws IOException {
+        // Both streams check the trailer's checksum.
+        InputStream in = new ByteArrayInputStream(compressed);
+        in = gzip ? new GZIPInputStream(in) : new InflaterInputStream(in);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1) {
+            out.write(buffer, 0, count);
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] textBytes(int length) {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(length);
+        while (text.length() < length) {
+            text.append("line ").append(random.nextInt(1000)).append(" of the log\n");
+        }
+        return Arrays.copyOf(text.toString().getBytes(), length);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.TestCase;
+
+import libcore.util.CompiledDateFormat;
+
+public final class CompiledDateFormatTest extends TestCase {
+
+    private static final String[] PATTERNS = {
+        "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+        "EEE, dd MMM yyyy HH:mm:ss zzz",
+        "dd/MMM/yyyy:HH:mm:ss Z",
+        "h:mm a",
+        "S",
+        "SSSS",
+        "'quoted ''S''' SS''SSSSS",
+        "yyyyy.MMMMM.dd GGG hh:mm aaa",
+        "w W F u D k K",
+        "",
+    };
+
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        Locale.GERMANY,
+        Locale.JAPAN,
+        Locale.forLanguageTag("ar-EG"),
+        Locale.forLanguageTag("hi-IN-u-nu-deva"),
+    };
+
+    private static final TimeZone[] ZONES = {
+        TimeZone.getTimeZone("UTC"),
+        TimeZone.getTimeZone("America/Los_Angeles"),
+        TimeZone.getTimeZone("Asia/Kolkata"),
+        TimeZone.getTimeZone("Europe/Amsterdam"),
+        // An offset that isn't a whole number of seconds.
+        new SimpleTimeZone(1234, "Odd"),
+    };
+
+    public void testSameOutputAsSimpleDateFormat() {
+        Random random = new Random(0);
+        char[] chars = new char[100];
+        for (String pattern : PATTERNS) {
+            for (Locale locale : LOCALES) {
+                for (TimeZone zone : ZONES) {
+                    SimpleDateFormat sdf = new SimpleDateFormat(pattern, locale);
+                    sdf.setTimeZone(zone);
+                    CompiledDateFormat format = CompiledDateFormat.compile(sdf);
+                    long base = random.nextLong() % 6000000000000L;
+                    for (int i = 0; i < 300; i++) {
+                        // Instants from year -1900 to 3900, and runs of close ones.
+                        long millis = (i % 3 == 0)
+                                ? random.nextLong() % 60000000000000L
+                                : base + i * 37L - (i % 2) * 5000;
+                        String expected = sdf.format(new Date(millis));
+                        String message = pattern + " " + locale + " " + zone.getID() + " " + millis;
+                        assertEquals(message, expected, format.format(millis));
+                        int end = format.format(millis, chars, 3);
+                        assertEquals(message, expected, new String(chars, 3, end - 3));
+                    }
+                }
+            }
+        }
+    }
+
+    public void testAroundTransition() {
+        TimeZone zone = TimeZone.getTimeZone("America/Los_Angeles");
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS zzz", Locale.US);
+        sdf.setTimeZone(zone);
+        CompiledDateFormat format = CompiledDateFormat.compile(sdf);
+        // 2020-03-08T10:00:00Z, when Pacific Daylight Time started.
+        long transition = 1583661600000L;
+        StringBuilder sb = new StringBuilder();
+        for (long millis = transition - 3000; millis < transition + 3000; millis += 7) {
+            sb.setLength(0);
+            assertEquals(sdf.format(new Date(millis)), format.format(millis, sb).toString());
+        }
+    }
+
+    public void testIndependentOfSimpleDateFormat() {
+        SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss.SSS", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        CompiledDateFormat format = CompiledDateFormat.compile(sdf);
+        sdf.applyPattern("yyyy");
+        sdf.setTimeZone(TimeZone.getTimeZone("Asia/Tokyo"));
+        assertEquals("00:00:01.234", format.format(1234));
+        assertEquals("HH:mm:ss.SSS", format.toPattern());
+        assertEquals("UTC", format.getTimeZone().getID());
+    }
+
+    public void testAppends() {
+        CompiledDateFormat format =
+                CompiledDateFormat.compile("mm:ss.SSS", Locale.US, TimeZone.getTimeZone("UTC"));
+        StringBuilder sb = new StringBuilder("[");
+        assertSame(sb, format.format(61990, sb));
+        assertEquals("[01:01.990", sb.toString());
+
+        char[] chars = new char[10];
+        assertEquals(10, format.format(61990, chars, 1));
+        assertEquals("01:01.990", new String(chars, 1, 9));
+        try {
+            format.format(61990, chars, 2);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    public void testConcurrentUse() throws Exception {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS zzz", Locale.US);
+        sdf.setTimeZone(TimeZone.getTimeZone("Europe/London"));
+        final CompiledDateFormat format = CompiledDateFormat.compile(sdf);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final SimpleDateFormat expected = (SimpleDateFormat) sdf.clone();
+                final long start = 1700000000000L + thread * 3000;
+                results.add(executor.submit(() -> {
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < 20000; i++) {
+                        // Spans more seconds than are cached, on every thread.
+                        long millis = start + (i * 7L) % 20000;
+                        sb.setLength(0);
+                        assertEquals(expected.format(new Date(millis)),
+                                format.format(millis, sb).toString());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import junit.framework.TestCase;
+
+import libcore.util.CompiledNumberFormat;
+
+public final class CompiledNumberFormatTest extends TestCase {
+
+    // The locales of DecimalFormatBenchmark, and some with other digits and grouping.
+    private static final Locale[] LOCALES = {
+        Locale.US,
+        Locale.FRANCE,
+        Locale.GERMANY,
+        Locale.forLanguageTag("ar-EG"),
+        Locale.forLanguageTag("hi-IN"),
+        Locale.forLanguageTag("fa-IR"),
+    };
+
+    private static final String[] PATTERNS = {
+        "##E0",
+        "#,##0.###",
+        "#,##,##0.00",
+        "0000.0#",
+        "#.##",
+        "'#'#,##0;'neg' #,##0",
+        "#,##0.05",
+        "@@@",
+        "#,##0%",
+        "\u00a4#,##0.00",
+        "#0.#########",
+    };
+
+    public void testSameOutputAsDecimalFormat() {
+        for (Locale locale : LOCALES) {
+            List<DecimalFormat> formats = new ArrayList<>();
+            formats.add((DecimalFormat) NumberFormat.getInstance(locale));
+            formats.add((DecimalFormat) NumberFormat.getIntegerInstance(locale));
+            formats.add((DecimalFormat) NumberFormat.getCurrencyInstance(locale));
+            formats.add((DecimalFormat) NumberFormat.getPercentInstance(locale));
+            for (String pattern : PATTERNS) {
+                formats.add(new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale)));
+            }
+            for (DecimalFormat format : formats) {
+                assertSameOutput(locale, format);
+            }
+        }
+    }
+
+    public void testRoundingModes() {
+        for (RoundingMode mode : new RoundingMode[] {
+                RoundingMode.HALF_UP, RoundingMode.DOWN, RoundingMode.CEILING }) {
+            DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(Locale.US);
+            format.setRoundingMode(mode);
+            assertSameOutput(Locale.US, format);
+        }
+    }
+
+    private static void assertSameOutput(Locale locale, DecimalFormat format) {
+        CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+        Random random = new Random(0);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            long l = random.nextLong() >> random.nextInt(64);
+            String message = locale + " " + format.toPattern() + " " + l;
+            assertEquals(message, format.format(l), compiled.format(l));
+
+            double d;
+            switch (i % 4) {
+                case 0:
+                    d = random.nextDouble() * Math.pow(10, random.nextInt(16) - 4);
+                    break;
+                case 1:
+                    // Ties and near ties of two fraction digits.
+                    d = random.nextInt(100000) / 1000.0 + 0.005;
+                    break;
+                case 2:
+                    d = random.nextInt(1000000) / 100.0;
+                    break;
+                default:
+                    d = random.nextGaussian() * 1e9;
+                    break;
+            }
+            if (random.nextBoolean()) {
+                d = -d;
+            }
+            message = locale + " " + format.toPattern() + " " + d;
+            sb.setLength(0);
+            sb.append('[');
+            assertEquals(message, "[" + format.format(d), compiled.format(d, sb).toString());
+        }
+        for (double d : new double[] {0.0, -0.0, -0.0001, Double.NaN,
+                Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.MAX_VALUE}) {
+            assertEquals(locale + " " + d, format.format(d), compiled.format(d));
+        }
+        for (long l : new long[] {Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertEquals(locale + " " + l, format.format(l), compiled.format(l));
+        }
+    }
+
+    public void testIndependentOfDecimalFormat() {
+        DecimalFormat format = (DecimalFormat) NumberFormat.getInstance(Locale.US);
+        CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+        format.applyPattern("0.0000");
+        format.setGroupingUsed(false);
+        assertEquals("1,234,567.891", compiled.format(1234567.8912));
+        assertEquals("#,##0.###", compiled.toPattern());
+    }
+
+    public void testCompilePattern() {
+        CompiledNumberFormat compiled = CompiledNumberFormat.compile("#,##0.00", Locale.GERMANY);
+        assertEquals("1.234,50", compiled.format(1234.5));
+        assertEquals("-7,00", compiled.format(-7L));
+    }
+
+    public void testConcurrentUse() throws Exception {
+        final DecimalFormat format = (DecimalFormat) NumberFormat.getCurrencyInstance(Locale.US);
+        final CompiledNumberFormat compiled = CompiledNumberFormat.compile(format);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final DecimalFormat expected = (DecimalFormat) format.clone();
+                final int seed = thread;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    StringBuilder sb = new StringBuilder();
+                    for (int i = 0; i < 20000; i++) {
+                        // Ties go to the DecimalFormat.
+                        double d = random.nextInt(1000000) / 1000.0;
+                        sb.setLength(0);
+                        assertEquals(expected.format(d), compiled.format(d, sb).toString());
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import junit.framework.TestCase;
+
+import libcore.util.ConcurrentLruCache;
+import libcore.util.ConcurrentLruCache.Policy;
+
+public final class ConcurrentLruCacheTest extends TestCase {
+
+    public void testCreateOnCacheMiss() {
+        ConcurrentLruCache<String, String> cache = newCreatingCache();
+        String created = cache.get("aa");
+        assertEquals("created-aa", created);
+        assertEquals(0, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    public void testNoCreateOnCacheHit() {
+        ConcurrentLruCache<String, String> cache = newCreatingCache();
+        cache.put("aa", "put-aa");
+        assertEquals("put-aa", cache.get("aa"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1.0, cache.hitRate());
+    }
+
+    public void testConstructorDoesNotAllowZeroCacheSize() {
+        try {
+            new ConcurrentLruCache<String, String>(0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    public void testCannotPutNullKey() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3);
+        try {
+            cache.put(null, "A");
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testCannotPutNullValue() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3);
+        try {
+            cache.put("a", null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    public void testEvictionWithSingletonCache() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(1);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertSnapshot(cache, "b", "B");
+        assertEquals(1, cache.evictionCount());
+    }
+
+    public void testEntryEvictedWhenFull() {
+        List<String> expectedEvictionLog = new ArrayList<String>();
+        final List<String> evictionLog = new ArrayList<String>();
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3) {
+            @Override protected void entryEvicted(String key, String value) {
+                evictionLog.add(key + "=" + value);
+            }
+        };
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        assertEquals(expectedEvictionLog, evictionLog);
+
+        cache.put("d", "D");
+        expectedEvictionLog.add("a=A");
+        assertEquals(expectedEvictionLog, evictionLog);
+    }
+
+    public void testReadsAffectEvictionOrder() {
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.get("a");
+        cache.put("d", "D");
+        assertSnapshot(cache, "c", "C", "a", "A", "d", "D");
+    }
+
+    public void testPutDoesNotCauseEviction() {
+        final List<String> evictionLog = new ArrayList<String>();
+        List<String> expectedEvictionLog = new ArrayList<String>();
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(3) {
+            @Override protected void entryEvicted(String key, String value) {
+                evictionLog.add(key + "=" + value);
+            }
+        };
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.put("b", "B2");
+        assertEquals(expectedEvictionLog, evictionLog);
+        assertSnapshot(cache, "a", "A", "c", "C", "b", "B2");
+    }
+
+    public void testEvictAll() {
+        final List<String> evictionLog = new ArrayList<String>();
+        ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<String, String>(10) {
+            @Override protected void entryEvicted(String key, String value) {
+                evictionLog.add(key + "=" + value);
+            }
+        };
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.put("c", "C");
+        cache.evictAll();
+        assertSnapshot(cache);
+        assertEquals(Arrays.asList("a=A", "b=B", "c=C"), evictionLog);
+    }
+
+    public void testWeightedSize() {
+        ConcurrentLruCache<String, String> cache =
+                new ConcurrentLruCache<String, String>(10, Policy.LRU, 0) {
+            @Override protected int sizeOf(String key, String value) {
+                return value.length();
+            }
+        };
+        cache.put("a", "AAAA");
+        cache.put("b", "BBBB");
+        cache.put("c", "CC");
+        assertSnapshot(cache, "a", "AAAA", "b", "BBBB", "c", "CC");
+        cache.put("d", "D");
+        assertSnapshot(cache, "b", "BBBB", "c", "CC", "d", "D");
+    }
+
+    public void testExpiry() throws Exception {
+        final List<String> evictionLog = new ArrayList<String>();
+        ConcurrentLruCache<String, String> cache =
+                new ConcurrentLruCache<String, String>(10, Policy.LRU, 1000000L) {
+            @Override protected void entryEvicted(String key, String value) {
+                evictionLog.add(key + "=" + value);
+            }
+        };
+        cache.put("a", "A");
+        Thread.sleep(10);
+        assertNull(cache.get("a"));
+        assertEquals(Arrays.asList("a=A"), evictionLog);
+        assertSnapshot(cache);
+    }
+
+    public void testTinyLfuKeepsFrequentEntriesDuringScan() {
+        ConcurrentLruCache<String, String> cache =
+                new ConcurrentLruCache<String, String>(100, Policy.TINY_LFU, 0);
+        for (int i = 0; i < 50; i++) {
+            cache.put("hot" + i, "H");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertEquals("H", cache.get("hot" + i));
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            cache.put("cold" + i, "C");
+        }
+        Map<String, String> snapshot = cache.snapshot();
+        assertTrue(snapshot.size() <= 100);
+        for (int i = 0; i < 50; i++) {
+            assertTrue("hot" + i, snapshot.containsKey("hot" + i));
+        }
+    }
+
+    public void testTinyLfuAdmitsCandidatesByFrequency() {
+        ConcurrentLruCache<String, String> cache =
+                new ConcurrentLruCache<String, String>(100, Policy.TINY_LFU, 0);
+        for (int i = 0; i < 100; i++) {
+            cache.put("k" + i, "V");
+        }
+        // k99 leaves the window, and isn't requested more often than k0, the main space's
+        // least recently used entry.
+        for (int i = 0; i < 3; i++) {
+            cache.put("a", "A");
+        }
+        // a is requested more often than k0, so it's admitted and k0 is evicted.
+        cache.put("b", "B");
+        // b isn't requested more often than k1.
+        cache.put("c", "C");
+        Map<String, String> snapshot = cache.snapshot();
+        assertFalse(snapshot.containsKey("k99"));
+        assertTrue(snapshot.containsKey("a"));
+        assertFalse(snapshot.containsKey("k0"));
+        assertFalse(snapshot.containsKey("b"));
+        assertTrue(snapshot.containsKey("k1"));
+        assertTrue(snapshot.containsKey("c"));
+        assertEquals(100, snapshot.size());
+    }
+
+    public void testConcurrentAccess() throws Exception {
+        final ConcurrentLruCache<Integer, String> cache =
+                new ConcurrentLruCache<Integer, String>(64) {
+            @Override protected String create(Integer key) {
+                return key.toString();
+            }
+        };
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    Integer key = (i * 31 + seed) % 100;
+                    assertEquals(key.toString(), cache.get(key));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000, cache.hitCount() + cache.missCount());
+        assertTrue(cache.snapshot().size() <= 64);
+    }
+
+    private ConcurrentLruCache<String, String> newCreatingCache() {
+        return new ConcurrentLruCache<String, String>(3) {
+            @Override protected String create(String key) {
+                return (key.length() > 1) ? ("created-" + key) : null;
+            }
+        };
+    }
+
+    private <T> void assertSnapshot(ConcurrentLruCache<T, T> cache, T... keysAndValues) {
+        List<T> actualKeysAndValues = new ArrayList<T>();
+        for (Map.Entry<T, T> entry : cache.snapshot().entrySet()) {
+            actualKeysAndValues.add(entry.getKey());
+            actualKeysAndValues.add(entry.getValue());
+        }
+
+        // assert using lists because order is important for LRUs
+        assertEquals(Arrays.asList(keysAndValues), actualKeysAndValues);
+    }
+}
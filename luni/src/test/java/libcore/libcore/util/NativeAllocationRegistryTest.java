@@ -171,6 +171,88 @@ public class NativeAllocationRegistryTest extends TestCase {
         Runtime.getRuntime().gc();
     }
 
+    public void testOutstandingBytes() {
+        if (isNativeBridgedABI()) {
+            // See the explanation in testNativeAllocation.
+            System.logI("Skipping test for native bridged ABI");
+            return;
+        }
+        long size = 1000;
+        NativeAllocationRegistry registry
+            = NativeAllocationRegistry.createNonmalloced(classLoader, getNativeFinalizer(), size);
+        assertEquals(0, registry.getOutstandingAllocationCount());
+
+        Object referent = new Object();
+        Runnable cleaner1 = registry.registerNativeAllocation(referent, doNativeAllocation(size));
+        Runnable cleaner2 = registry.registerNativeAllocation(referent, doNativeAllocation(size));
+        assertEquals(2, registry.getOutstandingAllocationCount());
+        assertEquals(2 * size, registry.getOutstandingBytes());
+
+        cleaner1.run();
+        assertEquals(1, registry.getOutstandingAllocationCount());
+        assertEquals(size, registry.getOutstandingBytes());
+        cleaner1.run();
+        assertEquals(1, registry.getOutstandingAllocationCount());
+
+        cleaner2.run();
+        assertEquals(0, registry.getOutstandingAllocationCount());
+        assertEquals(0, registry.getOutstandingBytes());
+    }
+
+    public void testRegisterNativeAllocations() {
+        if (isNativeBridgedABI()) {
+            // See the explanation in testNativeAllocation.
+            System.logI("Skipping test for native bridged ABI");
+            return;
+        }
+        long size = 100;
+        int count = 10;
+        NativeAllocationRegistry registry
+            = NativeAllocationRegistry.createMalloced(classLoader, getNativeFinalizer(), size);
+        Object[] referents = new Object[count];
+        long[] nativePtrs = new long[count];
+        for (int i = 0; i < count; i++) {
+            referents[i] = new Object();
+            nativePtrs[i] = doNativeAllocation(size);
+        }
+        long numBytesAllocatedBefore = getNumNativeBytesAllocated();
+
+        Runnable[] cleaners = registry.registerNativeAllocations(referents, nativePtrs);
+        assertEquals(count, cleaners.length);
+        assertEquals(count, registry.getOutstandingAllocationCount());
+
+        for (int i = 0; i < count; i++) {
+            cleaners[i].run();
+            assertEquals(numBytesAllocatedBefore - (i + 1) * size, getNumNativeBytesAllocated());
+        }
+        assertEquals(0, registry.getOutstandingAllocationCount());
+    }
+
+    public void testRegisterNativeAllocationsBadArguments() {
+        final NativeAllocationRegistry registry
+            = new NativeAllocationRegistry(classLoader, getNativeFinalizer(), 1024);
+        final long fakeNativePtr = 0x1;
+
+        assertThrowsIllegalArgumentException(new Runnable() {
+            public void run() {
+                registry.registerNativeAllocations(new Object[] { new Object() },
+                        new long[] { fakeNativePtr, fakeNativePtr });
+            }
+        });
+        assertThrowsIllegalArgumentException(new Runnable() {
+            public void run() {
+                registry.registerNativeAllocations(new Object[] { null },
+                        new long[] { fakeNativePtr });
+            }
+        });
+        assertThrowsIllegalArgumentException(new Runnable() {
+            public void run() {
+                registry.registerNativeAllocations(new Object[] { new Object() },
+                        new long[] { 0 });
+            }
+        });
+    }
+
     public void testNullArguments() {
         final NativeAllocationRegistry registry
             = new NativeAllocationRegistry(classLoader, getNativeFinalizer(), 1024);
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.libcore.util;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.Field;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import junit.framework.TestCase;
+
+import libcore.util.StreamingMatcher;
+
+public final class StreamingMatcherTest extends TestCase {
+
+    private static final String[] REGEXES = {
+        "\\d+",
+        "[a-z]+@[a-z]+\\.com",
+        "\\bfoo\\b",
+        "(?<=x)y+",
+        "^line \\d+$",
+        "(?m)^line \\d+$",
+        "a*",
+        "(\\w+)=(\\w*)",
+        "end$",
+        "(?s)<<.*?>>",
+    };
+
+    public void testMatchesFullInputMatcher() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            input.append("line ").append(i).append('\n')
+                    .append("mail bob@example.com foo food xyyy k=v k2= aaa\n")
+                    .append("<<multi\nline ").append(i * 7919).append(">>\n");
+        }
+        input.append("the end");
+        String text = input.toString();
+        for (String regex : REGEXES) {
+            Pattern pattern = Pattern.compile(regex);
+            // Matches may be missed if they are longer than the window.
+            for (int windowSize : new int[] { 32, 64, 100, 8192 }) {
+                assertSameMatches(pattern, text, new StringReader(text), windowSize);
+                // A reader that returns a few characters at a time.
+                assertSameMatches(pattern, text, new StringReader(text) {
+                    @Override public int read(char[] buf, int off, int len)
+                            throws java.io.IOException {
+                        return super.read(buf, off, Math.min(len, 3));
+                    }
+                }, windowSize);
+            }
+        }
+    }
+
+    public void testCharBufferInput() throws Exception {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            input.append(i).append(',');
+        }
+        StreamingMatcher m = new StreamingMatcher(Pattern.compile("\\d+"),
+                CharBuffer.wrap(input), 256);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(m.find());
+            assertEquals(Integer.toString(i), m.group());
+        }
+        assertFalse(m.find());
+    }
+
+    public void testGroups() throws Exception {
+        StreamingMatcher m = new StreamingMatcher(Pattern.compile("(a)|(b)"),
+                new StringReader("xxab"), 2);
+        assertEquals(2, m.groupCount());
+        assertTrue(m.find());
+        assertEquals(2, m.start());
+        assertEquals(3, m.end());
+        assertEquals("a", m.group(1));
+        assertNull(m.group(2));
+        assertEquals(-1, m.start(2));
+        assertTrue(m.find());
+        assertEquals(3, m.start(2));
+        assertEquals(4, m.end(2));
+        assertFalse(m.find());
+        try {
+            m.group();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    public void testEmptyInput() throws Exception {
+        StreamingMatcher m = new StreamingMatcher(Pattern.compile("x*"), new StringReader(""));
+        assertTrue(m.find());
+        assertEquals(0, m.start());
+        assertEquals("", m.group());
+        assertFalse(m.find());
+    }
+
+    public void testLargeInputWithoutMatchesKeepsTheWindowBounded() throws Exception {
+        // Searching for digits in letters hits the end of every window without a match.
+        final int length = 4 * 1024 * 1024;
+        Readable letters = new Readable() {
+            private int remaining = length;
+
+            @Override public int read(CharBuffer cb) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                int count = Math.min(remaining, cb.remaining());
+                for (int i = 0; i < count; i++) {
+                    cb.put(remaining - i == 1 ? '1' : 'x');
+                }
+                remaining -= count;
+                return count;
+            }
+        };
+        StreamingMatcher m = new StreamingMatcher(Pattern.compile("\\d+"), letters, 256);
+        assertTrue(m.find());
+        assertEquals(length - 1, m.start());
+        assertEquals("1", m.group());
+        assertFalse(m.find());
+        Field buffer = StreamingMatcher.class.getDeclaredField("buffer");
+        buffer.setAccessible(true);
+        assertTrue(((char[]) buffer.get(m)).length <= 4 * 256);
+    }
+
+    public void testInvalidWindowSize() {
+        try {
+            new StreamingMatcher(Pattern.compile("a"), new StringReader(""), 0);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private static void assertSameMatches(Pattern pattern, String text, Reader reader,
+            int windowSize) throws Exception {
+        List<String> expected = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            expected.add(matcher.start() + "-" + matcher.end() + ":" + matcher.group());
+        }
+        List<String> actual = new ArrayList<>();
+        StreamingMatcher streaming = new StreamingMatcher(pattern, reader, windowSize);
+        while (streaming.find()) {
+            actual.add(streaming.start() + "-" + streaming.end() + ":" + streaming.group());
+        }
+        assertEquals(pattern + " window " + windowSize, expected, actual);
+    }
+}
@@ -22,6 +22,8 @@ import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.nio.ByteBuffer;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.TimeZone;
 
 import libcore.timezone.testing.ZoneInfoTestHelper;
@@ -85,6 +87,64 @@ public class ZoneInfoTest extends TestCase {
     }
   }
 
+  /**
+   * Checks that the offsets cached for the period an instant is in match {@link ZoneInfoData}
+   * around each transition, whatever order instants are looked up in.
+   */
+  public void testOffsetLookup_matchesZoneInfoData() throws Exception {
+    long[][] transitions = {
+        { -5000, 0 },
+        { -2000, 1 },
+        { -1999, 0 },
+        { 0, 2 },
+    };
+    int[][] types = {
+        { 3600, 0 },
+        { 1800, 1 },
+        { 5400, 0 }
+    };
+    ZoneInfoTestHelper.ZicDataBuilder builder =
+            new ZoneInfoTestHelper.ZicDataBuilder()
+                    .setTransitionsAndTypes(transitions, types);
+    ZoneInfoData data = ZoneInfoData.createZoneInfo("test", ByteBuffer.wrap(builder.build()));
+    ZoneInfo zoneInfo = ZoneInfo.createZoneInfo(data, 0);
+
+    long[] instants = new long[4 * 4001 + 2];
+    int count = 0;
+    for (long[] transition : transitions) {
+      for (long delta = -2000; delta <= 2000; delta++) {
+        instants[count++] = transition[0] * 1000 + delta;
+      }
+    }
+    instants[count++] = Long.MIN_VALUE;
+    instants[count++] = Long.MAX_VALUE;
+    for (int pass = 0; pass < 2; pass++) {
+      for (int i = 0; i < instants.length; i++) {
+        // Forwards, then backwards.
+        long when = instants[pass == 0 ? i : instants.length - 1 - i];
+        assertOffsets(data, zoneInfo, when);
+      }
+    }
+  }
+
+  public void testOffsetLookup_setRawOffset() {
+    TimeZone tz = TimeZone.getTimeZone("America/Los_Angeles");
+    long when = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+    assertEquals(-8 * 3600000, tz.getOffset(when));
+    tz.setRawOffset(-7 * 3600000);
+    assertEquals(-7 * 3600000, tz.getOffset(when));
+  }
+
+  private static void assertOffsets(ZoneInfoData data, ZoneInfo zoneInfo, long when) {
+    assertEquals(data.getOffset(when), zoneInfo.getOffset(when));
+    assertEquals(data.isInDaylightTime(when), zoneInfo.inDaylightTime(new Date(when)));
+    int[] expected = new int[2];
+    int[] actual = new int[2];
+    assertEquals(data.getOffsetsByUtcTime(when, expected),
+        zoneInfo.getOffsetsByUtcTime(when, actual));
+    assertTrue(Arrays.equals(expected, actual));
+  }
+
   private static Instant timeFromSeconds(long timeInSeconds) {
     return Instant.ofEpochSecond(timeInSeconds);
   }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package libcore.xml;
+
+import java.io.StringReader;
+import javax.xml.parsers.DocumentBuilderFactory;
+import junit.framework.TestCase;
+import org.w3c.dom.Attr;
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.DocumentType;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.w3c.dom.Text;
+import org.xml.sax.InputSource;
+
+/**
+ * Tests that compact read-only documents match the documents built by the
+ * default DOM.
+ */
+public class CompactDomTest extends TestCase {
+
+    private static final String COMPACT_READ_ONLY_DOM =
+            "http://android.com/xml/features/compact-read-only-dom";
+
+    private static final String XML = "<?xml version=\"1.0\"?>\n"
+            + "<!DOCTYPE menu PUBLIC \"-//foo//bar\" \"menu.dtd\">\n"
+            + "<!-- before -->\n"
+            + "<?pi before?>\n"
+            + "<menu xmlns=\"http://food\" xmlns:a=\"http://addons\">\n"
+            + "  <item id=\"1\" xmlns:b=\"http://b\" b:mark=\"x\">\n"
+            + "    <name a:standard=\"strawberry\" deluxe=\"&amp;\">Waffles &amp; "
+            + "<![CDATA[<syrup>]]> &#x1f600;</name>\n"
+            + "    <description xmlns=\"http://marketing\">Belgian<!-- c --><?pi data?>"
+            + "&foo;</description>\n"
+            + "    <a:option>whipped cream</a:option>\n"
+            + "  </item>\n"
+            + "  <item id=\"2\"><name>Pancakes</name><empty/></item>\n"
+            + "</menu>\n"
+            + "<!-- after -->";
+
+    public void testMatchesDefaultDom() throws Exception {
+        for (boolean namespaceAware : new boolean[] { false, true }) {
+            for (boolean coalescing : new boolean[] { false, true }) {
+                for (boolean ignoreComments : new boolean[] { false, true }) {
+                    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+                    factory.setNamespaceAware(namespaceAware);
+                    factory.setCoalescing(coalescing);
+                    factory.setIgnoringComments(ignoreComments);
+                    Document expected = parse(factory, XML);
+                    factory.setFeature(COMPACT_READ_ONLY_DOM, true);
+                    Document actual = parse(factory, XML);
+                    assertTrue(actual.isEqualNode(expected));
+                    assertSameTree(expected, actual);
+                }
+            }
+        }
+    }
+
+    public void testFeature() throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        assertFalse(factory.getFeature(COMPACT_READ_ONLY_DOM));
+        factory.setFeature(COMPACT_READ_ONLY_DOM, true);
+        assertTrue(factory.getFeature(COMPACT_READ_ONLY_DOM));
+    }
+
+    public void testNodeIdentityIsStable() throws Exception {
+        Document document = compact(true);
+        Element menu = document.getDocumentElement();
+        assertSame(menu, document.getElementsByTagName("menu").item(0));
+        Node item = menu.getElementsByTagName("item").item(0);
+        assertSame(item, item.getFirstChild().getParentNode());
+        Attr id = ((Element) item).getAttributeNode("id");
+        assertSame(id, item.getAttributes().getNamedItem("id"));
+        assertSame(item, id.getOwnerElement());
+        assertSame(document, menu.getOwnerDocument());
+        assertNull(document.getOwnerDocument());
+    }
+
+    public void testNavigation() throws Exception {
+        Document document = compact(true);
+        Element item = (Element) document.getElementsByTagName("item").item(1);
+        Node name = item.getFirstChild();
+        Node empty = item.getLastChild();
+        assertEquals("name", name.getNodeName());
+        assertEquals("empty", empty.getNodeName());
+        assertSame(empty, name.getNextSibling());
+        assertSame(name, empty.getPreviousSibling());
+        assertNull(name.getPreviousSibling());
+        assertNull(empty.getNextSibling());
+        assertFalse(empty.hasChildNodes());
+        assertEquals(0, empty.getChildNodes().getLength());
+        assertNull(empty.getChildNodes().item(0));
+        assertEquals("Pancakes", item.getTextContent());
+        assertEquals(2, item.getChildNodes().getLength());
+    }
+
+    public void testNamespaces() throws Exception {
+        Document document = compact(true);
+        Element menu = document.getDocumentElement();
+        assertEquals("http://food", menu.getNamespaceURI());
+        assertNull(menu.getPrefix());
+        assertEquals("menu", menu.getLocalName());
+        Element option = (Element) document.getElementsByTagNameNS("http://addons", "option")
+                .item(0);
+        assertEquals("a:option", option.getTagName());
+        assertEquals("a", option.getPrefix());
+        assertEquals(1, document.getElementsByTagNameNS("http://marketing", "*").getLength());
+        assertEquals(2, document.getElementsByTagNameNS("*", "name").getLength());
+        Element name = (Element) menu.getElementsByTagName("name").item(0);
+        assertEquals("strawberry", name.getAttributeNS("http://addons", "standard"));
+        assertEquals("strawberry", name.getAttribute("a:standard"));
+        assertEquals("", name.getAttribute("standard"));
+        assertTrue(name.hasAttributeNS(null, "deluxe"));
+        assertEquals("http://addons", name.lookupNamespaceURI("a"));
+        assertEquals("http://food", name.lookupNamespaceURI(null));
+        assertEquals("a", name.lookupPrefix("http://addons"));
+        assertTrue(name.isDefaultNamespace("http://food"));
+    }
+
+    public void testNoNamespaces() throws Exception {
+        Document document = compact(false);
+        Element option = (Element) document.getElementsByTagName("a:option").item(0);
+        assertEquals("a:option", option.getNodeName());
+        assertNull(option.getLocalName());
+        assertNull(option.getNamespaceURI());
+        assertEquals(0, document.getElementsByTagNameNS("http://addons", "option").getLength());
+        Element name = (Element) document.getElementsByTagName("name").item(0);
+        assertEquals("strawberry", name.getAttribute("a:standard"));
+        assertNull(name.getAttributeNode("a:standard").getLocalName());
+    }
+
+    public void testCharacterData() throws Exception {
+        Document document = compact(true);
+        Element name = (Element) document.getElementsByTagName("name").item(0);
+        Text text = (Text) name.getFirstChild();
+        assertEquals("Waffles & ", text.getData());
+        assertEquals("Waffles & <syrup> \ud83d\ude00", text.getWholeText());
+        assertEquals("fles", text.substringData(3, 4));
+        assertEquals("& ", text.substringData(8, 100));
+        try {
+            text.substringData(11, 1);
+            fail();
+        } catch (DOMException expected) {
+            assertEquals(DOMException.INDEX_SIZE_ERR, expected.code);
+        }
+        CDATASection cdata = (CDATASection) text.getNextSibling();
+        assertEquals("#cdata-section", cdata.getNodeName());
+        assertEquals("<syrup>", cdata.getNodeValue());
+        assertEquals("Waffles & <syrup> \ud83d\ude00", name.getTextContent());
+
+        Element description = (Element) document.getElementsByTagName("description").item(0);
+        assertEquals("Belgian", description.getTextContent());
+        ProcessingInstruction pi = (ProcessingInstruction) description.getChildNodes().item(2);
+        assertEquals("pi", pi.getTarget());
+        assertEquals("data", pi.getData());
+        assertEquals(Node.ENTITY_REFERENCE_NODE, description.getLastChild().getNodeType());
+        assertEquals("foo", description.getLastChild().getNodeName());
+
+        DocumentType doctype = document.getDoctype();
+        assertEquals("menu", doctype.getName());
+        assertEquals("-//foo//bar", doctype.getPublicId());
+        assertEquals("menu.dtd", doctype.getSystemId());
+    }
+
+    public void testGetElementById() throws Exception {
+        Document document = compact(true);
+        assertSame(document.getElementsByTagName("item").item(1),
+                document.getElementById("2"));
+        assertNull(document.getElementById("3"));
+    }
+
+    public void testCompareDocumentPosition() throws Exception {
+        Document document = compact(true);
+        Element menu = document.getDocumentElement();
+        Node first = menu.getElementsByTagName("item").item(0);
+        Node second = menu.getElementsByTagName("item").item(1);
+        assertEquals(Node.DOCUMENT_POSITION_FOLLOWING, first.compareDocumentPosition(second));
+        assertEquals(Node.DOCUMENT_POSITION_PRECEDING, second.compareDocumentPosition(first));
+        assertEquals(Node.DOCUMENT_POSITION_CONTAINED_BY | Node.DOCUMENT_POSITION_FOLLOWING,
+                menu.compareDocumentPosition(second));
+        assertEquals(Node.DOCUMENT_POSITION_CONTAINS | Node.DOCUMENT_POSITION_PRECEDING,
+                second.compareDocumentPosition(menu));
+    }
+
+    public void testReadOnly() throws Exception {
+        Document document = compact(true);
+        Element menu = document.getDocumentElement();
+        Text text = (Text) document.getElementsByTagName("name").item(1).getFirstChild();
+        Attr id = (Attr) menu.getFirstChild().getNextSibling().getAttributes().item(0);
+        assertReadOnly(() -> document.createElement("x"));
+        assertReadOnly(() -> menu.appendChild(menu.getFirstChild()));
+        assertReadOnly(() -> menu.removeChild(menu.getFirstChild()));
+        assertReadOnly(() -> menu.setAttribute("x", "y"));
+        assertReadOnly(() -> menu.setTextContent("x"));
+        assertReadOnly(() -> text.setData("x"));
+        assertReadOnly(() -> text.splitText(1));
+        assertReadOnly(() -> id.setValue("x"));
+        assertReadOnly(() -> menu.getAttributes().removeNamedItem("xmlns"));
+        assertEquals("Pancakes", text.getData());
+    }
+
+    public void testUserData() throws Exception {
+        Document document = compact(true);
+        Element menu = document.getDocumentElement();
+        assertNull(menu.getUserData("key"));
+        assertNull(menu.setUserData("key", "a", null));
+        assertEquals("a", menu.setUserData("key", "b", null));
+        assertEquals("b", document.getDocumentElement().getUserData("key"));
+        assertNull(document.getUserData("key"));
+    }
+
+    public void testMultipleRootElementsAreRejected() throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(COMPACT_READ_ONLY_DOM, true);
+        try {
+            parse(factory, "<a/><b/>");
+            fail();
+        } catch (DOMException expected) {
+            assertEquals(DOMException.HIERARCHY_REQUEST_ERR, expected.code);
+        }
+    }
+
+    private interface Mutation {
+        void run() throws Exception;
+    }
+
+    private static void assertReadOnly(Mutation mutation) throws Exception {
+        try {
+            mutation.run();
+            fail();
+        } catch (DOMException expected) {
+            assertEquals(DOMException.NO_MODIFICATION_ALLOWED_ERR, expected.code);
+        }
+    }
+
+    private static Document compact(boolean namespaceAware) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(namespaceAware);
+        factory.setFeature(COMPACT_READ_ONLY_DOM, true);
+        return parse(factory, XML);
+    }
+
+    private static Document parse(DocumentBuilderFactory factory, String xml) throws Exception {
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+    }
+
+    /**
+     * Walks both trees, comparing the properties that isEqualNode doesn't.
+     */
+    private static void assertSameTree(Node expected, Node actual) {
+        assertEquals(expected.getNodeType(), actual.getNodeType());
+        assertEquals(expected.getNodeName(), actual.getNodeName());
+        assertEquals(expected.getTextContent(), actual.getTextContent());
+        assertEquals(expected.getBaseURI(), actual.getBaseURI());
+        assertEquals(expected.hasChildNodes(), actual.hasChildNodes());
+        assertEquals(expected.hasAttributes(), actual.hasAttributes());
+        NamedNodeMap expectedAttributes = expected.getAttributes();
+        NamedNodeMap actualAttributes = actual.getAttributes();
+        if (expectedAttributes != null) {
+            assertEquals(expectedAttributes.getLength(), actualAttributes.getLength());
+            for (int i = 0; i < expectedAttributes.getLength(); i++) {
+                Attr expectedAttr = (Attr) expectedAttributes.item(i);
+                Attr actualAttr = (Attr) actualAttributes.item(i);
+                assertEquals(expectedAttr.getName(), actualAttr.getName());
+                assertEquals(expectedAttr.getNamespaceURI(), actualAttr.getNamespaceURI());
+                assertEquals(expectedAttr.getValue(), actualAttr.getValue());
+            }
+        } else {
+            assertNull(actualAttributes);
+        }
+        if (expected.getNodeType() == Node.ELEMENT_NODE) {
+            assertEquals(((Element) expected).getElementsByTagName("*").getLength(),
+                    ((Element) actual).getElementsByTagName("*").getLength());
+        }
+        NodeList expectedChildren = expected.getChildNodes();
+        NodeList actualChildren = actual.getChildNodes();
+        assertEquals(expectedChildren.getLength(), actualChildren.getLength());
+        for (int i = 0; i < expectedChildren.getLength(); i++) {
+            assertSameTree(expectedChildren.item(i), actualChildren.item(i));
+        }
+    }
+}
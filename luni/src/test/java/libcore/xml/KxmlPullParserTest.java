@@ -17,6 +17,10 @@
 package libcore.xml;
 
 import com.android.org.kxml2.io.KXmlParser;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import org.xmlpull.v1.XmlPullParser;
 
 public class KxmlPullParserTest extends PullParserTest {
@@ -24,4 +28,93 @@ public class KxmlPullParserTest extends PullParserTest {
     @Override XmlPullParser newPullParser() {
         return new KXmlParser();
     }
+
+    public void testUtf8InputMatchesReaderInput() throws Exception {
+        // Multibyte characters of every length, repeated so that they straddle
+        // the boundaries of a small buffer.
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            text.append("a\u00e9\u20ac\ud83d\ude00 ");
+        }
+        String xml = "<?xml version='1.0' encoding='UTF-8'?><root a='\u00e9\u20ac'>" + text
+                + "<child b='\ud83d\ude00'/>" + text + "</root>";
+        for (int bufferSize : new int[] { 256, 257, 1000, 8192 }) {
+            KXmlParser parser = new KXmlParser();
+            parser.setBufferSize(bufferSize);
+            parser.setInput(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)),
+                    "UTF-8");
+            assertSameEvents(xml, parser);
+            // Charset detection from the XML declaration picks the same path.
+            parser.setInput(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null);
+            assertSameEvents(xml, parser);
+        }
+    }
+
+    public void testUtf8InputOneByteAtATime() throws Exception {
+        String xml = "<root>\u00e9\u20ac\ud83d\ude00</root>";
+        final byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(bytes) {
+            @Override public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        KXmlParser parser = new KXmlParser();
+        parser.setInput(in, "UTF-8");
+        assertSameEvents(xml, parser);
+    }
+
+    public void testMalformedUtf8IsReplaced() throws Exception {
+        byte[] bytes = {
+            '<', 'a', '>',
+            (byte) 0x80,                             // Unexpected continuation byte.
+            (byte) 0xc0, (byte) 0xaf,                // Overlong encoding.
+            (byte) 0xed, (byte) 0xa0, (byte) 0x80,   // Encoded surrogate.
+            (byte) 0xe2, (byte) 0x82, 'x',           // Truncated sequence.
+            '<', '/', 'a', '>',
+        };
+        KXmlParser parser = new KXmlParser();
+        parser.setInput(new ByteArrayInputStream(bytes), "UTF-8");
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        // Each malformed sequence becomes one or more replacement characters.
+        assertTrue(parser.getText(), parser.getText().matches("\ufffd{4,}x"));
+        assertEquals(XmlPullParser.END_TAG, parser.next());
+    }
+
+    public void testAsciiInputReplacesHighBytes() throws Exception {
+        byte[] bytes = { '<', 'a', '>', 'x', (byte) 0xe9, 'y', '<', '/', 'a', '>' };
+        KXmlParser parser = new KXmlParser();
+        parser.setInput(new ByteArrayInputStream(bytes), "US-ASCII");
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        assertEquals("x\ufffdy", parser.getText());
+    }
+
+    public void testSetBufferSizeRejectsTinyBuffers() {
+        try {
+            new KXmlParser().setBufferSize(16);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * Asserts that {@code parser} produces the same events as a parser reading
+     * {@code xml} through a Reader.
+     */
+    private static void assertSameEvents(String xml, XmlPullParser parser) throws Exception {
+        XmlPullParser expected = new KXmlParser();
+        expected.setInput(new StringReader(xml));
+        int type;
+        do {
+            type = expected.next();
+            assertEquals(type, parser.next());
+            assertEquals(expected.getName(), parser.getName());
+            assertEquals(expected.getText(), parser.getText());
+            assertEquals(expected.getAttributeCount(), parser.getAttributeCount());
+            for (int i = 0; i < expected.getAttributeCount(); i++) {
+                assertEquals(expected.getAttributeValue(i), parser.getAttributeValue(i));
+            }
+        } while (type != XmlPullParser.END_DOCUMENT);
+    }
 }
@@ -64,7 +64,15 @@ public class ReferenceQueue<T> {
         throw new RuntimeException("Stub!");
     }
 
-    public static void enqueuePending(java.lang.ref.Reference<?> list) {
+    public long getQueueLength() {
+        throw new RuntimeException("Stub!");
+    }
+
+    public static int enqueuePending(java.lang.ref.Reference<?> list) {
+        throw new RuntimeException("Stub!");
+    }
+
+    public static java.lang.ref.Reference<?> takeUnenqueued(int maxCount) {
         throw new RuntimeException("Stub!");
     }
 
@@ -89,5 +97,7 @@ public class ReferenceQueue<T> {
 
     private java.lang.ref.Reference<? extends T> tail;
 
+    private long queueLength;
+
     public static java.lang.ref.Reference<?> unenqueued;
 }
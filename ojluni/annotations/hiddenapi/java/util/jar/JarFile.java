@@ -100,6 +100,19 @@ public class JarFile extends java.util.zip.ZipFile {
         throw new RuntimeException("Stub!");
     }
 
+    public void verifyAllEntries() throws java.io.IOException {
+        throw new RuntimeException("Stub!");
+    }
+
+    public void verifyAllEntries(java.util.concurrent.Executor executor)
+            throws java.io.IOException {
+        throw new RuntimeException("Stub!");
+    }
+
+    public static void clearVerificationCache() {
+        throw new RuntimeException("Stub!");
+    }
+
     private synchronized java.util.jar.JarEntry getManEntry() {
         throw new RuntimeException("Stub!");
     }
@@ -50,6 +50,14 @@ public class CRC32 implements java.util.zip.Checksum {
         throw new RuntimeException("Stub!");
     }
 
+    public void update(java.nio.ByteBuffer[] buffers) {
+        throw new RuntimeException("Stub!");
+    }
+
+    public static long combine(long crc1, long crc2, long len2) {
+        throw new RuntimeException("Stub!");
+    }
+
     public void reset() {
         throw new RuntimeException("Stub!");
     }
@@ -124,6 +124,11 @@ public class ZipFile implements java.util.zip.ZipConstants, java.io.Closeable {
         throw new RuntimeException("Stub!");
     }
 
+    public java.nio.ByteBuffer getStoredEntryBuffer(java.util.zip.ZipEntry entry)
+            throws java.io.IOException {
+        throw new RuntimeException("Stub!");
+    }
+
     public boolean startsWithLocHeader() {
         throw new RuntimeException("Stub!");
     }
@@ -172,6 +177,8 @@ public class ZipFile implements java.util.zip.ZipConstants, java.io.Closeable {
 
     public static final int OPEN_DELETE = 4; // 0x4
 
+    public static final int OPEN_MAPPED = 8; // 0x8
+
     public static final int OPEN_READ = 1; // 0x1
 
     private static final int STORED = 0; // 0x0
@@ -36,6 +36,7 @@ import java.util.Formatter;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -2266,7 +2267,14 @@ public final class String
      * @spec JSR-51
      */
     public String replaceFirst(String regex, String replacement) {
-        return Pattern.compile(regex).matcher(this).replaceFirst(replacement);
+        // BEGIN Android-changed: Reuse patterns compiled by earlier calls, and matchers.
+        // return Pattern.compile(regex).matcher(this).replaceFirst(replacement);
+        Pattern p = Pattern.compileCached(regex);
+        Matcher m = p.obtainMatcher(this);
+        String result = m.replaceFirst(replacement);
+        p.recycleMatcher(m);
+        return result;
+        // END Android-changed: Reuse patterns compiled by earlier calls, and matchers.
     }
 
     /**
@@ -2311,7 +2319,14 @@ public final class String
      * @spec JSR-51
      */
     public String replaceAll(String regex, String replacement) {
-        return Pattern.compile(regex).matcher(this).replaceAll(replacement);
+        // BEGIN Android-changed: Reuse patterns compiled by earlier calls, and matchers.
+        // return Pattern.compile(regex).matcher(this).replaceAll(replacement);
+        Pattern p = Pattern.compileCached(regex);
+        Matcher m = p.obtainMatcher(this);
+        String result = m.replaceAll(replacement);
+        p.recycleMatcher(m);
+        return result;
+        // END Android-changed: Reuse patterns compiled by earlier calls, and matchers.
     }
 
     /**
@@ -2480,7 +2495,9 @@ public final class String
             return fast;
         }
         // END Android-changed: Replace custom fast-path with use of new Pattern.fastSplit method.
-        return Pattern.compile(regex).split(this, limit);
+        // Android-changed: Reuse patterns compiled by earlier calls.
+        // return Pattern.compile(regex).split(this, limit);
+        return Pattern.compileCached(regex).split(this, limit);
     }
 
     /**
@@ -50,6 +50,10 @@ public class ReferenceQueue<T> {
 
     private final Object lock = new Object();
 
+    // The number of references currently in this queue.
+    // @GuardedBy("lock")
+    private long queueLength = 0;
+
     /**
      * Constructs a new reference-object queue.
      */
@@ -89,6 +93,7 @@ public class ReferenceQueue<T> {
         }
         tail = r;
         tail.queueNext = r;
+        queueLength++;
         return true;
     }
 
@@ -133,12 +138,24 @@ public class ReferenceQueue<T> {
             // Update queueNext to indicate that the reference has been
             // enqueued, but is now removed from the queue.
             r.queueNext = sQueueNextUnenqueued;
+            queueLength--;
             return r;
         }
 
         return null;
     }
 
+    /**
+     * Returns the number of references currently in this queue.
+     *
+     * @hide
+     */
+    public long getQueueLength() {
+        synchronized (lock) {
+            return queueLength;
+        }
+    }
+
     /**
      * Polls this queue to see if a reference object is available.  If one is
      * available without further delay then it is removed from the queue and
@@ -213,11 +230,13 @@ public class ReferenceQueue<T> {
 
     /**
      * Enqueue the given list of currently pending (unenqueued) references.
+     * Returns the number of references in the list.
      *
      * @hide
      */
-    public static void enqueuePending(Reference<?> list) {
+    public static int enqueuePending(Reference<?> list) {
         Reference<?> start = list;
+        int count = 0;
         do {
             ReferenceQueue queue = list.queue;
             if (queue == null) {
@@ -228,6 +247,25 @@ public class ReferenceQueue<T> {
                 // the object pendingNext was previously pointing to.
                 list.pendingNext = list;
                 list = next;
+                count++;
+            } else if (list instanceof Cleaner) {
+                Reference<?> next = list.pendingNext;
+                list.pendingNext = list;
+
+                // Run the Cleaner before marking it enqueued, and outside
+                // the lock of the dummy queue that all Cleaners share, so
+                // that several threads enqueueing pending references can
+                // run Cleaners concurrently. Cleaner.clean() runs its thunk
+                // at most once, so this can't race with enqueue() into
+                // cleaning twice.
+                ((Cleaner) list).clean();
+                synchronized (queue.lock) {
+                    if (list.queueNext == null) {
+                        list.queueNext = sQueueNextUnenqueued;
+                    }
+                }
+                list = next;
+                count++;
             } else {
                 // To improve performance, we try to avoid repeated
                 // synchronization on the same queue by batching enqueue of
@@ -244,11 +282,42 @@ public class ReferenceQueue<T> {
                         list.pendingNext = list;
                         queue.enqueueLocked(list);
                         list = next;
+                        count++;
                     } while (list != start && list.queue == queue);
                     queue.lock.notifyAll();
                 }
             }
         } while (list != start);
+        return count;
+    }
+
+    /**
+     * Removes up to {@code maxCount} references from {@link #unenqueued} and
+     * returns them as a list for {@link #enqueuePending}, or returns null if
+     * there are none. The caller must hold the ReferenceQueue.class lock.
+     *
+     * @hide
+     */
+    public static Reference<?> takeUnenqueued(int maxCount) {
+        Reference<?> head = unenqueued;
+        if (head == null) {
+            return null;
+        }
+        // Take the references after the head, which keeps the remaining list
+        // circular without walking to its end.
+        Reference<?> first = head.pendingNext;
+        Reference<?> last = first;
+        for (int i = 1; i < maxCount && last != head; i++) {
+            last = last.pendingNext;
+        }
+        if (last == head || last.pendingNext == head) {
+            // Nothing would be left but the head, so take the whole list.
+            unenqueued = null;
+            return head;
+        }
+        head.pendingNext = last.pendingNext;
+        last.pendingNext = first;
+        return first;
     }
 
     /**
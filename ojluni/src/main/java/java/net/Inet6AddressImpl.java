@@ -113,17 +113,16 @@ class Inet6AddressImpl implements InetAddressImpl {
     private static InetAddress[] lookupHostByName(String host, int netId)
             throws UnknownHostException {
         BlockGuard.getThreadPolicy().onNetwork();
-        // Do we have a result cached?
-        Object cachedResult = addressCache.get(host, netId);
-        if (cachedResult != null) {
-            if (cachedResult instanceof InetAddress[]) {
-                // A cached positive result.
-                return (InetAddress[]) cachedResult;
-            } else {
-                // A cached negative result.
-                throw new UnknownHostException((String) cachedResult);
-            }
-        }
+        // The cache coalesces concurrent misses, so only one thread per host and network
+        // calls getaddrinfo at a time.
+        return addressCache.lookup(host, netId, Inet6AddressImpl::getaddrinfo);
+    }
+
+    /**
+     * Resolves a hostname to its IP addresses without consulting the cache.
+     */
+    private static InetAddress[] getaddrinfo(String host, int netId)
+            throws UnknownHostException {
         try {
             StructAddrinfo hints = new StructAddrinfo();
             hints.ai_flags = AI_ADDRCONFIG;
@@ -138,7 +137,6 @@ class Inet6AddressImpl implements InetAddressImpl {
                 address.holder().hostName = host;
                 address.holder().originalHostName = host;
             }
-            addressCache.put(host, netId, addresses);
             return addresses;
         } catch (GaiException gaiException) {
             // If the failure appears to have been a lack of INTERNET permission, throw a clear
@@ -150,9 +148,8 @@ class Inet6AddressImpl implements InetAddressImpl {
                     throw new SecurityException("Permission denied (missing INTERNET permission?)", gaiException);
                 }
             }
-            // Otherwise, throw an UnknownHostException.
+            // Otherwise, throw an UnknownHostException. The cache records it as a negative entry.
             String detailMessage = "Unable to resolve host \"" + host + "\": " + Libcore.os.gai_strerror(gaiException.error);
-            addressCache.putUnknownHost(host, netId, detailMessage);
             throw gaiException.rethrowAsUnknownHostException(detailMessage);
         }
     }
@@ -388,6 +388,13 @@ public class DecimalFormat extends NumberFormat {
     // Android-added: ICU DecimalFormat to delegate to.
     private transient android.icu.text.DecimalFormat icuDecimalFormat;
 
+    // BEGIN Android-added: Field position for the formats whose positions aren't reported.
+    // NumberFormat.format(double) and format(long) pass the shared DontCareFieldPosition, and
+    // writing the positions to it from every thread is a point of contention. This one is owned
+    // by this format, so only the threads using it write to it. Created on first use.
+    private transient FieldPosition dontCareFieldPosition;
+    // END Android-added: Field position for the formats whose positions aren't reported.
+
     /**
      * Creates a DecimalFormat using the default pattern and symbols
      * for the default {@link java.util.Locale.Category#FORMAT FORMAT} locale.
@@ -553,6 +560,32 @@ public class DecimalFormat extends NumberFormat {
         return icuFieldPosition;
     }
 
+    /**
+     * Returns the field position to pass to ICU when formatting with {@code fp}.
+     */
+    private FieldPosition toIcuFieldPosition(FieldPosition fp) {
+        if (fp != DontCareFieldPosition.INSTANCE) {
+            return getIcuFieldPosition(fp);
+        }
+        FieldPosition icuFieldPosition = dontCareFieldPosition;
+        if (icuFieldPosition == null) {
+            icuFieldPosition = new FieldPosition(0);
+            dontCareFieldPosition = icuFieldPosition;
+        }
+        return icuFieldPosition;
+    }
+
+    /**
+     * Copies the positions ICU reported in {@code icuFieldPosition} to {@code fp}, unless
+     * nobody reads them.
+     */
+    private static void updateFieldPosition(FieldPosition fp, FieldPosition icuFieldPosition) {
+        if (fp != DontCareFieldPosition.INSTANCE) {
+            fp.setBeginIndex(icuFieldPosition.getBeginIndex());
+            fp.setEndIndex(icuFieldPosition.getEndIndex());
+        }
+    }
+
     /**
      * Converts the Attribute that ICU returns in its AttributedCharacterIterator
      * responses to the type that java uses.
@@ -678,10 +711,9 @@ public class DecimalFormat extends NumberFormat {
         // if fast-path could not work, we fallback to standard code.
         return format(number, result, fieldPosition.getFieldDelegate());
         */
-        FieldPosition icuFieldPosition = getIcuFieldPosition(fieldPosition);
+        FieldPosition icuFieldPosition = toIcuFieldPosition(fieldPosition);
         icuDecimalFormat.format(number, result, icuFieldPosition);
-        fieldPosition.setBeginIndex(icuFieldPosition.getBeginIndex());
-        fieldPosition.setEndIndex(icuFieldPosition.getEndIndex());
+        updateFieldPosition(fieldPosition, icuFieldPosition);
         return result;
         // END Android-changed: Use ICU.
     }
@@ -795,10 +827,9 @@ public class DecimalFormat extends NumberFormat {
 
         return format(number, result, fieldPosition.getFieldDelegate());
         */
-        FieldPosition icuFieldPosition = getIcuFieldPosition(fieldPosition);
+        FieldPosition icuFieldPosition = toIcuFieldPosition(fieldPosition);
         icuDecimalFormat.format(number, result, icuFieldPosition);
-        fieldPosition.setBeginIndex(icuFieldPosition.getBeginIndex());
-        fieldPosition.setEndIndex(icuFieldPosition.getEndIndex());
+        updateFieldPosition(fieldPosition, icuFieldPosition);
         return result;
         // END Android-changed: Use ICU.
     }
@@ -896,10 +927,9 @@ public class DecimalFormat extends NumberFormat {
         fieldPosition.setEndIndex(0);
         return format(number, result, fieldPosition.getFieldDelegate());
         */
-        FieldPosition icuFieldPosition = getIcuFieldPosition(fieldPosition);
+        FieldPosition icuFieldPosition = toIcuFieldPosition(fieldPosition);
         icuDecimalFormat.format(number, result, icuFieldPosition);
-        fieldPosition.setBeginIndex(icuFieldPosition.getBeginIndex());
-        fieldPosition.setEndIndex(icuFieldPosition.getEndIndex());
+        updateFieldPosition(fieldPosition, icuFieldPosition);
         return result;
         // END Android-changed: Use ICU.
     }
@@ -965,10 +995,9 @@ public class DecimalFormat extends NumberFormat {
 
         return format(number, result, fieldPosition.getFieldDelegate(), false);
         */
-        FieldPosition icuFieldPosition = getIcuFieldPosition(fieldPosition);
+        FieldPosition icuFieldPosition = toIcuFieldPosition(fieldPosition);
         icuDecimalFormat.format(number, result, icuFieldPosition);
-        fieldPosition.setBeginIndex(icuFieldPosition.getBeginIndex());
-        fieldPosition.setEndIndex(icuFieldPosition.getEndIndex());
+        updateFieldPosition(fieldPosition, icuFieldPosition);
         return result;
         // END Android-changed: Use ICU.
     }
@@ -3086,6 +3115,7 @@ public class DecimalFormat extends NumberFormat {
             DecimalFormat other = (DecimalFormat) super.clone();
             other.icuDecimalFormat = (android.icu.text.DecimalFormat) icuDecimalFormat.clone();
             other.symbols = (DecimalFormatSymbols) symbols.clone();
+            other.dontCareFieldPosition = null;
             return other;
         } catch (Exception e) {
             throw new InternalError();
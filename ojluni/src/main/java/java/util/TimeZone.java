@@ -47,6 +47,7 @@ import com.android.icu.util.ExtendedTimeZone;
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -562,7 +563,9 @@ abstract public class TimeZone implements Serializable, Cloneable {
      * cannot be understood.
      */
     // Android-changed: param s/ID/id; use ZoneInfoDb instead of ZoneInfo class.
-    public static synchronized TimeZone getTimeZone(String id) {
+    // Android-changed: not synchronized; parsed zones are shared through ZoneInfoDataCache.
+    // public static synchronized TimeZone getTimeZone(String id) {
+    public static TimeZone getTimeZone(String id) {
         if (id == null) {
             throw new NullPointerException("id == null");
         }
@@ -579,7 +582,9 @@ abstract public class TimeZone implements Serializable, Cloneable {
 
         // In the database?
 
-        ZoneInfoData zoneInfoData = ZoneInfoDb.getInstance().makeZoneInfoData(id);
+        // Android-changed: look the zone up in ZoneInfoDataCache first.
+        // ZoneInfoData zoneInfoData = ZoneInfoDb.getInstance().makeZoneInfoData(id);
+        ZoneInfoData zoneInfoData = ZoneInfoDataCache.get(id);
         TimeZone zone = zoneInfoData == null ? null : ZoneInfo.createZoneInfo(zoneInfoData);
 
         // Custom time zone?
@@ -591,6 +596,61 @@ abstract public class TimeZone implements Serializable, Cloneable {
         return (zone != null) ? zone : (TimeZone) GMT.clone();
     }
 
+    // BEGIN Android-added: lock-free cache of the zones read from ZoneInfoDb.
+    /**
+     * A bounded cache of the {@link ZoneInfoData} read from {@link ZoneInfoDb}, by ID.
+     *
+     * <p>{@code ZoneInfoData} is immutable, so each {@link ZoneInfo} returned by
+     * {@link #getTimeZone(String)} is a new instance that shares it, and looking up a cached
+     * zone takes no lock. The cache is dropped if {@link ZoneInfoDb#getInstance()} changes.
+     */
+    private static final class ZoneInfoDataCache {
+        // More than the zones a process commonly uses, and a small fraction of the database.
+        private static final int MAX_SIZE = 64;
+
+        private static final ConcurrentHashMap<String, ZoneInfoData> cache =
+                new ConcurrentHashMap<>();
+        private static volatile ZoneInfoDb cachedDb;
+
+        static ZoneInfoData get(String id) {
+            ZoneInfoDb db = ZoneInfoDb.getInstance();
+            if (db != cachedDb) {
+                synchronized (cache) {
+                    if (db != cachedDb) {
+                        cache.clear();
+                        cachedDb = db;
+                    }
+                }
+            }
+            ZoneInfoData data = cache.get(id);
+            if (data != null) {
+                return data;
+            }
+            data = db.makeZoneInfoData(id);
+            if (data == null) {
+                return null;
+            }
+            if (cache.size() >= MAX_SIZE) {
+                // Evict an arbitrary entry; the zones in use get read again.
+                Iterator<String> it = cache.keySet().iterator();
+                if (it.hasNext()) {
+                    it.next();
+                    it.remove();
+                }
+            }
+            ZoneInfoData previous = cache.putIfAbsent(id, data);
+            if (previous != null) {
+                return previous;
+            }
+            if (db != cachedDb) {
+                // The cache was dropped for a new database while this zone was read.
+                cache.remove(id, data);
+            }
+            return data;
+        }
+    }
+    // END Android-added: lock-free cache of the zones read from ZoneInfoDb.
+
     /**
      * Gets the {@code TimeZone} for the given {@code zoneId}.
      *
@@ -667,7 +727,9 @@ abstract public class TimeZone implements Serializable, Cloneable {
      * both have GMT-07:00, but differ in daylight saving behavior.
      * @see #getRawOffset()
      */
-    public static synchronized String[] getAvailableIDs(int rawOffset) {
+    // Android-changed: not synchronized; ZoneInfoDb is thread-safe.
+    // public static synchronized String[] getAvailableIDs(int rawOffset) {
+    public static String[] getAvailableIDs(int rawOffset) {
         return ZoneInfoDb.getInstance().getAvailableIDs(rawOffset);
     }
 
@@ -675,7 +737,9 @@ abstract public class TimeZone implements Serializable, Cloneable {
      * Gets all the available IDs supported.
      * @return an array of IDs.
      */
-    public static synchronized String[] getAvailableIDs() {
+    // Android-changed: not synchronized; ZoneInfoDb is thread-safe.
+    // public static synchronized String[] getAvailableIDs() {
+    public static String[] getAvailableIDs() {
         return ZoneInfoDb.getInstance().getAvailableIDs();
     }
 
@@ -706,7 +770,20 @@ abstract public class TimeZone implements Serializable, Cloneable {
      * Returns the reference to the default TimeZone object. This
      * method doesn't create a clone.
      */
-    static synchronized TimeZone getDefaultRef() {
+    // BEGIN Android-changed: only take the lock when the default has to be computed.
+    // setDefault() replaces defaultTimeZone with a private copy and never changes the instance
+    // readers see, so the volatile read is enough for them.
+    // static synchronized TimeZone getDefaultRef() {
+    static TimeZone getDefaultRef() {
+        TimeZone zone = defaultTimeZone;
+        if (zone != null) {
+            return zone;
+        }
+        return getDefaultRefLocked();
+    }
+
+    private static synchronized TimeZone getDefaultRefLocked() {
+    // END Android-changed: only take the lock when the default has to be computed.
         if (defaultTimeZone == null) {
             Supplier<String> tzGetter = RuntimeHooks.getTimeZoneIdSupplier();
             String zoneName = (tzGetter != null) ? tzGetter.get() : null;
@@ -29,12 +29,22 @@ package java.util.jar;
 import java.io.*;
 import java.lang.ref.SoftReference;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import java.util.zip.*;
 import java.security.CodeSigner;
 import java.security.cert.Certificate;
 import java.security.AccessController;
+import android.system.ErrnoException;
+import android.system.StructStat;
+import libcore.io.Libcore;
+import libcore.util.BasicLruCache;
 import sun.misc.IOUtils;
 import sun.security.action.GetPropertyAction;
 import sun.security.util.ManifestEntryVerifier;
@@ -80,6 +90,17 @@ class JarFile extends ZipFile {
     // true if manifest checked for special attributes
     private volatile boolean hasCheckedSpecialAttributes;
 
+    // BEGIN Android-added: Eager parallel verification.
+    // true if verifyAllEntries() has verified all the signed entries, so that
+    // their streams needn't be verified as they are read.
+    private boolean jvVerifiedAll;
+
+    // The signers of the entries of the jar files verified by verifyAllEntries(),
+    // keyed by the path and the stat(2) identity of the file.
+    private static final BasicLruCache<String, Map<String, CodeSigner[]>> verifiedSignersCache =
+            new BasicLruCache<>(64);
+    // END Android-added: Eager parallel verification.
+
     // Android-removed: SharedSecrets.setJavaUtilJarAccess
     /*
     // Set up JavaUtilJarAccess in SharedSecrets
@@ -465,6 +486,10 @@ class JarFile extends ZipFile {
             if (jv == null)
                 return super.getInputStream(ze);
         }
+        // Android-added: Eager parallel verification.
+        if (jvVerifiedAll) {
+            return super.getInputStream(ze);
+        }
 
         // wrap a verifier stream around the real stream
         return new JarVerifier.VerifierStream(
@@ -475,6 +500,193 @@ class JarFile extends ZipFile {
             jv);
     }
 
+    // BEGIN Android-added: Eager parallel verification.
+    /**
+     * Verifies the digests of all the signed entries now, on the common
+     * {@link ForkJoinPool}.
+     *
+     * @see #verifyAllEntries(Executor)
+     * @hide
+     */
+    public void verifyAllEntries() throws IOException {
+        verifyAllEntries(null);
+    }
+
+    /**
+     * Verifies the digests of all the signed entries now, reading and
+     * digesting the entries in parallel on {@code executor}, rather than
+     * each one serially when its stream is read to the end. The streams
+     * returned by {@link #getInputStream} aren't verified afterwards. A null
+     * {@code executor} runs the entries as tasks of the common
+     * {@link ForkJoinPool}, which is safe to call from one of its workers.
+     *
+     * <p>The signers of the verified entries are cached by the path, device,
+     * inode, size, and modification and status change times of the file, and
+     * a later {@code JarFile} for a file with the same ones takes them from
+     * the cache instead of verifying again. Writing to the file changes its
+     * status change time, which user space can't set back.
+     *
+     * <p>Does nothing if the jar file isn't signed or isn't being verified.
+     *
+     * @throws SecurityException if an entry doesn't match its digest.
+     * @throws IOException if an I/O error has occurred.
+     * @hide
+     */
+    public void verifyAllEntries(Executor executor) throws IOException {
+        JarVerifier verifier;
+        Manifest man;
+        // Don't hold the lock while waiting for the entries, which ZipFile
+        // reads holding it.
+        synchronized (this) {
+            maybeInstantiateVerifier();
+            if (jv != null && !jvInitialized) {
+                initializeVerifier();
+                jvInitialized = true;
+            }
+            if (jv == null || jvVerifiedAll) {
+                return;
+            }
+            verifier = jv;
+            man = getManifestFromReference();
+        }
+
+        String key = verifiedSignersCacheKey();
+        Map<String, CodeSigner[]> signers = key != null ? verifiedSignersCache.get(key) : null;
+        if (signers != null) {
+            verifier.addVerifiedSigners(signers);
+        } else {
+            verifyEntries(verifier, man, executor);
+            // Don't cache the result if the file changed while it was verified.
+            if (key != null && key.equals(verifiedSignersCacheKey())) {
+                verifiedSignersCache.put(key, verifier.getVerifiedSigners());
+            }
+        }
+        synchronized (this) {
+            jvVerifiedAll = true;
+        }
+    }
+
+    /**
+     * Clears the signers cached by {@link #verifyAllEntries(Executor)}.
+     *
+     * @hide
+     */
+    public static void clearVerificationCache() {
+        verifiedSignersCache.evictAll();
+    }
+
+    private String verifiedSignersCacheKey() {
+        String path = new File(getName()).getAbsolutePath();
+        StructStat st;
+        try {
+            st = Libcore.os.stat(path);
+        } catch (ErrnoException e) {
+            // The file is gone, e.g. because it was opened with OPEN_DELETE.
+            return null;
+        }
+        return path + '\u0000' + st.st_dev + ':' + st.st_ino + ':' + st.st_size
+                + ':' + st.st_mtim.tv_sec + '.' + st.st_mtim.tv_nsec
+                + ':' + st.st_ctim.tv_sec + '.' + st.st_ctim.tv_nsec;
+    }
+
+    private void verifyEntries(JarVerifier verifier, Manifest man, Executor executor)
+        throws IOException
+    {
+        Set<String> unverified = verifier.getUnverifiedNames();
+        List<EntryVerification> verifications = new ArrayList<>();
+        Enumeration<? extends ZipEntry> entries = super.entries();
+        while (entries.hasMoreElements() && !unverified.isEmpty()) {
+            ZipEntry ze = entries.nextElement();
+            // Canonicalize the name as JarVerifier.beginEntry() does.
+            String name = ze.getName();
+            if (name.startsWith("./")) {
+                name = name.substring(2);
+            }
+            if (name.startsWith("/")) {
+                name = name.substring(1);
+            }
+            if (ze.isDirectory() || !unverified.remove(name)) {
+                continue;
+            }
+            JarEntry je = new JarFileEntry(ze);
+            String entryName = name;
+            verifications.add(() -> {
+                try (InputStream is = super.getInputStream(je)) {
+                    verifier.verifyEntry(man, entryName, je, is);
+                }
+            });
+        }
+        if (executor == null) {
+            verifyEntriesInForkJoinPool(verifications);
+            return;
+        }
+
+        List<FutureTask<Void>> tasks = new ArrayList<>();
+        try {
+            for (EntryVerification verification : verifications) {
+                FutureTask<Void> task = new FutureTask<>(() -> {
+                    verification.run();
+                    return null;
+                });
+                tasks.add(task);
+                executor.execute(task);
+            }
+            for (FutureTask<Void> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            throw (IOException) new InterruptedIOException().initCause(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            // Stop the remaining tasks if one failed.
+            for (FutureTask<Void> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Runs the verifications as ForkJoinTasks, joining rather than blocking
+     * on them, so that a caller on a worker of the pool helps run them
+     * instead of starving it.
+     */
+    private static void verifyEntriesInForkJoinPool(List<EntryVerification> verifications)
+        throws IOException
+    {
+        List<ForkJoinTask<Void>> tasks = new ArrayList<>(verifications.size());
+        for (EntryVerification verification : verifications) {
+            tasks.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    try {
+                        verification.run();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        }
+        try {
+            ForkJoinTask.invokeAll(tasks);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private interface EntryVerification {
+        void run() throws IOException;
+    }
+    // END Android-added: Eager parallel verification.
+
     // Statics for hand-coded Boyer-Moore search
     private static final char[] CLASSPATH_CHARS = {'c','l','a','s','s','-','p','a','t','h'};
     // The bad character shift for "class-path"
@@ -436,6 +436,57 @@ class JarVerifier {
         }
     }
 
+    // BEGIN Android-added: Eager parallel verification.
+    /**
+     * Returns the names of the signed entries whose digests haven't been
+     * verified yet. Should only be called after doneWithMeta().
+     */
+    Set<String> getUnverifiedNames() {
+        synchronized (sigFileSigners) {
+            return new HashSet<>(sigFileSigners.keySet());
+        }
+    }
+
+    /**
+     * Digests the data of an entry, read from {@code is}, and records the
+     * signers of the entry if the digest matches the manifest. Unlike the
+     * other methods, this is safe to call from several threads at once.
+     *
+     * @throws SecurityException if the digest doesn't match the manifest.
+     */
+    void verifyEntry(Manifest man, String name, JarEntry je, InputStream is)
+        throws IOException
+    {
+        ManifestEntryVerifier mev = new ManifestEntryVerifier(man);
+        mev.setEntry(name, je);
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = is.read(buffer, 0, buffer.length)) != -1) {
+            mev.update(buffer, 0, n);
+        }
+        mev.verify(verifiedSigners, sigFileSigners);
+    }
+
+    /**
+     * Returns a copy of the signers of the entries verified so far.
+     */
+    Map<String, CodeSigner[]> getVerifiedSigners() {
+        synchronized (verifiedSigners) {
+            return new HashMap<>(verifiedSigners);
+        }
+    }
+
+    /**
+     * Records entries as verified, with the given signers.
+     */
+    void addVerifiedSigners(Map<String, CodeSigner[]> signers) {
+        for (Map.Entry<String, CodeSigner[]> e : signers.entrySet()) {
+            sigFileSigners.remove(e.getKey());
+            verifiedSigners.put(e.getKey(), e.getValue());
+        }
+    }
+    // END Android-added: Eager parallel verification.
+
     static class VerifierStream extends java.io.InputStream {
 
         private InputStream is;
@@ -32,12 +32,14 @@ import dalvik.system.VMRuntime;
 import java.util.Iterator;
 import java.util.ArrayList;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import libcore.util.ConcurrentLruCache;
 import libcore.util.EmptyArray;
 
 // Android-changed: Document that named capturing is only available from API 26.
@@ -1064,9 +1066,16 @@ public final class Pattern
      *          If the expression's syntax is invalid
      */
     public static boolean matches(String regex, CharSequence input) {
-        Pattern p = Pattern.compile(regex);
-        Matcher m = p.matcher(input);
-        return m.matches();
+        // BEGIN Android-changed: Reuse patterns compiled by earlier calls, and matchers.
+        // Pattern p = Pattern.compile(regex);
+        // Matcher m = p.matcher(input);
+        // return m.matches();
+        Pattern p = compileCached(regex);
+        Matcher m = p.obtainMatcher(input);
+        boolean result = m.matches();
+        p.recycleMatcher(m);
+        return result;
+        // END Android-changed: Reuse patterns compiled by earlier calls, and matchers.
     }
 
     // Android-changed: Adopt split() behavior change only for apps targeting API > 28.
@@ -1146,7 +1155,9 @@ public final class Pattern
         int index = 0;
         boolean matchLimited = limit > 0;
         ArrayList<String> matchList = new ArrayList<>();
-        Matcher m = matcher(input);
+        // Android-changed: Reuse this thread's matcher for this pattern.
+        // Matcher m = matcher(input);
+        Matcher m = obtainMatcher(input);
 
         // Add segments before each match found
         while(m.find()) {
@@ -1172,6 +1183,8 @@ public final class Pattern
                 index = m.end();
             }
         }
+        // Android-added: Reuse this thread's matcher for this pattern.
+        recycleMatcher(m);
 
         // If no match was found, return this
         if (index == 0)
@@ -1271,6 +1284,137 @@ public final class Pattern
     }
     // END Android-added: fastSplit() to speed up simple cases.
 
+    // BEGIN Android-added: Cache the patterns compiled by convenience methods.
+    // Each compiled pattern owns a native ICU pattern whose size ICU doesn't
+    // report, so entries are weighed by an estimate of it.
+    private static final int CACHE_ENTRY_OVERHEAD_BYTES = 512;
+    private static final int CACHE_BYTES_PER_REGEX_CHAR = 16;
+    private static final int CACHE_MAX_BYTES = 128 * 1024;
+
+    private static final class CacheKey {
+        final String regex;
+        final int flags;
+
+        CacheKey(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override public boolean equals(Object o) {
+            return o instanceof CacheKey
+                    && flags == ((CacheKey) o).flags
+                    && regex.equals(((CacheKey) o).regex);
+        }
+
+        @Override public int hashCode() {
+            return regex.hashCode() * 31 + flags;
+        }
+    }
+
+    private static final ConcurrentLruCache<CacheKey, Pattern> compiledPatterns =
+            new ConcurrentLruCache<CacheKey, Pattern>(CACHE_MAX_BYTES,
+                    ConcurrentLruCache.Policy.LRU, 0) {
+        @Override protected Pattern create(CacheKey key) {
+            return new Pattern(key.regex, key.flags);
+        }
+
+        @Override protected int sizeOf(CacheKey key, Pattern value) {
+            return CACHE_ENTRY_OVERHEAD_BYTES + CACHE_BYTES_PER_REGEX_CHAR * key.regex.length();
+        }
+    };
+
+    /**
+     * Returns a pattern equal to {@code Pattern.compile(regex)}, reusing one
+     * that was compiled recently. Patterns are immutable, so the result may
+     * be shared between threads. This is used by convenience methods such as
+     * {@link String#split} that otherwise compile their regex on every call.
+     *
+     * @throws PatternSyntaxException if the expression's syntax is invalid
+     * @hide
+     */
+    public static Pattern compileCached(String regex) {
+        Objects.requireNonNull(regex, "regex == null");
+        return compiledPatterns.get(new CacheKey(regex, 0));
+    }
+
+    /**
+     * Returns the cache used by {@link #compileCached}, for its hit, miss and
+     * eviction counts.
+     *
+     * @hide
+     */
+    public static ConcurrentLruCache<?, Pattern> getCompiledPatternCache() {
+        return compiledPatterns;
+    }
+    // END Android-added: Cache the patterns compiled by convenience methods.
+
+    // BEGIN Android-added: Reuse matchers on each thread.
+    // Creating a matcher allocates a native ICU matcher, which costs more than
+    // most matches on short inputs.
+    private static final int MATCHERS_PER_THREAD = 4;
+
+    private static final ThreadLocal<Matcher[]> threadMatchers = new ThreadLocal<Matcher[]>() {
+        @Override protected Matcher[] initialValue() {
+            return new Matcher[MATCHERS_PER_THREAD];
+        }
+    };
+
+    /**
+     * Returns a matcher of this pattern for {@code input}, like
+     * {@link #matcher}, reusing one that this thread passed to
+     * {@link #recycleMatcher} if possible.
+     *
+     * <p>The matcher belongs to the caller until it is recycled. Matchers
+     * that are never recycled are simply garbage collected.
+     *
+     * @hide
+     */
+    public Matcher obtainMatcher(CharSequence input) {
+        Matcher[] matchers = threadMatchers.get();
+        for (int i = 0; i < matchers.length; i++) {
+            Matcher m = matchers[i];
+            if (m != null && m.pattern() == this) {
+                // Clear the slot first, so that a nested call from
+                // input.toString() can't get the same matcher.
+                matchers[i] = null;
+                return m.reset(input);
+            }
+        }
+        return matcher(input);
+    }
+
+    /**
+     * Keeps {@code m} for reuse by a later call to {@link #obtainMatcher} on
+     * this thread. The caller must not use {@code m} afterwards.
+     *
+     * @hide
+     */
+    public void recycleMatcher(Matcher m) {
+        if (m.pattern() != this) {
+            return;
+        }
+        // Don't hold on to the input, which may be large, and undo any
+        // changes to the region's bounds, which reset() keeps.
+        m.reset("");
+        if (!m.anchoringBounds) {
+            m.useAnchoringBounds(true);
+        }
+        if (m.transparentBounds) {
+            m.useTransparentBounds(false);
+        }
+        Matcher[] matchers = threadMatchers.get();
+        for (int i = 0; i < matchers.length; i++) {
+            if (matchers[i] == null) {
+                matchers[i] = m;
+                return;
+            }
+        }
+        // Replace the matcher that was recycled first.
+        System.arraycopy(matchers, 1, matchers, 0, matchers.length - 1);
+        matchers[matchers.length - 1] = m;
+    }
+    // END Android-added: Reuse matchers on each thread.
+
     /**
      * Splits the given input sequence around matches of this pattern.
      *
@@ -120,6 +120,80 @@ class Adler32 implements Checksum {
         buffer.position(limit);
     }
 
+    // BEGIN Android-added: Bulk update and combine.
+    /**
+     * Updates the checksum with the bytes from each of the specified buffers,
+     * in order, as if by calling {@link #update(ByteBuffer)} for each of them.
+     *
+     * <p>Consecutive small buffers are copied together so that they are
+     * checksummed in a single native call.
+     *
+     * @param buffers the ByteBuffers to update the checksum with
+     * @hide
+     */
+    public void update(ByteBuffer[] buffers) {
+        int count = 0;
+        for (ByteBuffer buffer : buffers) {
+            int rem = buffer.remaining();
+            if (rem >= CRC32.BULK_COPY_THRESHOLD) {
+                if (count > 0) {
+                    adler = updateBytes(adler, scratch, 0, count);
+                    count = 0;
+                }
+                update(buffer);
+                continue;
+            }
+            if (scratch == null) {
+                scratch = new byte[CRC32.BULK_SCRATCH_SIZE];
+            }
+            if (count + rem > scratch.length) {
+                adler = updateBytes(adler, scratch, 0, count);
+                count = 0;
+            }
+            buffer.get(scratch, count, rem);
+            count += rem;
+        }
+        if (count > 0) {
+            adler = updateBytes(adler, scratch, 0, count);
+        }
+    }
+
+    // Where update(ByteBuffer[]) copies small buffers, allocated on first use.
+    private byte[] scratch;
+
+    private static final int BASE = 65521;  // largest prime smaller than 65536
+
+    /**
+     * Returns the Adler-32 of the concatenation of two byte sequences, given
+     * the Adler-32 of each and the length of the second, without their data.
+     * This allows parts of the data to be checksummed independently, for
+     * example on different threads.
+     *
+     * @param adler1 the Adler-32 of the first sequence
+     * @param adler2 the Adler-32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the Adler-32 of the concatenation
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @hide
+     */
+    public static long combine(long adler1, long adler2, long len2) {
+        // As in zlib's adler32_combine.
+        if (len2 < 0) {
+            throw new IllegalArgumentException("len2 < 0: " + len2);
+        }
+        long rem = len2 % BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % BASE;
+        sum1 += (adler2 & 0xffff) + BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + BASE - rem;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum2 >= (BASE << 1)) sum2 -= (BASE << 1);
+        if (sum2 >= BASE) sum2 -= BASE;
+        return sum1 | (sum2 << 16);
+    }
+    // END Android-added: Bulk update and combine.
+
     /**
      * Resets the checksum to initial value.
      */
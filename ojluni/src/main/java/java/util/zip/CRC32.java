@@ -117,6 +117,118 @@ class CRC32 implements Checksum {
         buffer.position(limit);
     }
 
+    // BEGIN Android-added: Bulk update and combine.
+    /**
+     * Updates the checksum with the bytes from each of the specified buffers,
+     * in order, as if by calling {@link #update(ByteBuffer)} for each of them.
+     *
+     * <p>Consecutive small buffers are copied together so that they are
+     * checksummed in a single native call.
+     *
+     * @param buffers the ByteBuffers to update the checksum with
+     * @hide
+     */
+    public void update(ByteBuffer[] buffers) {
+        int count = 0;
+        for (ByteBuffer buffer : buffers) {
+            int rem = buffer.remaining();
+            if (rem >= BULK_COPY_THRESHOLD) {
+                if (count > 0) {
+                    crc = updateBytes(crc, scratch, 0, count);
+                    count = 0;
+                }
+                update(buffer);
+                continue;
+            }
+            if (scratch == null) {
+                scratch = new byte[BULK_SCRATCH_SIZE];
+            }
+            if (count + rem > scratch.length) {
+                crc = updateBytes(crc, scratch, 0, count);
+                count = 0;
+            }
+            buffer.get(scratch, count, rem);
+            count += rem;
+        }
+        if (count > 0) {
+            crc = updateBytes(crc, scratch, 0, count);
+        }
+    }
+
+    /**
+     * Buffers with fewer bytes than this are copied together by
+     * update(ByteBuffer[]), because a native call costs more than the copy.
+     */
+    static final int BULK_COPY_THRESHOLD = 256;
+    static final int BULK_SCRATCH_SIZE = 8192;
+
+    // Where update(ByteBuffer[]) copies small buffers, allocated on first use.
+    private byte[] scratch;
+
+    /**
+     * Returns the CRC-32 of the concatenation of two byte sequences, given
+     * the CRC-32 of each and the length of the second, without their data.
+     * This allows parts of the data to be checksummed independently, for
+     * example on different threads.
+     *
+     * @param crc1 the CRC-32 of the first sequence
+     * @param crc2 the CRC-32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32 of the concatenation
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @hide
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        return combine(crc1, crc2, len2, POLY, X2N_TABLE);
+    }
+
+    // The reflected CRC-32 polynomial, and x^(2^n) modulo it for n = 0 to 31.
+    private static final int POLY = 0xedb88320;
+    private static final int[] X2N_TABLE = x2nTable(POLY);
+
+    // Combines CRCs as in zlib's crc32_combine, for any reflected polynomial.
+    static long combine(long crc1, long crc2, long len2, int poly, int[] x2nTable) {
+        if (len2 < 0) {
+            throw new IllegalArgumentException("len2 < 0: " + len2);
+        }
+        // Multiply crc1 by x^(8 * len2), which appends len2 zero bytes to the first sequence.
+        int p = 1 << 31;  // x^0
+        for (int k = 3; len2 != 0; len2 >>>= 1, k++) {
+            if ((len2 & 1) != 0) {
+                p = multModP(x2nTable[k & 31], p, poly);
+            }
+        }
+        return (multModP(p, (int) crc1, poly) ^ crc2) & 0xffffffffL;
+    }
+
+    // Returns x^(2^n) modulo the reflected polynomial, for n = 0 to 31.
+    static int[] x2nTable(int poly) {
+        int[] table = new int[32];
+        int p = 1 << 30;  // x^1
+        table[0] = p;
+        for (int n = 1; n < 32; n++) {
+            table[n] = p = multModP(p, p, poly);
+        }
+        return table;
+    }
+
+    // Returns a * b modulo the reflected polynomial, where a is not zero.
+    private static int multModP(int a, int b, int poly) {
+        int m = 1 << 31;
+        int p = 0;
+        while (true) {
+            if ((a & m) != 0) {
+                p ^= b;
+                if ((a & (m - 1)) == 0) {
+                    return p;
+                }
+            }
+            m >>>= 1;
+            b = (b & 1) != 0 ? (b >>> 1) ^ poly : b >>> 1;
+        }
+    }
+    // END Android-added: Bulk update and combine.
+
     /**
      * Resets CRC-32 to initial value.
      */
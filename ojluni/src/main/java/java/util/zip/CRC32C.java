@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A class that can be used to compute the CRC-32C of a data stream, as
+ * defined in RFC 3720. It uses the Castagnoli polynomial, which detects more
+ * errors than the polynomial of {@link CRC32}.
+ *
+ * <p>The checksum is computed in Java, eight bytes at a time, so there is no
+ * native call per update.
+ *
+ * <p>Passing a {@code null} argument to a method in this class will cause
+ * a {@link NullPointerException} to be thrown.
+ *
+ * @hide
+ */
+public final class CRC32C implements Checksum {
+
+    // The reflected Castagnoli polynomial.
+    private static final int POLY = 0x82f63b78;
+    private static final int[] X2N_TABLE = CRC32.x2nTable(POLY);
+
+    // TABLES[k][b] is the CRC of byte b followed by k zero bytes.
+    private static final int[][] TABLES = new int[8][256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            int crc = b;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ POLY : crc >>> 1;
+            }
+            TABLES[0][b] = crc;
+        }
+        for (int k = 1; k < 8; k++) {
+            for (int b = 0; b < 256; b++) {
+                int crc = TABLES[k - 1][b];
+                TABLES[k][b] = (crc >>> 8) ^ TABLES[0][crc & 0xff];
+            }
+        }
+    }
+
+    // The CRC with its bits inverted, as it is while bytes are added.
+    private int crc = 0xffffffff;
+
+    /**
+     * Creates a new CRC32C object.
+     */
+    public CRC32C() {
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified byte (the low
+     * eight bits of the argument b).
+     *
+     * @param b the byte to update the checksum with
+     */
+    @Override
+    public void update(int b) {
+        crc = (crc >>> 8) ^ TABLES[0][(crc ^ b) & 0xff];
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code off} is negative, or {@code len} is negative,
+     *         or {@code off+len} is greater than the length of the
+     *         array {@code b}
+     */
+    @Override
+    public void update(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        crc = updateBytes(crc, b, off, off + len);
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @param b the array of bytes to update the checksum with
+     */
+    public void update(byte[] b) {
+        crc = updateBytes(crc, b, 0, b.length);
+    }
+
+    /**
+     * Updates the checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will
+     * be updated to its limit; its limit will not have been changed.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        if (pos >= limit) {
+            return;
+        }
+        if (buffer.hasArray()) {
+            crc = updateBytes(crc, buffer.array(), pos + buffer.arrayOffset(),
+                    limit + buffer.arrayOffset());
+        } else {
+            ByteBuffer view = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            int c = crc;
+            for (; pos <= limit - 8; pos += 8) {
+                c = update8(c, view.getInt(pos), view.getInt(pos + 4));
+            }
+            for (; pos < limit; pos++) {
+                c = (c >>> 8) ^ TABLES[0][(c ^ view.get(pos)) & 0xff];
+            }
+            crc = c;
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Updates the checksum with the bytes from each of the specified buffers,
+     * in order, as if by calling {@link #update(ByteBuffer)} for each of them.
+     *
+     * @param buffers the ByteBuffers to update the checksum with
+     */
+    public void update(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            update(buffer);
+        }
+    }
+
+    /**
+     * Resets CRC-32C to initial value.
+     */
+    @Override
+    public void reset() {
+        crc = 0xffffffff;
+    }
+
+    /**
+     * Returns CRC-32C value.
+     */
+    @Override
+    public long getValue() {
+        return (~crc) & 0xffffffffL;
+    }
+
+    /**
+     * Returns the CRC-32C of the concatenation of two byte sequences, given
+     * the CRC-32C of each and the length of the second, without their data.
+     *
+     * @param crc1 the CRC-32C of the first sequence
+     * @param crc2 the CRC-32C of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32C of the concatenation
+     * @throws IllegalArgumentException if {@code len2} is negative
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        return CRC32.combine(crc1, crc2, len2, POLY, X2N_TABLE);
+    }
+
+    private static int updateBytes(int crc, byte[] b, int off, int end) {
+        // Slicing-by-8: look up eight bytes at a time in eight tables.
+        for (; off <= end - 8; off += 8) {
+            int lo = (b[off] & 0xff) | (b[off + 1] & 0xff) << 8
+                    | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+            int hi = (b[off + 4] & 0xff) | (b[off + 5] & 0xff) << 8
+                    | (b[off + 6] & 0xff) << 16 | (b[off + 7] & 0xff) << 24;
+            crc = update8(crc, lo, hi);
+        }
+        for (; off < end; off++) {
+            crc = (crc >>> 8) ^ TABLES[0][(crc ^ b[off]) & 0xff];
+        }
+        return crc;
+    }
+
+    // Adds eight bytes, given as two little-endian ints.
+    private static int update8(int crc, int lo, int hi) {
+        lo ^= crc;
+        return TABLES[7][lo & 0xff] ^ TABLES[6][(lo >>> 8) & 0xff]
+                ^ TABLES[5][(lo >>> 16) & 0xff] ^ TABLES[4][lo >>> 24]
+                ^ TABLES[3][hi & 0xff] ^ TABLES[2][(hi >>> 8) & 0xff]
+                ^ TABLES[1][(hi >>> 16) & 0xff] ^ TABLES[0][hi >>> 24];
+    }
+}
@@ -95,6 +95,9 @@ class Deflater {
     @ReachabilitySensitive
     private final CloseGuard guard = CloseGuard.get();
 
+    // Android-added: Pooled deflaters.
+    private final boolean nowrap;
+
     /**
      * Compression method for the deflate algorithm (the only one currently
      * supported).
@@ -185,6 +188,8 @@ class Deflater {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
         this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        // Android-added: Pooled deflaters.
+        this.nowrap = nowrap;
         // Android-added: CloseGuard support.
         guard.open("end");
     }
@@ -583,6 +588,36 @@ class Deflater {
             throw new NullPointerException("Deflater has been closed");
     }
 
+    // BEGIN Android-added: Pooled deflaters.
+    boolean ended() {
+        synchronized (zsRef) {
+            return zsRef.address() == 0;
+        }
+    }
+
+    boolean isNowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Returns the level the next input will be compressed with, or -2 if the
+     * strategy isn't the default one, as neither can be restored by reset().
+     */
+    int getPoolableLevel() {
+        synchronized (zsRef) {
+            return strategy == DEFAULT_STRATEGY ? level : -2;
+        }
+    }
+
+    /**
+     * Records the caller as the owner of this deflater, so that a leak is
+     * reported with its stack rather than that of the first owner.
+     */
+    void openGuard(String closer) {
+        guard.open(closer);
+    }
+    // END Android-added: Pooled deflaters.
+
     // Android-changed: initIDs handled in register method.
     // private native static void initIDs();
     private native static long init(int level, int strategy, boolean nowrap);
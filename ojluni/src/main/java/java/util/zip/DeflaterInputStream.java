@@ -75,7 +75,9 @@ public class DeflaterInputStream extends FilterInputStream {
      * @throws NullPointerException if {@code in} is null
      */
     public DeflaterInputStream(InputStream in) {
-        this(in, new Deflater());
+        // Android-changed: Pooled deflaters.
+        // this(in, new Deflater());
+        this(in, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, false));
         usesDefaultDeflater = true;
     }
 
@@ -128,7 +130,10 @@ public class DeflaterInputStream extends FilterInputStream {
             try {
                 // Clean up
                 if (usesDefaultDeflater) {
-                    def.end();
+                    // Android-changed: Pooled deflaters.
+                    // def.end();
+                    // def is final, but every other use of it is behind ensureOpen().
+                    ZStreamPool.releaseDeflater(def);
                 }
 
                 in.close();
@@ -41,8 +41,13 @@ import java.io.IOException;
  */
 public
 class DeflaterOutputStream extends FilterOutputStream {
+    // Android-changed: Pooled deflaters.
     /**
      * Compressor for this stream.
+     *
+     * <p>If the stream created its own deflater, it may have taken it from a
+     * pool that other streams share. The stream then returns it to the pool
+     * when it is closed, and sets this field to {@code null}.
      */
     protected Deflater def;
 
@@ -160,7 +165,10 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public DeflaterOutputStream(OutputStream out, boolean syncFlush) {
-        this(out, new Deflater(), 512, syncFlush);
+        // Android-changed: Pooled deflaters.
+        // this(out, new Deflater(), 512, syncFlush);
+        this(out, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, false), 512,
+                syncFlush);
         usesDefaultDeflater = true;
     }
 
@@ -198,7 +206,9 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        if (def.finished()) {
+        // Android-changed: Pooled deflaters.
+        // if (def.finished()) {
+        if (deflaterFinished()) {
             throw new IOException("write beyond end of stream");
         }
         if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
@@ -221,7 +231,9 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void finish() throws IOException {
-        if (!def.finished()) {
+        // Android-changed: Pooled deflaters.
+        // if (!def.finished()) {
+        if (!deflaterFinished()) {
             def.finish();
             while (!def.finished()) {
                 deflate();
@@ -237,13 +249,36 @@ class DeflaterOutputStream extends FilterOutputStream {
     public void close() throws IOException {
         if (!closed) {
             finish();
-            if (usesDefaultDeflater)
-                def.end();
-            out.close();
-            closed = true;
+            // BEGIN Android-changed: Pooled deflaters.
+            // Only return the deflater once this stream can't use it any more.
+            // if (usesDefaultDeflater)
+            //     def.end();
+            // out.close();
+            // closed = true;
+            try {
+                out.close();
+            } finally {
+                closed = true;
+                if (usesDefaultDeflater) {
+                    ZStreamPool.releaseDeflater(def);
+                    def = null;
+                }
+            }
+            // END Android-changed: Pooled deflaters.
         }
     }
 
+    // BEGIN Android-added: Pooled deflaters.
+    /**
+     * Returns whether def has finished, or this stream is closed. A default
+     * deflater is returned to {@link ZStreamPool} when the stream is closed,
+     * and def is then null.
+     */
+    boolean deflaterFinished() {
+        return closed || def.finished();
+    }
+    // END Android-added: Pooled deflaters.
+
     /**
      * Writes next block of compressed data to the output stream.
      * @throws IOException if an I/O error has occurred
@@ -277,7 +312,9 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public void flush() throws IOException {
-        if (syncFlush && !def.finished()) {
+        // Android-changed: Pooled deflaters.
+        // if (syncFlush && !def.finished()) {
+        if (syncFlush && !deflaterFinished()) {
             int len = 0;
             while ((len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0)
             {
@@ -74,7 +74,9 @@ class GZIPInputStream extends InflaterInputStream {
      * @exception IllegalArgumentException if {@code size <= 0}
      */
     public GZIPInputStream(InputStream in, int size) throws IOException {
-        super(in, new Inflater(true), size);
+        // Android-changed: Pooled inflaters.
+        // super(in, new Inflater(true), size);
+        super(in, true, size);
         // Android-removed: Unconditionally close external inflaters (b/26462400)
         // usesDefaultInflater = true;
         // BEGIN Android-changed: Do not rely on finalization to inf.end().
@@ -82,7 +84,9 @@ class GZIPInputStream extends InflaterInputStream {
         try {
             readHeader(in);
         } catch (Exception e) {
-            inf.end();
+            // Android-changed: Pooled inflaters.
+            // inf.end();
+            endInflater();
             throw e;
         }
         // END Android-changed: Do not rely on finalization to inf.end().
@@ -87,7 +87,9 @@ class GZIPOutputStream extends DeflaterOutputStream {
     public GZIPOutputStream(OutputStream out, int size, boolean syncFlush)
         throws IOException
     {
-        super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+        // Android-changed: Pooled deflaters.
+        // super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+        super(out, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, true),
               size,
               syncFlush);
         usesDefaultDeflater = true;
@@ -153,7 +155,9 @@ class GZIPOutputStream extends DeflaterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void finish() throws IOException {
-        if (!def.finished()) {
+        // Android-changed: Pooled deflaters.
+        // if (!def.finished()) {
+        if (!deflaterFinished()) {
             def.finish();
             while (!def.finished()) {
                 int len = def.deflate(buf, 0, buf.length);
@@ -95,6 +95,9 @@ class Inflater {
     @ReachabilitySensitive
     private final CloseGuard guard = CloseGuard.get();
 
+    // Android-added: Pooled inflaters.
+    private final boolean nowrap;
+
     private static final byte[] defaultBuf = new byte[0];
 
     // Android-removed: initIDs handled in register method.
@@ -118,6 +121,8 @@ class Inflater {
      */
     public Inflater(boolean nowrap) {
         zsRef = new ZStreamRef(init(nowrap));
+        // Android-added: Pooled inflaters.
+        this.nowrap = nowrap;
         // Android-added: CloseGuard support.
         guard.open("end");
     }
@@ -422,6 +427,20 @@ class Inflater {
         }
     }
 
+    // BEGIN Android-added: Pooled inflaters.
+    boolean isNowrap() {
+        return nowrap;
+    }
+
+    /**
+     * Records the caller as the owner of this inflater, so that a leak is
+     * reported with its stack rather than that of the first owner.
+     */
+    void openGuard(String closer) {
+        guard.open(closer);
+    }
+    // END Android-added: Pooled inflaters.
+
     // Android-changed: initIDs handled in register method.
     // private native static void initIDs();
     private native static long init(boolean nowrap);
@@ -41,8 +41,13 @@ import java.io.EOFException;
  */
 public
 class InflaterInputStream extends FilterInputStream {
+    // Android-changed: Pooled inflaters.
     /**
      * Decompressor for this stream.
+     *
+     * <p>If the stream created its own inflater, it may have taken it from a
+     * pool that other streams share. The stream then returns it to the pool
+     * when it is closed, and sets this field to {@code null}.
      */
     protected Inflater inf;
 
@@ -117,17 +122,45 @@ class InflaterInputStream extends FilterInputStream {
     // Android-changed: Unconditionally close external inflaters (b/26462400)
     // See http://b/111630946 for more details.
     // boolean usesDefaultInflater = false;
+    // Android-added: Pooled inflaters.
+    // Whether inf was taken from ZStreamPool, and is returned to it on close.
+    boolean usesPooledInflater = false;
 
     /**
      * Creates a new input stream with a default decompressor and buffer size.
      * @param in the input stream
      */
     public InflaterInputStream(InputStream in) {
-        this(in, new Inflater());
+        // Android-changed: Pooled inflaters.
+        // this(in, new Inflater());
+        this(in, false, 512);
         // Android-changed: Unconditionally close external inflaters (b/26462400)
         // usesDefaultInflater = true;
     }
 
+    // BEGIN Android-added: Pooled inflaters.
+    /**
+     * Creates a new input stream with an inflater from {@link ZStreamPool}.
+     */
+    InflaterInputStream(InputStream in, boolean nowrap, int size) {
+        this(in, ZStreamPool.acquireInflater(nowrap), size);
+        usesPooledInflater = true;
+    }
+
+    /**
+     * Called by {@link #close()} to return the inflater to the pool if it came
+     * from there, or else to end it.
+     */
+    void endInflater() {
+        if (usesPooledInflater) {
+            ZStreamPool.releaseInflater(inf);
+            inf = null;
+        } else {
+            inf.end();
+        }
+    }
+    // END Android-added: Pooled inflaters.
+
     private byte[] singleByteBuf = new byte[1];
 
     /**
@@ -251,9 +284,18 @@ class InflaterInputStream extends FilterInputStream {
         if (!closed) {
             // Android-changed: Unconditionally close external inflaters (b/26462400)
             //if (usesDefaultInflater)
-            inf.end();
-            in.close();
-            closed = true;
+            // BEGIN Android-changed: Pooled inflaters.
+            // Only return the inflater once this stream can't use it any more.
+            // inf.end();
+            // in.close();
+            // closed = true;
+            try {
+                in.close();
+            } finally {
+                closed = true;
+                endInflater();
+            }
+            // END Android-changed: Pooled inflaters.
         }
     }
 
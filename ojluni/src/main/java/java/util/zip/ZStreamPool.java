@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package java.util.zip;
+
+/**
+ * A process-wide pool of {@link Inflater} and {@link Deflater} instances.
+ *
+ * <p>The streams of this package take their inflater or deflater from the
+ * pool when they create it themselves, and give it back when they are closed,
+ * so that decompressing many small streams doesn't allocate and free zlib's
+ * native state for each of them. Inflaters are pooled by their {@code nowrap}
+ * mode, and deflaters by their level and {@code nowrap} mode.
+ *
+ * <p>Instances are {@link Inflater#reset() reset} when they are released. The
+ * pool is bounded both in the number of instances of each kind and in the
+ * native memory they hold; instances that don't fit, or whose state can't be
+ * restored by a reset, are ended instead. An instance taken from the pool
+ * reports the stack of its new owner if it leaks, through
+ * {@link dalvik.system.CloseGuard}.
+ *
+ * <p>An instance must not be used after it is released, since the pool may
+ * hand it to another owner at any time. The streams of this package drop
+ * their reference to an instance when they release it.
+ *
+ * @hide
+ */
+public final class ZStreamPool {
+
+    // Estimates of the native memory zlib allocates for each stream, with the
+    // default window size and memory level.
+    static final long INFLATER_NATIVE_BYTES = (7 + 32) * 1024;
+    static final long DEFLATER_NATIVE_BYTES = (6 + 256) * 1024;
+
+    private static final int MAX_PER_KEY = 8;
+    private static final long MAX_RETAINED_NATIVE_BYTES = 2 * 1024 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final Object lock = new Object();
+
+    // Stacks of pooled instances, indexed by inflaterKey() and deflaterKey().
+    private static final Inflater[][] inflaters = new Inflater[2][MAX_PER_KEY];
+    private static final int[] inflaterCounts = new int[2];
+    private static final Deflater[][] deflaters = new Deflater[2 * 11][MAX_PER_KEY];
+    private static final int[] deflaterCounts = new int[2 * 11];
+
+    private static long retainedNativeBytes;
+    private static long hitCount;
+    private static long missCount;
+
+    private ZStreamPool() {
+    }
+
+    /**
+     * Returns an inflater from the pool, or a new one if there is none.
+     */
+    public static Inflater acquireInflater(boolean nowrap) {
+        int key = inflaterKey(nowrap);
+        Inflater inf;
+        synchronized (lock) {
+            while ((inf = popInflater(key)) != null && inf.ended()) {
+                // Ended after it was released; drop it.
+            }
+            if (inf != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        if (inf == null) {
+            return new Inflater(nowrap);
+        }
+        inf.openGuard("end");
+        return inf;
+    }
+
+    /**
+     * Resets the inflater and returns it to the pool, or ends it if the pool
+     * is full. Releasing an inflater that is already pooled does nothing.
+     */
+    public static void releaseInflater(Inflater inf) {
+        if (inf.ended()) {
+            return;
+        }
+        int key = inflaterKey(inf.isNowrap());
+        synchronized (lock) {
+            Inflater[] stack = inflaters[key];
+            int count = inflaterCounts[key];
+            for (int i = 0; i < count; i++) {
+                if (stack[i] == inf) {
+                    // Released twice. Leave it alone, since it's pooled.
+                    return;
+                }
+            }
+            if (count < MAX_PER_KEY && fits(INFLATER_NATIVE_BYTES)) {
+                // Reset under the lock, so that no one can take it before.
+                inf.reset();
+                stack[count] = inf;
+                inflaterCounts[key] = count + 1;
+                retainedNativeBytes += INFLATER_NATIVE_BYTES;
+                return;
+            }
+        }
+        inf.end();
+    }
+
+    /**
+     * Returns a deflater with the given level from the pool, or a new one if
+     * there is none.
+     *
+     * @throws IllegalArgumentException if the level isn't between
+     *     {@link Deflater#DEFAULT_COMPRESSION} and {@link Deflater#BEST_COMPRESSION}.
+     */
+    public static Deflater acquireDeflater(int level, boolean nowrap) {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid level: " + level);
+        }
+        int key = deflaterKey(level, nowrap);
+        Deflater def;
+        synchronized (lock) {
+            while ((def = popDeflater(key)) != null && def.ended()) {
+                // Ended after it was released; drop it.
+            }
+            if (def != null) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+        if (def == null) {
+            return new Deflater(level, nowrap);
+        }
+        def.openGuard("end");
+        return def;
+    }
+
+    /**
+     * Resets the deflater and returns it to the pool, or ends it if the pool
+     * is full or its strategy was changed. Releasing a deflater that is already
+     * pooled does nothing.
+     */
+    public static void releaseDeflater(Deflater def) {
+        if (def.ended()) {
+            return;
+        }
+        int level = def.getPoolableLevel();
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            def.end();
+            return;
+        }
+        int key = deflaterKey(level, def.isNowrap());
+        synchronized (lock) {
+            Deflater[] stack = deflaters[key];
+            int count = deflaterCounts[key];
+            for (int i = 0; i < count; i++) {
+                if (stack[i] == def) {
+                    // Released twice. Leave it alone, since it's pooled.
+                    return;
+                }
+            }
+            if (count < MAX_PER_KEY && fits(DEFLATER_NATIVE_BYTES)) {
+                // Reset under the lock, so that no one can take it before.
+                def.reset();
+                // Don't hold on to the caller's last input.
+                def.setInput(EMPTY);
+                stack[count] = def;
+                deflaterCounts[key] = count + 1;
+                retainedNativeBytes += DEFLATER_NATIVE_BYTES;
+                return;
+            }
+        }
+        def.end();
+    }
+
+    /**
+     * Ends all the pooled instances, freeing their native memory.
+     */
+    public static void clear() {
+        Inflater inf;
+        Deflater def;
+        while (true) {
+            synchronized (lock) {
+                inf = null;
+                for (int key = 0; key < inflaters.length && inf == null; key++) {
+                    inf = popInflater(key);
+                }
+                def = null;
+                for (int key = 0; key < deflaters.length && def == null; key++) {
+                    def = popDeflater(key);
+                }
+            }
+            if (inf == null && def == null) {
+                return;
+            }
+            if (inf != null) {
+                inf.end();
+            }
+            if (def != null) {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of instances acquired from the pool rather than
+     * allocated.
+     */
+    public static long getHitCount() {
+        synchronized (lock) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Returns the number of instances allocated because there was none in the
+     * pool.
+     */
+    public static long getMissCount() {
+        synchronized (lock) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Returns an estimate of the native memory held by the pooled instances,
+     * in bytes.
+     */
+    public static long getRetainedNativeBytes() {
+        synchronized (lock) {
+            return retainedNativeBytes;
+        }
+    }
+
+    private static boolean fits(long nativeBytes) {
+        return retainedNativeBytes + nativeBytes <= MAX_RETAINED_NATIVE_BYTES;
+    }
+
+    private static Inflater popInflater(int key) {
+        int count = inflaterCounts[key];
+        if (count == 0) {
+            return null;
+        }
+        Inflater inf = inflaters[key][--count];
+        inflaters[key][count] = null;
+        inflaterCounts[key] = count;
+        retainedNativeBytes -= INFLATER_NATIVE_BYTES;
+        return inf;
+    }
+
+    private static Deflater popDeflater(int key) {
+        int count = deflaterCounts[key];
+        if (count == 0) {
+            return null;
+        }
+        Deflater def = deflaters[key][--count];
+        deflaters[key][count] = null;
+        deflaterCounts[key] = count;
+        retainedNativeBytes -= DEFLATER_NATIVE_BYTES;
+        return def;
+    }
+
+    private static int inflaterKey(boolean nowrap) {
+        return nowrap ? 1 : 0;
+    }
+
+    private static int deflaterKey(int level, boolean nowrap) {
+        return (level - Deflater.DEFAULT_COMPRESSION) * 2 + (nowrap ? 1 : 0);
+    }
+}
@@ -32,15 +32,19 @@ import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.WeakHashMap;
@@ -112,6 +116,26 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public static final int OPEN_DELETE = 0x4;
 
+    // BEGIN Android-added: Memory-mapped central directory.
+    /**
+     * Mode flag to read the zip file through memory mappings rather than
+     * through native calls. The central directory is indexed in Java when the
+     * zip file is opened, and reading entries doesn't take any locks, so
+     * threads reading different entries don't contend with each other.
+     *
+     * <p>Use it with {@link #OPEN_READ}, and optionally {@link #OPEN_DELETE}.
+     * Large archives are mapped in overlapping 2 GiB windows, which needs a
+     * 64-bit address space.
+     *
+     * @see #getStoredEntryBuffer(ZipEntry)
+     * @hide
+     */
+    public static final int OPEN_MAPPED = 0x8;
+
+    // The index of the central directory when opened with OPEN_MAPPED, null otherwise.
+    private final MappedSource source;
+    // END Android-added: Memory-mapped central directory.
+
     // Android-removed: initIDs() not used on Android.
     /*
     static {
@@ -238,7 +262,9 @@ class ZipFile implements ZipConstants, Closeable {
     public ZipFile(File file, int mode, Charset charset) throws IOException
     {
         if (((mode & OPEN_READ) == 0) ||
-            ((mode & ~(OPEN_READ | OPEN_DELETE)) != 0)) {
+            // Android-changed: Memory-mapped central directory.
+            // ((mode & ~(OPEN_READ | OPEN_DELETE)) != 0)) {
+            ((mode & ~(OPEN_READ | OPEN_DELETE | OPEN_MAPPED)) != 0)) {
             throw new IllegalArgumentException("Illegal mode: 0x"+
                                                Integer.toHexString(mode));
         }
@@ -260,6 +286,17 @@ class ZipFile implements ZipConstants, Closeable {
         if (charset == null)
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
+        // BEGIN Android-changed: Memory-mapped central directory.
+        if ((mode & OPEN_MAPPED) != 0) {
+            this.source = new MappedSource(file, zc);
+            this.name = name;
+            this.total = source.total;
+            this.locsig = source.locsig;
+            guard.open("close");
+            return;
+        }
+        this.source = null;
+        // END Android-changed: Memory-mapped central directory.
         // Android-removed: Skip perf counters.
         // long t0 = System.nanoTime();
         jzfile = open(name, mode, file.lastModified(), usemmap);
@@ -332,6 +369,12 @@ class ZipFile implements ZipConstants, Closeable {
      * Since 1.7
      */
     public String getComment() {
+        // BEGIN Android-added: Memory-mapped central directory.
+        if (source != null) {
+            ensureOpen();
+            return source.getComment();
+        }
+        // END Android-added: Memory-mapped central directory.
         synchronized (this) {
             ensureOpen();
             byte[] bcomm = getCommentBytes(jzfile);
@@ -353,6 +396,13 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
+        // BEGIN Android-added: Memory-mapped central directory.
+        if (source != null) {
+            ensureOpen();
+            int pos = source.getEntryPos(name);
+            return pos == -1 ? null : source.getZipEntry(pos, name);
+        }
+        // END Android-added: Memory-mapped central directory.
         long jzentry = 0;
         synchronized (this) {
             ensureOpen();
@@ -394,6 +444,11 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
+        // BEGIN Android-added: Memory-mapped central directory.
+        if (source != null) {
+            return getMappedInputStream(entry);
+        }
+        // END Android-added: Memory-mapped central directory.
         long jzentry = 0;
         ZipFileInputStream in = null;
         synchronized (this) {
@@ -431,8 +486,11 @@ class ZipFile implements ZipConstants, Closeable {
                 if (size > 65536) size = 65536;
                 if (size <= 0) size = 4096;
                 Inflater inf = getInflater();
+                // Android-changed: Memory-mapped central directory.
+                // InputStream is =
+                //     new ZipFileInflaterInputStream(in, inf, (int)size);
                 InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
+                    new ZipFileInflaterInputStream(in, in.size(), inf, (int)size);
                 synchronized (streams) {
                     streams.put(is, inf);
                 }
@@ -446,13 +504,20 @@ class ZipFile implements ZipConstants, Closeable {
     private class ZipFileInflaterInputStream extends InflaterInputStream {
         private volatile boolean closeRequested = false;
         private boolean eof = false;
-        private final ZipFileInputStream zfin;
-
-        ZipFileInflaterInputStream(ZipFileInputStream zfin, Inflater inf,
+        // BEGIN Android-changed: Memory-mapped central directory.
+        // Also inflate MappedInputStream, which isn't a ZipFileInputStream.
+        // private final ZipFileInputStream zfin;
+        private final long entrySize;
+
+        // ZipFileInflaterInputStream(ZipFileInputStream zfin, Inflater inf,
+        //         int size) {
+        ZipFileInflaterInputStream(InputStream zfin, long entrySize, Inflater inf,
                 int size) {
             super(zfin, inf, size);
-            this.zfin = zfin;
+            // this.zfin = zfin;
+            this.entrySize = entrySize;
         }
+        // END Android-changed: Memory-mapped central directory.
 
         public void close() throws IOException {
             if (closeRequested)
@@ -465,10 +530,20 @@ class ZipFile implements ZipConstants, Closeable {
                 inf = streams.remove(this);
             }
             if (inf != null) {
+                // Android-added: Pooled inflaters.
+                this.inf = null;
                 releaseInflater(inf);
             }
         }
 
+        // BEGIN Android-added: Pooled inflaters.
+        // InflaterInputStream.close() ends the inflater, which would keep close() above from
+        // releasing it. It is released there, or ended by ZipFile.close().
+        @Override
+        void endInflater() {
+        }
+        // END Android-added: Pooled inflaters.
+
         // Override fill() method to provide an extra "dummy" byte
         // at the end of the input stream. This is required when
         // using the "nowrap" Inflater option.
@@ -488,7 +563,9 @@ class ZipFile implements ZipConstants, Closeable {
         public int available() throws IOException {
             if (closeRequested)
                 return 0;
-            long avail = zfin.size() - inf.getBytesWritten();
+            // Android-changed: Memory-mapped central directory.
+            // long avail = zfin.size() - inf.getBytesWritten();
+            long avail = entrySize - inf.getBytesWritten();
             return (avail > (long) Integer.MAX_VALUE ?
                     Integer.MAX_VALUE : (int) avail);
         }
@@ -503,6 +580,8 @@ class ZipFile implements ZipConstants, Closeable {
      * a new one.
      */
     private Inflater getInflater() {
+        // BEGIN Android-changed: Pooled inflaters.
+        /*
         Inflater inf;
         synchronized (inflaterCache) {
             while (null != (inf = inflaterCache.poll())) {
@@ -512,22 +591,31 @@ class ZipFile implements ZipConstants, Closeable {
             }
         }
         return new Inflater(true);
+        */
+        return ZStreamPool.acquireInflater(true);
+        // END Android-changed: Pooled inflaters.
     }
 
     /*
      * Releases the specified inflater to the list of available inflaters.
      */
     private void releaseInflater(Inflater inf) {
+        // BEGIN Android-changed: Pooled inflaters.
+        /*
         if (false == inf.ended()) {
             inf.reset();
             synchronized (inflaterCache) {
                 inflaterCache.add(inf);
             }
         }
+        */
+        ZStreamPool.releaseInflater(inf);
+        // END Android-changed: Pooled inflaters.
     }
 
+    // Android-removed: Pooled inflaters.
     // List of available Inflater objects for decompression
-    private Deque<Inflater> inflaterCache = new ArrayDeque<>();
+    // private Deque<Inflater> inflaterCache = new ArrayDeque<>();
 
     /**
      * Returns the path name of the ZIP file.
@@ -549,6 +637,12 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public boolean hasNext() {
+            // BEGIN Android-added: Memory-mapped central directory.
+            if (source != null) {
+                ensureOpen();
+                return i < total;
+            }
+            // END Android-added: Memory-mapped central directory.
             synchronized (ZipFile.this) {
                 ensureOpen();
                 return i < total;
@@ -560,6 +654,15 @@ class ZipFile implements ZipConstants, Closeable {
         }
 
         public ZipEntry next() {
+            // BEGIN Android-added: Memory-mapped central directory.
+            if (source != null) {
+                ensureOpen();
+                if (i >= total) {
+                    throw new NoSuchElementException();
+                }
+                return source.getZipEntry(source.getEntryPosAt(i++), null);
+            }
+            // END Android-added: Memory-mapped central directory.
             synchronized (ZipFile.this) {
                 ensureOpen();
                 if (i >= total) {
@@ -696,19 +799,20 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             // BEGIN Android-added: null field check to avoid NullPointerException during finalize.
             }
-
-            if (inflaterCache != null) {
             // END Android-added: null field check to avoid NullPointerException during finalize.
-                // Release cached inflaters
-                Inflater inf;
-                synchronized (inflaterCache) {
-                    while (null != (inf = inflaterCache.poll())) {
-                        inf.end();
-                    }
+
+            // BEGIN Android-removed: Pooled inflaters.
+            // Released inflaters go back to ZStreamPool rather than to a cache of this file's.
+            /*
+            // Release cached inflaters
+            Inflater inf;
+            synchronized (inflaterCache) {
+                while (null != (inf = inflaterCache.poll())) {
+                    inf.end();
                 }
-            // BEGIN Android-added: null field check to avoid NullPointerException during finalize.
             }
-            // END Android-added: null field check to avoid NullPointerException during finalize.
+            */
+            // END Android-removed: Pooled inflaters.
 
             if (jzfile != 0) {
                 // Close the zip file
@@ -717,6 +821,11 @@ class ZipFile implements ZipConstants, Closeable {
 
                 close(zf);
             }
+            // BEGIN Android-added: Memory-mapped central directory.
+            if (source != null) {
+                source.close();
+            }
+            // END Android-added: Memory-mapped central directory.
             // Android-added: Do not use unlink() to implement OPEN_DELETE.
             if (fileToRemoveOnClose != null) {
                 fileToRemoveOnClose.delete();
@@ -753,7 +862,9 @@ class ZipFile implements ZipConstants, Closeable {
             throw new IllegalStateException("zip file closed");
         }
 
-        if (jzfile == 0) {
+        // Android-changed: Memory-mapped central directory.
+        // if (jzfile == 0) {
+        if (jzfile == 0 && source == null) {
             throw new IllegalStateException("The object is not initialized.");
         }
     }
@@ -870,6 +981,557 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
+    // BEGIN Android-added: Memory-mapped central directory.
+    /**
+     * Returns a read-only buffer with the contents of a
+     * {@link ZipEntry#STORED} entry, or null if the entry isn't in this zip
+     * file.
+     *
+     * <p>If this zip file was opened with {@link #OPEN_MAPPED} the buffer is
+     * a view of the mapped file, so the contents aren't copied, and it remains
+     * valid after this zip file is closed. Otherwise the contents are read
+     * into a new buffer.
+     *
+     * @param entry the zip file entry
+     * @throws ZipException if the entry is compressed or if a ZIP format error
+     *         has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException if the zip file has been closed
+     * @hide
+     */
+    public ByteBuffer getStoredEntryBuffer(ZipEntry entry) throws IOException {
+        Objects.requireNonNull(entry, "entry");
+        if (source == null) {
+            ZipEntry ze = getEntry(entry.name);
+            if (ze == null) {
+                return null;
+            }
+            if (ze.method != STORED) {
+                throw new ZipException("entry is compressed: " + ze.name);
+            }
+            if (ze.size > Integer.MAX_VALUE) {
+                throw new ZipException("entry too large: " + ze.name);
+            }
+            byte[] contents = new byte[(int) ze.size];
+            try (InputStream in = getInputStream(ze)) {
+                int count = 0;
+                int n;
+                while (count < contents.length
+                        && (n = in.read(contents, count, contents.length - count)) > 0) {
+                    count += n;
+                }
+                if (count < contents.length) {
+                    throw new EOFException("Unexpected end of entry " + ze.name);
+                }
+            }
+            return ByteBuffer.wrap(contents).asReadOnlyBuffer();
+        }
+        ensureOpen();
+        int pos = source.getEntryPos(entry.name);
+        if (pos == -1) {
+            return null;
+        }
+        if (source.getEntryMethod(pos) != STORED) {
+            throw new ZipException("entry is compressed: " + entry.name);
+        }
+        long size = source.getEntryCSize(pos);
+        if (size > Integer.MAX_VALUE) {
+            throw new ZipException("entry too large: " + entry.name);
+        }
+        return source.region(source.getEntryDataOffset(pos), (int) size);
+    }
+
+    private InputStream getMappedInputStream(ZipEntry entry) throws IOException {
+        ensureOpen();
+        int pos = source.getEntryPos(entry.name);
+        if (pos == -1) {
+            return null;
+        }
+        MappedInputStream in = new MappedInputStream(source.getEntryDataOffset(pos),
+                source.getEntryCSize(pos));
+        switch (source.getEntryMethod(pos)) {
+        case STORED:
+            // The stream doesn't hold any resources, so it isn't tracked.
+            return in;
+        case DEFLATED:
+            long entrySize = source.getEntrySize(pos);
+            long size = entrySize + 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 65536;
+            if (size <= 0) size = 4096;
+            Inflater inf = getInflater();
+            InputStream is = new ZipFileInflaterInputStream(in, entrySize, inf, (int) size);
+            synchronized (streams) {
+                streams.put(is, inf);
+            }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
+        }
+    }
+
+    /*
+     * Reads the data of an entry from the mapped file. Each stream has its
+     * own view of the mapping, so reading doesn't take any locks.
+     */
+    private class MappedInputStream extends InputStream {
+        private long pos;        // offset in the file of the next byte
+        private long rem;        // number of remaining bytes within entry
+        private ByteBuffer window;
+
+        MappedInputStream(long pos, long rem) {
+            this.pos = pos;
+            this.rem = rem;
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            ensureOpenOrZipException();
+            if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (rem == 0) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (window == null || !window.hasRemaining()) {
+                window = source.region(pos, (int) Math.min(rem, MappedSource.MAX_WINDOW));
+            }
+            len = Math.min(len, window.remaining());
+            window.get(b, off, len);
+            pos += len;
+            rem -= len;
+            return len;
+        }
+
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            if (read(b, 0, 1) == 1) {
+                return b[0] & 0xff;
+            } else {
+                return -1;
+            }
+        }
+
+        public long skip(long n) {
+            if (n <= 0) {
+                return 0;
+            }
+            if (n > rem) {
+                n = rem;
+            }
+            pos += n;
+            rem -= n;
+            window = null;
+            return n;
+        }
+
+        public int available() {
+            return rem > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) rem;
+        }
+
+        public void close() {
+            rem = 0;
+            window = null;
+        }
+    }
+
+    /*
+     * The central directory of a zip file opened with OPEN_MAPPED, indexed by a
+     * hash table of entry names. All the state is set when the zip file is
+     * opened and only read afterwards, so it's safe to use from any thread.
+     */
+    private static final class MappedSource implements Closeable {
+        // The file is mapped in windows of up to 2 GiB that start every 1 GiB,
+        // so that any region of up to MAX_WINDOW bytes is in a single mapping.
+        private static final long MAPPING_STRIDE = 1L << 30;
+        static final int MAX_WINDOW = 1 << 29;
+
+        private static final int END_CHAIN = -1;
+
+        private final RandomAccessFile file;
+        private final long length;
+        private final ByteBuffer[] mappings;
+        private final ZipCoder zc;
+
+        private final ByteBuffer cen;        // the central directory, little-endian
+        private final long locAdjust;        // added to LOC offsets, for prefixed archives
+        private final byte[] comment;
+
+        private final int[] positions;       // the position in cen of each entry
+        private final int[] hashes;          // the hash of each entry name
+        private final int[] next;            // the next entry in the same bucket
+        private final int[] table;           // the first entry in each bucket
+
+        final int total;
+        final boolean locsig;
+
+        MappedSource(File f, ZipCoder zc) throws IOException {
+            this.zc = zc;
+            this.file = new RandomAccessFile(f, "r");
+            try {
+                FileChannel channel = file.getChannel();
+                length = channel.size();
+                if (length == 0) {
+                    throw new ZipException("zip file is empty");
+                }
+                mappings = new ByteBuffer[(int) ((length - 1) / MAPPING_STRIDE + 1)];
+                for (int i = 0; i < mappings.length; i++) {
+                    long start = i * MAPPING_STRIDE;
+                    mappings[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(length - start, Integer.MAX_VALUE));
+                }
+                locsig = length >= 4
+                        && region(0, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(0) == (int) LOCSIG;
+
+                // Find the END header, and the ZIP64 END header if there is one.
+                long endPos = findEnd();
+                ByteBuffer end = region(endPos, ENDHDR).order(ByteOrder.LITTLE_ENDIAN);
+                long cenSize = Integer.toUnsignedLong(end.getInt(ENDSIZ));
+                long cenOffset = Integer.toUnsignedLong(end.getInt(ENDOFF));
+                int expected = Short.toUnsignedInt(end.getShort(ENDTOT));
+                // Ignore the part of the comment that's past the end of the file.
+                int commentLength = (int) Math.min(Short.toUnsignedInt(end.getShort(ENDCOM)),
+                        length - endPos - ENDHDR);
+                comment = getBytes(region(endPos + ENDHDR, commentLength), 0, commentLength);
+                long cenEnd = endPos;
+                if ((cenSize == ZIP64_MAGICVAL || cenOffset == ZIP64_MAGICVAL
+                        || expected == ZIP64_MAGICCOUNT) && endPos >= ZIP64_LOCHDR) {
+                    ByteBuffer loc = region(endPos - ZIP64_LOCHDR, ZIP64_LOCHDR)
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    if (loc.getInt(0) == (int) ZIP64_LOCSIG) {
+                        long end64Pos = loc.getLong(ZIP64_LOCOFF);
+                        if (end64Pos < 0 || end64Pos > endPos - ZIP64_LOCHDR - ZIP64_ENDHDR) {
+                            throw new ZipException("invalid zip64 END header (bad offset)");
+                        }
+                        ByteBuffer end64 = region(end64Pos, ZIP64_ENDHDR)
+                                .order(ByteOrder.LITTLE_ENDIAN);
+                        if (end64.getInt(0) != (int) ZIP64_ENDSIG) {
+                            throw new ZipException("invalid zip64 END header (bad signature)");
+                        }
+                        cenSize = end64.getLong(ZIP64_ENDSIZ);
+                        cenOffset = end64.getLong(ZIP64_ENDOFF);
+                        expected = (int) Math.min(end64.getLong(ZIP64_ENDTOT), length / CENHDR);
+                        cenEnd = end64Pos;
+                    }
+                }
+                if (cenSize > cenEnd || cenSize > Integer.MAX_VALUE) {
+                    throw new ZipException("invalid END header (bad central directory size)");
+                }
+                // The archive may have been prefixed with other data, such as an
+                // executable stub, in which case all the offsets are shifted.
+                long cenPos = cenEnd - cenSize;
+                if (cenOffset > cenPos) {
+                    throw new ZipException(
+                            "invalid END header (bad central directory offset)");
+                }
+                locAdjust = cenPos - cenOffset;
+                cen = region(cenPos, (int) cenSize).order(ByteOrder.LITTLE_ENDIAN);
+
+                // Find the entries.
+                int[] positions = new int[Math.max(expected, 16)];
+                int count = 0;
+                int pos = 0;
+                while (pos + CENHDR <= cenSize) {
+                    if (cen.getInt(pos) != (int) CENSIG) {
+                        throw new ZipException("invalid CEN header (bad signature)");
+                    }
+                    int nlen = u16(pos + CENNAM);
+                    int elen = u16(pos + CENEXT);
+                    int clen = u16(pos + CENCOM);
+                    if (pos + CENHDR + nlen + elen + clen > cenSize) {
+                        throw new ZipException("invalid CEN header (bad header size)");
+                    }
+                    for (int i = pos + CENHDR; i < pos + CENHDR + nlen; i++) {
+                        if (cen.get(i) == 0) {
+                            throw new ZipException("invalid CEN header (bad entry name)");
+                        }
+                    }
+                    if (count == positions.length) {
+                        positions = Arrays.copyOf(positions, count * 2);
+                    }
+                    positions[count++] = pos;
+                    pos += CENHDR + nlen + elen + clen;
+                }
+                if (count == 0 && cenSize != 0) {
+                    throw new ZipException("invalid CEN header (bad header size)");
+                }
+                this.total = count;
+                this.positions = Arrays.copyOf(positions, count);
+
+                // Index the entry names.
+                hashes = new int[count];
+                next = new int[count];
+                table = new int[Integer.highestOneBit(Math.max(count, 1)) * 2];
+                Arrays.fill(table, END_CHAIN);
+                for (int i = 0; i < count; i++) {
+                    int entryPos = this.positions[i];
+                    int nlen = u16(entryPos + CENNAM);
+                    int hash = hash(entryPos + CENHDR, nlen);
+                    int bucket = hash & (table.length - 1);
+                    for (int j = table[bucket]; j != END_CHAIN; j = next[j]) {
+                        if (hashes[j] == hash && u16(this.positions[j] + CENNAM) == nlen
+                                && nameEquals(this.positions[j], entryPos + CENHDR, nlen)) {
+                            String name = decode(getBytes(cen, entryPos + CENHDR, nlen),
+                                    u16(entryPos + CENFLG));
+                            throw new ZipException("Duplicate entry name: " + name);
+                        }
+                    }
+                    hashes[i] = hash;
+                    next[i] = table[bucket];
+                    table[bucket] = i;
+                }
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e;
+            }
+        }
+
+        /*
+         * Returns the position of the END header, searching back from the end
+         * of the file over at most a maximal comment.
+         */
+        private long findEnd() throws IOException {
+            if (length < ENDHDR) {
+                throw new ZipException("zip file is too short");
+            }
+            long min = Math.max(0, length - ENDHDR - 0xFFFF);
+            ByteBuffer tail = region(min, (int) (length - min)).order(ByteOrder.LITTLE_ENDIAN);
+            for (int pos = tail.limit() - ENDHDR; pos >= 0; pos--) {
+                if (tail.getInt(pos) == (int) ENDSIG) {
+                    return min + pos;
+                }
+            }
+            throw new ZipException("zip END header not found");
+        }
+
+        /*
+         * Returns a view of the given region of the file. The view is big-endian
+         * and read-only.
+         */
+        ByteBuffer region(long offset, int size) throws IOException {
+            if (offset < 0 || size < 0 || offset > length - size) {
+                throw new ZipException("invalid entry offset or size");
+            }
+            int index = (int) (offset / MAPPING_STRIDE);
+            ByteBuffer mapping = mappings[index];
+            int start = (int) (offset - index * MAPPING_STRIDE);
+            if (size > mapping.capacity() - start) {
+                // Only a central directory larger than MAX_WINDOW can get here.
+                return file.getChannel().map(FileChannel.MapMode.READ_ONLY, offset, size);
+            }
+            ByteBuffer view = mapping.duplicate();
+            view.limit(start + size).position(start);
+            return view.slice();
+        }
+
+        String getComment() {
+            return comment.length == 0 ? null : decode(comment, 0);
+        }
+
+        int getFileDescriptor() {
+            try {
+                return file.getFD().getInt$();
+            } catch (IOException e) {
+                return -1;
+            }
+        }
+
+        int getEntryPosAt(int index) {
+            return positions[index];
+        }
+
+        /*
+         * Returns the position in cen of the entry with the given name, or with
+         * the name followed by '/', or -1 if there's no such entry.
+         */
+        int getEntryPos(String name) {
+            byte[] bytes = encode(name, false);
+            int pos = getEntryPos(bytes);
+            if (pos == -1 && !zc.isUTF8()) {
+                // The name of an entry with the EFS flag is encoded in UTF-8.
+                pos = getEntryPos(encode(name, true));
+            }
+            return pos;
+        }
+
+        private int getEntryPos(byte[] name) {
+            int hash = 0;
+            for (byte b : name) {
+                hash = 31 * hash + b;
+            }
+            int pos = lookup(name, hash, false);
+            if (pos == -1 && (name.length == 0 || name[name.length - 1] != '/')) {
+                pos = lookup(name, 31 * hash + '/', true);
+            }
+            return pos;
+        }
+
+        private int lookup(byte[] name, int hash, boolean addSlash) {
+            int nlen = name.length + (addSlash ? 1 : 0);
+            for (int i = table[hash & (table.length - 1)]; i != END_CHAIN; i = next[i]) {
+                int pos = positions[i];
+                if (hashes[i] != hash || u16(pos + CENNAM) != nlen) {
+                    continue;
+                }
+                int namePos = pos + CENHDR;
+                boolean equal = !addSlash || cen.get(namePos + nlen - 1) == '/';
+                for (int j = 0; equal && j < name.length; j++) {
+                    equal = cen.get(namePos + j) == name[j];
+                }
+                if (equal) {
+                    return pos;
+                }
+            }
+            return -1;
+        }
+
+        private boolean nameEquals(int pos, int namePos, int nlen) {
+            for (int i = 0; i < nlen; i++) {
+                if (cen.get(pos + CENHDR + i) != cen.get(namePos + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int hash(int namePos, int nlen) {
+            int hash = 0;
+            for (int i = namePos; i < namePos + nlen; i++) {
+                hash = 31 * hash + cen.get(i);
+            }
+            return hash;
+        }
+
+        ZipEntry getZipEntry(int pos, String name) {
+            ZipEntry e = new ZipEntry();
+            e.flag = u16(pos + CENFLG);
+            int nlen = u16(pos + CENNAM);
+            int elen = u16(pos + CENEXT);
+            int clen = u16(pos + CENCOM);
+            e.name = name != null ? name : decode(getBytes(cen, pos + CENHDR, nlen), e.flag);
+            e.xdostime = u32(pos + CENTIM);
+            e.crc = u32(pos + CENCRC);
+            e.size = getEntrySize(pos);
+            e.csize = getEntryCSize(pos);
+            e.method = u16(pos + CENHOW);
+            e.setExtra0(elen == 0 ? null : getBytes(cen, pos + CENHDR + nlen, elen), false);
+            e.comment = clen == 0
+                    ? null
+                    : decode(getBytes(cen, pos + CENHDR + nlen + elen, clen), e.flag);
+            return e;
+        }
+
+        int getEntryMethod(int pos) {
+            return u16(pos + CENHOW);
+        }
+
+        long getEntrySize(int pos) {
+            return getZip64Field(pos, CENLEN);
+        }
+
+        long getEntryCSize(int pos) {
+            return getZip64Field(pos, CENSIZ);
+        }
+
+        /*
+         * Returns the offset in the file of the data of the entry, after its
+         * LOC header.
+         */
+        long getEntryDataOffset(int pos) throws IOException {
+            long locPos = getZip64Field(pos, CENOFF) + locAdjust;
+            ByteBuffer loc = region(locPos, LOCHDR).order(ByteOrder.LITTLE_ENDIAN);
+            if (loc.getInt(0) != (int) LOCSIG) {
+                throw new ZipException("invalid LOC header (bad signature)");
+            }
+            return locPos + LOCHDR + Short.toUnsignedInt(loc.getShort(LOCNAM))
+                    + Short.toUnsignedInt(loc.getShort(LOCEXT));
+        }
+
+        /*
+         * Returns the CEN size, compressed size or LOC offset of an entry,
+         * reading it from the ZIP64 extra field if the CEN has the magic value.
+         */
+        private long getZip64Field(int pos, int field) {
+            long value = u32(pos + field);
+            if (value != ZIP64_MAGICVAL) {
+                return value;
+            }
+            int off = pos + CENHDR + u16(pos + CENNAM);
+            int end = off + u16(pos + CENEXT);
+            while (off + 4 <= end) {
+                int tag = u16(off);
+                int sz = u16(off + 2);
+                off += 4;
+                if (off + sz > end) {
+                    break;
+                }
+                if (tag == EXTID_ZIP64) {
+                    // The fields are in this order, and only present if the CEN
+                    // has the magic value for them.
+                    int fieldPos = off;
+                    for (int f : new int[] { CENLEN, CENSIZ, CENOFF }) {
+                        if (u32(pos + f) != ZIP64_MAGICVAL) {
+                            continue;
+                        }
+                        if (fieldPos + 8 > off + sz) {
+                            break;
+                        }
+                        if (f == field) {
+                            return cen.getLong(fieldPos);
+                        }
+                        fieldPos += 8;
+                    }
+                    break;
+                }
+                off += sz;
+            }
+            return value;
+        }
+
+        private int u16(int pos) {
+            return Short.toUnsignedInt(cen.getShort(pos));
+        }
+
+        private long u32(int pos) {
+            return Integer.toUnsignedLong(cen.getInt(pos));
+        }
+
+        private static byte[] getBytes(ByteBuffer buffer, int pos, int len) {
+            byte[] bytes = new byte[len];
+            ByteBuffer view = buffer.duplicate();
+            view.position(pos);
+            view.get(bytes);
+            return bytes;
+        }
+
+        // ZipCoder isn't thread safe, so it's only used for other charsets.
+        private String decode(byte[] bytes, int flag) {
+            if (zc.isUTF8() || (flag & EFS) != 0) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+            synchronized (zc) {
+                return zc.toString(bytes, bytes.length);
+            }
+        }
+
+        private byte[] encode(String s, boolean utf8) {
+            if (utf8 || zc.isUTF8()) {
+                return s.getBytes(StandardCharsets.UTF_8);
+            }
+            synchronized (zc) {
+                return zc.getBytes(s);
+            }
+        }
+
+        public void close() throws IOException {
+            // The mappings are released when they become unreachable, so that
+            // buffers returned by getStoredEntryBuffer remain valid.
+            file.close();
+        }
+    }
+    // END Android-added: Memory-mapped central directory.
+
     // Android-removed: Access startsWithLocHeader() directly.
     /*
     static {
@@ -900,6 +1562,10 @@ class ZipFile implements ZipConstants, Closeable {
     /** @hide */
     // @VisibleForTesting
     public int getFileDescriptor() {
+        // Android-added: Memory-mapped central directory.
+        if (source != null) {
+            return source.getFileDescriptor();
+        }
         return getFileDescriptor(jzfile);
     }
 
@@ -96,7 +96,9 @@ class ZipInputStream extends InflaterInputStream implements ZipConstants {
      * @since 1.7
      */
     public ZipInputStream(InputStream in, Charset charset) {
-        super(new PushbackInputStream(in, 512), new Inflater(true), 512);
+        // Android-changed: Pooled inflaters.
+        // super(new PushbackInputStream(in, 512), new Inflater(true), 512);
+        super(new PushbackInputStream(in, 512), true, 512);
         // Android-changed: Unconditionally close external inflaters (b/26462400)
         // usesDefaultInflater = true;
         if(in == null) {
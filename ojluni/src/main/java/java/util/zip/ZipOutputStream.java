@@ -132,7 +132,9 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      * @since 1.7
      */
     public ZipOutputStream(OutputStream out, Charset charset) {
-        super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        // Android-changed: Pooled deflaters.
+        // super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        super(out, ZStreamPool.acquireDeflater(Deflater.DEFAULT_COMPRESSION, true));
         if (charset == null)
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
@@ -175,7 +177,13 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      * @exception IllegalArgumentException if the compression level is invalid
      */
     public void setLevel(int level) {
-        def.setLevel(level);
+        // BEGIN Android-changed: Pooled deflaters.
+        // A closed stream has returned its deflater to ZStreamPool.
+        // def.setLevel(level);
+        if (def != null) {
+            def.setLevel(level);
+        }
+        // END Android-changed: Pooled deflaters.
     }
 
     /**
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2026 The Android Open Source Project
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  The Android Open Source
+ * Project designates this particular file as subject to the "Classpath"
+ * exception as provided by The Android Open Source Project in the LICENSE
+ * file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+package sun.nio.ch;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Sends and receives batches of datagrams on a {@link DatagramChannel} with
+ * a single recvmmsg(2) or sendmmsg(2) call each.
+ *
+ * @hide
+ */
+public final class DatagramBatch {
+
+    private DatagramBatch() {
+    }
+
+    /**
+     * Receives up to {@code length} datagrams with a single system call,
+     * storing datagram {@code i} into {@code dsts[offset + i]} and, if
+     * {@code senders} is non-null, its source address into
+     * {@code senders[offset + i]}. A datagram longer than the remaining space
+     * of its buffer is truncated, as with
+     * {@link DatagramChannel#receive(ByteBuffer)}.
+     *
+     * <p>In blocking mode this blocks until at least one datagram is available,
+     * then returns whatever further datagrams are already queued. Returns the
+     * number of datagrams received, which is 0 in non-blocking mode if none
+     * are available or if the channel is not bound.
+     *
+     * @throws IllegalArgumentException if the channel wasn't opened by the
+     *     default {@link java.nio.channels.spi.SelectorProvider}
+     */
+    public static int receive(DatagramChannel channel, ByteBuffer[] dsts,
+                              SocketAddress[] senders, int offset, int length)
+        throws IOException
+    {
+        return impl(channel).receive(dsts, senders, offset, length);
+    }
+
+    /**
+     * Sends the remaining bytes of each of {@code srcs[offset]} to
+     * {@code srcs[offset + length - 1]} as a separate datagram with a single
+     * system call. Datagram {@code i} is sent to {@code targets[offset + i]};
+     * if the channel is connected, {@code targets} may be null, and otherwise
+     * every target must equal the connected address.
+     *
+     * <p>Returns the number of datagrams sent, each of which advances the
+     * position of its buffer to its limit. In non-blocking mode this may be
+     * fewer than {@code length}.
+     *
+     * @throws IllegalArgumentException if the channel wasn't opened by the
+     *     default {@link java.nio.channels.spi.SelectorProvider}
+     */
+    public static int send(DatagramChannel channel, ByteBuffer[] srcs,
+                           SocketAddress[] targets, int offset, int length)
+        throws IOException
+    {
+        return impl(channel).send(srcs, targets, offset, length);
+    }
+
+    private static DatagramChannelImpl impl(DatagramChannel channel) {
+        if (!(channel instanceof DatagramChannelImpl))
+            throw new IllegalArgumentException("Unsupported channel: " + channel);
+        return (DatagramChannelImpl) channel;
+    }
+}
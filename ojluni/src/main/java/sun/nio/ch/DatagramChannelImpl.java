@@ -34,12 +34,17 @@ import java.nio.channels.*;
 import java.nio.channels.spi.*;
 import java.util.*;
 
+import android.system.ErrnoException;
 import dalvik.annotation.optimization.ReachabilitySensitive;
 import dalvik.system.BlockGuard;
 import dalvik.system.CloseGuard;
+import libcore.io.Libcore;
 import sun.net.ResourceManager;
 import sun.net.ExtendedOptionsImpl;
 
+import static android.system.OsConstants.EAGAIN;
+import static android.system.OsConstants.MSG_WAITFORONE;
+
 /**
  * An implementation of DatagramChannels.
  */
@@ -574,6 +579,134 @@ class DatagramChannelImpl
         return written;
     }
 
+    // BEGIN Android-added: Batched datagram I/O using recvmmsg(2) and sendmmsg(2).
+    // See DatagramBatch.receive().
+    int receive(ByteBuffer[] dsts, SocketAddress[] senders, int offset, int length)
+        throws IOException
+    {
+        Objects.checkFromIndexSize(offset, length, dsts.length);
+        if (senders != null)
+            Objects.checkFromIndexSize(offset, length, senders.length);
+        ByteBuffer[] buffers = new ByteBuffer[length];
+        for (int i = 0; i < length; i++) {
+            ByteBuffer dst = dsts[offset + i];
+            if (dst.isReadOnly())
+                throw new IllegalArgumentException("Read-only buffer");
+            buffers[i] = dst;
+        }
+        if (length == 0)
+            return 0;
+
+        synchronized (readLock) {
+            ensureOpen();
+            if (localAddress() == null)
+                return 0;
+            // There is no SecurityManager on Android, so unlike receive(ByteBuffer) no
+            // datagram needs to be checked and dropped after it is received.
+            InetSocketAddress[] sources = null;
+            if (senders != null) {
+                sources = new InetSocketAddress[length];
+                for (int i = 0; i < length; i++)
+                    sources[i] = new InetSocketAddress();
+            }
+            int n = 0;
+            try {
+                begin();
+                if (!isOpen())
+                    return 0;
+                readerThread = NativeThread.current();
+                // Libcore.os is a BlockGuardOs, which already reports the network access.
+                try {
+                    n = Libcore.os.recvmmsg(fd, buffers, MSG_WAITFORONE, sources);
+                } catch (ErrnoException e) {
+                    if (e.errno == EAGAIN) {
+                        n = IOStatus.UNAVAILABLE;
+                        return 0;
+                    }
+                    throw e.rethrowAsSocketException();
+                }
+                if (senders != null) {
+                    for (int i = 0; i < n; i++)
+                        senders[offset + i] = sources[i];
+                }
+                return n;
+            } finally {
+                readerThread = 0;
+                end((n > 0) || (n == IOStatus.UNAVAILABLE));
+            }
+        }
+    }
+
+    // See DatagramBatch.send().
+    int send(ByteBuffer[] srcs, SocketAddress[] targets, int offset, int length)
+        throws IOException
+    {
+        Objects.checkFromIndexSize(offset, length, srcs.length);
+        if (targets != null)
+            Objects.checkFromIndexSize(offset, length, targets.length);
+        ByteBuffer[] buffers = new ByteBuffer[length];
+        for (int i = 0; i < length; i++)
+            buffers[i] = Objects.requireNonNull(srcs[offset + i]);
+        if (length == 0)
+            return 0;
+
+        synchronized (writeLock) {
+            ensureOpen();
+            InetSocketAddress[] destinations = null;
+            synchronized (stateLock) {
+                if (isConnected()) {
+                    if (targets != null) {
+                        for (int i = 0; i < length; i++) {
+                            if (!remoteAddress.equals(targets[offset + i])) {
+                                throw new IllegalArgumentException(
+                                    "Connected address not equal to target address");
+                            }
+                        }
+                    }
+                } else {
+                    if (targets == null)
+                        throw new NullPointerException();
+                    destinations = new InetSocketAddress[length];
+                    for (int i = 0; i < length; i++) {
+                        InetSocketAddress isa = Net.checkAddress(targets[offset + i]);
+                        if (isa.getAddress() == null)
+                            throw new IOException("Target address not resolved");
+                        destinations[i] = isa;
+                    }
+                }
+            }
+
+            int n = 0;
+            try {
+                begin();
+                if (!isOpen())
+                    return 0;
+                writerThread = NativeThread.current();
+                // Libcore.os is a BlockGuardOs, which already reports the network access.
+                try {
+                    n = Libcore.os.sendmmsg(fd, buffers, 0, destinations);
+                } catch (ErrnoException e) {
+                    if (e.errno == EAGAIN) {
+                        n = IOStatus.UNAVAILABLE;
+                        return 0;
+                    }
+                    throw e.rethrowAsSocketException();
+                }
+
+                synchronized (stateLock) {
+                    if (isOpen() && (localAddress == null)) {
+                        localAddress = Net.localAddress(fd);
+                    }
+                }
+                return n;
+            } finally {
+                writerThread = 0;
+                end((n > 0) || (n == IOStatus.UNAVAILABLE));
+            }
+        }
+    }
+    // END Android-added: Batched datagram I/O using recvmmsg(2) and sendmmsg(2).
+
     public int read(ByteBuffer buf) throws IOException {
         if (buf == null)
             throw new NullPointerException();
@@ -27,6 +27,7 @@
 package sun.nio.ch;
 
 import android.system.ErrnoException;
+import android.system.Int64Ref;
 
 import java.io.FileDescriptor;
 import java.io.IOException;
@@ -55,6 +56,17 @@ import dalvik.system.CloseGuard;
 import sun.misc.Cleaner;
 import sun.security.action.GetPropertyAction;
 
+import static android.system.OsConstants.EAGAIN;
+import static android.system.OsConstants.EBADF;
+import static android.system.OsConstants.EINVAL;
+import static android.system.OsConstants.ENOSYS;
+import static android.system.OsConstants.EOPNOTSUPP;
+import static android.system.OsConstants.EPERM;
+import static android.system.OsConstants.ETXTBSY;
+import static android.system.OsConstants.EXDEV;
+import static android.system.OsConstants.SPLICE_F_MOVE;
+import static android.system.OsConstants.SPLICE_F_NONBLOCK;
+
 public class FileChannelImpl
     extends FileChannel
 {
@@ -545,6 +557,137 @@ public class FileChannelImpl
         }
     }
 
+    // BEGIN Android-added: In-kernel copies with copy_file_range(2) and splice(2).
+    // Assume that the kernel supports copy_file_range() and splice(); set these
+    // to false if we find out later that it doesn't. Failures that depend on the
+    // particular files, such as EXDEV across file systems on older kernels, only
+    // make that one transfer fall back to copying through a buffer.
+    private static volatile boolean copyFileRangeSupported = true;
+    private static volatile boolean spliceSupported = true;
+
+    private static boolean isFallbackErrno(int errno) {
+        // EPERM is what a seccomp filter that rejects the call returns; if
+        // it was about the files instead, the fallback copy reports it.
+        return errno == ENOSYS || errno == EXDEV || errno == EINVAL
+                || errno == EOPNOTSUPP || errno == EBADF || errno == ETXTBSY
+                || errno == EPERM;
+    }
+
+    // Copies up to count bytes with copy_file_range(), reading srcFD at srcOffset
+    // and writing dstFD at dstOffset or, if null, at dstFD's file position.
+    // Returns IOStatus.UNSUPPORTED_CASE if the caller should fall back.
+    private long copyFileRange(FileDescriptor srcFD, long srcOffset,
+                               FileDescriptor dstFD, Int64Ref dstOffset,
+                               long count)
+        throws IOException
+    {
+        if (!copyFileRangeSupported)
+            return IOStatus.UNSUPPORTED;
+        Int64Ref srcOff = new Int64Ref(srcOffset);
+        long copied = 0;
+        boolean completed = false;
+        int ti = -1;
+        try {
+            begin();
+            ti = threads.add();
+            if (!isOpen())
+                return -1;
+            while (copied < count) {
+                long n;
+                try {
+                    n = Libcore.os.copy_file_range(srcFD, srcOff, dstFD, dstOffset,
+                                                   count - copied, 0);
+                } catch (ErrnoException e) {
+                    if (copied > 0)
+                        break;
+                    if (e.errno == ENOSYS)
+                        copyFileRangeSupported = false;
+                    if (isFallbackErrno(e.errno))
+                        return IOStatus.UNSUPPORTED_CASE;
+                    throw e.rethrowAsIOException();
+                }
+                // Some kernels report 0 bytes for files whose size is not
+                // known up front, such as those in procfs; copy those by hand.
+                if (n == 0 && copied == 0)
+                    return IOStatus.UNSUPPORTED_CASE;
+                if (n == 0)
+                    break;
+                copied += n;
+            }
+            completed = true;
+            return copied;
+        } finally {
+            threads.remove(ti);
+            end(completed);
+        }
+    }
+
+    // Copies from this file to target, writing at target's file position.
+    private long transferToFileDirectly(long position, int icount,
+                                        FileChannelImpl target)
+        throws IOException
+    {
+        // copy_file_range() rejects O_APPEND targets.
+        if (target.append || icount == 0)
+            return IOStatus.UNSUPPORTED_CASE;
+        return copyFileRange(fd, position, target.fd, null, icount);
+    }
+
+    // Moves up to count bytes from the pipe src to this file with splice(),
+    // stopping at end of stream or, if src is non-blocking, when it is empty.
+    private long transferFromPipeDirectly(SourceChannelImpl src,
+                                          long position, long count)
+        throws IOException
+    {
+        if (!spliceSupported)
+            return IOStatus.UNSUPPORTED;
+        if (append || count == 0)
+            return IOStatus.UNSUPPORTED_CASE;
+        // Hold the pipe's read lock, as src.read() would, so that the
+        // spliced bytes aren't interleaved with those of another reader.
+        synchronized (src.readLock()) {
+            if (!src.isOpen())
+                throw new ClosedChannelException();
+            int flags = SPLICE_F_MOVE;
+            if (!src.isBlocking())
+                flags |= SPLICE_F_NONBLOCK;
+            Int64Ref off = new Int64Ref(position);
+            long moved = 0;
+            boolean completed = false;
+            int ti = -1;
+            try {
+                begin();
+                ti = threads.add();
+                if (!isOpen())
+                    return -1;
+                while (moved < count) {
+                    long n;
+                    try {
+                        n = Libcore.os.splice(src.getFD(), null, fd, off,
+                                              count - moved, flags);
+                    } catch (ErrnoException e) {
+                        if (e.errno == EAGAIN || moved > 0)
+                            break;
+                        if (e.errno == ENOSYS)
+                            spliceSupported = false;
+                        if (isFallbackErrno(e.errno))
+                            return IOStatus.UNSUPPORTED_CASE;
+                        throw e.rethrowAsIOException();
+                    }
+                    if (n == 0)
+                        break;
+                    moved += n;
+                }
+                completed = true;
+                return moved;
+            } finally {
+                threads.remove(ti);
+                end(completed);
+            }
+        }
+    }
+    // END Android-added: In-kernel copies with copy_file_range(2) and splice(2).
+
     // Maximum size to map when using a mapped buffer
     private static final long MAPPED_TRANSFER_SIZE = 8L*1024L*1024L;
 
@@ -655,6 +798,12 @@ public class FileChannelImpl
 
         long n;
 
+        // Android-added: Copy between files inside the kernel with copy_file_range().
+        if (target instanceof FileChannelImpl &&
+            (n = transferToFileDirectly(position, icount,
+                                        (FileChannelImpl)target)) >= 0)
+            return n;
+
         // Attempt a direct transfer, if the kernel supports it
         if ((n = transferToDirectly(position, icount, target)) >= 0)
             return n;
@@ -677,6 +826,16 @@ public class FileChannelImpl
             long pos = src.position();
             long max = Math.min(count, src.size() - pos);
 
+            // BEGIN Android-added: Copy inside the kernel with copy_file_range().
+            if (!append && max > 0) {
+                long n = copyFileRange(src.fd, pos, fd, new Int64Ref(position), max);
+                if (n >= 0) {
+                    src.position(pos + n);
+                    return n;
+                }
+            }
+            // END Android-added: Copy inside the kernel with copy_file_range().
+
             long remaining = max;
             long p = pos;
             while (remaining > 0L) {
@@ -758,6 +917,14 @@ public class FileChannelImpl
         if (src instanceof FileChannelImpl)
            return transferFromFileChannel((FileChannelImpl)src,
                                           position, count);
+        // BEGIN Android-added: Move data from a pipe inside the kernel with splice().
+        if (src instanceof SourceChannelImpl) {
+            long n = transferFromPipeDirectly((SourceChannelImpl)src,
+                                              position, count);
+            if (n >= 0)
+                return n;
+        }
+        // END Android-added: Move data from a pipe inside the kernel with splice().
 
         return transferFromArbitraryChannel(src, position, count);
     }
@@ -76,6 +76,11 @@ class SourceChannelImpl
         return fdVal;
     }
 
+    // Android-added: Let FileChannelImpl.transferFrom() splice from this pipe under its read lock.
+    Object readLock() {
+        return lock;
+    }
+
     SourceChannelImpl(SelectorProvider sp, FileDescriptor fd) {
         super(sp);
         this.fd = fd;
@@ -85,6 +85,9 @@ public class KXmlParser implements XmlPullParser, Closeable {
     static final private String ILLEGAL_TYPE = "Wrong event type";
     static final private int XML_DECLARATION = 998;
 
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final int MIN_BUFFER_SIZE = 256;
+
     // general
     private String location;
 
@@ -139,7 +142,8 @@ public class KXmlParser implements XmlPullParser, Closeable {
     private Reader reader;
     private String encoding;
     private ContentSource nextContentSource;
-    private char[] buffer = new char[8192];
+    private char[] buffer = new char[DEFAULT_BUFFER_SIZE];
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
     private int position = 0;
     private int limit = 0;
 
@@ -191,6 +195,31 @@ public class KXmlParser implements XmlPullParser, Closeable {
         this.keepNamespaceAttributes = true;
     }
 
+    /**
+     * Sets the size in characters of the read buffer, and for UTF-8 and ASCII
+     * streams the size in bytes of the input buffer. Larger buffers mean fewer
+     * reads from the underlying input. Takes effect on the next call to
+     * {@code setInput()}. The default is 8192.
+     */
+    public void setBufferSize(int size) {
+        if (size < MIN_BUFFER_SIZE) {
+            throw new IllegalArgumentException("size < " + MIN_BUFFER_SIZE + ": " + size);
+        }
+        this.bufferSize = size;
+    }
+
+    /**
+     * Replaces the read buffer if {@link #setBufferSize} changed its size. This
+     * discards any buffered characters.
+     */
+    private void resizeBuffer() {
+        if (buffer.length != bufferSize && nextContentSource == null) {
+            buffer = new char[bufferSize];
+            position = 0;
+            limit = 0;
+        }
+    }
+
     private boolean adjustNsp() throws XmlPullParserException {
         boolean any = false;
 
@@ -1603,6 +1632,11 @@ public class KXmlParser implements XmlPullParser, Closeable {
     //  public part starts here...
 
     public void setInput(Reader reader) throws XmlPullParserException {
+        resizeBuffer();
+        setInputInternal(reader);
+    }
+
+    private void setInputInternal(Reader reader) {
         this.reader = reader;
 
         type = START_DOCUMENT;
@@ -1628,6 +1662,7 @@ public class KXmlParser implements XmlPullParser, Closeable {
     }
 
     public void setInput(InputStream is, String charset) throws XmlPullParserException {
+        resizeBuffer();
         position = 0;
         limit = 0;
         boolean detectCharset = (charset == null);
@@ -1734,7 +1769,13 @@ public class KXmlParser implements XmlPullParser, Closeable {
             }
 
             int savedLimit = limit;
-            setInput(new InputStreamReader(is, charset));
+            if (charset.equalsIgnoreCase("UTF-8") || charset.equalsIgnoreCase("UTF8")) {
+                setInputInternal(new Utf8Reader(is, bufferSize, false));
+            } else if (charset.equalsIgnoreCase("US-ASCII") || charset.equalsIgnoreCase("ASCII")) {
+                setInputInternal(new Utf8Reader(is, bufferSize, true));
+            } else {
+                setInputInternal(new InputStreamReader(is, charset));
+            }
             encoding = charset;
             limit = savedLimit;
 
@@ -2111,6 +2152,158 @@ public class KXmlParser implements XmlPullParser, Closeable {
         }
     }
 
+    /**
+     * Decodes a UTF-8 or ASCII stream directly into the parser's read buffer,
+     * in place of an {@link InputStreamReader}. Markup is nearly always ASCII,
+     * and runs of ASCII bytes are widened to chars in a tight loop instead of
+     * going through a {@code CharsetDecoder} and its intermediate buffers.
+     * Like {@code InputStreamReader}, malformed input is replaced with U+FFFD.
+     */
+    static final class Utf8Reader extends Reader {
+        private static final char REPLACEMENT = '\ufffd';
+
+        private final InputStream in;
+        private final boolean ascii;
+        private final byte[] bytes;
+        private int position;
+        private int limit;
+
+        /** The low surrogate of a code point that didn't fit in the last read, or 0. */
+        private char pendingLowSurrogate;
+
+        Utf8Reader(InputStream in, int bufferSize, boolean ascii) {
+            this.in = in;
+            this.ascii = ascii;
+            this.bytes = new byte[bufferSize];
+        }
+
+        @Override public int read(char[] chars, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int out = offset;
+            int outLimit = offset + length;
+            if (pendingLowSurrogate != 0) {
+                chars[out++] = pendingLowSurrogate;
+                pendingLowSurrogate = 0;
+            }
+            if (position == limit && out == offset && !fill(1)) {
+                return -1;
+            }
+
+            byte[] bytes = this.bytes;
+            int p = position;
+            while (out < outLimit && p < limit) {
+                // Copy a run of ASCII.
+                int end = p + Math.min(outLimit - out, limit - p);
+                while (p < end && bytes[p] >= 0) {
+                    chars[out++] = (char) bytes[p++];
+                }
+                if (p == end) {
+                    continue;
+                }
+
+                int b = bytes[p] & 0xff;
+                int extraBytes;
+                int codePoint;
+                int minCodePoint;
+                if (ascii) {
+                    chars[out++] = REPLACEMENT;
+                    p++;
+                    continue;
+                } else if (b >= 0xc2 && b <= 0xdf) {
+                    extraBytes = 1;
+                    codePoint = b & 0x1f;
+                    minCodePoint = 0x80;
+                } else if (b >= 0xe0 && b <= 0xef) {
+                    extraBytes = 2;
+                    codePoint = b & 0x0f;
+                    minCodePoint = 0x800;
+                } else if (b >= 0xf0 && b <= 0xf4) {
+                    extraBytes = 3;
+                    codePoint = b & 0x07;
+                    minCodePoint = 0x10000;
+                } else {
+                    chars[out++] = REPLACEMENT;
+                    p++;
+                    continue;
+                }
+
+                if (limit - p <= extraBytes) {
+                    // The sequence continues past the bytes read so far. Return
+                    // what has been decoded, or read more if that's nothing.
+                    if (out > offset) {
+                        break;
+                    }
+                    position = p;
+                    boolean complete = fill(extraBytes + 1);
+                    p = position;
+                    if (!complete) {
+                        chars[out++] = REPLACEMENT;
+                        p++;
+                    }
+                    continue;
+                }
+
+                boolean valid = true;
+                for (int i = 1; i <= extraBytes; i++) {
+                    int c = bytes[p + i];
+                    if ((c & 0xc0) != 0x80) {
+                        valid = false;
+                        break;
+                    }
+                    codePoint = (codePoint << 6) | (c & 0x3f);
+                }
+                if (!valid || codePoint < minCodePoint || codePoint > Character.MAX_CODE_POINT
+                        || (codePoint >= Character.MIN_SURROGATE
+                                && codePoint <= Character.MAX_SURROGATE)) {
+                    chars[out++] = REPLACEMENT;
+                    p++;
+                    continue;
+                }
+
+                p += extraBytes + 1;
+                if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    chars[out++] = (char) codePoint;
+                } else {
+                    chars[out++] = Character.highSurrogate(codePoint);
+                    if (out < outLimit) {
+                        chars[out++] = Character.lowSurrogate(codePoint);
+                    } else {
+                        pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                    }
+                }
+            }
+            position = p;
+            return out - offset;
+        }
+
+        /**
+         * Moves the unread bytes to the start of the buffer and reads until at
+         * least {@code minimum} bytes are available. Returns false if the stream
+         * ends first.
+         */
+        private boolean fill(int minimum) throws IOException {
+            if (position != limit) {
+                System.arraycopy(bytes, position, bytes, 0, limit - position);
+            }
+            limit -= position;
+            position = 0;
+            while (limit < minimum) {
+                int count = in.read(bytes, limit, bytes.length - limit);
+                if (count == -1) {
+                    return false;
+                }
+                limit += count;
+            }
+            return true;
+        }
+
+        @Override public void close() throws IOException {
+            in.close();
+        }
+    }
+
     /**
      * A chain of buffers containing XML content. Each content source contains
      * the parser's primary read buffer or the characters of entities actively